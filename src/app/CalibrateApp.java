@@ -0,0 +1,50 @@
+package app;
+
+import sim.CalibratedBoardGenerator;
+import sim.CalibrationReport;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Generates boards whose evaluator score lies in a band (for ranked play) and optionally writes
+ * the accepted seeds, one "seed score" pair per line. The evaluator's gap to search is measured on
+ * the first gapSample accepted boards, with gapTurnMillis of search per turn (gapSample=0 skips it).
+ *
+ * Usage: java app.CalibrateApp [minScore=42] [maxScore=48] [boards=1000] [maxAttempts=1000000]
+ *        [budgetMillis=0 (none)] [strategy=greedy] [threads=all cores] [firstSeed=1]
+ *        [outFile ("-" for none)] [gapSample=10] [gapTurnMillis=500]
+ */
+public class CalibrateApp {
+    public static void main(String[] args) throws InterruptedException, IOException {
+
+        int minScore = args.length > 0 ? Integer.parseInt(args[0]) : 42;
+        int maxScore = args.length > 1 ? Integer.parseInt(args[1]) : 48;
+        int boards = args.length > 2 ? Integer.parseInt(args[2]) : 1000;
+        long maxAttempts = args.length > 3 ? Long.parseLong(args[3]) : 1_000_000;
+        long budgetMillis = args.length > 4 ? Long.parseLong(args[4]) : 0;
+        String strategy = args.length > 5 ? args[5] : "greedy";
+        int threads = args.length > 6 ? Integer.parseInt(args[6]) : Runtime.getRuntime().availableProcessors();
+        long firstSeed = args.length > 7 ? Long.parseLong(args[7]) : 1;
+        String outFile = args.length > 8 && !args[8].equals("-") ? args[8] : null;
+        int gapSample = args.length > 9 ? Integer.parseInt(args[9]) : 10;
+        long gapTurnMillis = args.length > 10 ? Long.parseLong(args[10]) : 500;
+
+        CalibratedBoardGenerator generator = new CalibratedBoardGenerator(strategy, minScore, maxScore, threads);
+        CalibrationReport report = generator.generate(firstSeed, boards, maxAttempts, budgetMillis,
+                gapSample, gapTurnMillis);
+        System.out.println(report);
+
+        if (outFile != null) {
+            long[] seeds = report.getSeeds();
+            int[] scores = report.getScores();
+            List<String> lines = new ArrayList<>(seeds.length);
+            for (int i = 0; i < seeds.length; i++) lines.add(seeds[i] + " " + scores[i]);
+            Files.write(Path.of(outFile), lines);
+            System.out.println(seeds.length + " seeds written to " + outFile);
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package app;
+
+import puzzle.HeadlessGame;
+import sim.GameRunner;
+import sim.Strategies;
+import sim.Strategy;
+import sim.TurnColumn;
+import sim.TurnRecordReader;
+import sim.TurnRecordWriter;
+import tools.ToolKind;
+
+import java.nio.file.Path;
+
+/**
+ * Simulates games and exports every turn to a column file, then streams two columns back
+ * to report how often BoxFixer wasted a turn.
+ *
+ * Usage: java app.ExportApp [file=turns.bptr] [strategy=greedy] [games=10000] [firstSeed=1]
+ */
+public class ExportApp {
+    public static void main(String[] args) throws Exception {
+
+        Path file = Path.of(args.length > 0 ? args[0] : "turns.bptr");
+        Strategy strategy = Strategies.byName(args.length > 1 ? args[1] : "greedy");
+        long games = args.length > 2 ? Long.parseLong(args[2]) : 10_000;
+        long firstSeed = args.length > 3 ? Long.parseLong(args[3]) : 1;
+
+        long start = System.nanoTime();
+        try (TurnRecordWriter writer = new TurnRecordWriter(file)) {
+            for (long seed = firstSeed; seed < firstSeed + games; seed++) {
+                GameRunner.play(strategy, HeadlessGame.fromSeed(seed), seed, writer);
+            }
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("%d games exported to %s in %.2f s (%.0f games/s)%n", games, file, seconds, games / seconds);
+
+        try (TurnRecordReader reader = new TurnRecordReader(file)) {
+            long records = reader.countRecords();
+            long[] fixerUses = {0};
+            long[] fixerWasted = {0};
+            reader.scan(TurnColumn.TOOL_KIND, TurnColumn.FAILURE, (kind, failure) -> {
+                if (kind == ToolKind.BOX_FIXER.ordinal()) {
+                    fixerUses[0]++;
+                    if (failure != 0) fixerWasted[0]++;
+                }
+            });
+            System.out.printf("%d turns; BoxFixer opened %d times, wasted %d (%.1f%%)%n", records, fixerUses[0],
+                    fixerWasted[0], fixerUses[0] == 0 ? 0.0 : 100.0 * fixerWasted[0] / fixerUses[0]);
+        }
+    }
+}
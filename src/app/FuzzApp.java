@@ -0,0 +1,58 @@
+package app;
+
+import fuzz.DifferentialFuzzer;
+import fuzz.FuzzCase;
+import fuzz.FuzzReport;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Differential fuzzing of the alternative engines against the object engine, or replay of saved cases.
+ *
+ * Usage: java app.FuzzApp [engines=persistent,batch] [cases=100000] [threads=all cores] [firstSeed=1] [outFile]
+ *        java app.FuzzApp replay file
+ *
+ * Failing cases are printed and, if outFile is given, written there ("#" lines describe the divergence).
+ */
+public class FuzzApp {
+    public static void main(String[] args) throws InterruptedException, IOException {
+
+        if (args.length > 1 && args[0].equals("replay")) {
+            int failing = 0;
+            for (String line : Files.readAllLines(Path.of(args[1]))) {
+                if (line.isBlank() || line.startsWith("#")) continue;
+                String divergence = DifferentialFuzzer.replay(FuzzCase.parse(line));
+                System.out.println((divergence == null ? "OK    " : "FAIL  ") + line);
+                if (divergence != null) {
+                    System.out.println("      " + divergence);
+                    failing++;
+                }
+            }
+            System.out.println(failing + " failing case(s)");
+            return;
+        }
+
+        List<String> engines = Arrays.asList((args.length > 0 ? args[0] : "persistent,batch").split(","));
+        long cases = args.length > 1 ? Long.parseLong(args[1]) : 100_000;
+        int threads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+        long firstSeed = args.length > 3 ? Long.parseLong(args[3]) : 1;
+
+        FuzzReport report = new DifferentialFuzzer(engines, threads).run(firstSeed, cases);
+        System.out.println(report);
+
+        if (args.length > 4 && !report.getFailures().isEmpty()) {
+            List<String> lines = new ArrayList<>();
+            for (int i = 0; i < report.getFailures().size(); i++) {
+                lines.add("# " + report.getReasons().get(i));
+                lines.add(report.getFailures().get(i).toLine());
+            }
+            Files.write(Path.of(args[4]), lines);
+            System.out.println("Failing cases written to " + args[4]);
+        }
+    }
+}
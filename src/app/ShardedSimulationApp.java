@@ -0,0 +1,35 @@
+package app;
+
+import sim.ShardCoordinator;
+import sim.ShardRunReport;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Runs a simulation across several worker JVMs and prints the merged aggregate.
+ *
+ * Usage: java app.ShardedSimulationApp [strategy=greedy] [games=100000] [shards=all cores] [firstSeed=1]
+ *        [workDir=shards] [checkpointEvery=1000] [crashAfter=0 (off)]
+ *
+ * Workers are started with -Xmx256m. Re-running with the same parameters reuses finished shard files,
+ * so delete the work directory to simulate again.
+ */
+public class ShardedSimulationApp {
+    public static void main(String[] args) throws IOException, InterruptedException {
+
+        String strategy = args.length > 0 ? args[0] : "greedy";
+        long games = args.length > 1 ? Long.parseLong(args[1]) : 100_000;
+        int shards = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+        long firstSeed = args.length > 3 ? Long.parseLong(args[3]) : 1;
+        Path workDir = Path.of(args.length > 4 ? args[4] : "shards");
+        int checkpointEvery = args.length > 5 ? Integer.parseInt(args[5]) : ShardCoordinator.DEFAULT_CHECKPOINT_EVERY;
+        long crashAfter = args.length > 6 ? Long.parseLong(args[6]) : 0;
+
+        ShardCoordinator coordinator = new ShardCoordinator(strategy, firstSeed, games, shards, workDir,
+                List.of("-Xmx256m"));
+        ShardRunReport report = coordinator.run(checkpointEvery, crashAfter);
+        System.out.println(report);
+    }
+}
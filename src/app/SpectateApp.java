@@ -0,0 +1,169 @@
+package app;
+
+import grid.BoxGrid;
+import puzzle.HeadlessGame;
+import sim.GreedyStrategy;
+import sim.Strategy;
+import spectator.SpectatorFrames;
+import spectator.SpectatorHub;
+import spectator.SpectatorServer;
+import spectator.SpectatorView;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Plays greedy games on one table while local TCP watchers follow them through a SpectatorHub.
+ * Fast watchers join before the first game; slow ones (sleeping after every frame) join halfway,
+ * so they start with a keyframe and then fall behind and skip frames. At the end every watcher's view
+ * is checked against the final board, and the bytes sent are compared with sending toPrettyString()
+ * to every watcher after every stage.
+ *
+ * Usage: java app.SpectateApp [games=50] [watchers=100] [slowWatchers=10] [slowMillis=5]
+ *        [queueCapacity=4] [turnMillis=2]
+ */
+public class SpectateApp {
+    public static void main(String[] args) throws IOException, InterruptedException {
+
+        int games = args.length > 0 ? Integer.parseInt(args[0]) : 50;
+        int watchers = args.length > 1 ? Integer.parseInt(args[1]) : 100;
+        int slowWatchers = args.length > 2 ? Integer.parseInt(args[2]) : 10;
+        long slowMillis = args.length > 3 ? Long.parseLong(args[3]) : 5;
+        int queueCapacity = args.length > 4 ? Integer.parseInt(args[4]) : 4;
+        long turnMillis = args.length > 5 ? Long.parseLong(args[5]) : 2;
+
+        SpectatorHub hub = new SpectatorHub(queueCapacity);
+        SpectatorServer server = new SpectatorServer(hub, 0);
+        List<Watcher> all = new ArrayList<>();
+        for (int i = 0; i < watchers; i++) {
+            all.add(Watcher.connect(server.getPort(), 0));
+        }
+        awaitWatchers(hub, watchers);
+
+        Strategy strategy = new GreedyStrategy();
+        long prettyBytes = 0;
+        int stages = 0;
+        int slowJoinStage = 0;
+        HeadlessGame game = null;
+        long start = System.nanoTime();
+        for (int g = 0; g < games; g++) {
+            if (g == games / 2) {
+                for (int i = 0; i < slowWatchers; i++) {
+                    all.add(Watcher.connect(server.getPort(), slowMillis));
+                }
+                awaitWatchers(hub, watchers + slowWatchers);
+                slowJoinStage = stages;
+            }
+
+            game = HeadlessGame.fromSeed(g);
+            hub.follow(game.getGrid(), game.getTargetLetter());
+            Random random = new Random(g);
+            while (!game.isOver()) {
+                game.playTurn(strategy.chooseTurn(new HeadlessGame(game), random));
+                stages += 2;
+                prettyBytes += 2L * game.getGrid().toPrettyString().length(); // what a text broadcast would send per watcher
+                if (turnMillis > 0) Thread.sleep(turnMillis);
+            }
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        // Let every watcher catch up with the last frame, then compare its view with the final board
+        int last = hub.getSequence();
+        int mismatches = 0;
+        long received = 0;
+        long keyframes = 0;
+        for (Watcher w : all) {
+            if (!w.awaitSequence(last, 10_000)) {
+                throw new IllegalStateException("A watcher did not catch up with frame " + last);
+            }
+            if (!w.matches(game.getGrid())) mismatches++;
+            received += w.bytes;
+            keyframes += w.view.getKeyframes();
+        }
+        server.close();
+        hub.close();
+
+        int total = all.size();
+        System.out.printf("%d games, %d stages in %.2f s; %d frames encoded (%d bytes), shared by %d watchers%n",
+                games, stages, seconds, hub.getFrames(), hub.getFrameBytes(), total);
+        System.out.printf("sent %d bytes in total (%.1f per watcher per stage), %d keyframes%n",
+                received, (double) received / total / stages, keyframes);
+        System.out.printf("toPrettyString to every watcher after every stage: %d bytes (%.0fx)%n",
+                prettyBytes * total, (double) prettyBytes * total / received);
+        long slowDeltas = 0;
+        for (Watcher w : all.subList(watchers, total)) slowDeltas += w.view.getDeltas();
+        if (slowWatchers > 0) {
+            System.out.printf("slow watchers applied %.1f deltas each (of %d stages after joining)%n",
+                    (double) slowDeltas / slowWatchers, stages - slowJoinStage);
+        }
+        System.out.println(mismatches == 0 ? "All watchers show the final board." : mismatches + " watchers are wrong!");
+    }
+
+    private static void awaitWatchers(SpectatorHub hub, int count) throws InterruptedException {
+        while (hub.getWatcherCount() < count) {
+            Thread.sleep(1);
+        }
+    }
+
+    /**
+     * A spectator client: reads frames from its socket into a SpectatorView.
+     */
+    private static final class Watcher implements Runnable {
+
+        private final Socket socket;
+        private final long sleepMillis;
+        private final SpectatorView view = new SpectatorView();
+        private long bytes;
+
+        private Watcher(Socket socket, long sleepMillis) {
+            this.socket = socket;
+            this.sleepMillis = sleepMillis;
+        }
+
+        static Watcher connect(int port, long sleepMillis) throws IOException {
+            Watcher w = new Watcher(new Socket(InetAddress.getLoopbackAddress(), port), sleepMillis);
+            Thread t = new Thread(w, "watcher");
+            t.setDaemon(true);
+            t.start();
+            return w;
+        }
+
+        @Override
+        public void run() {
+            try (socket) {
+                DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+                byte[] frame;
+                while ((frame = SpectatorFrames.read(in)) != null) {
+                    synchronized (this) {
+                        view.apply(frame);
+                        bytes += 2 + frame.length;
+                        notifyAll();
+                    }
+                    if (sleepMillis > 0) Thread.sleep(sleepMillis);
+                }
+            } catch (IOException | InterruptedException e) {
+                // closed at the end of the run
+            }
+        }
+
+        synchronized boolean awaitSequence(int sequence, long timeoutMillis) throws InterruptedException {
+            long deadline = System.currentTimeMillis() + timeoutMillis;
+            while (view.getSequence() != sequence) {
+                long left = deadline - System.currentTimeMillis();
+                if (left <= 0) return false;
+                wait(left);
+            }
+            return true;
+        }
+
+        synchronized boolean matches(BoxGrid grid) {
+            return view.matches(grid);
+        }
+    }
+}
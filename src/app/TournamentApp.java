@@ -0,0 +1,46 @@
+package app;
+
+import sim.Strategies;
+import sim.Strategy;
+import sim.Tournament;
+import storage.OpeningBook;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Command-line tournament between bot strategies.
+ *
+ * Usage: java app.TournamentApp [strategies=random,greedy] [games=1000] [threads=all cores] [firstSeed=1] [openingBook]
+ *
+ * Available strategies: see Strategies.names(). "search" is slow on the first turn unless an
+ * opening book file is given; the book is created or extended and saved at the end.
+ */
+public class TournamentApp {
+    public static void main(String[] args) throws InterruptedException, IOException {
+
+        String names = args.length > 0 ? args[0] : "random,greedy";
+        long games = args.length > 1 ? Long.parseLong(args[1]) : 1000;
+        int threads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+        long firstSeed = args.length > 3 ? Long.parseLong(args[3]) : 1;
+        OpeningBook book = args.length > 4 ? OpeningBook.open(Path.of(args[4]), 4096) : null;
+
+        try {
+            List<Strategy> strategies = new ArrayList<>();
+            for (String name : names.split(",")) {
+                strategies.add(Strategies.byName(name, book));
+            }
+
+            Tournament tournament = new Tournament(strategies, firstSeed, games, threads);
+            System.out.println(tournament.run());
+        } finally {
+            if (book != null) {
+                book.close();
+                System.out.println("Opening book: " + book.size() + " boards, " + book.getHits() + " hits, "
+                        + book.getMisses() + " misses");
+            }
+        }
+    }
+}
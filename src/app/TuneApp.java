@@ -0,0 +1,49 @@
+package app;
+
+import search.FeatureEvaluator;
+import sim.GreedyStrategy;
+import sim.SelfPlayTuner;
+
+import java.util.Arrays;
+
+/**
+ * Tunes the FeatureEvaluator weights by self-play on one seed range, then compares greedy, the default
+ * weights and the tuned weights on the following seeds (which the tuner never saw).
+ *
+ * Usage: java app.TuneApp [seeds=400] [validationSeeds=1000] [step=0.5] [minStep=0.125]
+ *        [threads=all cores] [firstSeed=0] [start=default|zero]
+ * "zero" starts from the bare score (all other weights 0).
+ */
+public class TuneApp {
+    public static void main(String[] args) throws InterruptedException {
+
+        int seeds = args.length > 0 ? Integer.parseInt(args[0]) : 400;
+        int validationSeeds = args.length > 1 ? Integer.parseInt(args[1]) : 1000;
+        double step = args.length > 2 ? Double.parseDouble(args[2]) : 0.5;
+        double minStep = args.length > 3 ? Double.parseDouble(args[3]) : 0.125;
+        int threads = args.length > 4 ? Integer.parseInt(args[4]) : Runtime.getRuntime().availableProcessors();
+        long firstSeed = args.length > 5 ? Long.parseLong(args[5]) : 0;
+        boolean zero = args.length > 6 && args[6].equalsIgnoreCase("zero");
+
+        double[] start = FeatureEvaluator.defaultWeights();
+        if (zero) {
+            Arrays.fill(start, 0);
+            start[FeatureEvaluator.SCORE] = 1;
+        }
+
+        System.out.println("Tuning on seeds " + firstSeed + ".." + (firstSeed + seeds - 1) + " from " + Arrays.toString(start));
+        SelfPlayTuner tuner = new SelfPlayTuner(firstSeed, seeds, threads);
+        SelfPlayTuner.Result result = tuner.tune(start, step, minStep, System.out::println);
+        System.out.printf("fitness %.4f -> %.4f after %d evaluations in %.1f s%n", result.getStartFitness(),
+                result.getFitness(), result.getEvaluations(), result.getElapsedNanos() / 1e9);
+        for (int i = 0; i < FeatureEvaluator.FEATURES; i++) {
+            System.out.printf("  %-13s %.3f%n", FeatureEvaluator.featureName(i), result.getWeights()[i]);
+        }
+
+        SelfPlayTuner validation = new SelfPlayTuner(firstSeed + seeds, validationSeeds, threads);
+        System.out.println("Validation on " + validationSeeds + " other seeds (mean final score):");
+        System.out.printf("  greedy          %.4f%n", validation.meanScore(new GreedyStrategy()));
+        System.out.printf("  eval (start)    %.4f%n", validation.fitness(start));
+        System.out.printf("  eval (tuned)    %.4f%n", validation.fitness(result.getWeights()));
+    }
+}
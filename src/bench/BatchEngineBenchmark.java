@@ -0,0 +1,227 @@
+package bench;
+
+import engine.BatchEngine;
+import grid.BoxGrid;
+import grid.CellCodec;
+import grid.Direction;
+import grid.EdgeRollDeltas;
+import grid.Position;
+import puzzle.BoardGenerator;
+import puzzle.BoxPuzzle;
+import puzzle.HeadlessGame;
+import puzzle.TurnAction;
+import util.UnsharedRandom;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Plays the same seeded games with the same random actions one at a time on HeadlessGame (BoxGrid)
+ * and K at a time on the lockstep BatchEngine. First checks that every turn outcome and every final board
+ * match, then compares games per second. Boards are generated up front (packed); the timed part is
+ * loading them (CellCodec.decode for the object engine), drawing the actions and playing. After a warm-up
+ * round, both engines are timed in interleaved rounds (alternating which goes first) and the median is reported.
+ *
+ * Actions: each game draws from its own UnsharedRandom(seed) per turn a roll option (0..31, so FixedBox
+ * edges are chosen too), a box of the rolled run and a tool target cell.
+ *
+ * Usage: java bench.BatchEngineBenchmark [games=100000] [K=1024] [checkedGames=20000] [rounds=9]
+ */
+public final class BatchEngineBenchmark {
+
+    private static final int N = BoxGrid.SIZE;
+
+    private BatchEngineBenchmark() {
+    }
+
+    public static void main(String[] args) {
+        int games = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        int k = args.length > 1 ? Integer.parseInt(args[1]) : 1024;
+        int checked = args.length > 2 ? Integer.parseInt(args[2]) : 20_000;
+        int rounds = args.length > 3 ? Integer.parseInt(args[3]) : 9;
+
+        check(checked, k);
+        System.out.println(checked + " games checked turn by turn: batch engine matches BoxGrid.");
+
+        int[][] boards = new int[games][N * N];
+        char[] targets = new char[games];
+        for (int i = 0; i < games; i++) {
+            BoardGenerator generator = new BoardGenerator(i);
+            targets[i] = generator.randomTargetLetter();
+            generator.fillPacked(boards[i]);
+        }
+
+        int objectGames = Math.min(games, 50_000);
+        BatchEngine engine = new BatchEngine(k);
+        long sink = playObjects(boards, targets, objectGames) + playBatches(engine, boards, targets, games);
+        double[] objectRates = new double[rounds];
+        double[] batchRates = new double[rounds];
+        for (int round = 0; round < rounds; round++) {
+            for (int i = 0; i < 2; i++) {
+                long start = System.nanoTime();
+                if ((round + i) % 2 == 0) {
+                    sink += playObjects(boards, targets, objectGames);
+                    objectRates[round] = objectGames / ((System.nanoTime() - start) / 1e9);
+                } else {
+                    sink += playBatches(engine, boards, targets, games);
+                    batchRates[round] = games / ((System.nanoTime() - start) / 1e9);
+                }
+            }
+        }
+
+        double objectRate = median(objectRates);
+        double batchRate = median(batchRates);
+        System.out.printf("objects: %.0f games/s (median of %d rounds)%n", objectRate, rounds);
+        System.out.printf("batch:   %.0f games/s with K=%d (%.1fx)%n", batchRate, k, batchRate / objectRate);
+        System.out.println("checksum " + sink);
+    }
+
+    private static double median(double[] values) {
+        double[] sorted = values.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2];
+    }
+
+    // -------------------------
+    // One game at a time
+    // -------------------------
+
+    private static long playObjects(int[][] boards, char[] targets, int games) {
+        long sum = 0;
+        for (int seed = 0; seed < games; seed++) {
+            HeadlessGame game = new HeadlessGame(CellCodec.decode(boards[seed]), targets[seed]);
+            Random random = new UnsharedRandom(seed);
+            while (!game.isOver()) {
+                game.playTurn(nextAction(game, random));
+            }
+            sum += game.finalScore();
+        }
+        return sum;
+    }
+
+    private static TurnAction nextAction(HeadlessGame game, Random random) {
+        int option = random.nextInt(EdgeRollDeltas.OPTIONS);
+        Position edge = EdgeRollDeltas.edgeOf(option);
+        Direction d = EdgeRollDeltas.directionOf(option);
+        int run = game.getGrid().runLength(edge, d);
+        int distance = run > 0 ? random.nextInt(run) : 0;
+        int target = random.nextInt(N * N);
+
+        Position open = edge;
+        for (int i = 0; i < distance; i++) open = open.move(d);
+        return new TurnAction(edge, d, open, new Position(target / N + 1, target % N + 1));
+    }
+
+    // -------------------------
+    // K games in lockstep
+    // -------------------------
+
+    private static long playBatches(BatchEngine engine, int[][] boards, char[] targets, int games) {
+        int k = engine.size();
+        int[] options = new int[k];
+        int[] distances = new int[k];
+        int[] toolTargets = new int[k];
+        int[] scores = new int[k];
+        Random[] randoms = new Random[k];
+        long sum = 0;
+
+        for (int from = 0; from < games; from += k) {
+            int batch = Math.min(k, games - from);
+            for (int b = 0; b < batch; b++) {
+                engine.load(b, boards[from + b], targets[from + b]);
+                randoms[b] = new UnsharedRandom(from + b);
+            }
+            for (int b = batch; b < k; b++) engine.retire(b);
+            for (int turn = 1; turn <= BoxPuzzle.MAX_TURNS; turn++) {
+                drawActions(engine, batch, randoms, options, distances, toolTargets);
+                engine.playTurn(options, distances, toolTargets);
+            }
+            engine.finalScores(scores);
+            for (int b = 0; b < batch; b++) sum += scores[b];
+        }
+        return sum;
+    }
+
+    /**
+     * Loads `batch` seeded boards and retires the unused slots.
+     */
+    private static void load(BatchEngine engine, long firstSeed, int batch, int[] cells, Random[] randoms) {
+        for (int b = 0; b < batch; b++) {
+            long seed = firstSeed + b;
+            BoardGenerator generator = new BoardGenerator(seed);
+            char target = generator.randomTargetLetter();
+            generator.fillPacked(cells);
+            engine.load(b, cells, target);
+            randoms[b] = new UnsharedRandom(seed);
+        }
+        for (int b = batch; b < engine.size(); b++) {
+            engine.retire(b);
+        }
+    }
+
+    private static void drawActions(BatchEngine engine, int batch, Random[] randoms,
+                                    int[] options, int[] distances, int[] targets) {
+        for (int b = 0; b < batch; b++) {
+            if (engine.isOver(b)) continue;
+            Random random = randoms[b];
+            int option = random.nextInt(EdgeRollDeltas.OPTIONS);
+            int run = engine.runLength(b, option);
+            options[b] = option;
+            distances[b] = run > 0 ? random.nextInt(run) : 0;
+            targets[b] = random.nextInt(N * N);
+        }
+    }
+
+    // -------------------------
+    // Cross-check
+    // -------------------------
+
+    private static void check(int games, int k) {
+        BatchEngine engine = new BatchEngine(k);
+        int[] cells = new int[N * N];
+        int[] options = new int[k];
+        int[] distances = new int[k];
+        int[] targets = new int[k];
+        Random[] randoms = new Random[k];
+        Random[] objectRandoms = new Random[k];
+        HeadlessGame[] objects = new HeadlessGame[k];
+
+        for (int from = 0; from < games; from += k) {
+            int batch = Math.min(k, games - from);
+            load(engine, from, batch, cells, randoms);
+            for (int b = 0; b < batch; b++) {
+                objects[b] = HeadlessGame.fromSeed(from + b);
+                objectRandoms[b] = new UnsharedRandom(from + b);
+            }
+
+            for (int turn = 1; turn <= BoxPuzzle.MAX_TURNS; turn++) {
+                for (int b = 0; b < batch; b++) {
+                    if (objects[b].isOver() != engine.isOver(b)) {
+                        throw new IllegalStateException("Seed " + (from + b) + ": game over state differs at turn " + turn);
+                    }
+                }
+                drawActions(engine, batch, randoms, options, distances, targets);
+                engine.playTurn(options, distances, targets);
+                for (int b = 0; b < batch; b++) {
+                    HeadlessGame game = objects[b];
+                    if (game.isOver()) continue;
+                    game.playTurn(nextAction(game, objectRandoms[b]));
+                    if (game.getLastOutcome() != engine.getLastOutcome(b)
+                            || game.getLastToolKind() != engine.getLastToolKind(b)) {
+                        throw new IllegalStateException("Seed " + (from + b) + ", turn " + turn + ": "
+                                + game.getLastOutcome() + "/" + game.getLastToolKind() + " vs "
+                                + engine.getLastOutcome(b) + "/" + engine.getLastToolKind(b));
+                    }
+                }
+            }
+
+            for (int b = 0; b < batch; b++) {
+                HeadlessGame game = objects[b];
+                if (!Arrays.equals(CellCodec.encode(game.getGrid()), engine.export(b))
+                        || game.isFailed() != engine.isFailed(b) || game.getTurn() != engine.getTurn(b)) {
+                    throw new IllegalStateException("Seed " + (from + b) + ": final board differs");
+                }
+            }
+        }
+    }
+}
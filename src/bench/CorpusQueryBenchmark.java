@@ -0,0 +1,150 @@
+package bench;
+
+import grid.CellCodec;
+import puzzle.BoardGenerator;
+import puzzle.HeadlessGame;
+import storage.BoardFeature;
+import storage.CorpusQuery;
+import storage.IndexedCorpus;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Builds (or reopens) an IndexedCorpus and times feature queries on it: through the bitmap index,
+ * through a scan of the feature columns, and (estimated from a sample) by regenerating and filtering
+ * every board as before. The index and the scan must return the same ids, and a sample of matches is
+ * loaded lazily and checked against HeadlessGame.fromSeed(...) and the query.
+ *
+ * Usage: java bench.CorpusQueryBenchmark [boards=10000000] [dir=corpus] [threads=all cores]
+ */
+public final class CorpusQueryBenchmark {
+
+    private static final String[] QUERIES = {
+            "EDGE_FIXED_BOXES>=4",
+            "TARGET_TOPS<5",
+            "MASS_COLUMN_STAMPS>=3",
+            "EDGE_FIXED_BOXES>=4 and TARGET_TOPS<5 and MASS_COLUMN_STAMPS>=3",
+            "TARGET_TOPS>=14 and FIXED_BOXES<=3 and BOX_FIXERS<=6",
+    };
+
+    private static long sink; // keeps the regenerate loop from being optimized away
+
+    private CorpusQueryBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int boards = args.length > 0 ? Integer.parseInt(args[0]) : 10_000_000;
+        Path dir = Path.of(args.length > 1 ? args[1] : "corpus");
+        int threads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+
+        IndexedCorpus corpus = null;
+        if (Files.exists(dir.resolve("features.bpfi"))) {
+            corpus = IndexedCorpus.open(dir);
+            if (corpus.size() != boards || corpus.getFirstSeed() != 0) corpus = null;
+        }
+        if (corpus == null) {
+            long start = System.nanoTime();
+            corpus = IndexedCorpus.build(dir, 0, boards, threads);
+            System.out.printf("built %d boards in %s in %.1f s%n", boards, dir, (System.nanoTime() - start) / 1e9);
+        } else {
+            System.out.printf("reopened %d boards in %s%n", boards, dir);
+        }
+
+        double regenerateNanos = regenerateNanosPerBoard(Math.min(boards, 200_000));
+        System.out.printf("regenerate and filter: about %.0f ms per query (%.2f us per board)%n",
+                regenerateNanos * boards / 1e6, regenerateNanos / 1000);
+
+        for (String text : QUERIES) {
+            CorpusQuery query = CorpusQuery.parse(text);
+
+            int[] ids = null;
+            double indexMillis = Double.MAX_VALUE;
+            for (int round = 0; round < 5; round++) { // best of 5; the first round also pages the index in
+                long start = System.nanoTime();
+                ids = corpus.find(query);
+                indexMillis = Math.min(indexMillis, (System.nanoTime() - start) / 1e6);
+            }
+
+            long start = System.nanoTime();
+            int[] scanned = scan(corpus, query);
+            double scanMillis = (System.nanoTime() - start) / 1e6;
+            if (!Arrays.equals(ids, scanned)) {
+                throw new IllegalStateException("Index and column scan disagree on " + query);
+            }
+
+            start = System.nanoTime();
+            int loaded = check(corpus, query, Arrays.copyOf(ids, Math.min(ids.length, 1000)));
+            double loadMillis = (System.nanoTime() - start) / 1e6;
+
+            System.out.printf("%s%n  %d matches (%.3f%%): index %.2f ms, column scan %.1f ms, "
+                            + "%d matches loaded and checked in %.1f ms%n",
+                    query, ids.length, 100.0 * ids.length / boards, indexMillis, scanMillis, loaded, loadMillis);
+        }
+    }
+
+    /**
+     * Matching ids by reading every board's feature columns, without the bitmaps.
+     */
+    private static int[] scan(IndexedCorpus corpus, CorpusQuery query) {
+        BoardFeature[] features = BoardFeature.values();
+        int[] values = new int[features.length];
+        int[] ids = new int[16];
+        int n = 0;
+        for (int id = 0; id < corpus.size(); id++) {
+            for (BoardFeature f : features) {
+                values[f.ordinal()] = query.isUnbounded(f) ? 0 : corpus.feature(id, f);
+            }
+            if (query.matches(values)) {
+                if (n == ids.length) ids = Arrays.copyOf(ids, n * 2);
+                ids[n++] = id;
+            }
+        }
+        return Arrays.copyOf(ids, n);
+    }
+
+    /**
+     * Loads the boards lazily and checks each one against the generator and the query.
+     */
+    private static int check(IndexedCorpus corpus, CorpusQuery query, int[] ids) {
+        List<HeadlessGame> games = corpus.games(ids);
+        int[] values = new int[BoardFeature.values().length];
+        for (int i = 0; i < games.size(); i++) {
+            HeadlessGame game = games.get(i);
+            HeadlessGame expected = HeadlessGame.fromSeed(corpus.seed(ids[i]));
+            int[] cells = CellCodec.encode(game.getGrid());
+            if (game.getTargetLetter() != expected.getTargetLetter()
+                    || !Arrays.equals(cells, CellCodec.encode(expected.getGrid()))) {
+                throw new IllegalStateException("Board " + ids[i] + " differs from HeadlessGame.fromSeed");
+            }
+            BoardFeature.extract(cells, game.getTargetLetter(), values);
+            if (!query.matches(values)) {
+                throw new IllegalStateException("Board " + ids[i] + " does not match " + query);
+            }
+        }
+        return games.size();
+    }
+
+    /**
+     * Cost of the old way (generate a board and compute its features) per board.
+     */
+    private static double regenerateNanosPerBoard(int boards) {
+        int[] cells = new int[64];
+        int[] values = new int[BoardFeature.values().length];
+        double best = Double.MAX_VALUE;
+        for (int round = 0; round < 2; round++) {
+            long start = System.nanoTime();
+            for (int seed = 0; seed < boards; seed++) {
+                BoardGenerator generator = new BoardGenerator(seed);
+                char target = generator.randomTargetLetter();
+                generator.fillPacked(cells);
+                BoardFeature.extract(cells, target, values);
+                sink += values[0];
+            }
+            best = Math.min(best, (double) (System.nanoTime() - start) / boards);
+        }
+        return best;
+    }
+}
@@ -0,0 +1,55 @@
+package bench;
+
+import puzzle.HeadlessGame;
+import search.BranchAndBoundSearch;
+import search.DepthReport;
+import search.IterativeDeepeningSearch;
+import search.SearchResult;
+import search.UpperBoundEvaluator;
+
+/**
+ * Latency versus quality of the iterative-deepening search on seeded boards.
+ *
+ * Usage: java bench.DeepeningBenchmark [boards=3] [budgets=100,1000,5000] [firstSeed=1]
+ *
+ * For every board and time budget (milliseconds) it prints the per-depth reports.
+ * Each complete depth-2 answer is checked against a plain BranchAndBoundSearch of the same depth,
+ * whose node count shows what the move ordering saves.
+ */
+public final class DeepeningBenchmark {
+
+    private DeepeningBenchmark() {
+    }
+
+    public static void main(String[] args) {
+        int boards = args.length > 0 ? Integer.parseInt(args[0]) : 3;
+        String[] budgets = (args.length > 1 ? args[1] : "100,1000,5000").split(",");
+        long firstSeed = args.length > 2 ? Long.parseLong(args[2]) : 1L;
+
+        UpperBoundEvaluator bound = new UpperBoundEvaluator();
+        IterativeDeepeningSearch search = new IterativeDeepeningSearch(bound);
+
+        for (int i = 0; i < boards; i++) {
+            long seed = firstSeed + i;
+            HeadlessGame game = HeadlessGame.fromSeed(seed);
+            SearchResult plain = new BranchAndBoundSearch(bound, true).search(game, 2);
+            System.out.println("seed=" + seed + " | plain depth 2: value=" + plain.getValue()
+                    + ", nodes=" + plain.getNodes() + ", leaves=" + plain.getLeaves());
+
+            for (String b : budgets) {
+                long budget = Long.parseLong(b.trim());
+                long start = System.nanoTime();
+                SearchResult result = search.search(game, HeadlessGame.fromSeed(seed).getRemainingTurns(), budget);
+                long ms = (System.nanoTime() - start) / 1_000_000;
+
+                System.out.println("  budget " + budget + " ms -> value " + result.getValue() + " in " + ms + " ms");
+                for (DepthReport r : search.getIterations()) {
+                    System.out.println("    " + r);
+                    if (r.getDepth() == 2 && r.isComplete() && r.getValue() != plain.getValue()) {
+                        throw new AssertionError("depth-2 value differs from BranchAndBoundSearch on seed " + seed);
+                    }
+                }
+            }
+        }
+    }
+}
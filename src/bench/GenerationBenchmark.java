@@ -0,0 +1,55 @@
+package bench;
+
+import grid.CellCodec;
+import puzzle.HeadlessGame;
+import storage.BoardCorpus;
+import storage.BulkBoardGenerator;
+
+import java.util.Arrays;
+
+/**
+ * Compares board generation through BoxGrid objects with bulk generation into an off-heap corpus,
+ * and checks that both produce the same boards.
+ *
+ * Usage: java bench.GenerationBenchmark [boards=1000000] [threads=all cores]
+ */
+public final class GenerationBenchmark {
+
+    private GenerationBenchmark() {
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        int boards = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+
+        int objectBoards = Math.min(boards, 100_000);
+        long sink = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < objectBoards; i++) {
+            sink += HeadlessGame.fromSeed(i).getTargetLetter();
+        }
+        double objectRate = objectBoards / ((System.nanoTime() - start) / 1e9);
+
+        BulkBoardGenerator.generate(0, Math.min(boards, 10_000), threads); // warm-up
+        start = System.nanoTime();
+        BoardCorpus corpus = BulkBoardGenerator.generate(0, boards, threads);
+        double seconds = (System.nanoTime() - start) / 1e9;
+        double bulkRate = boards / seconds;
+        double megabytes = (double) boards * BoardCorpus.BOARD_SIZE / (1 << 20);
+
+        int[] cells = new int[64];
+        for (int i = 0; i < boards; i += Math.max(1, boards / 1000)) {
+            HeadlessGame expected = HeadlessGame.fromSeed(corpus.seed(i));
+            corpus.readCells(i, cells);
+            if (corpus.targetLetter(i) != expected.getTargetLetter()
+                    || !Arrays.equals(cells, CellCodec.encode(expected.getGrid()))) {
+                throw new IllegalStateException("Bulk board " + i + " differs from the object generator");
+            }
+        }
+
+        System.out.printf("objects: %.0f boards/s%n", objectRate);
+        System.out.printf("bulk:    %.0f boards/s on %d threads (%.1f MB/s, %.1f MB total)%n",
+                bulkRate, threads, megabytes / seconds, megabytes);
+        System.out.println("sample check passed" + (sink == 0 ? "" : "."));
+    }
+}
@@ -0,0 +1,95 @@
+package bench;
+
+import puzzle.HeadlessGame;
+import puzzle.TurnAction;
+import search.LastTurnOptimizer;
+import search.MoveGenerator;
+import search.SearchResult;
+import sim.RandomStrategy;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Checks LastTurnOptimizer against brute force and compares their latency.
+ *
+ * Positions: every position before a turn of random games (so boards have opened boxes, used tools
+ * and all turn numbers, the last turn included). For each one the optimizer's score must equal the best
+ * final score over all MoveGenerator actions, each played on a copy, and playing the optimizer's own action
+ * must reach that score.
+ *
+ * Usage: java bench.LastTurnBenchmark [games=500] [firstSeed=1]
+ */
+public final class LastTurnBenchmark {
+
+    private LastTurnBenchmark() {
+    }
+
+    public static void main(String[] args) {
+        int games = args.length > 0 ? Integer.parseInt(args[0]) : 500;
+        long firstSeed = args.length > 1 ? Long.parseLong(args[1]) : 1L;
+
+        LastTurnOptimizer optimizer = new LastTurnOptimizer();
+        List<HeadlessGame> positions = positions(games, firstSeed);
+
+        for (HeadlessGame game : positions) {
+            int brute = bruteForce(game);
+            SearchResult best = optimizer.solve(game);
+            if (best.getValue() != brute || optimizer.bestScore(game) != brute) {
+                throw new IllegalStateException("Optimizer says " + best.getValue() + ", brute force " + brute
+                        + " at turn " + game.getTurn() + ":\n" + game.getGrid().toPrettyString());
+            }
+            HeadlessGame copy = new HeadlessGame(game);
+            copy.playTurn(best.getBestAction());
+            if (copy.finalScore() != brute) {
+                throw new IllegalStateException("Action " + best.getBestAction() + " reaches " + copy.finalScore()
+                        + ", expected " + brute + " at turn " + game.getTurn());
+            }
+        }
+        System.out.println(positions.size() + " positions from " + games + " games: optimizer matches brute force.");
+
+        // Latency, best of 3 rounds (the first one also warms up the JIT)
+        int bruteCount = Math.min(positions.size(), 200);
+        double optimizerNanos = Double.MAX_VALUE;
+        double bruteNanos = Double.MAX_VALUE;
+        long sink = 0;
+        for (int round = 0; round < 3; round++) {
+            long start = System.nanoTime();
+            for (HeadlessGame game : positions) sink += optimizer.bestScore(game);
+            optimizerNanos = Math.min(optimizerNanos, (double) (System.nanoTime() - start) / positions.size());
+
+            start = System.nanoTime();
+            for (int i = 0; i < bruteCount; i++) sink += bruteForce(positions.get(i));
+            bruteNanos = Math.min(bruteNanos, (double) (System.nanoTime() - start) / bruteCount);
+        }
+        System.out.printf("optimizer:   %.2f us/position%n", optimizerNanos / 1000);
+        System.out.printf("brute force: %.2f us/position (%.0fx)%n", bruteNanos / 1000, bruteNanos / optimizerNanos);
+        System.out.println("checksum " + sink);
+    }
+
+    private static List<HeadlessGame> positions(int games, long firstSeed) {
+        RandomStrategy strategy = new RandomStrategy();
+        List<HeadlessGame> out = new ArrayList<>();
+        for (int i = 0; i < games; i++) {
+            long seed = firstSeed + i;
+            HeadlessGame game = HeadlessGame.fromSeed(seed);
+            Random random = new Random(seed);
+            while (!game.isOver()) {
+                out.add(new HeadlessGame(game));
+                game.playTurn(strategy.chooseTurn(new HeadlessGame(game), random));
+            }
+        }
+        return out;
+    }
+
+    private static int bruteForce(HeadlessGame game) {
+        int best = -1;
+        for (TurnAction a : MoveGenerator.generate(game)) {
+            HeadlessGame copy = new HeadlessGame(game);
+            copy.playTurn(a);
+            best = Math.max(best, copy.finalScore());
+        }
+        return best;
+    }
+}
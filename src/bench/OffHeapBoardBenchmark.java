@@ -0,0 +1,115 @@
+package bench;
+
+import boxes.Box;
+import boxes.Face;
+import grid.BoxGrid;
+import grid.Direction;
+import grid.Position;
+import puzzle.BoardGenerator;
+import puzzle.HeadlessGame;
+import storage.OffHeapBoard;
+
+import java.lang.ref.Reference;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Checks OffHeapBoard against BoxGrid and reports footprint per cell and scan throughput.
+ *
+ * Usage: java bench.OffHeapBoardBenchmark [side=4096] [mapped=false]
+ */
+public final class OffHeapBoardBenchmark {
+
+    private OffHeapBoardBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int side = args.length > 0 ? Integer.parseInt(args[0]) : 4096;
+        boolean mapped = args.length > 1 && Boolean.parseBoolean(args[1]);
+
+        crossCheck(500);
+        System.out.println("Cross-check against BoxGrid passed.");
+
+        System.out.printf("heap BoxGrid: ~%.0f bytes/cell, off-heap: 4 bytes/cell%n", heapBytesPerCell(5000));
+
+        Path file = null;
+        OffHeapBoard board;
+        if (mapped) {
+            file = Files.createTempFile("board", ".cells");
+            board = OffHeapBoard.mapFile(file, side, side);
+        } else {
+            board = OffHeapBoard.allocate(side, side);
+        }
+        try (OffHeapBoard b = board) {
+            b.fillRandom(new BoardGenerator(1));
+            long sink = 0;
+            for (int i = 0; i < 3; i++) sink += b.countTopLetter('A'); // warm-up
+            int reps = 10;
+            long start = System.nanoTime();
+            for (int i = 0; i < reps; i++) sink += b.countTopLetter((char) ('A' + i % 8));
+            double seconds = (System.nanoTime() - start) / 1e9;
+            double cells = (double) b.getCellCount() * reps;
+            System.out.printf("%s %dx%d board (%.0f MB): %.0f Mcells/s, %.0f MB/s (sink %d)%n",
+                    mapped ? "mapped" : "direct", side, side, b.getFootprintBytes() / 1e6,
+                    cells / seconds / 1e6, cells * 4 / seconds / 1e6, sink % 10);
+        } finally {
+            if (file != null) Files.deleteIfExists(file);
+        }
+    }
+
+    private static void crossCheck(int boards) throws Exception {
+        Random random = new Random(32);
+        for (long seed = 0; seed < boards; seed++) {
+            HeadlessGame game = HeadlessGame.fromSeed(seed);
+            BoxGrid grid = game.getGrid();
+            try (OffHeapBoard board = OffHeapBoard.of(grid)) {
+                for (int turn = 0; turn < 5; turn++) {
+                    Position edge = new Position(1 + random.nextInt(8), random.nextBoolean() ? 1 : 8);
+                    Direction d = grid.allowedInwardDirections(edge).get(0);
+                    boolean gridFailed = false;
+                    boolean boardFailed = false;
+                    try {
+                        grid.rollFromEdge(edge, d);
+                    } catch (Exception e) {
+                        gridFailed = true;
+                    }
+                    try {
+                        board.rollFromEdge(edge.getRow() - 1, edge.getCol() - 1, d);
+                    } catch (Exception e) {
+                        boardFailed = true;
+                    }
+                    if (gridFailed != boardFailed) throw new IllegalStateException("Roll outcome differs on seed " + seed);
+                }
+                for (int r = 1; r <= BoxGrid.SIZE; r++) {
+                    for (int c = 1; c <= BoxGrid.SIZE; c++) {
+                        Box box = grid.getBox(new Position(r, c));
+                        for (Face f : Face.values()) {
+                            if (box.getLetter(f) != board.getLetter(r - 1, c - 1, f)) {
+                                throw new IllegalStateException("Letter differs on seed " + seed + " at " + r + "," + c);
+                            }
+                        }
+                    }
+                }
+                if (grid.countTopLetter(game.getTargetLetter()) != board.countTopLetter(game.getTargetLetter())) {
+                    throw new IllegalStateException("Score differs on seed " + seed);
+                }
+            }
+        }
+    }
+
+    private static double heapBytesPerCell(int grids) {
+        Runtime rt = Runtime.getRuntime();
+        System.gc();
+        long before = rt.totalMemory() - rt.freeMemory();
+        List<BoxGrid> keep = new ArrayList<>(grids);
+        BoardGenerator generator = new BoardGenerator(7);
+        for (int i = 0; i < grids; i++) keep.add(generator.generateGrid());
+        System.gc();
+        long after = rt.totalMemory() - rt.freeMemory();
+        Reference.reachabilityFence(keep);
+        return (double) (after - before) / (grids * (double) BoxGrid.SIZE * BoxGrid.SIZE);
+    }
+}
@@ -0,0 +1,99 @@
+package bench;
+
+import grid.CellCodec;
+import grid.Symmetry;
+import puzzle.HeadlessGame;
+import puzzle.TurnAction;
+import search.HintService;
+import storage.OpeningBook;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Fills an opening book by searching seeded boards, then measures cold (file) and warm (LRU) lookups.
+ *
+ * Usage: java bench.OpeningBookBenchmark [boards=300] [depth=1]
+ *
+ * Every lookup is done on a randomly mirrored/rotated copy of the board, and the returned action is
+ * replayed there to check that it reaches the stored value (exact for depth 1).
+ */
+public final class OpeningBookBenchmark {
+
+    private OpeningBookBenchmark() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        int boards = args.length > 0 ? Integer.parseInt(args[0]) : 300;
+        int depth = args.length > 1 ? Integer.parseInt(args[1]) : 1;
+        Path file = Files.createTempFile("opening", ".book");
+        Files.delete(file);
+
+        HeadlessGame[] games = new HeadlessGame[boards];
+        for (int i = 0; i < boards; i++) {
+            games[i] = HeadlessGame.fromSeed(i + 1);
+        }
+
+        // Searching (fills the book)
+        long t0 = System.nanoTime();
+        try (OpeningBook book = OpeningBook.open(file, boards)) {
+            HintService hints = new HintService(book, depth, depth);
+            for (HeadlessGame game : games) {
+                hints.hint(game);
+            }
+        }
+        long searchNanos = System.nanoTime() - t0;
+
+        // Symmetric copies to look up
+        HeadlessGame[] mirrored = new HeadlessGame[boards];
+        Symmetry[] symmetries = Symmetry.values();
+        for (int i = 0; i < boards; i++) {
+            int[] cells = symmetries[i % symmetries.length].apply(CellCodec.encode(games[i].getGrid()));
+            mirrored[i] = new HeadlessGame(CellCodec.decode(cells), games[i].getTargetLetter());
+        }
+
+        try (OpeningBook book = OpeningBook.open(file, boards)) {
+            long cold = 0;
+            long warm = 0;
+            int rounds = 20;
+            for (int round = 0; round < rounds; round++) {
+                book.clearCache();
+                long c0 = System.nanoTime();
+                for (HeadlessGame game : mirrored) {
+                    book.lookup(game.getGrid(), game.getTargetLetter());
+                }
+                long c1 = System.nanoTime();
+                for (HeadlessGame game : mirrored) {
+                    book.lookup(game.getGrid(), game.getTargetLetter());
+                }
+                long c2 = System.nanoTime();
+                if (round > 0) { // first round warms up the JIT
+                    cold += c1 - c0;
+                    warm += c2 - c1;
+                }
+            }
+
+            int checked = 0;
+            for (HeadlessGame game : mirrored) {
+                OpeningBook.Entry entry = book.lookup(game.getGrid(), game.getTargetLetter());
+                if (entry == null) throw new AssertionError("missing book entry");
+                TurnAction action = entry.getAction();
+                HeadlessGame copy = new HeadlessGame(game);
+                copy.playTurn(action);
+                if (depth == 1 && copy.finalScore() != entry.getValue()) {
+                    throw new AssertionError("book action does not reach its value on " + game.getTargetLetter());
+                }
+                checked++;
+            }
+
+            long lookups = (long) (rounds - 1) * boards;
+            System.out.printf("%d boards, depth %d, %d bytes on disk, %d actions replayed OK%n",
+                    book.size(), depth, Files.size(file), checked);
+            System.out.printf("search: %.2f ms/board%n", searchNanos / 1e6 / boards);
+            System.out.printf("cold lookup (file): %d ns, warm lookup (LRU): %d ns%n", cold / lookups, warm / lookups);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package bench;
+
+import engine.TopFaceArray;
+import grid.BoxGrid;
+import grid.Position;
+import puzzle.BoardGenerator;
+import puzzle.HeadlessGame;
+import storage.OffHeapBoard;
+import tools.MassColumnStamp;
+import tools.MassRowStamp;
+
+import java.util.Random;
+
+/**
+ * Cross-checks TopFaceArray against the object engine, then measures scoring and row stamping
+ * on a large board. Run twice (with -Dboxpuzzle.swar=false) to compare with the scalar path.
+ *
+ * Usage: java bench.PackedScoringBenchmark [side=8192]
+ */
+public final class PackedScoringBenchmark {
+
+    private PackedScoringBenchmark() {
+    }
+
+    public static void main(String[] args) {
+        int side = args.length > 0 ? Integer.parseInt(args[0]) : 8192;
+
+        crossCheck(2000);
+        System.out.println("Cross-check against BoxGrid passed.");
+
+        TopFaceArray tops;
+        try (OffHeapBoard board = OffHeapBoard.allocate(side, side)) {
+            board.fillRandom(new BoardGenerator(33));
+            tops = TopFaceArray.of(board);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+
+        long sink = 0;
+        for (int i = 0; i < 5; i++) sink += tops.countTopLetter('A'); // warm-up
+        int reps = 20;
+        long start = System.nanoTime();
+        for (int i = 0; i < reps; i++) sink += tops.countTopLetter((char) ('A' + i % 8));
+        double seconds = (System.nanoTime() - start) / 1e9;
+        double bytes = (double) side * side * reps;
+        System.out.printf("count: %.0f MB/s%n", bytes / seconds / 1e6);
+
+        start = System.nanoTime();
+        for (int i = 0; i < reps; i++) {
+            for (int r = 0; r < side; r++) tops.stampRow(r, (char) ('A' + (r + i) % 8));
+        }
+        seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("row stamps: %.0f MB/s (sink %d)%n", bytes / seconds / 1e6, sink % 10);
+    }
+
+    private static void crossCheck(int boards) {
+        Random random = new Random(33);
+        for (long seed = 0; seed < boards; seed++) {
+            HeadlessGame game = HeadlessGame.fromSeed(seed);
+            BoxGrid grid = game.getGrid();
+            TopFaceArray tops = TopFaceArray.of(grid);
+            char letter = (char) ('A' + random.nextInt(8));
+
+            int row = 1 + random.nextInt(BoxGrid.SIZE);
+            int col = 1 + random.nextInt(BoxGrid.SIZE);
+            new MassRowStamp().apply(grid, new Position(row, 1), letter);
+            new MassColumnStamp().apply(grid, new Position(1, col), letter);
+            tops.stampRow(row - 1, letter);
+            tops.stampColumn(col - 1, letter);
+
+            for (int r = 1; r <= BoxGrid.SIZE; r++) {
+                for (int c = 1; c <= BoxGrid.SIZE; c++) {
+                    if (grid.getBox(new Position(r, c)).getTopLetter() != tops.getTopLetter(r - 1, c - 1)) {
+                        throw new IllegalStateException("Top letter differs on seed " + seed + " at " + r + "," + c);
+                    }
+                }
+            }
+            for (char L = 'A'; L <= 'H'; L++) {
+                if (grid.countTopLetter(L) != tops.countTopLetter(L)) {
+                    throw new IllegalStateException("Count of " + L + " differs on seed " + seed);
+                }
+            }
+        }
+    }
+}
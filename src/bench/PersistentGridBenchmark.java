@@ -0,0 +1,103 @@
+package bench;
+
+import grid.CellCodec;
+import grid.PersistentGrid;
+import puzzle.GameHistory;
+import puzzle.HeadlessGame;
+import puzzle.PersistentGame;
+import puzzle.TurnAction;
+import search.MoveGenerator;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Checks PersistentGame against HeadlessGame and measures branching cost and history memory.
+ *
+ * Usage: java bench.PersistentGridBenchmark [games=2000]
+ *
+ * - every random game is played on both engines; the boards must match after every turn,
+ *   and undoing everything then redoing everything must give the same states back
+ * - branching: HeadlessGame copy + playTurn versus PersistentGame.play on the same actions
+ * - memory: grid rows copied per turn (a full copy would be 8 rows of 8 cells)
+ */
+public final class PersistentGridBenchmark {
+
+    private PersistentGridBenchmark() {
+    }
+
+    public static void main(String[] args) {
+        int games = args.length > 0 ? Integer.parseInt(args[0]) : 2000;
+        Random random = new Random(40);
+
+        long turns = 0;
+        long copiedRows = 0;
+        for (long seed = 1; seed <= games; seed++) {
+            HeadlessGame headless = HeadlessGame.fromSeed(seed);
+            GameHistory history = new GameHistory(PersistentGame.of(headless));
+            List<PersistentGame> states = new ArrayList<>();
+            states.add(history.current());
+
+            while (!headless.isOver()) {
+                List<TurnAction> actions = MoveGenerator.generate(headless);
+                TurnAction action = actions.get(random.nextInt(actions.size()));
+                PersistentGrid before = history.current().getGrid();
+
+                boolean done = headless.playTurn(action);
+                if (history.play(action) != done) {
+                    throw new AssertionError("turn outcome differs on seed " + seed + ": " + action);
+                }
+                check(headless, history.current(), seed);
+                copiedRows += 8 - history.current().getGrid().sharedRows(before);
+                turns++;
+                states.add(history.current());
+            }
+
+            GameHistory fork = history.fork();
+            for (int i = states.size() - 2; i >= 0; i--) {
+                if (history.undo() != states.get(i)) throw new AssertionError("undo on seed " + seed);
+            }
+            for (int i = 1; i < states.size(); i++) {
+                if (history.redo() != states.get(i)) throw new AssertionError("redo on seed " + seed);
+            }
+            if (fork.current() != history.current() || fork.undoDepth() != states.size() - 1) {
+                throw new AssertionError("fork on seed " + seed);
+            }
+        }
+        System.out.printf("%d games, %d turns: engines agree, undo/redo/fork OK%n", games, turns);
+        System.out.printf("rows copied per turn: %.2f of 8 (about %d bytes per history entry instead of a full board)%n",
+                (double) copiedRows / turns, Math.round(48 + 48.0 * copiedRows / turns + 32));
+
+        // Branching cost: expand every action of the first turn on both engines
+        HeadlessGame root = HeadlessGame.fromSeed(1);
+        PersistentGame persistentRoot = PersistentGame.of(root);
+        List<TurnAction> actions = MoveGenerator.generate(root);
+        for (int round = 0; round < 5; round++) {
+            long t0 = System.nanoTime();
+            long sink = 0;
+            for (TurnAction a : actions) {
+                HeadlessGame child = new HeadlessGame(root);
+                child.playTurn(a);
+                sink += child.getTurn();
+            }
+            long t1 = System.nanoTime();
+            for (TurnAction a : actions) {
+                sink += persistentRoot.play(a).getTurn();
+            }
+            long t2 = System.nanoTime();
+            if (round == 4) {
+                System.out.printf("branch + play (%d actions): HeadlessGame copy %d ns, PersistentGame %d ns per child%s%n",
+                        actions.size(), (t1 - t0) / actions.size(), (t2 - t1) / actions.size(), sink == 0 ? "!" : "");
+            }
+        }
+    }
+
+    private static void check(HeadlessGame headless, PersistentGame persistent, long seed) {
+        if (!Arrays.equals(CellCodec.encode(headless.getGrid()), persistent.getGrid().toCells())
+                || headless.getTurn() != persistent.getTurn() || headless.isFailed() != persistent.isFailed()) {
+            throw new AssertionError("boards differ on seed " + seed + " at turn " + headless.getTurn());
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package bench;
+
+import puzzle.HeadlessGame;
+import puzzle.TurnAction;
+import search.BranchAndBoundSearch;
+import search.MoveGenerator;
+import search.SearchResult;
+import search.UpperBoundEvaluator;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Measures how much of the search tree the UpperBoundEvaluator prunes on seeded boards.
+ *
+ * Usage: java bench.PruningBenchmark [boards=5] [depth=2] [firstSeed=1] [depth3Moves=3]
+ *
+ * The search values nodes one turn from the horizon with the LastTurnOptimizer, so its work is two counts:
+ * expanded nodes (grid copies played) and leaf evaluations. For every board it prints both for the full
+ * tree, counted the same way (the last expanded level is counted, not played), and for the pruned search,
+ * plus the bound's cost per call. Up to depth 2 it also runs the unpruned search and checks that both agree.
+ *
+ * Cross-check of the leaf evaluator, on every board: the depth-2 value with the LastTurnOptimizer must equal
+ * the value with full expansion. A full depth-3 search is out of reach (thousands of moves per turn), so
+ * depth 3 is checked on the first depth3Moves root moves: each one's depth-2 subtree must have the same value
+ * both ways.
+ */
+public final class PruningBenchmark {
+
+    private PruningBenchmark() {
+    }
+
+    public static void main(String[] args) {
+        int boards = args.length > 0 ? Integer.parseInt(args[0]) : 5;
+        int depth = args.length > 1 ? Integer.parseInt(args[1]) : 2;
+        long firstSeed = args.length > 2 ? Long.parseLong(args[2]) : 1L;
+        int depth3Moves = args.length > 3 ? Integer.parseInt(args[3]) : 3;
+
+        UpperBoundEvaluator bound = new UpperBoundEvaluator();
+        long[] totalFull = new long[2];
+        long totalNodes = 0;
+        long totalLeaves = 0;
+
+        for (int i = 0; i < boards; i++) {
+            long seed = firstSeed + i;
+            HeadlessGame game = HeadlessGame.fromSeed(seed);
+
+            long[] full = fullTree(game, Math.min(depth, game.getRemainingTurns()));
+
+            long start = System.nanoTime();
+            SearchResult pruned = new BranchAndBoundSearch(bound, true).search(game, depth);
+            long ms = (System.nanoTime() - start) / 1_000_000;
+
+            totalFull[0] += full[0];
+            totalFull[1] += full[1];
+            totalNodes += pruned.getNodes();
+            totalLeaves += pruned.getLeaves();
+            System.out.printf("seed=%d target=%c start=%d bound=%d | full tree: nodes=%d, leaves=%d | "
+                            + "expanded nodes=%d (%.1f%%), leaves=%d (%.1f%%), pruned subtrees=%d, %d ms, best=%d%n",
+                    seed, game.getTargetLetter(), game.score(), bound.upperBound(game, depth),
+                    full[0], full[1], pruned.getNodes(), percent(pruned.getNodes(), full[0]),
+                    pruned.getLeaves(), percent(pruned.getLeaves(), full[1]),
+                    pruned.getPruned(), ms, pruned.getValue());
+
+            if (depth <= 2) {
+                SearchResult plain = new BranchAndBoundSearch(bound, false).search(game, depth);
+                if (plain.getValue() != pruned.getValue()) {
+                    throw new IllegalStateException("Pruning changed the result on seed " + seed);
+                }
+            }
+            crossCheck(game, bound, depth3Moves, seed);
+        }
+
+        System.out.printf("TOTAL: full tree nodes=%d, leaves=%d; expanded %d nodes (%.1f%%) and %d leaves (%.1f%%)%n",
+                totalFull[0], totalFull[1], totalNodes, percent(totalNodes, totalFull[0]),
+                totalLeaves, percent(totalLeaves, totalFull[1]));
+        System.out.println("LastTurnOptimizer leaves match full expansion at depth 2, and at depth 3 on the first "
+                + depth3Moves + " root moves of every board.");
+        System.out.printf("bound cost: %.0f ns/call%n", nanosPerBound(bound, firstSeed));
+    }
+
+    /**
+     * Nodes and leaf evaluations of the unpruned search, counted like BranchAndBoundSearch counts them:
+     * every child of an expanded node is a node; a child with one turn to go (and not over) is a leaf.
+     */
+    private static long[] fullTree(HeadlessGame game, int depth) {
+        long[] counts = new long[2];
+        count(game, depth, counts);
+        return counts;
+    }
+
+    private static void count(HeadlessGame game, int depth, long[] counts) {
+        for (TurnAction action : MoveGenerator.generate(game)) {
+            counts[0]++;
+            if (depth > 1) {
+                HeadlessGame child = new HeadlessGame(game);
+                child.playTurn(action);
+                if (child.isOver()) continue;
+                if (depth == 2) counts[1]++;
+                else count(child, depth - 1, counts);
+            }
+        }
+    }
+
+    /**
+     * Same value with the LastTurnOptimizer leaves as with full expansion: at depth 2 from the board,
+     * and at depth 2 from each of its first `moves` root moves (depth 3 from the board along those moves).
+     */
+    private static void crossCheck(HeadlessGame game, UpperBoundEvaluator bound, int moves, long seed) {
+        checkLeaves(game, bound, seed, "depth 2");
+
+        List<TurnAction> actions = MoveGenerator.generate(game);
+        List<HeadlessGame> children = new ArrayList<>();
+        for (TurnAction a : actions.subList(0, Math.min(moves, actions.size()))) {
+            HeadlessGame child = new HeadlessGame(game);
+            child.playTurn(a);
+            if (!child.isOver()) children.add(child);
+        }
+        for (HeadlessGame child : children) {
+            checkLeaves(child, bound, seed, "depth 3");
+        }
+    }
+
+    private static void checkLeaves(HeadlessGame game, UpperBoundEvaluator bound, long seed, String what) {
+        SearchResult leaf = new BranchAndBoundSearch(bound, true, true).search(game, 2);
+        SearchResult expanded = new BranchAndBoundSearch(bound, true, false).search(game, 2);
+        if (leaf.getValue() != expanded.getValue()) {
+            throw new IllegalStateException("LastTurnOptimizer leaves changed the " + what + " value on seed " + seed
+                    + ": " + leaf.getValue() + " vs " + expanded.getValue() + " with full expansion");
+        }
+    }
+
+    private static double percent(long part, long whole) {
+        return whole == 0 ? 0 : 100.0 * part / whole;
+    }
+
+    private static double nanosPerBound(UpperBoundEvaluator bound, long seed) {
+        HeadlessGame game = HeadlessGame.fromSeed(seed);
+        int calls = 200_000;
+        int sink = 0;
+        for (int i = 0; i < calls; i++) sink += bound.upperBound(game); // warm-up
+        long start = System.nanoTime();
+        for (int i = 0; i < calls; i++) sink += bound.upperBound(game);
+        long elapsed = System.nanoTime() - start;
+        if (sink == 42) System.out.println();
+        return (double) elapsed / calls;
+    }
+}
@@ -0,0 +1,80 @@
+package bench;
+
+import grid.CellCodec;
+import grid.GridCanonicalizer;
+import grid.GridCanonicalizer.CanonicalForm;
+import grid.Symmetry;
+import puzzle.HeadlessGame;
+import puzzle.TurnAction;
+import search.MoveGenerator;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Checks the symmetry tables on seeded boards and measures canonicalization cost.
+ *
+ * Usage: java bench.SymmetryBenchmark [boards=2000]
+ *
+ * Checks, for every board and every symmetry:
+ * - all 8 transformed boards have the same canonical form
+ * - inverse() restores the original board
+ * - playing an action and then transforming gives the same state as
+ *   transforming and then playing the transformed action
+ */
+public final class SymmetryBenchmark {
+
+    private SymmetryBenchmark() {
+    }
+
+    public static void main(String[] args) {
+        int boards = args.length > 0 ? Integer.parseInt(args[0]) : 2000;
+        Random random = new Random(27);
+
+        for (long seed = 1; seed <= boards; seed++) {
+            HeadlessGame game = HeadlessGame.fromSeed(seed);
+            int[] cells = CellCodec.encode(game.getGrid());
+            CanonicalForm canonical = GridCanonicalizer.canonicalize(cells);
+            List<TurnAction> actions = MoveGenerator.generate(game);
+            TurnAction action = actions.get(random.nextInt(actions.size()));
+
+            for (Symmetry s : Symmetry.values()) {
+                int[] transformed = s.apply(cells);
+                check(GridCanonicalizer.canonicalize(transformed).equals(canonical), "canonical form", seed, s);
+                check(Arrays.equals(s.inverse().apply(transformed), cells), "inverse", seed, s);
+
+                HeadlessGame played = new HeadlessGame(game);
+                played.playTurn(action);
+                int[] expected = s.apply(CellCodec.encode(played.getGrid()));
+
+                HeadlessGame mirrored = new HeadlessGame(CellCodec.decode(transformed), game.getTargetLetter());
+                mirrored.playTurn(action.transform(s));
+                check(Arrays.equals(CellCodec.encode(mirrored.getGrid()), expected), "action commutes", seed, s);
+            }
+        }
+        System.out.println("All symmetry checks passed on " + boards + " boards.");
+
+        int[][] packed = new int[boards][];
+        for (int i = 0; i < boards; i++) {
+            packed[i] = CellCodec.encode(HeadlessGame.fromSeed(i + 1).getGrid());
+        }
+        long sink = 0;
+        for (int rep = 0; rep < 20; rep++) {
+            for (int[] p : packed) sink += GridCanonicalizer.canonicalize(p).hash64(); // warm-up
+        }
+        int reps = 50;
+        long start = System.nanoTime();
+        for (int rep = 0; rep < reps; rep++) {
+            for (int[] p : packed) sink += GridCanonicalizer.canonicalize(p).hash64();
+        }
+        long elapsed = System.nanoTime() - start;
+        System.out.printf("canonicalize: %.0f ns/board (sink %d)%n", (double) elapsed / (reps * (long) boards), sink & 1);
+    }
+
+    private static void check(boolean ok, String what, long seed, Symmetry s) {
+        if (!ok) {
+            throw new IllegalStateException("Symmetry check failed (" + what + ") on seed " + seed + " for " + s);
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package bench;
+
+import sim.BotSession;
+import sim.Strategies;
+import sim.Strategy;
+import sim.TurnBatchScheduler;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Runs the same bot sessions with one thread per session and with a TurnBatchScheduler, and compares
+ * throughput, turn latency percentiles and fairness (spread of the per-session mean latency).
+ * Every session must reach the same total score both ways.
+ *
+ * Session i plays `games` games on seeds i * games onward and thinks thinkMillis after every turn
+ * (0 = always ready, which measures saturated throughput). Session starts are spread evenly over
+ * the first think time, so the sessions do not all become ready at the same moment.
+ *
+ * Usage: java bench.TurnSchedulerBenchmark [sessions=2000] [games=4] [thinkMillis=500] [strategy=greedy]
+ *        [batchSize=64] [shards=all cores]
+ */
+public final class TurnSchedulerBenchmark {
+
+    private TurnSchedulerBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int sessions = args.length > 0 ? Integer.parseInt(args[0]) : 2000;
+        int games = args.length > 1 ? Integer.parseInt(args[1]) : 4;
+        long thinkNanos = (args.length > 2 ? Long.parseLong(args[2]) : 500) * 1_000_000L;
+        Strategy strategy = Strategies.byName(args.length > 3 ? args[3] : "greedy");
+        int batchSize = args.length > 4 ? Integer.parseInt(args[4]) : 64;
+        int shards = args.length > 5 ? Integer.parseInt(args[5]) : Runtime.getRuntime().availableProcessors();
+
+        // Warm up both paths on a few sessions so neither run pays for JIT compilation alone
+        runThreads(sessions(Math.min(sessions, 50), games, 0, strategy));
+        runScheduler(sessions(Math.min(sessions, 50), games, 0, strategy), 1, batchSize);
+
+        List<BotSession> threaded = sessions(sessions, games, thinkNanos, strategy);
+        double threadSeconds = runThreads(threaded);
+        List<BotSession> batched = sessions(sessions, games, thinkNanos, strategy);
+        double batchSeconds = runScheduler(batched, shards, batchSize);
+
+        for (int i = 0; i < sessions; i++) {
+            if (threaded.get(i).getTotalScore() != batched.get(i).getTotalScore()) {
+                throw new IllegalStateException("Session " + i + " scored differently under the two schedules");
+            }
+        }
+
+        System.out.printf("%d sessions x %d games of %s, think %d ms%n",
+                sessions, games, strategy.getName(), thinkNanos / 1_000_000);
+        report("thread per session (" + sessions + " threads)", threaded, threadSeconds);
+        report("batched (" + shards + " shards, batch " + batchSize + ")", batched, batchSeconds);
+        System.out.println("Scores match.");
+    }
+
+    private static List<BotSession> sessions(int count, int games, long thinkNanos, Strategy strategy) {
+        List<BotSession> out = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            out.add(new BotSession(i, strategy, (long) i * games, games, thinkNanos));
+        }
+        return out;
+    }
+
+    private static double runThreads(List<BotSession> sessions) throws InterruptedException {
+        // Create every thread first, then start all sessions at once
+        List<Thread> threads = new ArrayList<>(sessions.size());
+        CountDownLatch go = new CountDownLatch(1);
+        for (BotSession s : sessions) {
+            Thread t = new Thread(() -> {
+                try {
+                    go.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                while (!s.isDone()) {
+                    long wait = s.getReadyAt() - System.nanoTime();
+                    while (wait > 0) {
+                        LockSupport.parkNanos(wait);
+                        wait = s.getReadyAt() - System.nanoTime();
+                    }
+                    s.playTurn();
+                }
+            }, "session-" + s.getId());
+            threads.add(t);
+            t.start();
+        }
+        long start = System.nanoTime();
+        for (BotSession s : sessions) s.start(startOf(s, sessions.size(), start));
+        go.countDown();
+        for (Thread t : threads) t.join();
+        return (System.nanoTime() - start) / 1e9;
+    }
+
+    private static double runScheduler(List<BotSession> sessions, int shards, int batchSize)
+            throws InterruptedException {
+        long start = System.nanoTime();
+        try (TurnBatchScheduler scheduler = new TurnBatchScheduler(shards, batchSize)) {
+            for (BotSession s : sessions) scheduler.submit(s, startOf(s, sessions.size(), start));
+            scheduler.awaitAll();
+        }
+        return (System.nanoTime() - start) / 1e9;
+    }
+
+    private static long startOf(BotSession session, int sessions, long start) {
+        return start + session.getThinkNanos() * session.getId() / sessions;
+    }
+
+    private static void report(String name, List<BotSession> sessions, double seconds) {
+        int turns = 0;
+        for (BotSession s : sessions) turns += s.getTurns();
+        long[] all = new long[turns];
+        double[] means = new double[sessions.size()];
+        int n = 0;
+        for (int i = 0; i < sessions.size(); i++) {
+            long[] l = sessions.get(i).getLatencies();
+            System.arraycopy(l, 0, all, n, l.length);
+            n += l.length;
+            means[i] = sessions.get(i).getMeanLatencyNanos();
+        }
+        Arrays.sort(all);
+        Arrays.sort(means);
+
+        System.out.println(name + ":");
+        System.out.printf("  %d turns in %.2f s (%.0f turns/s)%n", turns, seconds, turns / seconds);
+        System.out.printf("  latency ms: p50 %.2f, p99 %.2f, p99.9 %.2f, max %.2f%n",
+                percentile(all, 0.50) / 1e6, percentile(all, 0.99) / 1e6, percentile(all, 0.999) / 1e6,
+                all[all.length - 1] / 1e6);
+        System.out.printf("  per-session mean latency ms: best %.2f, median %.2f, worst %.2f%n",
+                means[0] / 1e6, means[means.length / 2] / 1e6, means[means.length - 1] / 1e6);
+    }
+
+    private static double percentile(long[] sorted, double p) {
+        return sorted[Math.min(sorted.length - 1, (int) (p * sorted.length))];
+    }
+}
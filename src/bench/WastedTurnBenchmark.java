@@ -0,0 +1,192 @@
+package bench;
+
+import exceptions.EmptyBoxException;
+import grid.BoxGrid;
+import puzzle.HeadlessGame;
+import puzzle.TurnAction;
+import puzzle.TurnOutcome;
+import search.MoveGenerator;
+import sim.RandomStrategy;
+import tools.SpecialTool;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Turn throughput of exception-based turns (as the console game plays them) versus the TurnOutcome API
+ * used by HeadlessGame, on two workloads:
+ * - mixed: the random strategy's actions, except that a share of the turns (emptyShare, default 0.25)
+ *   opens an empty box when there is one; the random strategy alone almost never picks an empty box
+ * - wasteful: actions that open an empty box or roll a FixedBox edge whenever there is one
+ *
+ * Both paths replay exactly the same actions on fresh copies of the same boards. Each workload is first
+ * played untimed on both paths (warm-up), then timed in interleaved rounds, alternating which path goes
+ * first; the median of the rounds is reported.
+ *
+ * Usage: java bench.WastedTurnBenchmark [games=5000] [rounds=15] [emptyShare=0.25]
+ */
+public final class WastedTurnBenchmark {
+
+    private static final int WARMUP_ROUNDS = 3;
+
+    private WastedTurnBenchmark() {
+    }
+
+    public static void main(String[] args) {
+        int games = args.length > 0 ? Integer.parseInt(args[0]) : 5000;
+        int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 15;
+        double emptyShare = args.length > 2 ? Double.parseDouble(args[2]) : 0.25;
+
+        run("mixed", games, rounds, emptyShare, false);
+        run("wasteful", games, rounds, 1, true);
+    }
+
+    private static void run(String name, int games, int rounds, double emptyShare, boolean wasteful) {
+        Random random = new Random(41);
+        RandomStrategy strategy = new RandomStrategy();
+
+        List<HeadlessGame> starts = new ArrayList<>();
+        List<List<TurnAction>> plays = new ArrayList<>();
+        long turns = 0;
+        long wasted = 0;
+        long empty = 0;
+        for (long seed = 1; seed <= games; seed++) {
+            HeadlessGame game = HeadlessGame.fromSeed(seed);
+            starts.add(new HeadlessGame(game));
+            List<TurnAction> actions = new ArrayList<>();
+            while (!game.isOver()) {
+                TurnAction a = wasteful ? pickWasteful(game, random)
+                        : random.nextDouble() < emptyShare ? pickEmpty(game, strategy, random)
+                        : strategy.chooseTurn(game, random);
+                actions.add(a);
+                if (!game.playTurn(a)) wasted++;
+                if (game.getLastOutcome() == TurnOutcome.EMPTY_BOX) empty++;
+                turns++;
+            }
+            plays.add(actions);
+        }
+        System.out.printf("%s: %d games, %d turns, %.1f%% wasted (%.1f%% empty boxes)%n",
+                name, games, turns, 100.0 * wasted / turns, 100.0 * empty / turns);
+
+        for (int round = 0; round < WARMUP_ROUNDS; round++) {
+            exceptions(starts, plays);
+            outcomes(starts, plays);
+        }
+
+        double[] exceptionRates = new double[rounds];
+        double[] outcomeRates = new double[rounds];
+        for (int round = 0; round < rounds; round++) {
+            long a;
+            long b;
+            long t0 = System.nanoTime();
+            if (round % 2 == 0) {
+                a = exceptions(starts, plays);
+                long t1 = System.nanoTime();
+                b = outcomes(starts, plays);
+                long t2 = System.nanoTime();
+                exceptionRates[round] = turns / ((t1 - t0) / 1e9);
+                outcomeRates[round] = turns / ((t2 - t1) / 1e9);
+            } else {
+                b = outcomes(starts, plays);
+                long t1 = System.nanoTime();
+                a = exceptions(starts, plays);
+                long t2 = System.nanoTime();
+                outcomeRates[round] = turns / ((t1 - t0) / 1e9);
+                exceptionRates[round] = turns / ((t2 - t1) / 1e9);
+            }
+            if (a != b) {
+                throw new IllegalStateException("The paths completed " + a + " and " + b + " turns");
+            }
+        }
+
+        double exceptionRate = median(exceptionRates);
+        double outcomeRate = median(outcomeRates);
+        System.out.printf("  median of %d rounds: exceptions %.0f turns/s, outcomes %.0f turns/s (%.2fx)%n",
+                rounds, exceptionRate, outcomeRate, outcomeRate / exceptionRate);
+    }
+
+    /**
+     * Replays every game through the exception path; returns the number of completed turns.
+     */
+    private static long exceptions(List<HeadlessGame> starts, List<List<TurnAction>> plays) {
+        long completed = 0;
+        for (int g = 0; g < starts.size(); g++) {
+            HeadlessGame start = starts.get(g);
+            BoxGrid grid = new BoxGrid(start.getGrid());
+            for (TurnAction action : plays.get(g)) {
+                if (throwingTurn(grid, action, start.getTargetLetter())) completed++;
+            }
+        }
+        return completed;
+    }
+
+    /**
+     * Replays every game through HeadlessGame; returns the number of completed turns.
+     */
+    private static long outcomes(List<HeadlessGame> starts, List<List<TurnAction>> plays) {
+        long completed = 0;
+        for (int g = 0; g < starts.size(); g++) {
+            HeadlessGame game = new HeadlessGame(starts.get(g));
+            for (TurnAction action : plays.get(g)) {
+                if (game.isOver()) break;
+                if (game.playTurn(action)) completed++;
+            }
+        }
+        return completed;
+    }
+
+    /**
+     * The turn as the console game plays it: every wasted turn is an exception.
+     */
+    private static boolean throwingTurn(BoxGrid grid, TurnAction action, char target) {
+        try {
+            grid.rollFromEdge(action.getEdge(), action.getDirection());
+            SpecialTool tool = grid.openBox(action.getOpen());
+            if (tool == null) {
+                throw new EmptyBoxException("Continuing to the next turn...");
+            }
+            tool.apply(grid, action.getToolTarget(), target);
+            return true;
+        } catch (Exception e) {
+            return false;
+        } finally {
+            grid.resetMovedThisTurn();
+        }
+    }
+
+    private static TurnAction pickWasteful(HeadlessGame game, Random random) {
+        List<TurnAction> actions = MoveGenerator.generate(game);
+        List<TurnAction> wasteful = new ArrayList<>();
+        for (TurnAction a : actions) {
+            // A FixedBox edge or an empty box wastes the turn
+            if (game.getGrid().runLength(a.getEdge(), a.getDirection()) == 0
+                    || game.getGrid().getBox(a.getOpen()).getContentKind() == null) {
+                wasteful.add(a);
+            }
+        }
+        List<TurnAction> from = wasteful.isEmpty() ? actions : wasteful;
+        return from.get(random.nextInt(from.size()));
+    }
+
+    /**
+     * An action that opens an empty box, or the strategy's choice if no box is empty.
+     */
+    private static TurnAction pickEmpty(HeadlessGame game, RandomStrategy strategy, Random random) {
+        List<TurnAction> empty = new ArrayList<>();
+        for (TurnAction a : MoveGenerator.generate(game)) {
+            if (game.getGrid().runLength(a.getEdge(), a.getDirection()) > 0
+                    && game.getGrid().getBox(a.getOpen()).getContentKind() == null) {
+                empty.add(a);
+            }
+        }
+        return empty.isEmpty() ? strategy.chooseTurn(game, random) : empty.get(random.nextInt(empty.size()));
+    }
+
+    private static double median(double[] values) {
+        double[] sorted = values.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2];
+    }
+}
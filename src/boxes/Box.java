@@ -2,6 +2,7 @@ package boxes;
 
 import grid.Direction;
 import tools.SpecialTool;
+import tools.ToolKind;
 
 import java.util.Arrays;
 import java.util.Objects;
@@ -78,6 +79,14 @@ public abstract class Box implements Rollable {
         return surfaces[toIndex(face)];
     }
 
+    /**
+     * Kind of the hidden tool (null if empty), without opening the box.
+     * Used by bots and search; the tool object itself is never exposed.
+     */
+    public final ToolKind getContentKind() {
+        return content == null ? null : ToolKind.of(content);
+    }
+
     /**
      * Returns a defensive copy to avoid privacy leak.
      */
@@ -0,0 +1,488 @@
+package engine;
+
+import grid.BoxGrid;
+import grid.CellCodec;
+import grid.EdgeRollDeltas;
+import puzzle.BoxPuzzle;
+import puzzle.HeadlessGame;
+import puzzle.TurnOutcome;
+import tools.ToolKind;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Plays K games in lockstep on a struct-of-arrays board store: every step (roll, open, tools, end of turn,
+ * score) runs over all K boards in one tight loop, instead of one game at a time over 64 Box objects.
+ *
+ * Layout: one array per field, board-major (index = board * 64 + cell, cells row-major), so the 64 cells
+ * of a board are contiguous in every array:
+ * - six face arrays of letter codes 0..7 (TOP, BOTTOM, LEFT, RIGHT, FRONT, BACK)
+ * - box type (CellCodec.TYPE_*), tool (ToolKind ordinal + 1, 0 = none), opened flag
+ * Per board: target letter, turn, failed flag, and the state of the running turn
+ * (roll option, run length, tool found, outcome).
+ *
+ * Boards a step does not apply to are masked out: games that are over and turns already wasted by
+ * a FixedBox on the chosen edge or an empty box. roll() is the only stage that looks at every slot;
+ * it compacts the playing boards and the boards whose roll moved into lists, so open() and endTurn()
+ * visit only those, and each tool pass only visits the boards that found its tool kind (a list built
+ * while opening). The stages must therefore run in order: roll, open, useTools, endTurn.
+ *
+ * A roll finds its run and rotates it in the same walk along the line. Box types never move, so
+ * only a BoxFixer on an edge cell can take a board's last movable edge: the number of movable edge
+ * cells is counted when loading and kept up to date by the fixer, and the end of the turn just tests it.
+ * Rolls are numbered like EdgeRollDeltas options. Results are the same as HeadlessGame.playTurn()
+ * on a BoxGrid, outcome by outcome and cell by cell (see bench.BatchEngineBenchmark).
+ */
+public final class BatchEngine {
+
+    private static final int N = BoxGrid.SIZE;
+    private static final int CELLS = N * N;
+    private static final int[] OPTION_START = new int[EdgeRollDeltas.OPTIONS];
+    private static final int[] OPTION_STEP = new int[EdgeRollDeltas.OPTIONS];
+    private static final int[] EDGE_CELLS = new int[4 * (N - 1)];
+    private static final boolean[] IS_EDGE = new boolean[CELLS];
+
+    private static final byte OK = (byte) TurnOutcome.OK.ordinal();
+    private static final byte UNMOVABLE = (byte) TurnOutcome.UNMOVABLE_FIXED_BOX.ordinal();
+    private static final byte EMPTY = (byte) TurnOutcome.EMPTY_BOX.ordinal();
+    private static final byte ALREADY_FIXED = (byte) TurnOutcome.BOX_ALREADY_FIXED.ordinal();
+    private static final TurnOutcome[] OUTCOMES = TurnOutcome.values();
+    private static final ToolKind[] KINDS = ToolKind.values();
+
+    static {
+        for (int line = 0; line < N; line++) {
+            OPTION_START[line * 4] = line * N;                  // RIGHT from column 0
+            OPTION_STEP[line * 4] = 1;
+            OPTION_START[line * 4 + 1] = line * N + N - 1;      // LEFT from column N-1
+            OPTION_STEP[line * 4 + 1] = -1;
+            OPTION_START[line * 4 + 2] = line;                  // DOWN from row 0
+            OPTION_STEP[line * 4 + 2] = N;
+            OPTION_START[line * 4 + 3] = (N - 1) * N + line;    // UP from row N-1
+            OPTION_STEP[line * 4 + 3] = -N;
+        }
+        int e = 0;
+        for (int i = 0; i < CELLS; i++) {
+            int r = i / N;
+            int c = i % N;
+            if (r == 0 || r == N - 1 || c == 0 || c == N - 1) {
+                EDGE_CELLS[e++] = i;
+                IS_EDGE[i] = true;
+            }
+        }
+    }
+
+    private final int boards;
+
+    // Per cell (board * 64 + cell)
+    private final byte[] top;
+    private final byte[] bottom;
+    private final byte[] left;
+    private final byte[] right;
+    private final byte[] front;
+    private final byte[] back;
+    private final byte[] type;
+    private final byte[] tool;
+    private final byte[] opened;
+
+    // Faces a roll rotates through TOP, by direction (option & 3): TOP <- from <- BOTTOM <- to
+    private final byte[][] rollFrom;
+    private final byte[][] rollTo;
+
+    // Per board
+    private final byte[] target;
+    private final byte[] turn;
+    private final boolean[] failed;
+    private final byte[] option;
+    private final byte[] run;
+    private final byte[] foundTool;
+    private final byte[] outcome;
+    private final byte[] movableEdges; // edge cells that are not FixedBoxes
+
+    // Boards still playing, and those whose roll moved, in the current turn (filled by roll())
+    private final int[] playing;
+    private int playingCount;
+    private final int[] rolled;
+    private int rolledCount;
+
+    // Boards that found each tool kind in the current turn (filled by open(), used by the tool passes)
+    private final int[][] toolBoards;
+    private final int[] toolBoardCount = new int[ToolKind.values().length];
+
+    public BatchEngine(int boards) {
+        if (boards <= 0 || boards > Integer.MAX_VALUE / CELLS) {
+            throw new IllegalArgumentException("boards out of range: " + boards);
+        }
+        this.boards = boards;
+        int cells = boards * CELLS;
+        this.top = new byte[cells];
+        this.bottom = new byte[cells];
+        this.left = new byte[cells];
+        this.right = new byte[cells];
+        this.front = new byte[cells];
+        this.back = new byte[cells];
+        this.type = new byte[cells];
+        this.tool = new byte[cells];
+        this.opened = new byte[cells];
+        this.target = new byte[boards];
+        this.turn = new byte[boards];
+        this.failed = new boolean[boards];
+        this.option = new byte[boards];
+        this.run = new byte[boards];
+        this.foundTool = new byte[boards];
+        this.outcome = new byte[boards];
+        this.movableEdges = new byte[boards];
+        this.playing = new int[boards];
+        this.rolled = new int[boards];
+        this.rollFrom = new byte[][] {left, right, back, front}; // RIGHT, LEFT, DOWN, UP
+        this.rollTo = new byte[][] {right, left, front, back};
+        this.toolBoards = new int[ToolKind.values().length][boards];
+    }
+
+    public int size() {
+        return boards;
+    }
+
+    // -------------------------
+    // Loading / reading boards
+    // -------------------------
+
+    /**
+     * Starts a game on slot b from a packed board (CellCodec, row-major int[64]).
+     */
+    public void load(int b, int[] cells, char targetLetter) {
+        Objects.checkIndex(b, boards);
+        Objects.requireNonNull(cells, "cells is null");
+        if (cells.length != CELLS) throw new IllegalArgumentException("cells must be an int[" + CELLS + "]");
+
+        // One pass per field: simple loops the JIT can unroll and vectorize
+        int base = b * CELLS;
+        for (int i = 0; i < CELLS; i++) top[base + i] = (byte) (cells[i] & 7);
+        for (int i = 0; i < CELLS; i++) bottom[base + i] = (byte) ((cells[i] >>> 3) & 7);
+        for (int i = 0; i < CELLS; i++) left[base + i] = (byte) ((cells[i] >>> 6) & 7);
+        for (int i = 0; i < CELLS; i++) right[base + i] = (byte) ((cells[i] >>> 9) & 7);
+        for (int i = 0; i < CELLS; i++) front[base + i] = (byte) ((cells[i] >>> 12) & 7);
+        for (int i = 0; i < CELLS; i++) back[base + i] = (byte) ((cells[i] >>> 15) & 7);
+        for (int i = 0; i < CELLS; i++) type[base + i] = (byte) ((cells[i] >>> CellCodec.TYPE_SHIFT) & 3);
+        for (int i = 0; i < CELLS; i++) opened[base + i] = (byte) ((cells[i] >>> 20) & 1);
+        for (int i = 0; i < CELLS; i++) tool[base + i] = (byte) ((cells[i] >>> CellCodec.TOOL_SHIFT) & 7);
+        target[b] = (byte) (Character.toUpperCase(targetLetter) - 'A');
+        turn[b] = 1;
+        outcome[b] = OK;
+        foundTool[b] = 0;
+        movableEdges[b] = (byte) countMovableEdges(base);
+        failed[b] = movableEdges[b] == 0;
+    }
+
+    /**
+     * Starts a game on slot b from a headless game in its current state.
+     */
+    public void load(int b, HeadlessGame game) {
+        Objects.requireNonNull(game, "game is null");
+        load(b, CellCodec.encode(game.getGrid()), game.getTargetLetter());
+        turn[b] = (byte) game.getTurn();
+        failed[b] = game.isFailed();
+    }
+
+    /**
+     * Ends the game of slot b without playing (for unused slots of a last, partial batch).
+     */
+    public void retire(int b) {
+        Objects.checkIndex(b, boards);
+        turn[b] = BoxPuzzle.MAX_TURNS + 1;
+    }
+
+    /**
+     * Current board of slot b in CellCodec form (no moved marks: turns are always complete).
+     */
+    public int[] export(int b) {
+        Objects.checkIndex(b, boards);
+        int[] cells = new int[CELLS];
+        int base = b * CELLS;
+        for (int i = 0; i < CELLS; i++) {
+            int j = base + i;
+            cells[i] = top[j] | bottom[j] << 3 | left[j] << 6 | right[j] << 9 | front[j] << 12 | back[j] << 15
+                    | type[j] << CellCodec.TYPE_SHIFT | (opened[j] != 0 ? CellCodec.OPENED_BIT : 0)
+                    | tool[j] << CellCodec.TOOL_SHIFT;
+        }
+        return cells;
+    }
+
+    public char getTargetLetter(int b) { return (char) ('A' + target[b]); }
+    public int getTurn(int b) { return turn[b]; }
+    public boolean isFailed(int b) { return failed[b]; }
+
+    public boolean isOver(int b) {
+        return failed[b] || turn[b] > BoxPuzzle.MAX_TURNS;
+    }
+
+    /** Outcome of the last turn of board b. */
+    public TurnOutcome getLastOutcome(int b) { return OUTCOMES[outcome[b]]; }
+
+    /** Tool found in the last turn of board b (null if none). */
+    public ToolKind getLastToolKind(int b) { return foundTool[b] == 0 ? null : KINDS[foundTool[b] - 1]; }
+
+    /**
+     * Tool held by the given cell (row-major 0..63) of board b, or null.
+     */
+    public ToolKind toolAt(int b, int cell) {
+        int t = tool[b * CELLS + cell];
+        return t == 0 ? null : KINDS[t - 1];
+    }
+
+    /**
+     * Boxes the roll option would move on board b (0 if a FixedBox sits on the edge), like BoxGrid.runLength().
+     */
+    public int runLength(int b, int option) {
+        int base = b * CELLS;
+        int step = OPTION_STEP[option];
+        int i = OPTION_START[option];
+        int length = 0;
+        while (length < N && type[base + i] != CellCodec.TYPE_FIXED) {
+            length++;
+            i += step;
+        }
+        return length;
+    }
+
+    /**
+     * Boards whose game is not over.
+     */
+    public int countActive() {
+        int n = 0;
+        for (int b = 0; b < boards; b++) {
+            if (!isOver(b)) n++;
+        }
+        return n;
+    }
+
+    // -------------------------
+    // Lockstep turn
+    // -------------------------
+
+    /**
+     * One full turn on every board that is still playing: roll, open, tools, end of turn.
+     *
+     * @param options     roll option (EdgeRollDeltas numbering) per board
+     * @param distances   box to open per board, as its distance from the edge along the roll (0 = edge box)
+     * @param toolTargets tool target cell (row-major 0..63) per board; used only if the opened box holds a tool
+     */
+    public void playTurn(int[] options, int[] distances, int[] toolTargets) {
+        roll(options);
+        open(distances);
+        useTools(toolTargets);
+        endTurn();
+    }
+
+    /**
+     * First stage on every playing board. A FixedBox on the edge wastes the turn (and masks the board
+     * out of the next stages); otherwise the run up to the first FixedBox rotates in the roll direction.
+     */
+    public void roll(int[] options) {
+        checkLength(options, "options");
+        Arrays.fill(toolBoardCount, 0);
+        playingCount = 0;
+        rolledCount = 0;
+        for (int b = 0; b < boards; b++) {
+            foundTool[b] = 0;
+            if (isOver(b)) continue;
+            playing[playingCount++] = b;
+
+            int o = options[b];
+            int length = roll(b * CELLS + OPTION_START[o], OPTION_STEP[o], rollFrom[o & 3], rollTo[o & 3]);
+            option[b] = (byte) o;
+            run[b] = (byte) length;
+            if (length == 0) {
+                outcome[b] = UNMOVABLE;
+            } else {
+                outcome[b] = OK;
+                rolled[rolledCount++] = b;
+            }
+        }
+    }
+
+    /**
+     * Second stage, first half: opens the chosen rolled box and takes its tool. An empty box wastes the turn.
+     */
+    public void open(int[] distances) {
+        checkLength(distances, "distances");
+        for (int k = 0; k < rolledCount; k++) {
+            int b = rolled[k];
+            int d = distances[b];
+            if (d < 0 || d >= run[b]) {
+                throw new IllegalArgumentException("Board " + b + ": distance " + d + " is outside the rolled run of " + run[b]);
+            }
+            int cell = OPTION_START[option[b]] + d * OPTION_STEP[option[b]];
+            int j = b * CELLS + cell;
+            int t = tool[j];
+            foundTool[b] = (byte) t;
+            tool[j] = 0;
+            opened[j] = 1;
+            if (t == 0) outcome[b] = EMPTY;
+            else toolBoards[t - 1][toolBoardCount[t - 1]++] = b;
+        }
+    }
+
+    /**
+     * Second stage, second half: one pass per tool kind over the list of boards that found that tool
+     * (collected by open(), so boards holding another tool or none are never visited).
+     */
+    public void useTools(int[] toolTargets) {
+        checkLength(toolTargets, "toolTargets");
+        stampRows(toolTargets);
+        stampColumns(toolTargets);
+        stampPluses(toolTargets);
+        flip(toolTargets);
+        fix(toolTargets);
+    }
+
+    /**
+     * Ends the turn of every playing board; a board left without a movable edge fails.
+     */
+    public void endTurn() {
+        for (int k = 0; k < playingCount; k++) {
+            int b = playing[k];
+            turn[b]++;
+            if (turn[b] <= BoxPuzzle.MAX_TURNS && movableEdges[b] == 0) failed[b] = true;
+        }
+        playingCount = 0;
+        rolledCount = 0;
+    }
+
+    // -------------------------
+    // Scoring
+    // -------------------------
+
+    /**
+     * Target letters on top of board b.
+     */
+    public int score(int b) {
+        int base = b * CELLS;
+        byte t = target[b];
+        int count = 0;
+        for (int i = base; i < base + CELLS; i++) {
+            count += top[i] == t ? 1 : 0;
+        }
+        return count;
+    }
+
+    /**
+     * Final score of every board into out (0 for failed games), like HeadlessGame.finalScore().
+     */
+    public void finalScores(int[] out) {
+        checkLength(out, "out");
+        for (int b = 0; b < boards; b++) {
+            out[b] = failed[b] ? 0 : score(b);
+        }
+    }
+
+    // -------------------------
+    // Internal utilities
+    // -------------------------
+
+    /**
+     * Rotates the run that starts at cell index i, up to the first FixedBox; returns its length.
+     */
+    private int roll(int i, int step, byte[] from, byte[] to) {
+        int length = 0;
+        while (length < N && type[i] != CellCodec.TYPE_FIXED) {
+            byte t = top[i];
+            top[i] = from[i];
+            from[i] = bottom[i];
+            bottom[i] = to[i];
+            to[i] = t;
+            length++;
+            i += step;
+        }
+        return length;
+    }
+
+    private void stampRows(int[] toolTargets) {
+        int[] list = toolBoards[ToolKind.MASS_ROW_STAMP.ordinal()];
+        for (int n = toolBoardCount[ToolKind.MASS_ROW_STAMP.ordinal()], k = 0; k < n; k++) {
+            int b = list[k];
+            int from = b * CELLS + (toolTargets[b] / N) * N;
+            byte t = target[b];
+            for (int i = from; i < from + N; i++) {
+                if (type[i] != CellCodec.TYPE_UNCHANGING) top[i] = t;
+            }
+        }
+    }
+
+    private void stampColumns(int[] toolTargets) {
+        int[] list = toolBoards[ToolKind.MASS_COLUMN_STAMP.ordinal()];
+        for (int n = toolBoardCount[ToolKind.MASS_COLUMN_STAMP.ordinal()], k = 0; k < n; k++) {
+            int b = list[k];
+            int from = b * CELLS + toolTargets[b] % N;
+            byte t = target[b];
+            for (int i = from; i < b * CELLS + CELLS; i += N) {
+                if (type[i] != CellCodec.TYPE_UNCHANGING) top[i] = t;
+            }
+        }
+    }
+
+    private void stampPluses(int[] toolTargets) {
+        int[] list = toolBoards[ToolKind.PLUS_SHAPE_STAMP.ordinal()];
+        for (int n = toolBoardCount[ToolKind.PLUS_SHAPE_STAMP.ordinal()], k = 0; k < n; k++) {
+            int b = list[k];
+            int cell = toolTargets[b];
+            int r = cell / N;
+            int c = cell % N;
+            int base = b * CELLS;
+            stamp(base + cell, b);
+            if (r > 0) stamp(base + cell - N, b);
+            if (r < N - 1) stamp(base + cell + N, b);
+            if (c > 0) stamp(base + cell - 1, b);
+            if (c < N - 1) stamp(base + cell + 1, b);
+        }
+    }
+
+    private void stamp(int i, int b) {
+        if (type[i] != CellCodec.TYPE_UNCHANGING) top[i] = target[b];
+    }
+
+    private void flip(int[] toolTargets) {
+        int[] list = toolBoards[ToolKind.BOX_FLIPPER.ordinal()];
+        for (int n = toolBoardCount[ToolKind.BOX_FLIPPER.ordinal()], k = 0; k < n; k++) {
+            int b = list[k];
+            int i = b * CELLS + toolTargets[b];
+            if (type[i] == CellCodec.TYPE_FIXED) {
+                outcome[b] = UNMOVABLE;
+                continue;
+            }
+            byte t = top[i];
+            top[i] = bottom[i];
+            bottom[i] = t;
+        }
+    }
+
+    private void fix(int[] toolTargets) {
+        int[] list = toolBoards[ToolKind.BOX_FIXER.ordinal()];
+        for (int n = toolBoardCount[ToolKind.BOX_FIXER.ordinal()], k = 0; k < n; k++) {
+            int b = list[k];
+            int cell = toolTargets[b];
+            int i = b * CELLS + cell;
+            if (type[i] == CellCodec.TYPE_FIXED) {
+                outcome[b] = ALREADY_FIXED;
+                continue;
+            }
+            if (IS_EDGE[cell]) movableEdges[b]--;
+            type[i] = CellCodec.TYPE_FIXED;
+            tool[i] = 0;
+            opened[i] = 1;
+        }
+    }
+
+    private int countMovableEdges(int base) {
+        int n = 0;
+        for (int e : EDGE_CELLS) {
+            if (type[base + e] != CellCodec.TYPE_FIXED) n++;
+        }
+        return n;
+    }
+
+    private void checkLength(int[] a, String name) {
+        Objects.requireNonNull(a, name + " is null");
+        if (a.length < boards) throw new IllegalArgumentException(name + " must hold one value per board");
+    }
+}
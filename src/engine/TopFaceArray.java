@@ -0,0 +1,152 @@
+package engine;
+
+import grid.BoxGrid;
+import grid.CellCodec;
+import storage.OffHeapBoard;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.util.Objects;
+
+/**
+ * Top letters of a board packed one byte per cell (row-major), plus a byte mask of the cells
+ * that take stamps (0xFF) or ignore them (0x00, UnchangingBox).
+ *
+ * Scoring and row stamping work on 8 cells at a time with SWAR (SIMD within a 64-bit register):
+ * - counting: XOR with the broadcast letter, then count the zero bytes of each word
+ * - row stamp: blend the broadcast letter into the word through the mask
+ * Columns are strided and stamped cell by cell. A plain scalar path gives the reference answers;
+ * set -Dboxpuzzle.swar=false to use it everywhere.
+ */
+public final class TopFaceArray {
+
+    static final boolean SWAR = Boolean.parseBoolean(System.getProperty("boxpuzzle.swar", "true"));
+
+    private static final VarHandle WORD = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+    private static final long ONES = 0x0101010101010101L;
+    private static final long LOW7 = 0x7F7F7F7F7F7F7F7FL;
+
+    private final int rows;
+    private final int cols;
+    private final byte[] tops;
+    private final byte[] stampMask;
+
+    public TopFaceArray(int rows, int cols) {
+        long cells = (long) rows * cols;
+        if (rows <= 0 || cols <= 0 || cells > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("Board size out of range: " + rows + "x" + cols);
+        }
+        this.rows = rows;
+        this.cols = cols;
+        this.tops = new byte[(int) cells];
+        this.stampMask = new byte[(int) cells];
+    }
+
+    public static TopFaceArray of(BoxGrid grid) {
+        int[] cells = CellCodec.encode(grid);
+        TopFaceArray a = new TopFaceArray(BoxGrid.SIZE, BoxGrid.SIZE);
+        for (int i = 0; i < cells.length; i++) a.set(i, cells[i]);
+        return a;
+    }
+
+    public static TopFaceArray of(OffHeapBoard board) {
+        Objects.requireNonNull(board, "board is null");
+        TopFaceArray a = new TopFaceArray(board.getRows(), board.getCols());
+        int i = 0;
+        for (int r = 0; r < board.getRows(); r++) {
+            for (int c = 0; c < board.getCols(); c++) {
+                a.set(i++, board.getCell(r, c));
+            }
+        }
+        return a;
+    }
+
+    private void set(int i, int cell) {
+        tops[i] = (byte) CellCodec.topLetter(cell);
+        stampMask[i] = (byte) (CellCodec.type(cell) == CellCodec.TYPE_UNCHANGING ? 0 : 0xFF);
+    }
+
+    public int getRows() { return rows; }
+    public int getCols() { return cols; }
+
+    public char getTopLetter(int row, int col) {
+        return (char) tops[row * cols + col];
+    }
+
+    // -------------------------
+    // Scoring
+    // -------------------------
+
+    /**
+     * Number of cells showing the letter on top (BoxPuzzle.endGame count).
+     */
+    public long countTopLetter(char letter) {
+        byte L = (byte) Character.toUpperCase(letter);
+        return SWAR ? countSwar(tops, 0, tops.length, L) : countScalar(tops, 0, tops.length, L);
+    }
+
+    static long countScalar(byte[] a, int from, int to, byte letter) {
+        long count = 0;
+        for (int i = from; i < to; i++) {
+            if (a[i] == letter) count++;
+        }
+        return count;
+    }
+
+    static long countSwar(byte[] a, int from, int to, byte letter) {
+        long pattern = (letter & 0xFFL) * ONES;
+        long count = 0;
+        int i = from;
+        for (; i + 8 <= to; i += 8) {
+            long x = (long) WORD.get(a, i) ^ pattern;
+            // High bit set exactly in the bytes of x that are zero
+            long zero = ~(((x & LOW7) + LOW7) | x | LOW7);
+            count += Long.bitCount(zero);
+        }
+        return count + countScalar(a, i, to, letter);
+    }
+
+    // -------------------------
+    // Stamping (UnchangingBox cells are skipped through the mask)
+    // -------------------------
+
+    /**
+     * MassRowStamp on a 0-based row.
+     */
+    public void stampRow(int row, char letter) {
+        Objects.checkIndex(row, rows);
+        byte L = (byte) Character.toUpperCase(letter);
+        int from = row * cols;
+        if (SWAR) stampSwar(from, from + cols, L);
+        else stampScalar(from, from + cols, L);
+    }
+
+    /**
+     * MassColumnStamp on a 0-based column.
+     */
+    public void stampColumn(int col, char letter) {
+        Objects.checkIndex(col, cols);
+        byte L = (byte) Character.toUpperCase(letter);
+        for (int i = col; i < tops.length; i += cols) {
+            if (stampMask[i] != 0) tops[i] = L;
+        }
+    }
+
+    void stampScalar(int from, int to, byte letter) {
+        for (int i = from; i < to; i++) {
+            if (stampMask[i] != 0) tops[i] = letter;
+        }
+    }
+
+    void stampSwar(int from, int to, byte letter) {
+        long pattern = (letter & 0xFFL) * ONES;
+        int i = from;
+        for (; i + 8 <= to; i += 8) {
+            long m = (long) WORD.get(stampMask, i);
+            long old = (long) WORD.get(tops, i);
+            WORD.set(tops, i, (old & ~m) | (pattern & m));
+        }
+        stampScalar(i, to, letter);
+    }
+}
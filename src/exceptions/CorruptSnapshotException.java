@@ -0,0 +1,23 @@
+package exceptions;
+
+/**
+ * Thrown when a saved game snapshot cannot be trusted
+ * (unknown format version, checksum mismatch or impossible content).
+ */
+public class CorruptSnapshotException extends Exception {
+
+    private static final String DEFAULT_MESSAGE =
+            "The saved game is corrupt and cannot be restored.";
+
+    public CorruptSnapshotException() {
+        super(DEFAULT_MESSAGE);
+    }
+
+    public CorruptSnapshotException(String message) {
+        super(isBlank(message) ? DEFAULT_MESSAGE : message.trim());
+    }
+
+    private static boolean isBlank(String s) {
+        return s == null || s.trim().isEmpty();
+    }
+}
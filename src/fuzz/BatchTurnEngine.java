@@ -0,0 +1,84 @@
+package fuzz;
+
+import engine.BatchEngine;
+import grid.BoxGrid;
+import grid.EdgeRollDeltas;
+import grid.Position;
+import puzzle.TurnAction;
+import puzzle.TurnOutcome;
+
+/**
+ * BatchEngine with a single board. TurnActions are translated to roll options, distances and target cells;
+ * actions the batch engine cannot express are rejected here with the same exceptions as HeadlessGame.
+ */
+public final class BatchTurnEngine implements TurnEngine {
+
+    private static final int N = BoxGrid.SIZE;
+
+    private final BatchEngine engine = new BatchEngine(1);
+    private final int[] option = new int[1];
+    private final int[] distance = new int[1];
+    private final int[] toolTarget = new int[1];
+
+    @Override
+    public String getName() {
+        return "batch";
+    }
+
+    @Override
+    public void start(int[] cells, char targetLetter) {
+        engine.load(0, cells, targetLetter);
+    }
+
+    @Override
+    public TurnOutcome play(TurnAction action) {
+        if (engine.isOver(0)) {
+            throw new IllegalStateException("The game is already over.");
+        }
+        Position edge = action.getEdge();
+        int o = EdgeRollDeltas.indexOf(edge, action.getDirection()); // rejects non-inward directions
+        int run = engine.runLength(0, o);
+
+        int d = 0;
+        int target = 0;
+        if (run > 0) {
+            Position open = action.getOpen();
+            d = switch (action.getDirection()) {
+                case DOWN -> open.getCol() == edge.getCol() ? open.getRow() - edge.getRow() : -1;
+                case UP -> open.getCol() == edge.getCol() ? edge.getRow() - open.getRow() : -1;
+                case RIGHT -> open.getRow() == edge.getRow() ? open.getCol() - edge.getCol() : -1;
+                case LEFT -> open.getRow() == edge.getRow() ? edge.getCol() - open.getCol() : -1;
+            };
+            if (d < 0 || d >= run) {
+                throw new IllegalArgumentException("The box at " + open + " is not rolled by " + action);
+            }
+            int openCell = (open.getRow() - 1) * N + open.getCol() - 1;
+            Position t = action.getToolTarget();
+            if (engine.toolAt(0, openCell) != null && t == null) {
+                throw new IllegalArgumentException("The box at " + open + " holds a tool but no target was given.");
+            }
+            if (t != null) target = (t.getRow() - 1) * N + t.getCol() - 1;
+        }
+
+        option[0] = o;
+        distance[0] = d;
+        toolTarget[0] = target;
+        engine.playTurn(option, distance, toolTarget);
+        return engine.getLastOutcome(0);
+    }
+
+    @Override
+    public int[] cells() {
+        return engine.export(0);
+    }
+
+    @Override
+    public int getTurn() {
+        return engine.getTurn(0);
+    }
+
+    @Override
+    public boolean isFailed() {
+        return engine.isFailed(0);
+    }
+}
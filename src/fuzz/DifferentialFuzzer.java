@@ -0,0 +1,381 @@
+package fuzz;
+
+import grid.BoxGrid;
+import grid.CellCodec;
+import grid.Direction;
+import grid.Position;
+import puzzle.BoardGenerator;
+import puzzle.BoxPuzzle;
+import puzzle.TurnAction;
+import puzzle.TurnOutcome;
+import util.UnsharedRandom;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Plays random seeded boards and random action sequences on the reference engine (HeadlessGame on BoxGrid)
+ * and on alternative engines side by side, comparing the full state at the start and after every step:
+ * the step result (outcome, rejection or crash, compared by exception class), every packed cell,
+ * the turn and the failure flag. The reference starts from HeadlessGame.fromSeed(seed), the object path,
+ * while the other engines start from the packed generator, so a codec or generator bug diverges too.
+ *
+ * Actions are drawn from the reference state, mostly legal (an edge box with an inward direction,
+ * a box of its run, a tool target biased towards FixedBoxes and UnchangingBoxes, where the subtle rules live)
+ * and partly illegal (non-edge or non-inward rolls, boxes outside the run, missing tool targets).
+ * Every case plays past the last turn, so rejections of finished games are compared too.
+ *
+ * Cases are handed out in chunks to a thread pool, each thread with its own engines. A failing case is
+ * cut after its first divergence and shrunk (delta debugging over the action list) to a minimal
+ * FuzzCase that can be written as a line and replayed.
+ */
+public final class DifferentialFuzzer {
+
+    public static final String REFERENCE = "object";
+
+    private static final int N = BoxGrid.SIZE;
+    private static final int CHUNK_SIZE = 64;
+    private static final int MAX_STEPS = BoxPuzzle.MAX_TURNS + 2;
+    private static final int MAX_FAILURES = 20;
+
+    private final List<String> engines;
+    private final int threads;
+
+    public DifferentialFuzzer(List<String> engines, int threads) {
+        Objects.requireNonNull(engines, "engines is null");
+        if (engines.isEmpty()) throw new IllegalArgumentException("At least one engine is required.");
+        for (String name : engines) TurnEngines.byName(name); // fail fast on unknown names
+        if (threads <= 0) throw new IllegalArgumentException("threads must be positive");
+
+        this.engines = List.copyOf(engines);
+        this.threads = threads;
+    }
+
+    /**
+     * Fuzzes the seeds [firstSeed, firstSeed + cases); keeps at most MAX_FAILURES shrunk failures.
+     */
+    public FuzzReport run(long firstSeed, long cases) throws InterruptedException {
+        if (cases <= 0) throw new IllegalArgumentException("cases must be positive");
+
+        AtomicLong nextChunk = new AtomicLong();
+        long chunks = (cases + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        long start = System.nanoTime();
+        try {
+            List<Future<Worker>> futures = new ArrayList<>(threads);
+            for (int t = 0; t < threads; t++) {
+                futures.add(pool.submit(new Worker(firstSeed, cases, chunks, nextChunk)));
+            }
+
+            long steps = 0;
+            long played = 0;
+            List<FuzzCase> failures = new ArrayList<>();
+            List<String> reasons = new ArrayList<>();
+            for (Future<Worker> f : futures) {
+                Worker w = f.get();
+                steps += w.steps;
+                played += w.cases;
+                for (int i = 0; i < w.failures.size() && failures.size() < MAX_FAILURES; i++) {
+                    failures.add(w.failures.get(i));
+                    reasons.add(w.reasons.get(i));
+                }
+            }
+            return new FuzzReport(engines, played, steps, failures, reasons, System.nanoTime() - start, threads);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Fuzzing failed: " + e.getCause(), e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    // -------------------------
+    // Replay / shrink
+    // -------------------------
+
+    /**
+     * Replays a case on fresh engines; returns the first divergence (null if the engines agree).
+     */
+    public static String replay(FuzzCase c) {
+        return replay(c, new ObjectTurnEngine(), TurnEngines.byName(c.getEngine()));
+    }
+
+    /**
+     * First divergence of the case between the two engines, or null.
+     */
+    public static String replay(FuzzCase c, ObjectTurnEngine reference, TurnEngine other) {
+        int[] cells = new int[N * N];
+        char target = board(c.getSeed(), cells);
+        reference.start(c.getSeed());
+        String crash = start(other, cells, target);
+        if (crash != null) return "start: " + other.getName() + " " + crash;
+
+        String d = compareState(reference, other, -1, null);
+        List<TurnAction> actions = c.getActions();
+        for (int i = 0; d == null && i < actions.size(); i++) {
+            TurnAction a = actions.get(i);
+            String expected = step(reference, a);
+            String actual = step(other, a);
+            d = expected.equals(actual)
+                    ? compareState(reference, other, i, a)
+                    : "step " + i + " (" + a + "): " + reference.getName() + " " + expected
+                            + ", " + other.getName() + " " + actual;
+        }
+        return d;
+    }
+
+    /**
+     * Smallest failing case found by removing actions: first everything after the first divergence,
+     * then chunks of halving size (delta debugging) until no single action can be removed.
+     */
+    public static FuzzCase shrink(FuzzCase failing, ObjectTurnEngine reference, TurnEngine other) {
+        List<TurnAction> actions = new ArrayList<>(failing.getActions());
+        for (int n = 0; n <= actions.size(); n++) {
+            if (replay(failing.withActions(actions.subList(0, n)), reference, other) != null) {
+                actions = new ArrayList<>(actions.subList(0, n));
+                break;
+            }
+        }
+
+        int chunk = Math.max(1, actions.size() / 2);
+        while (true) {
+            boolean removed = false;
+            for (int from = 0; from < actions.size(); ) {
+                List<TurnAction> candidate = new ArrayList<>(actions.subList(0, from));
+                candidate.addAll(actions.subList(Math.min(actions.size(), from + chunk), actions.size()));
+                if (replay(failing.withActions(candidate), reference, other) != null) {
+                    actions = candidate;
+                    removed = true;
+                } else {
+                    from += chunk;
+                }
+            }
+            if (chunk == 1 && !removed) break;
+            if (!removed) chunk = Math.max(1, chunk / 2);
+        }
+        return failing.withActions(actions);
+    }
+
+    // -------------------------
+    // Worker
+    // -------------------------
+
+    private final class Worker implements Callable<Worker> {
+
+        private final long firstSeed;
+        private final long total;
+        private final long chunks;
+        private final AtomicLong nextChunk;
+
+        private long cases;
+        private long steps;
+        private final List<FuzzCase> failures = new ArrayList<>();
+        private final List<String> reasons = new ArrayList<>();
+
+        Worker(long firstSeed, long total, long chunks, AtomicLong nextChunk) {
+            this.firstSeed = firstSeed;
+            this.total = total;
+            this.chunks = chunks;
+            this.nextChunk = nextChunk;
+        }
+
+        @Override
+        public Worker call() {
+            ObjectTurnEngine reference = new ObjectTurnEngine();
+            TurnEngine[] others = new TurnEngine[engines.size()];
+            for (int i = 0; i < others.length; i++) others[i] = TurnEngines.byName(engines.get(i));
+
+            int[] cells = new int[N * N];
+            List<TurnAction> actions = new ArrayList<>(MAX_STEPS);
+            long chunk;
+            while ((chunk = nextChunk.getAndIncrement()) < chunks) {
+                long from = chunk * CHUNK_SIZE;
+                long to = Math.min(total, from + CHUNK_SIZE);
+                for (long i = from; i < to; i++) {
+                    fuzz(firstSeed + i, reference, others, cells, actions);
+                }
+            }
+            return this;
+        }
+
+        private void fuzz(long seed, ObjectTurnEngine reference, TurnEngine[] others, int[] cells,
+                          List<TurnAction> actions) {
+            cases++;
+            char target = board(seed, cells);
+            reference.start(seed);
+            actions.clear();
+            boolean[] diverged = new boolean[others.length];
+            for (int i = 0; i < others.length; i++) {
+                if (start(others[i], cells, target) != null || compareState(reference, others[i], -1, null) != null) {
+                    diverged[i] = true;
+                    report(new FuzzCase(others[i].getName(), seed, actions));
+                }
+            }
+
+            Random random = new UnsharedRandom(seed * 0x9E3779B97F4A7C15L);
+            for (int s = 0; s < MAX_STEPS; s++) {
+                TurnAction a = nextAction(reference.cells(), random);
+                actions.add(a);
+                steps++;
+                String expected = step(reference, a);
+                for (int i = 0; i < others.length; i++) {
+                    if (diverged[i]) continue;
+                    String actual = step(others[i], a);
+                    if (!expected.equals(actual) || compareState(reference, others[i], s, a) != null) {
+                        diverged[i] = true;
+                        report(new FuzzCase(others[i].getName(), seed, actions));
+                    }
+                }
+            }
+        }
+
+        private void report(FuzzCase failing) {
+            if (failures.size() >= MAX_FAILURES) return;
+            ObjectTurnEngine reference = new ObjectTurnEngine();
+            TurnEngine other = TurnEngines.byName(failing.getEngine());
+            FuzzCase shrunk = shrink(failing, reference, other);
+            failures.add(shrunk);
+            reasons.add(replay(shrunk, reference, other));
+        }
+    }
+
+    // -------------------------
+    // Internal utilities
+    // -------------------------
+
+    /**
+     * The seeded board, drawn like HeadlessGame.fromSeed(); returns the target letter.
+     */
+    private static char board(long seed, int[] cells) {
+        BoardGenerator generator = new BoardGenerator(seed);
+        char target = generator.randomTargetLetter();
+        generator.fillPacked(cells);
+        return target;
+    }
+
+    /**
+     * Starts an engine; returns null, or the class of the exception it crashed with.
+     */
+    private static String start(TurnEngine engine, int[] cells, char target) {
+        try {
+            engine.start(cells, target);
+            return null;
+        } catch (RuntimeException e) {
+            return e.getClass().getName();
+        }
+    }
+
+    /**
+     * Plays one action and describes the result: the outcome, or the class of the exception.
+     * Any RuntimeException counts (a crash is a divergence like any other, and gets shrunk and reported).
+     */
+    private static String step(TurnEngine engine, TurnAction a) {
+        try {
+            TurnOutcome outcome = engine.play(a);
+            return outcome.name();
+        } catch (RuntimeException e) {
+            return e.getClass().getName();
+        }
+    }
+
+    private static String compareState(TurnEngine reference, TurnEngine other, int step, TurnAction a) {
+        String where = step < 0 ? "start" : "after step " + step + " (" + a + ")";
+        try {
+            return compareState(reference, other, where);
+        } catch (RuntimeException e) {
+            return where + ": reading the state of " + other.getName() + " threw " + e;
+        }
+    }
+
+    private static String compareState(TurnEngine reference, TurnEngine other, String where) {
+        if (reference.getTurn() != other.getTurn() || reference.isFailed() != other.isFailed()) {
+            return where + ": turn/failed " + reference.getTurn() + "/" + reference.isFailed()
+                    + " vs " + other.getTurn() + "/" + other.isFailed() + " in " + other.getName();
+        }
+        int[] expected = reference.cells();
+        int[] actual = other.cells();
+        for (int i = 0; i < expected.length; i++) {
+            if (expected[i] != actual[i]) {
+                return where + ": cell " + new Position(i / N + 1, i % N + 1) + " is "
+                        + Integer.toHexString(actual[i]) + " in " + other.getName()
+                        + ", expected " + Integer.toHexString(expected[i]);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * About 80% legal actions; the rest break one rule each.
+     */
+    private static TurnAction nextAction(int[] cells, Random random) {
+        int kind = random.nextInt(10);
+
+        Position edge;
+        Direction d;
+        if (kind == 0) {
+            edge = new Position(random.nextInt(N) + 1, random.nextInt(N) + 1);     // any cell, any direction
+            d = Direction.values()[random.nextInt(4)];
+        } else {
+            int line = random.nextInt(N);
+            switch (random.nextInt(4)) {
+                case 0 -> { edge = new Position(line + 1, 1); d = Direction.RIGHT; }
+                case 1 -> { edge = new Position(line + 1, N); d = Direction.LEFT; }
+                case 2 -> { edge = new Position(1, line + 1); d = Direction.DOWN; }
+                default -> { edge = new Position(N, line + 1); d = Direction.UP; }
+            }
+        }
+
+        Position open;
+        if (kind == 1 || !edge.isEdge()) {
+            open = new Position(random.nextInt(N) + 1, random.nextInt(N) + 1);   // usually outside the run
+        } else {
+            int run = runLength(cells, edge, d);
+            open = edge;
+            for (int i = run > 0 ? random.nextInt(run) : 0; i > 0; i--) open = open.move(d);
+        }
+
+        Position toolTarget = kind == 2 ? null : toolTarget(cells, random);
+        return new TurnAction(edge, d, open, toolTarget);
+    }
+
+    /**
+     * A random cell, a FixedBox or UnchangingBox one third of the time if there is one.
+     */
+    private static Position toolTarget(int[] cells, Random random) {
+        int i = random.nextInt(N * N);
+        if (random.nextInt(3) == 0) {
+            for (int k = 0; k < N * N; k++) {
+                int j = (i + k) % (N * N);
+                if (CellCodec.type(cells[j]) != CellCodec.TYPE_REGULAR) {
+                    i = j;
+                    break;
+                }
+            }
+        }
+        return new Position(i / N + 1, i % N + 1);
+    }
+
+    /**
+     * Boxes rolled from the edge in the given direction (also for non-inward directions, which the engines reject).
+     */
+    private static int runLength(int[] cells, Position edge, Direction d) {
+        int r = edge.getRow() - 1;
+        int c = edge.getCol() - 1;
+        int dr = d == Direction.DOWN ? 1 : d == Direction.UP ? -1 : 0;
+        int dc = d == Direction.RIGHT ? 1 : d == Direction.LEFT ? -1 : 0;
+        int length = 0;
+        while (r >= 0 && r < N && c >= 0 && c < N && CellCodec.type(cells[r * N + c]) != CellCodec.TYPE_FIXED) {
+            length++;
+            r += dr;
+            c += dc;
+        }
+        return length;
+    }
+}
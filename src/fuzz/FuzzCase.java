@@ -0,0 +1,79 @@
+package fuzz;
+
+import grid.Direction;
+import grid.Position;
+import puzzle.TurnAction;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * A replayable fuzz input: the seeded board (BoardGenerator(seed), target letter drawn first) and the
+ * actions played on it, plus the engine that disagreed with the reference.
+ *
+ * Line format: "engine=batch seed=42 actions=R1-C1 RIGHT R1-C3 R5-C5|R8-C2 UP R6-C2 -"
+ * (edge, direction, opened box, tool target or "-" for none; actions separated by '|').
+ */
+public final class FuzzCase {
+
+    private final String engine;
+    private final long seed;
+    private final List<TurnAction> actions;
+
+    public FuzzCase(String engine, long seed, List<TurnAction> actions) {
+        this.engine = Objects.requireNonNull(engine, "engine is null");
+        this.seed = seed;
+        this.actions = List.copyOf(actions);
+    }
+
+    public String getEngine() { return engine; }
+    public long getSeed() { return seed; }
+    public List<TurnAction> getActions() { return actions; }
+
+    public FuzzCase withActions(List<TurnAction> newActions) {
+        return new FuzzCase(engine, seed, newActions);
+    }
+
+    public String toLine() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("engine=").append(engine).append(" seed=").append(seed).append(" actions=");
+        for (int i = 0; i < actions.size(); i++) {
+            TurnAction a = actions.get(i);
+            if (i > 0) sb.append('|');
+            sb.append(a.getEdge()).append(' ').append(a.getDirection()).append(' ').append(a.getOpen()).append(' ')
+                    .append(a.getToolTarget() == null ? "-" : a.getToolTarget().toString());
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Parses a line written by toLine().
+     */
+    public static FuzzCase parse(String line) {
+        Objects.requireNonNull(line, "line is null");
+        String s = line.trim();
+        if (!s.startsWith("engine=") || !s.contains(" seed=") || !s.contains(" actions=")) {
+            throw new IllegalArgumentException("Not a fuzz case: " + line);
+        }
+        String engine = s.substring("engine=".length(), s.indexOf(" seed="));
+        long seed = Long.parseLong(s.substring(s.indexOf(" seed=") + 6, s.indexOf(" actions=")));
+        String list = s.substring(s.indexOf(" actions=") + 9).trim();
+
+        List<TurnAction> actions = new ArrayList<>();
+        if (!list.isEmpty()) {
+            for (String a : list.split("\\|")) {
+                String[] p = a.trim().split(" ");
+                if (p.length != 4) throw new IllegalArgumentException("Invalid action: " + a);
+                actions.add(new TurnAction(Position.parse(p[0]), Direction.valueOf(p[1]), Position.parse(p[2]),
+                        p[3].equals("-") ? null : Position.parse(p[3])));
+            }
+        }
+        return new FuzzCase(engine, seed, actions);
+    }
+
+    @Override
+    public String toString() {
+        return toLine();
+    }
+}
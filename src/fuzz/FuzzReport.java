@@ -0,0 +1,57 @@
+package fuzz;
+
+import java.util.List;
+
+/**
+ * Result of a DifferentialFuzzer run: volume, throughput and the shrunk failing cases with their divergence.
+ */
+public final class FuzzReport {
+
+    private final List<String> engines;
+    private final long cases;
+    private final long steps;
+    private final List<FuzzCase> failures;
+    private final List<String> reasons;
+    private final long elapsedNanos;
+    private final int threads;
+
+    FuzzReport(List<String> engines, long cases, long steps, List<FuzzCase> failures, List<String> reasons,
+               long elapsedNanos, int threads) {
+        this.engines = List.copyOf(engines);
+        this.cases = cases;
+        this.steps = steps;
+        this.failures = List.copyOf(failures);
+        this.reasons = List.copyOf(reasons);
+        this.elapsedNanos = elapsedNanos;
+        this.threads = threads;
+    }
+
+    public long getCases() { return cases; }
+    public long getSteps() { return steps; }
+
+    /** Shrunk failing cases, replayable with DifferentialFuzzer.replay(). */
+    public List<FuzzCase> getFailures() { return failures; }
+
+    /** First divergence of each failing case (same order as getFailures()). */
+    public List<String> getReasons() { return reasons; }
+
+    public double getStepsPerMinute() {
+        return elapsedNanos == 0 ? 0.0 : steps * 60e9 / elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("object vs %s: %d cases, %d steps on %d threads in %.2f s => %.2fM steps/min%n",
+                String.join(",", engines), cases, steps, threads, elapsedNanos / 1e9, getStepsPerMinute() / 1e6));
+        if (failures.isEmpty()) {
+            sb.append("no divergence");
+        } else {
+            sb.append(failures.size()).append(" failing case(s):");
+            for (int i = 0; i < failures.size(); i++) {
+                sb.append(String.format("%n# %s%n%s", reasons.get(i), failures.get(i).toLine()));
+            }
+        }
+        return sb.toString();
+    }
+}
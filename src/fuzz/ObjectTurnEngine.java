@@ -0,0 +1,54 @@
+package fuzz;
+
+import grid.CellCodec;
+import puzzle.HeadlessGame;
+import puzzle.TurnAction;
+import puzzle.TurnOutcome;
+
+/**
+ * The reference: HeadlessGame on Box objects in a BoxGrid.
+ * The fuzzer starts it with start(seed), through the object generator, so it shares neither
+ * CellCodec.decode nor the packed generator with the engines under test.
+ */
+public final class ObjectTurnEngine implements TurnEngine {
+
+    private HeadlessGame game;
+
+    @Override
+    public String getName() {
+        return "object";
+    }
+
+    /**
+     * Starts on the board of HeadlessGame.fromSeed(seed).
+     */
+    public void start(long seed) {
+        game = HeadlessGame.fromSeed(seed);
+    }
+
+    @Override
+    public void start(int[] cells, char targetLetter) {
+        game = new HeadlessGame(CellCodec.decode(cells), targetLetter);
+    }
+
+    @Override
+    public TurnOutcome play(TurnAction action) {
+        game.playTurn(action);
+        return game.getLastOutcome();
+    }
+
+    @Override
+    public int[] cells() {
+        return CellCodec.encode(game.getGrid());
+    }
+
+    @Override
+    public int getTurn() {
+        return game.getTurn();
+    }
+
+    @Override
+    public boolean isFailed() {
+        return game.isFailed();
+    }
+}
@@ -0,0 +1,45 @@
+package fuzz;
+
+import grid.PersistentGrid;
+import puzzle.PersistentGame;
+import puzzle.TurnAction;
+import puzzle.TurnOutcome;
+
+/**
+ * PersistentGame on a PersistentGrid: each turn replaces the immutable state.
+ */
+public final class PersistentTurnEngine implements TurnEngine {
+
+    private PersistentGame game;
+
+    @Override
+    public String getName() {
+        return "persistent";
+    }
+
+    @Override
+    public void start(int[] cells, char targetLetter) {
+        game = PersistentGame.start(PersistentGrid.of(cells), targetLetter);
+    }
+
+    @Override
+    public TurnOutcome play(TurnAction action) {
+        game = game.play(action);
+        return game.getLastOutcome();
+    }
+
+    @Override
+    public int[] cells() {
+        return game.getGrid().toCells();
+    }
+
+    @Override
+    public int getTurn() {
+        return game.getTurn();
+    }
+
+    @Override
+    public boolean isFailed() {
+        return game.isFailed();
+    }
+}
@@ -0,0 +1,31 @@
+package fuzz;
+
+import puzzle.TurnAction;
+import puzzle.TurnOutcome;
+
+/**
+ * One game engine as seen by the differential fuzzer: start a game, play turns, read back the full state.
+ *
+ * Engines must agree with HeadlessGame on everything observable:
+ * - play() throws IllegalArgumentException for actions the console would re-prompt for,
+ *   and IllegalStateException once the game is over, without changing the state
+ * - otherwise it returns the turn outcome (wasted turns are outcomes, not exceptions)
+ * - cells() is the board in CellCodec form without moved-this-turn marks
+ */
+public interface TurnEngine {
+
+    String getName();
+
+    /**
+     * Starts a new game on a packed board (CellCodec, row-major int[64]).
+     */
+    void start(int[] cells, char targetLetter);
+
+    TurnOutcome play(TurnAction action);
+
+    int[] cells();
+
+    int getTurn();
+
+    boolean isFailed();
+}
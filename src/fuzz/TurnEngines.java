@@ -0,0 +1,30 @@
+package fuzz;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Name-based lookup of the engines the fuzzer can compare (for command-line tools).
+ */
+public final class TurnEngines {
+
+    private TurnEngines() {
+        // utility class; prevent instantiation
+    }
+
+    /**
+     * A new engine instance; engines are not thread-safe, so every thread creates its own.
+     */
+    public static TurnEngine byName(String name) {
+        return switch (name.trim().toLowerCase(Locale.ROOT)) {
+            case "object" -> new ObjectTurnEngine();
+            case "persistent" -> new PersistentTurnEngine();
+            case "batch" -> new BatchTurnEngine();
+            default -> throw new IllegalArgumentException("Unknown engine: " + name);
+        };
+    }
+
+    public static List<String> names() {
+        return List.of("object", "persistent", "batch");
+    }
+}
@@ -5,8 +5,11 @@ import boxes.FixedBox;
 import boxes.RegularBox;
 import boxes.UnchangingBox;
 import exceptions.UnmovableFixedBoxException;
+import puzzle.TurnOutcome;
+import tools.SpecialTool;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Objects;
@@ -26,6 +29,19 @@ public class BoxGrid {
     private final List<List<Box>> grid;         // 8x8, never exposed
     private final Set<Position> movedThisTurn;  // boxes rolled in the first stage (used for "open" validation)
 
+    // Line-reachability index. A "blocker" is a FixedBox (or a still-empty cell):
+    // bit c of blockedInRow[r] / bit r of blockedInCol[c] is set when (r, c) is one.
+    // reachInRow[r] / reachInCol[c] hold the cells that a roll along that line can move;
+    // all four are refreshed only for the row and column of a cell whose blocker status changes.
+    private final int[] blockedInRow = new int[SIZE];
+    private final int[] blockedInCol = new int[SIZE];
+    private final int[] reachInRow = new int[SIZE];
+    private final int[] reachInCol = new int[SIZE];
+    private int blockedEdgeCells;
+
+    private List<GridListener> listeners;       // null until the first listener is added; replaced, never modified
+    private GridChangeBatch changes;            // changes since the last publish (null when nobody listens)
+
     public BoxGrid() {
         this.grid = new ArrayList<>(SIZE);
         for (int r = 0; r < SIZE; r++) {
@@ -36,6 +52,10 @@ public class BoxGrid {
             grid.add(row);
         }
         this.movedThisTurn = new HashSet<>();
+
+        Arrays.fill(blockedInRow, FULL_LINE);
+        Arrays.fill(blockedInCol, FULL_LINE);
+        this.blockedEdgeCells = EDGE_CELLS;
     }
 
     /**
@@ -62,6 +82,12 @@ public class BoxGrid {
         for (Position p : other.movedThisTurn) {
             this.movedThisTurn.add(new Position(p)); // defensive copy (Position is immutable anyway)
         }
+
+        System.arraycopy(other.blockedInRow, 0, blockedInRow, 0, SIZE);
+        System.arraycopy(other.blockedInCol, 0, blockedInCol, 0, SIZE);
+        System.arraycopy(other.reachInRow, 0, reachInRow, 0, SIZE);
+        System.arraycopy(other.reachInCol, 0, reachInCol, 0, SIZE);
+        this.blockedEdgeCells = other.blockedEdgeCells;
     }
 
     // -------------------------
@@ -76,6 +102,48 @@ public class BoxGrid {
     public void setBox(Position p, Box b) {
         Objects.requireNonNull(p, "position is null");
         grid.get(p.getRow() - 1).set(p.getCol() - 1, b);
+        updateBlocker(p.getRow() - 1, p.getCol() - 1, b == null || b instanceof FixedBox);
+        record(GridChangeKind.REPLACED, p, 0);
+    }
+
+    // -------------------------
+    // Box changes made through the grid (so they can be observed)
+    // -------------------------
+
+    /**
+     * Stamps the top of the box at p (UnchangingBox ignores it, as in Box.stamp()).
+     */
+    public void stampTop(Position p, char letter) {
+        Box b = getBox(p);
+        if (b == null) return;
+
+        char before = b.getTopLetter();
+        b.stampTop(letter);
+        if (b.getTopLetter() != before) {
+            record(GridChangeKind.STAMPED, p, b.getTopLetter());
+        }
+    }
+
+    public void flipUpsideDown(Position p) {
+        Box b = getBox(p);
+        if (b == null) return;
+
+        b.flipUpsideDown();
+        record(GridChangeKind.FLIPPED, p, 0);
+    }
+
+    /**
+     * Opens the box at p and returns its tool (null if it was empty).
+     */
+    public SpecialTool openBox(Position p) {
+        Box b = getBox(p);
+        if (b == null) {
+            throw new IllegalStateException("No box exists at " + p);
+        }
+
+        SpecialTool tool = b.openAndTakeContent();
+        record(GridChangeKind.OPENED, p, 0);
+        return tool;
     }
 
     // -------------------------
@@ -90,6 +158,15 @@ public class BoxGrid {
      * - All rolled boxes are recorded in movedThisTurn for stage-2 validation.
      */
     public void rollFromEdge(Position edgePos, Direction inwardDir) throws UnmovableFixedBoxException {
+        if (tryRollFromEdge(edgePos, inwardDir) == TurnOutcome.UNMOVABLE_FIXED_BOX) {
+            throw new UnmovableFixedBoxException("Selected edge box is FixedBox and cannot be moved: " + edgePos);
+        }
+    }
+
+    /**
+     * Same as rollFromEdge(), reporting a FixedBox on the edge as an outcome instead of throwing.
+     */
+    public TurnOutcome tryRollFromEdge(Position edgePos, Direction inwardDir) {
         Objects.requireNonNull(edgePos, "edgePos is null");
         Objects.requireNonNull(inwardDir, "inwardDir is null");
 
@@ -99,7 +176,7 @@ public class BoxGrid {
 
         Box start = getBox(edgePos);
         if (start instanceof FixedBox) {
-            throw new UnmovableFixedBoxException("Selected edge box is FixedBox and cannot be moved: " + edgePos);
+            return TurnOutcome.UNMOVABLE_FIXED_BOX;
         }
 
         movedThisTurn.clear();
@@ -119,10 +196,107 @@ public class BoxGrid {
 
             b.roll(inwardDir);
             movedThisTurn.add(new Position(cur)); // store copy
+            record(GridChangeKind.ROLLED, cur, inwardDir.ordinal());
 
             cur = tryMove(cur, inwardDir);
             if (cur == null) break;
         }
+        return TurnOutcome.OK;
+    }
+
+    /**
+     * Returns how many boxes rollFromEdge(edgePos, inwardDir) would roll,
+     * without changing anything. A FixedBox on the edge gives 0.
+     * Answered from the blocker bitmasks in O(1).
+     */
+    public int runLength(Position edgePos, Direction inwardDir) {
+        Objects.requireNonNull(edgePos, "edgePos is null");
+        Objects.requireNonNull(inwardDir, "inwardDir is null");
+
+        int r = edgePos.getRow() - 1;
+        int c = edgePos.getCol() - 1;
+        return switch (inwardDir) {
+            case RIGHT -> runForward(blockedInRow[r], c);
+            case LEFT -> runBackward(blockedInRow[r], c);
+            case DOWN -> runForward(blockedInCol[c], r);
+            case UP -> runBackward(blockedInCol[c], r);
+        };
+    }
+
+    /**
+     * Returns true if there exists at least one edge box that is NOT a FixedBox.
+     * If all edge boxes are FixedBox, rolling cannot be performed => FAILURE possible.
+     */
+    public boolean hasAnyMovableEdge() {
+        return blockedEdgeCells < EDGE_CELLS;
+    }
+
+    /**
+     * Returns true if at least one of the 32 edge rolls would move the box at p.
+     * Boxes behind a FixedBox on both ends of their row and column can never be rolled.
+     */
+    public boolean canAnyMoveReach(Position p) {
+        Objects.requireNonNull(p, "position is null");
+        int r = p.getRow() - 1;
+        int c = p.getCol() - 1;
+        return ((reachInRow[r] >>> c) & 1) != 0 || ((reachInCol[c] >>> r) & 1) != 0;
+    }
+
+    /**
+     * All cells some edge roll can move, as a bitmask indexed by (row - 1) * SIZE + (col - 1).
+     */
+    public long reachableMask() {
+        long mask = 0L;
+        for (int r = 0; r < SIZE; r++) {
+            mask |= (long) reachInRow[r] << (r * SIZE);
+        }
+        for (int c = 0; c < SIZE; c++) {
+            int column = reachInCol[c];
+            while (column != 0) {
+                int r = Integer.numberOfTrailingZeros(column);
+                mask |= 1L << (r * SIZE + c);
+                column &= column - 1;
+            }
+        }
+        return mask;
+    }
+
+    // -------------------------
+    // Line-reachability index
+    // -------------------------
+
+    private static final int FULL_LINE = (1 << SIZE) - 1;
+    private static final int EDGE_CELLS = 4 * SIZE - 4;
+
+    private void updateBlocker(int r, int c, boolean blocked) {
+        boolean was = ((blockedInRow[r] >>> c) & 1) != 0;
+        if (was == blocked) return;
+
+        blockedInRow[r] ^= 1 << c;
+        blockedInCol[c] ^= 1 << r;
+        if (r == 0 || r == SIZE - 1 || c == 0 || c == SIZE - 1) {
+            blockedEdgeCells += blocked ? 1 : -1;
+        }
+        reachInRow[r] = reachFromBothEnds(blockedInRow[r]);
+        reachInCol[c] = reachFromBothEnds(blockedInCol[c]);
+    }
+
+    /** Cells a roll entering the line from either end can move (the line's prefix and suffix before a blocker). */
+    private static int reachFromBothEnds(int blocked) {
+        int fromStart = runForward(blocked, 0);
+        int fromEnd = runBackward(blocked, SIZE - 1);
+        return ((1 << fromStart) - 1) | ((FULL_LINE << (SIZE - fromEnd)) & FULL_LINE);
+    }
+
+    /** Free cells from index i towards higher indices, up to the first blocker. */
+    private static int runForward(int blocked, int i) {
+        return Integer.numberOfTrailingZeros((blocked | (1 << SIZE)) >>> i);
+    }
+
+    /** Free cells from index i towards lower indices, up to the first blocker. */
+    private static int runBackward(int blocked, int i) {
+        int below = blocked & ((2 << i) - 1);
+        return i - (31 - Integer.numberOfLeadingZeros(below));
     }
 
     private Position tryMove(Position p, Direction d) {
@@ -145,6 +319,14 @@ public class BoxGrid {
         movedThisTurn.clear();
     }
 
+    /**
+     * Restores a moved-this-turn mark (used when a saved state is decoded).
+     */
+    public void markMovedThisTurn(Position p) {
+        Objects.requireNonNull(p, "position is null");
+        movedThisTurn.add(p);
+    }
+
     // -------------------------
     // Corner/edge direction helper
     // -------------------------
@@ -168,6 +350,80 @@ public class BoxGrid {
         return dirs;
     }
 
+    // -------------------------
+    // Change events
+    // -------------------------
+
+    /**
+     * Registers a listener. Changes made through the grid (rolls, stamps, flips, replaced and opened boxes)
+     * are collected in one reusable batch and delivered by publishChanges(), once per stage.
+     * Changes made directly on Box objects are not seen. Listeners are not copied with the grid.
+     *
+     * Listeners may be added or removed from onChanges: the list is copied on every change, so a delivery
+     * in progress goes on over the listeners registered when it started.
+     */
+    public void addListener(GridListener listener) {
+        Objects.requireNonNull(listener, "listener is null");
+        List<GridListener> updated = listeners == null ? new ArrayList<>(2) : new ArrayList<>(listeners);
+        updated.add(listener);
+        if (changes == null) changes = new GridChangeBatch();
+        listeners = updated;
+    }
+
+    public void removeListener(GridListener listener) {
+        if (listeners == null) return;
+        List<GridListener> updated = new ArrayList<>(listeners);
+        updated.remove(listener);
+        if (updated.isEmpty()) {
+            listeners = null;
+            changes = null;
+        } else {
+            listeners = updated;
+        }
+    }
+
+    /**
+     * Delivers the changes recorded since the last call (if any) and clears the batch.
+     */
+    public void publishChanges() {
+        GridChangeBatch batch = changes;
+        if (batch == null || batch.isEmpty()) return;
+        List<GridListener> current = listeners;
+        try {
+            for (GridListener l : current) {
+                l.onChanges(this, batch);
+            }
+        } finally {
+            batch.clear();
+        }
+    }
+
+    private void record(GridChangeKind kind, Position p, int arg) {
+        if (changes != null) {
+            changes.add(kind, p, arg);
+        }
+    }
+
+    // -------------------------
+    // Scoring
+    // -------------------------
+
+    /**
+     * Counts the boxes whose top side shows the given letter (the end-game score).
+     */
+    public int countTopLetter(char letter) {
+        char L = Character.toUpperCase(letter);
+        int count = 0;
+        for (List<Box> row : grid) {
+            for (Box b : row) {
+                if (b != null && b.getTopLetter() == L) {
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
     // -------------------------
     // Printing
     // -------------------------
@@ -0,0 +1,239 @@
+package grid;
+
+import boxes.Box;
+import boxes.Face;
+import boxes.FixedBox;
+import boxes.RegularBox;
+import boxes.UnchangingBox;
+import tools.ToolKind;
+
+import java.util.Objects;
+
+/**
+ * Packs the whole state of one Box into a single int, so boards can be handled as int[64]
+ * (hashing, symmetry, snapshots) without touching Box objects.
+ *
+ * Bit layout:
+ * - bits  0..17 : six letters, 3 bits each (letter - 'A'), in Face order TOP, BOTTOM, LEFT, RIGHT, FRONT, BACK
+ * - bits 18..19 : type (0 = RegularBox, 1 = UnchangingBox, 2 = FixedBox)
+ * - bit  20     : opened
+ * - bits 21..23 : content (0 = empty, otherwise ToolKind ordinal + 1)
+ * - bit  24     : moved this turn (only meaningful inside snapshots)
+ */
+public final class CellCodec {
+
+    public static final int LETTER_BITS = 3;
+    public static final int LETTERS_MASK = (1 << 18) - 1;
+
+    /** LEFT, RIGHT, FRONT, BACK letters: the faces that move around when the board is turned. */
+    public static final int SIDE_SHIFT = 6;
+    public static final int SIDE_MASK = ((1 << 12) - 1) << SIDE_SHIFT;
+
+    public static final int TYPE_SHIFT = 18;
+    public static final int TYPE_MASK = 3 << TYPE_SHIFT;
+    public static final int TYPE_REGULAR = 0;
+    public static final int TYPE_UNCHANGING = 1;
+    public static final int TYPE_FIXED = 2;
+
+    public static final int OPENED_BIT = 1 << 20;
+
+    public static final int TOOL_SHIFT = 21;
+    public static final int TOOL_MASK = 7 << TOOL_SHIFT;
+
+    public static final int MOVED_BIT = 1 << 24;
+
+    private static final ToolKind[] KINDS = ToolKind.values();
+
+    private CellCodec() {
+        // utility class; prevent instantiation
+    }
+
+    // -------------------------
+    // Box <-> int
+    // -------------------------
+
+    public static int encode(Box b) {
+        Objects.requireNonNull(b, "box is null");
+
+        int cell = 0;
+        char[] s = b.getSurfacesCopy();
+        for (int i = 0; i < s.length; i++) {
+            cell |= (s[i] - 'A') << (i * LETTER_BITS);
+        }
+
+        int type;
+        if (b instanceof FixedBox) type = TYPE_FIXED;
+        else if (b instanceof UnchangingBox) type = TYPE_UNCHANGING;
+        else if (b instanceof RegularBox) type = TYPE_REGULAR;
+        else throw new IllegalStateException("Unknown Box type: " + b.getClass().getName());
+        cell |= type << TYPE_SHIFT;
+
+        if (b.isOpened()) cell |= OPENED_BIT;
+
+        ToolKind kind = b.getContentKind();
+        if (kind != null) cell |= (kind.ordinal() + 1) << TOOL_SHIFT;
+
+        return cell;
+    }
+
+    /**
+     * Creates a new Box equal to the encoded one (a fresh tool object is created for the content).
+     */
+    public static Box decode(int cell) {
+        char[] s = surfaces(cell);
+        ToolKind kind = tool(cell);
+
+        Box b = switch (type(cell)) {
+            case TYPE_FIXED -> new FixedBox(s);
+            case TYPE_UNCHANGING -> new UnchangingBox(s, null);
+            case TYPE_REGULAR -> new RegularBox(s, null);
+            default -> throw new IllegalArgumentException("Invalid cell type in " + Integer.toHexString(cell));
+        };
+
+        if (isOpened(cell) && !(b instanceof FixedBox)) {
+            b.openAndTakeContent(); // opened boxes are always empty
+        }
+        if (kind != null) {
+            b.setContent(kind.create());
+        }
+        return b;
+    }
+
+    // -------------------------
+    // BoxGrid <-> int[]
+    // -------------------------
+
+    /**
+     * Row-major int[SIZE * SIZE] of the grid, including the moved-this-turn bits.
+     */
+    public static int[] encode(BoxGrid grid) {
+        int[] cells = new int[BoxGrid.SIZE * BoxGrid.SIZE];
+        encode(grid, cells);
+        return cells;
+    }
+
+    public static void encode(BoxGrid grid, int[] out) {
+        Objects.requireNonNull(grid, "grid is null");
+        for (int r = 1; r <= BoxGrid.SIZE; r++) {
+            for (int c = 1; c <= BoxGrid.SIZE; c++) {
+                Position p = new Position(r, c);
+                int cell = encode(grid.getBox(p));
+                if (grid.wasMovedThisTurn(p)) cell |= MOVED_BIT;
+                out[(r - 1) * BoxGrid.SIZE + (c - 1)] = cell;
+            }
+        }
+    }
+
+    public static BoxGrid decode(int[] cells) {
+        if (cells == null || cells.length != BoxGrid.SIZE * BoxGrid.SIZE) {
+            throw new IllegalArgumentException("cells must be an int[" + BoxGrid.SIZE * BoxGrid.SIZE + "]");
+        }
+
+        BoxGrid grid = new BoxGrid();
+        for (int i = 0; i < cells.length; i++) {
+            Position p = new Position(i / BoxGrid.SIZE + 1, i % BoxGrid.SIZE + 1);
+            grid.setBox(p, decode(cells[i]));
+            if ((cells[i] & MOVED_BIT) != 0) grid.markMovedThisTurn(p);
+        }
+        return grid;
+    }
+
+    // -------------------------
+    // Box behaviour on packed cells (same rules as Box and its subclasses)
+    // -------------------------
+
+    /**
+     * Dice rotation like Box.roll(); FixedBox cells do not roll.
+     */
+    public static int roll(int cell, Direction direction) {
+        if (type(cell) == TYPE_FIXED) return cell;
+        return switch (direction) {
+            case RIGHT -> cycle(cell, 0, 2, 1, 3);  // TOP <- LEFT <- BOTTOM <- RIGHT
+            case LEFT -> cycle(cell, 0, 3, 1, 2);   // TOP <- RIGHT <- BOTTOM <- LEFT
+            case UP -> cycle(cell, 0, 4, 1, 5);     // TOP <- FRONT <- BOTTOM <- BACK
+            case DOWN -> cycle(cell, 0, 5, 1, 4);   // TOP <- BACK <- BOTTOM <- FRONT
+        };
+    }
+
+    /**
+     * Stamps the top letter like Box.stampTop(); UnchangingBox cells ignore it.
+     */
+    public static int stampTop(int cell, char letter) {
+        if (type(cell) == TYPE_UNCHANGING) return cell;
+        return (cell & ~7) | (Character.toUpperCase(letter) - 'A');
+    }
+
+    /**
+     * Swaps TOP and BOTTOM like Box.flipUpsideDown().
+     */
+    public static int flip(int cell) {
+        int top = cell & 7;
+        int bottom = (cell >>> LETTER_BITS) & 7;
+        return (cell & ~0x3F) | (top << LETTER_BITS) | bottom;
+    }
+
+    /**
+     * Opens the box: marks it opened and removes its content.
+     */
+    public static int open(int cell) {
+        return (cell & ~TOOL_MASK) | OPENED_BIT;
+    }
+
+    /**
+     * BoxFixer result: a FixedBox with the same surfaces (opened, empty).
+     */
+    public static int fix(int cell) {
+        return (cell & LETTERS_MASK) | (TYPE_FIXED << TYPE_SHIFT) | OPENED_BIT | (cell & MOVED_BIT);
+    }
+
+    /**
+     * 4-cycle of faces: a <- b <- c <- d <- a.
+     */
+    private static int cycle(int cell, int a, int b, int c, int d) {
+        int la = (cell >>> (a * LETTER_BITS)) & 7;
+        int lb = (cell >>> (b * LETTER_BITS)) & 7;
+        int lc = (cell >>> (c * LETTER_BITS)) & 7;
+        int ld = (cell >>> (d * LETTER_BITS)) & 7;
+        int cleared = cell & ~((7 << (a * LETTER_BITS)) | (7 << (b * LETTER_BITS))
+                | (7 << (c * LETTER_BITS)) | (7 << (d * LETTER_BITS)));
+        return cleared | (lb << (a * LETTER_BITS)) | (lc << (b * LETTER_BITS))
+                | (ld << (c * LETTER_BITS)) | (la << (d * LETTER_BITS));
+    }
+
+    // -------------------------
+    // Field accessors
+    // -------------------------
+
+    public static char letter(int cell, Face face) {
+        return letterAt(cell, face.ordinal());
+    }
+
+    public static char topLetter(int cell) {
+        return letterAt(cell, 0);
+    }
+
+    public static char letterAt(int cell, int faceIndex) {
+        return (char) ('A' + ((cell >>> (faceIndex * LETTER_BITS)) & 7));
+    }
+
+    public static char[] surfaces(int cell) {
+        char[] s = new char[6];
+        for (int i = 0; i < s.length; i++) {
+            s[i] = letterAt(cell, i);
+        }
+        return s;
+    }
+
+    public static int type(int cell) {
+        return (cell & TYPE_MASK) >>> TYPE_SHIFT;
+    }
+
+    public static boolean isOpened(int cell) {
+        return (cell & OPENED_BIT) != 0;
+    }
+
+    public static ToolKind tool(int cell) {
+        int t = (cell & TOOL_MASK) >>> TOOL_SHIFT;
+        return t == 0 ? null : KINDS[t - 1];
+    }
+}
@@ -0,0 +1,236 @@
+package grid;
+
+import boxes.Box;
+import boxes.Face;
+import boxes.FixedBox;
+
+import java.util.Objects;
+
+/**
+ * Effect of all 32 first-stage options (edge box + inward direction) computed together,
+ * without rolling any copy of the grid.
+ *
+ * An option rotates one run of boxes, from the edge up to the first FixedBox, all the same way,
+ * so its score change is a sum of per-cell deltas: for every line the deltas are turned into
+ * prefix sums (from both ends), and each option reads its value at the run length.
+ * Total work is one pass over the 64 cells plus 32 lookups.
+ *
+ * Option index = line * 4 + slot, where slot 0..3 is
+ * RIGHT from (line, 1), LEFT from (line, 8), DOWN from (1, line), UP from (8, line) (1-based positions).
+ * Corner boxes therefore appear in two options. Cell masks use bit (row - 1) * SIZE + (col - 1).
+ */
+public final class EdgeRollDeltas {
+
+    public static final int OPTIONS = 4 * BoxGrid.SIZE;
+
+    private static final int N = BoxGrid.SIZE;
+    private static final int CELLS = N * N;
+    private static final long FIRST_COLUMN = 0x0101010101010101L;
+    private static final Direction[] SLOT_DIRECTIONS = {Direction.RIGHT, Direction.LEFT, Direction.DOWN, Direction.UP};
+    private static final Position[] EDGES = new Position[OPTIONS];
+    private static final Position[] CELL_POSITIONS = new Position[CELLS];
+
+    static {
+        for (int i = 0; i < CELLS; i++) {
+            CELL_POSITIONS[i] = new Position(i / N + 1, i % N + 1);
+        }
+        for (int line = 0; line < N; line++) {
+            EDGES[line * 4] = new Position(line + 1, 1);
+            EDGES[line * 4 + 1] = new Position(line + 1, N);
+            EDGES[line * 4 + 2] = new Position(1, line + 1);
+            EDGES[line * 4 + 3] = new Position(N, line + 1);
+        }
+    }
+
+    private final int baseScore;
+    private final int[] runs = new int[OPTIONS];
+    private final int[] deltas = new int[OPTIONS];
+    private final long[] moved = new long[OPTIONS];
+    private final long[] tools = new long[OPTIONS];
+
+    private EdgeRollDeltas(int baseScore) {
+        this.baseScore = baseScore;
+    }
+
+    /**
+     * All options on the grid for the given target letter.
+     */
+    public static EdgeRollDeltas compute(BoxGrid grid, char targetLetter) {
+        Objects.requireNonNull(grid, "grid is null");
+
+        int[] gains = new int[4 * CELLS];  // per cell: gain if rolled RIGHT, LEFT, DOWN, UP
+        long fixed = 0L;
+        long toolCells = 0L;
+        int base = 0;
+        for (int i = 0; i < CELLS; i++) {
+            Box b = grid.getBox(CELL_POSITIONS[i]);
+            int top = b.getTopLetter() == targetLetter ? 1 : 0;
+            base += top;
+            if (b instanceof FixedBox) {
+                fixed |= 1L << i;
+                continue;
+            }
+            if (b.getContentKind() != null) toolCells |= 1L << i;
+            // Rolling RIGHT brings LEFT on top, LEFT brings RIGHT, DOWN brings BACK, UP brings FRONT
+            gains[4 * i] = (b.getLetter(Face.LEFT) == targetLetter ? 1 : 0) - top;
+            gains[4 * i + 1] = (b.getLetter(Face.RIGHT) == targetLetter ? 1 : 0) - top;
+            gains[4 * i + 2] = (b.getLetter(Face.BACK) == targetLetter ? 1 : 0) - top;
+            gains[4 * i + 3] = (b.getLetter(Face.FRONT) == targetLetter ? 1 : 0) - top;
+        }
+        return build(base, gains, fixed, toolCells);
+    }
+
+    /**
+     * Same as compute(BoxGrid, ...) for a packed board (CellCodec, row-major int[64]).
+     */
+    public static EdgeRollDeltas compute(int[] cells, char targetLetter) {
+        Objects.requireNonNull(cells, "cells is null");
+        if (cells.length != CELLS) throw new IllegalArgumentException("cells must be an int[" + CELLS + "]");
+
+        int[] gains = new int[4 * CELLS];
+        long fixed = 0L;
+        long toolCells = 0L;
+        int base = 0;
+        for (int i = 0; i < CELLS; i++) {
+            int cell = cells[i];
+            int top = CellCodec.topLetter(cell) == targetLetter ? 1 : 0;
+            base += top;
+            if (CellCodec.type(cell) == CellCodec.TYPE_FIXED) {
+                fixed |= 1L << i;
+                continue;
+            }
+            if ((cell & CellCodec.TOOL_MASK) != 0) toolCells |= 1L << i;
+            gains[4 * i] = (CellCodec.letter(cell, Face.LEFT) == targetLetter ? 1 : 0) - top;
+            gains[4 * i + 1] = (CellCodec.letter(cell, Face.RIGHT) == targetLetter ? 1 : 0) - top;
+            gains[4 * i + 2] = (CellCodec.letter(cell, Face.BACK) == targetLetter ? 1 : 0) - top;
+            gains[4 * i + 3] = (CellCodec.letter(cell, Face.FRONT) == targetLetter ? 1 : 0) - top;
+        }
+        return build(base, gains, fixed, toolCells);
+    }
+
+    // -------------------------
+    // Queries
+    // -------------------------
+
+    /**
+     * Target-letter count before the roll.
+     */
+    public int getBaseScore() { return baseScore; }
+
+    public Position getEdge(int option) { return edgeOf(option); }
+    public Direction getDirection(int option) { return directionOf(option); }
+
+    /** Boxes the option rolls (0 if a FixedBox sits on the edge: the roll is wasted). */
+    public int getRunLength(int option) { return runs[option]; }
+
+    /** Change of the target-letter count caused by the roll. */
+    public int getDelta(int option) { return deltas[option]; }
+
+    /** Boxes the option rolls; exactly these may be opened in the second stage. */
+    public long getMovedMask(int option) { return moved[option]; }
+
+    /** Rolled boxes that still hold a tool. */
+    public long getToolMask(int option) { return tools[option]; }
+
+    /**
+     * Edge box of an option (also used by engines that number rolls the same way).
+     */
+    public static Position edgeOf(int option) {
+        return EDGES[option];
+    }
+
+    public static Direction directionOf(int option) {
+        return SLOT_DIRECTIONS[option & 3];
+    }
+
+    /**
+     * Index of the option for the given edge and inward direction.
+     */
+    public static int indexOf(Position edge, Direction direction) {
+        Objects.requireNonNull(edge, "edge is null");
+        Objects.requireNonNull(direction, "direction is null");
+        int r = edge.getRow() - 1;
+        int c = edge.getCol() - 1;
+        int option = switch (direction) {
+            case RIGHT -> c == 0 ? r * 4 : -1;
+            case LEFT -> c == N - 1 ? r * 4 + 1 : -1;
+            case DOWN -> r == 0 ? c * 4 + 2 : -1;
+            case UP -> r == N - 1 ? c * 4 + 3 : -1;
+        };
+        if (option < 0) {
+            throw new IllegalArgumentException("Direction " + direction + " is not inward from " + edge);
+        }
+        return option;
+    }
+
+    /**
+     * First option with the highest delta among those that roll at least one box, or -1 if none does.
+     */
+    public int bestIndex() {
+        int best = -1;
+        for (int i = 0; i < OPTIONS; i++) {
+            if (runs[i] > 0 && (best < 0 || deltas[i] > deltas[best])) best = i;
+        }
+        return best;
+    }
+
+    // -------------------------
+    // Internal utilities
+    // -------------------------
+
+    private static EdgeRollDeltas build(int base, int[] gains, long fixed, long toolCells) {
+        EdgeRollDeltas d = new EdgeRollDeltas(base);
+        int[] forward = new int[N + 1];   // forward[k] = sum of the first k gains from the start of the line
+        int[] backward = new int[N + 1];  // backward[k] = sum of the last k gains from the end of the line
+
+        for (int line = 0; line < N; line++) {
+            int rowFixed = (int) (fixed >>> (line * N)) & 0xFF;
+            int colFixed = 0;
+            for (int r = 0; r < N; r++) {
+                colFixed |= (int) ((fixed >>> (r * N + line)) & 1) << r;
+            }
+
+            // Row: RIGHT from column 0, LEFT from column N-1
+            for (int k = 0; k < N; k++) {
+                forward[k + 1] = forward[k] + gains[4 * (line * N + k)];
+                backward[k + 1] = backward[k] + gains[4 * (line * N + N - 1 - k) + 1];
+            }
+            int run = Integer.numberOfTrailingZeros(rowFixed | (1 << N));
+            d.set(line * 4, run, forward[run], rowMask(line, 0, run));
+            run = Math.min(N, Integer.numberOfLeadingZeros(rowFixed) - (32 - N));
+            d.set(line * 4 + 1, run, backward[run], rowMask(line, N - run, run));
+
+            // Column: DOWN from row 0, UP from row N-1
+            for (int k = 0; k < N; k++) {
+                forward[k + 1] = forward[k] + gains[4 * (k * N + line) + 2];
+                backward[k + 1] = backward[k] + gains[4 * ((N - 1 - k) * N + line) + 3];
+            }
+            run = Integer.numberOfTrailingZeros(colFixed | (1 << N));
+            d.set(line * 4 + 2, run, forward[run], columnMask(line, 0, run));
+            run = Math.min(N, Integer.numberOfLeadingZeros(colFixed) - (32 - N));
+            d.set(line * 4 + 3, run, backward[run], columnMask(line, N - run, run));
+        }
+        for (int i = 0; i < OPTIONS; i++) {
+            d.tools[i] = d.moved[i] & toolCells;
+        }
+        return d;
+    }
+
+    private void set(int option, int run, int delta, long mask) {
+        runs[option] = run;
+        deltas[option] = delta;
+        moved[option] = mask;
+    }
+
+    private static long rowMask(int row, int from, int length) {
+        return length == 0 ? 0L : (((1L << length) - 1) << from) << (row * N);
+    }
+
+    private static long columnMask(int col, int from, int length) {
+        long mask = 0L;
+        for (int r = from; r < from + length; r++) {
+            mask |= FIRST_COLUMN & (0xFFL << (r * N));
+        }
+        return mask << col;
+    }
+}
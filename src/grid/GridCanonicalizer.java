@@ -0,0 +1,122 @@
+package grid;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Maps a grid state to one representative shared by all 8 symmetric versions of it,
+ * so caches and opening books can share entries across symmetric positions.
+ *
+ * The canonical form is the lexicographically smallest packed board (CellCodec, row-major)
+ * among the 8 transforms. The board is packed once; the transforms are compared cell by cell
+ * through the Symmetry tables and only the winner is materialized.
+ * Moved-this-turn marks are ignored (states are compared between turns).
+ */
+public final class GridCanonicalizer {
+
+    private static final int CELLS = BoxGrid.SIZE * BoxGrid.SIZE;
+    private static final Symmetry[] SYMMETRIES = Symmetry.values();
+
+    private GridCanonicalizer() {
+        // utility class; prevent instantiation
+    }
+
+    public static CanonicalForm canonicalize(BoxGrid grid) {
+        return canonicalize(CellCodec.encode(grid));
+    }
+
+    /**
+     * Canonicalizes a packed board (int[64], row-major). The input array is not modified.
+     */
+    public static CanonicalForm canonicalize(int[] cells) {
+        Objects.requireNonNull(cells, "cells is null");
+        if (cells.length != CELLS) {
+            throw new IllegalArgumentException("cells must be an int[" + CELLS + "]");
+        }
+
+        int[] source = new int[CELLS];
+        for (int i = 0; i < CELLS; i++) {
+            source[i] = cells[i] & ~CellCodec.MOVED_BIT;
+        }
+
+        Symmetry best = Symmetry.IDENTITY;
+        for (int t = 1; t < SYMMETRIES.length; t++) {
+            if (compare(source, SYMMETRIES[t], best) < 0) {
+                best = SYMMETRIES[t];
+            }
+        }
+        return new CanonicalForm(best == Symmetry.IDENTITY ? source : best.apply(source), best);
+    }
+
+    /**
+     * Compares the boards produced by two symmetries, stopping at the first differing cell.
+     */
+    private static int compare(int[] source, Symmetry a, Symmetry b) {
+        for (int i = 0; i < CELLS; i++) {
+            int x = a.transformedCell(source, i);
+            int y = b.transformedCell(source, i);
+            if (x != y) return Integer.compare(x, y);
+        }
+        return 0;
+    }
+
+    /**
+     * Canonical packed board plus the symmetry that maps the original grid onto it.
+     * Use getTransform().inverse() to map actions found on the canonical board back to the original one.
+     */
+    public static final class CanonicalForm {
+
+        private final int[] cells;
+        private final Symmetry transform;
+        private final long hash;
+
+        private CanonicalForm(int[] cells, Symmetry transform) {
+            this.cells = cells;
+            this.transform = transform;
+            this.hash = hash64(cells);
+        }
+
+        /**
+         * Defensive copy of the canonical packed board.
+         */
+        public int[] getCells() {
+            return Arrays.copyOf(cells, cells.length);
+        }
+
+        public int getCell(int index) {
+            return cells[index];
+        }
+
+        public Symmetry getTransform() {
+            return transform;
+        }
+
+        /**
+         * 64-bit hash of the canonical cells (the same for all symmetric grids).
+         */
+        public long hash64() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof CanonicalForm f)) return false;
+            return hash == f.hash && Arrays.equals(cells, f.cells);
+        }
+
+        @Override
+        public int hashCode() {
+            return Long.hashCode(hash);
+        }
+
+        private static long hash64(int[] cells) {
+            long h = 0x9E3779B97F4A7C15L;
+            for (int cell : cells) {
+                h ^= cell;
+                h *= 0xBF58476D1CE4E5B9L;
+                h ^= h >>> 31;
+            }
+            return h;
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package grid;
+
+import java.util.Arrays;
+
+/**
+ * Reusable buffer of the cell changes of one stage.
+ * Changes are stored in parallel primitive arrays, so recording a change allocates nothing
+ * (the arrays only grow, by doubling, while the buffer is still warming up).
+ *
+ * Listeners may read the batch only during onChanges(); it is cleared and reused afterwards.
+ */
+public final class GridChangeBatch {
+
+    private static final GridChangeKind[] KINDS = GridChangeKind.values();
+    private static final Direction[] DIRECTIONS = Direction.values();
+
+    private byte[] kinds = new byte[32];
+    private byte[] cells = new byte[32];  // row-major index 0..63
+    private byte[] args = new byte[32];   // direction ordinal (ROLLED) or letter (STAMPED)
+    private int size;
+
+    GridChangeBatch() {
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public GridChangeKind getKind(int i) {
+        check(i);
+        return KINDS[kinds[i]];
+    }
+
+    /**
+     * 1-based row, like Position.
+     */
+    public int getRow(int i) {
+        check(i);
+        return cells[i] / BoxGrid.SIZE + 1;
+    }
+
+    /**
+     * 1-based column, like Position.
+     */
+    public int getCol(int i) {
+        check(i);
+        return cells[i] % BoxGrid.SIZE + 1;
+    }
+
+    /**
+     * Row-major cell index 0..63.
+     */
+    public int getCellIndex(int i) {
+        check(i);
+        return cells[i];
+    }
+
+    /**
+     * Direction of a ROLLED change (null for other kinds).
+     */
+    public Direction getDirection(int i) {
+        check(i);
+        return kinds[i] == GridChangeKind.ROLLED.ordinal() ? DIRECTIONS[args[i]] : null;
+    }
+
+    /**
+     * New top letter of a STAMPED change ('\0' for other kinds).
+     */
+    public char getLetter(int i) {
+        check(i);
+        return kinds[i] == GridChangeKind.STAMPED.ordinal() ? (char) args[i] : '\0';
+    }
+
+    void add(GridChangeKind kind, Position p, int arg) {
+        if (size == kinds.length) {
+            kinds = Arrays.copyOf(kinds, size * 2);
+            cells = Arrays.copyOf(cells, size * 2);
+            args = Arrays.copyOf(args, size * 2);
+        }
+        kinds[size] = (byte) kind.ordinal();
+        cells[size] = (byte) ((p.getRow() - 1) * BoxGrid.SIZE + (p.getCol() - 1));
+        args[size] = (byte) arg;
+        size++;
+    }
+
+    void clear() {
+        size = 0;
+    }
+
+    private void check(int i) {
+        if (i < 0 || i >= size) throw new IndexOutOfBoundsException("Change index out of range: " + i);
+    }
+}
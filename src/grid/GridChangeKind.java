@@ -0,0 +1,12 @@
+package grid;
+
+/**
+ * Kinds of cell changes published by BoxGrid.
+ */
+public enum GridChangeKind {
+    ROLLED,     // rolled by the domino effect (see direction)
+    STAMPED,    // top letter changed by a stamp (see letter)
+    FLIPPED,    // turned upside down by BoxFlipper
+    REPLACED,   // box replaced (BoxFixer turning it into a FixedBox)
+    OPENED      // box opened in the second stage
+}
@@ -0,0 +1,14 @@
+package grid;
+
+/**
+ * Receives the changes of a BoxGrid, one batch per stage (see BoxGrid.publishChanges()).
+ */
+@FunctionalInterface
+public interface GridListener {
+
+    /**
+     * Called with the changes recorded since the previous publish. The batch is reused:
+     * copy what you need before returning.
+     */
+    void onChanges(BoxGrid grid, GridChangeBatch batch);
+}
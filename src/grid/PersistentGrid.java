@@ -0,0 +1,269 @@
+package grid;
+
+import exceptions.UnmovableFixedBoxException;
+
+import java.util.Objects;
+
+/**
+ * Immutable grid snapshot of packed cells (CellCodec layout) with structural sharing.
+ *
+ * A snapshot is an array of 8 row arrays. Row arrays are never written after the snapshot
+ * holding them is created, so every operation returns a new snapshot that copies only the rows
+ * it touches and shares the others; keeping a snapshot is O(1) and a history of snapshots
+ * costs memory proportional to the rows changed, not to the board size.
+ * Operations that change nothing return the same snapshot.
+ *
+ * Rules match BoxGrid and the Box classes (see CellCodec for the per-cell behaviour).
+ * Positions are 1-based like everywhere else.
+ */
+public final class PersistentGrid {
+
+    private static final int N = BoxGrid.SIZE;
+    private static final int CELLS = N * N;
+
+    private final int[][] rows;
+
+    private PersistentGrid(int[][] rows) {
+        this.rows = rows;
+    }
+
+    public static PersistentGrid of(BoxGrid grid) {
+        return of(CellCodec.encode(grid));
+    }
+
+    /**
+     * Snapshot of a packed board (row-major int[64]); the array is copied.
+     */
+    public static PersistentGrid of(int[] cells) {
+        Objects.requireNonNull(cells, "cells is null");
+        if (cells.length != CELLS) throw new IllegalArgumentException("cells must be an int[" + CELLS + "]");
+
+        int[][] rows = new int[N][N];
+        for (int r = 0; r < N; r++) {
+            System.arraycopy(cells, r * N, rows[r], 0, N);
+        }
+        return new PersistentGrid(rows);
+    }
+
+    // -------------------------
+    // Reading
+    // -------------------------
+
+    public int cell(Position p) {
+        Objects.requireNonNull(p, "position is null");
+        return rows[p.getRow() - 1][p.getCol() - 1];
+    }
+
+    /**
+     * Packed cell at row-major index 0..63.
+     */
+    public int cell(int index) {
+        Objects.checkIndex(index, CELLS);
+        return rows[index / N][index % N];
+    }
+
+    public int[] toCells() {
+        int[] cells = new int[CELLS];
+        for (int r = 0; r < N; r++) {
+            System.arraycopy(rows[r], 0, cells, r * N, N);
+        }
+        return cells;
+    }
+
+    public BoxGrid toBoxGrid() {
+        return CellCodec.decode(toCells());
+    }
+
+    public int countTopLetter(char letter) {
+        int code = Character.toUpperCase(letter) - 'A';
+        int count = 0;
+        for (int[] row : rows) {
+            for (int cell : row) {
+                if ((cell & 7) == code) count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Same as BoxGrid.hasAnyMovableEdge(): some edge cell is not a FixedBox.
+     */
+    public boolean hasAnyMovableEdge() {
+        for (int i = 0; i < N; i++) {
+            if (!isFixed(rows[0][i]) || !isFixed(rows[N - 1][i]) || !isFixed(rows[i][0]) || !isFixed(rows[i][N - 1])) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Same as BoxGrid.runLength().
+     */
+    public int runLength(Position edgePos, Direction inwardDir) {
+        Objects.requireNonNull(edgePos, "edgePos is null");
+        Objects.requireNonNull(inwardDir, "inwardDir is null");
+
+        int r = edgePos.getRow() - 1;
+        int c = edgePos.getCol() - 1;
+        int dr = rowStep(inwardDir);
+        int dc = colStep(inwardDir);
+        int length = 0;
+        while (r >= 0 && r < N && c >= 0 && c < N && !isFixed(rows[r][c])) {
+            length++;
+            r += dr;
+            c += dc;
+        }
+        return length;
+    }
+
+    /**
+     * Rows this snapshot shares (by identity) with the other one.
+     */
+    public int sharedRows(PersistentGrid other) {
+        Objects.requireNonNull(other, "other grid is null");
+        int shared = 0;
+        for (int r = 0; r < N; r++) {
+            if (rows[r] == other.rows[r]) shared++;
+        }
+        return shared;
+    }
+
+    // -------------------------
+    // Changes (each returns a new snapshot)
+    // -------------------------
+
+    /**
+     * Same as BoxGrid.rollFromEdge(): rolls the run and marks exactly the rolled cells as moved.
+     */
+    public PersistentGrid rollFromEdge(Position edgePos, Direction inwardDir) throws UnmovableFixedBoxException {
+        Objects.requireNonNull(edgePos, "edgePos is null");
+        Objects.requireNonNull(inwardDir, "inwardDir is null");
+        if (!edgePos.isEdge()) {
+            throw new IllegalArgumentException("Selected position is not on the edge: " + edgePos);
+        }
+        if (isFixed(cell(edgePos))) {
+            throw new UnmovableFixedBoxException("Selected edge box is FixedBox and cannot be moved: " + edgePos);
+        }
+
+        Editor e = resetMoved(new Editor(rows));
+        int r = edgePos.getRow() - 1;
+        int c = edgePos.getCol() - 1;
+        int dr = rowStep(inwardDir);
+        int dc = colStep(inwardDir);
+        while (r >= 0 && r < N && c >= 0 && c < N && !isFixed(rows[r][c])) {
+            e.set(r, c, CellCodec.roll(rows[r][c], inwardDir) | CellCodec.MOVED_BIT);
+            r += dr;
+            c += dc;
+        }
+        return e.build(this);
+    }
+
+    public boolean wasMovedThisTurn(Position p) {
+        return (cell(p) & CellCodec.MOVED_BIT) != 0;
+    }
+
+    /**
+     * Clears all moved-this-turn marks (end of a turn).
+     */
+    public PersistentGrid resetMovedThisTurn() {
+        return resetMoved(new Editor(rows)).build(this);
+    }
+
+    public PersistentGrid stampTop(Position p, char letter) {
+        return update(p, CellCodec.stampTop(cell(p), letter));
+    }
+
+    public PersistentGrid flipUpsideDown(Position p) {
+        return update(p, CellCodec.flip(cell(p)));
+    }
+
+    /**
+     * Marks the box opened and removes its content; read CellCodec.tool(cell(p)) first to get it.
+     */
+    public PersistentGrid openBox(Position p) {
+        return update(p, CellCodec.open(cell(p)));
+    }
+
+    /**
+     * Replaces the box by a FixedBox with the same surfaces (BoxFixer).
+     */
+    public PersistentGrid fix(Position p) {
+        return update(p, CellCodec.fix(cell(p)));
+    }
+
+    /**
+     * Stamps every listed cell (row-major indices) in one new snapshot.
+     */
+    public PersistentGrid stampTops(int[] indices, char letter) {
+        Objects.requireNonNull(indices, "indices is null");
+        Editor e = new Editor(rows);
+        for (int i : indices) {
+            int r = i / N;
+            int c = i % N;
+            e.set(r, c, CellCodec.stampTop(rows[r][c], letter));
+        }
+        return e.build(this);
+    }
+
+    // -------------------------
+    // Internal utilities
+    // -------------------------
+
+    private PersistentGrid update(Position p, int value) {
+        Objects.requireNonNull(p, "position is null");
+        Editor e = new Editor(rows);
+        e.set(p.getRow() - 1, p.getCol() - 1, value);
+        return e.build(this);
+    }
+
+    private Editor resetMoved(Editor e) {
+        for (int r = 0; r < N; r++) {
+            for (int c = 0; c < N; c++) {
+                int cell = rows[r][c];
+                if ((cell & CellCodec.MOVED_BIT) != 0) e.set(r, c, cell & ~CellCodec.MOVED_BIT);
+            }
+        }
+        return e;
+    }
+
+    private static boolean isFixed(int cell) {
+        return CellCodec.type(cell) == CellCodec.TYPE_FIXED;
+    }
+
+    private static int rowStep(Direction d) {
+        return d == Direction.DOWN ? 1 : d == Direction.UP ? -1 : 0;
+    }
+
+    private static int colStep(Direction d) {
+        return d == Direction.RIGHT ? 1 : d == Direction.LEFT ? -1 : 0;
+    }
+
+    /**
+     * Collects the changes of one operation, copying each touched row once.
+     */
+    private static final class Editor {
+        private final int[][] source;
+        private int[][] rows;           // null until the first real change
+        private int copiedRows;         // bit r set => rows[r] is a private copy
+
+        Editor(int[][] source) {
+            this.source = source;
+        }
+
+        void set(int r, int c, int value) {
+            int[][] current = rows == null ? source : rows;
+            if (current[r][c] == value) return;
+            if (rows == null) rows = source.clone();
+            if ((copiedRows & (1 << r)) == 0) {
+                rows[r] = rows[r].clone();
+                copiedRows |= 1 << r;
+            }
+            rows[r][c] = value;
+        }
+
+        PersistentGrid build(PersistentGrid unchanged) {
+            return rows == null ? unchanged : new PersistentGrid(rows);
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package grid;
+
+import java.util.Objects;
+
+/**
+ * Keeps the number of boxes showing a letter on top up to date from change events,
+ * doing work only for the changed cells instead of rescanning the grid.
+ */
+public final class ScoreTracker implements GridListener {
+
+    private final char letter;
+    private final char[] tops = new char[BoxGrid.SIZE * BoxGrid.SIZE];
+    private int count;
+
+    /**
+     * Starts tracking the given grid (scans it once and registers itself as a listener).
+     */
+    public ScoreTracker(BoxGrid grid, char letter) {
+        Objects.requireNonNull(grid, "grid is null");
+        this.letter = Character.toUpperCase(letter);
+        for (int i = 0; i < tops.length; i++) {
+            tops[i] = grid.getBox(new Position(i / BoxGrid.SIZE + 1, i % BoxGrid.SIZE + 1)).getTopLetter();
+            if (tops[i] == this.letter) count++;
+        }
+        grid.addListener(this);
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    @Override
+    public void onChanges(BoxGrid grid, GridChangeBatch batch) {
+        for (int i = 0; i < batch.size(); i++) {
+            if (batch.getKind(i) == GridChangeKind.OPENED) continue; // opening never changes letters
+
+            int cell = batch.getCellIndex(i);
+            char now = grid.getBox(new Position(batch.getRow(i), batch.getCol(i))).getTopLetter();
+            if (now != tops[cell]) {
+                if (tops[cell] == letter) count--;
+                if (now == letter) count++;
+                tops[cell] = now;
+            }
+        }
+    }
+}
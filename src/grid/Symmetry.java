@@ -0,0 +1,257 @@
+package grid;
+
+import boxes.Face;
+import tools.ToolKind;
+
+import java.util.Objects;
+
+/**
+ * The 8 symmetries of the square board (4 rotations, 4 reflections), seen from above.
+ *
+ * Turning the board also turns every box: a side face keeps pointing the same way relative to the board,
+ * so LEFT/RIGHT/FRONT/BACK map exactly like the directions LEFT/RIGHT/DOWN/UP, while TOP and BOTTOM stay.
+ * Rows become columns under the axis-swapping symmetries, so MassRowStamp and MassColumnStamp swap too.
+ * With this mapping, "roll then transform" equals "transform then roll the transformed action".
+ *
+ * Everything is table-driven; the tables are built once and every inverse is checked when the class loads.
+ */
+public enum Symmetry {
+    IDENTITY,
+    ROTATE_90,        // clockwise
+    ROTATE_180,
+    ROTATE_270,
+    FLIP_HORIZONTAL,  // mirror columns (left <-> right)
+    FLIP_VERTICAL,    // mirror rows (top <-> bottom)
+    TRANSPOSE,        // main diagonal
+    ANTI_TRANSPOSE;   // other diagonal
+
+    private static final int N = BoxGrid.SIZE;
+    private static final int CELLS = N * N;
+    private static final Symmetry[] ALL = values();
+
+    private static final int[][] CELL_TO = new int[ALL.length][CELLS];      // source index -> destination index
+    private static final int[][] CELL_FROM = new int[ALL.length][CELLS];    // destination index -> source index
+    private static final Direction[][] DIRECTIONS = new Direction[ALL.length][];
+    private static final Face[][] FACES = new Face[ALL.length][];
+    private static final int[][] SIDE_TABLE = new int[ALL.length][1 << 12]; // packed side letters -> packed side letters
+    private static final Symmetry[] INVERSE = new Symmetry[ALL.length];
+
+    static {
+        for (Symmetry s : ALL) {
+            s.buildTables();
+        }
+        for (Symmetry s : ALL) {
+            INVERSE[s.ordinal()] = s.findInverse();
+        }
+    }
+
+    // -------------------------
+    // Public mapping API
+    // -------------------------
+
+    public Symmetry inverse() {
+        return INVERSE[ordinal()];
+    }
+
+    /**
+     * True if rows become columns (and MassRowStamp becomes MassColumnStamp).
+     */
+    public boolean swapsAxes() {
+        return this == ROTATE_90 || this == ROTATE_270 || this == TRANSPOSE || this == ANTI_TRANSPOSE;
+    }
+
+    public Position apply(Position p) {
+        Objects.requireNonNull(p, "position is null");
+        int to = CELL_TO[ordinal()][(p.getRow() - 1) * N + (p.getCol() - 1)];
+        return new Position(to / N + 1, to % N + 1);
+    }
+
+    /**
+     * Maps a row-major cell index (0..63).
+     */
+    public int applyToIndex(int index) {
+        return CELL_TO[ordinal()][index];
+    }
+
+    public Direction apply(Direction d) {
+        return DIRECTIONS[ordinal()][d.ordinal()];
+    }
+
+    public Face apply(Face f) {
+        return FACES[ordinal()][f.ordinal()];
+    }
+
+    public ToolKind apply(ToolKind kind) {
+        if (kind == null || !swapsAxes()) return kind;
+        if (kind == ToolKind.MASS_ROW_STAMP) return ToolKind.MASS_COLUMN_STAMP;
+        if (kind == ToolKind.MASS_COLUMN_STAMP) return ToolKind.MASS_ROW_STAMP;
+        return kind;
+    }
+
+    /**
+     * Maps one packed cell (see CellCodec): side letters are permuted, row/column stamps may swap.
+     */
+    public int applyToCell(int cell) {
+        int side = (cell & CellCodec.SIDE_MASK) >>> CellCodec.SIDE_SHIFT;
+        int mapped = (cell & ~CellCodec.SIDE_MASK) | (SIDE_TABLE[ordinal()][side] << CellCodec.SIDE_SHIFT);
+
+        if (swapsAxes()) {
+            int tool = (cell & CellCodec.TOOL_MASK) >>> CellCodec.TOOL_SHIFT;
+            int row = ToolKind.MASS_ROW_STAMP.ordinal() + 1;
+            int col = ToolKind.MASS_COLUMN_STAMP.ordinal() + 1;
+            if (tool == row || tool == col) {
+                mapped = (mapped & ~CellCodec.TOOL_MASK) | ((tool == row ? col : row) << CellCodec.TOOL_SHIFT);
+            }
+        }
+        return mapped;
+    }
+
+    /**
+     * Returns the transformed packed board (row-major int[64]).
+     */
+    public int[] apply(int[] cells) {
+        if (cells == null || cells.length != CELLS) {
+            throw new IllegalArgumentException("cells must be an int[" + CELLS + "]");
+        }
+        int[] out = new int[CELLS];
+        int[] from = CELL_FROM[ordinal()];
+        for (int i = 0; i < CELLS; i++) {
+            out[i] = applyToCell(cells[from[i]]);
+        }
+        return out;
+    }
+
+    /**
+     * Cell of the transformed board at destination index i, read straight from the source board.
+     */
+    int transformedCell(int[] cells, int i) {
+        return applyToCell(cells[CELL_FROM[ordinal()][i]]);
+    }
+
+    // -------------------------
+    // Table construction
+    // -------------------------
+
+    /**
+     * Destination of 0-based (r, c), as {row, col}.
+     */
+    private int[] map(int r, int c) {
+        int m = N - 1;
+        return switch (this) {
+            case IDENTITY -> new int[]{r, c};
+            case ROTATE_90 -> new int[]{c, m - r};
+            case ROTATE_180 -> new int[]{m - r, m - c};
+            case ROTATE_270 -> new int[]{m - c, r};
+            case FLIP_HORIZONTAL -> new int[]{r, m - c};
+            case FLIP_VERTICAL -> new int[]{m - r, c};
+            case TRANSPOSE -> new int[]{c, r};
+            case ANTI_TRANSPOSE -> new int[]{m - c, m - r};
+        };
+    }
+
+    private void buildTables() {
+        int t = ordinal();
+
+        for (int r = 0; r < N; r++) {
+            for (int c = 0; c < N; c++) {
+                int[] d = map(r, c);
+                CELL_TO[t][r * N + c] = d[0] * N + d[1];
+                CELL_FROM[t][d[0] * N + d[1]] = r * N + c;
+            }
+        }
+
+        // Directions follow the displacement of one step from the board centre area
+        Direction[] dirs = new Direction[Direction.values().length];
+        for (Direction d : Direction.values()) {
+            int[] from = map(1, 1);
+            int[] to = map(1 + rowStep(d), 1 + colStep(d));
+            dirs[d.ordinal()] = directionOf(to[0] - from[0], to[1] - from[1]);
+        }
+        DIRECTIONS[t] = dirs;
+
+        Face[] faces = new Face[Face.values().length];
+        for (Face f : Face.values()) {
+            Direction d = directionOf(f);
+            faces[f.ordinal()] = d == null ? f : faceOf(dirs[d.ordinal()]);
+        }
+        FACES[t] = faces;
+
+        // Side letters: LEFT, RIGHT, FRONT, BACK are faces 2..5 => 3-bit groups 0..3 of the 12-bit side value
+        for (int side = 0; side < (1 << 12); side++) {
+            int mapped = 0;
+            for (int f = 2; f < 6; f++) {
+                int letter = (side >>> ((f - 2) * CellCodec.LETTER_BITS)) & 7;
+                int nf = faces[f].ordinal();
+                mapped |= letter << ((nf - 2) * CellCodec.LETTER_BITS);
+            }
+            SIDE_TABLE[t][side] = mapped;
+        }
+    }
+
+    /**
+     * Finds the symmetry that undoes this one and checks it on every table.
+     */
+    private Symmetry findInverse() {
+        for (Symmetry u : ALL) {
+            if (undoes(u)) return u;
+        }
+        throw new IllegalStateException("No inverse found for " + this);
+    }
+
+    private boolean undoes(Symmetry u) {
+        for (int i = 0; i < CELLS; i++) {
+            if (CELL_TO[u.ordinal()][CELL_TO[ordinal()][i]] != i) return false;
+        }
+        for (Direction d : Direction.values()) {
+            if (u.apply(apply(d)) != d) return false;
+        }
+        for (Face f : Face.values()) {
+            if (u.apply(apply(f)) != f) return false;
+        }
+        for (int side = 0; side < (1 << 12); side++) {
+            if (SIDE_TABLE[u.ordinal()][SIDE_TABLE[ordinal()][side]] != side) return false;
+        }
+        for (ToolKind k : ToolKind.values()) {
+            if (u.apply(apply(k)) != k) return false;
+        }
+        return true;
+    }
+
+    private static int rowStep(Direction d) {
+        return d == Direction.UP ? -1 : d == Direction.DOWN ? 1 : 0;
+    }
+
+    private static int colStep(Direction d) {
+        return d == Direction.LEFT ? -1 : d == Direction.RIGHT ? 1 : 0;
+    }
+
+    private static Direction directionOf(int dr, int dc) {
+        if (dr == -1 && dc == 0) return Direction.UP;
+        if (dr == 1 && dc == 0) return Direction.DOWN;
+        if (dr == 0 && dc == -1) return Direction.LEFT;
+        if (dr == 0 && dc == 1) return Direction.RIGHT;
+        throw new IllegalStateException("Not a unit step: " + dr + ", " + dc);
+    }
+
+    /**
+     * Side face pointing in the given direction (FRONT faces DOWN, BACK faces UP).
+     */
+    private static Face faceOf(Direction d) {
+        return switch (d) {
+            case UP -> Face.BACK;
+            case DOWN -> Face.FRONT;
+            case LEFT -> Face.LEFT;
+            case RIGHT -> Face.RIGHT;
+        };
+    }
+
+    private static Direction directionOf(Face f) {
+        return switch (f) {
+            case BACK -> Direction.UP;
+            case FRONT -> Direction.DOWN;
+            case LEFT -> Direction.LEFT;
+            case RIGHT -> Direction.RIGHT;
+            default -> null; // TOP and BOTTOM do not move
+        };
+    }
+}
@@ -0,0 +1,136 @@
+package puzzle;
+
+import grid.BoxGrid;
+import grid.CellCodec;
+import grid.Position;
+import util.UnsharedRandom;
+
+import java.util.Objects;
+import java.util.Random;
+
+/**
+ * Random board generation, shared by the console game and headless play.
+ * Given the same seed, the same target letter and grid are produced,
+ * so bots and simulations can replay identical boards.
+ *
+ * Boxes are first drawn in packed CellCodec form (no objects), then decoded for BoxGrid.
+ * Bulk generators use the packed form directly and get exactly the same boards.
+ */
+public final class BoardGenerator {
+
+    static final char[] LETTERS = {'A', 'B', 'C', 'D', 'E', 'F', 'G', 'H'};
+
+    private static final int TOOL_KINDS = 5;
+
+    private final Random random;
+
+    /**
+     * Seeded generator. The generator is confined to one thread, so an UnsharedRandom is used:
+     * same boards as new Random(seed), without the cost of atomic seed updates.
+     */
+    public BoardGenerator(long seed) {
+        this(new UnsharedRandom(seed));
+    }
+
+    public BoardGenerator(Random random) {
+        this.random = Objects.requireNonNull(random, "random is null");
+    }
+
+    /**
+     * Picks the target letter (A..H).
+     * BoxPuzzle draws it before the grid, so callers should do the same to keep seeds comparable.
+     */
+    public char randomTargetLetter() {
+        return LETTERS[random.nextInt(LETTERS.length)];
+    }
+
+    /**
+     * Returns a new, fully generated grid.
+     */
+    public BoxGrid generateGrid() {
+        BoxGrid grid = new BoxGrid();
+        fillGrid(grid);
+        return grid;
+    }
+
+    /**
+     * Fills every cell of the given grid with a random box.
+     */
+    public void fillGrid(BoxGrid grid) {
+        Objects.requireNonNull(grid, "grid is null");
+        for (int r = 1; r <= BoxGrid.SIZE; r++) {
+            for (int c = 1; c <= BoxGrid.SIZE; c++) {
+                Position pos = new Position(r, c);
+                grid.setBox(pos, CellCodec.decode(nextPackedCell()));
+            }
+        }
+    }
+
+    /**
+     * Fills a packed board (row-major, BoxGrid.SIZE * BoxGrid.SIZE cells).
+     */
+    public void fillPacked(int[] cells) {
+        if (cells == null || cells.length != BoxGrid.SIZE * BoxGrid.SIZE) {
+            throw new IllegalArgumentException("cells must be an int[" + BoxGrid.SIZE * BoxGrid.SIZE + "]");
+        }
+        for (int i = 0; i < cells.length; i++) {
+            cells[i] = nextPackedCell();
+        }
+    }
+
+    /**
+     * Draws one random box in CellCodec form.
+     */
+    public int nextPackedCell() {
+        int cell = generateValidSurfaces();
+        double roll = random.nextDouble();
+
+        // Probabilities: 85% Regular, 5% Fixed, 10% Unchanging
+        if (roll < 0.85) {
+            // RegularBox: 75% chance of containing a tool
+            if (random.nextDouble() < 0.75) {
+                cell |= generateRandomTool() << CellCodec.TOOL_SHIFT;
+            }
+            return cell | (CellCodec.TYPE_REGULAR << CellCodec.TYPE_SHIFT);
+        } else if (roll < 0.90) {
+            // FixedBox (5%) - always shown as opened/empty
+            return cell | (CellCodec.TYPE_FIXED << CellCodec.TYPE_SHIFT) | CellCodec.OPENED_BIT;
+        } else {
+            // UnchangingBox (10%) - guaranteed to contain a tool
+            cell |= generateRandomTool() << CellCodec.TOOL_SHIFT;
+            return cell | (CellCodec.TYPE_UNCHANGING << CellCodec.TYPE_SHIFT);
+        }
+    }
+
+    /**
+     * Six letters packed 3 bits each; the same letter may appear at most twice.
+     */
+    private int generateValidSurfaces() {
+        while (true) {
+            int letters = 0;
+            int counts = 0; // 4-bit counter per letter
+            boolean valid = true;
+
+            for (int i = 0; i < 6; i++) {
+                int ch = random.nextInt(LETTERS.length);
+                letters |= ch << (i * CellCodec.LETTER_BITS);
+                counts += 1 << (ch * 4);
+
+                // Max 2 of same letter (only at the start of the game)
+                if (((counts >>> (ch * 4)) & 0xF) > 2) {
+                    valid = false;
+                    break;
+                }
+            }
+            if (valid) return letters;
+        }
+    }
+
+    /**
+     * Tool field value: ToolKind ordinal + 1
+     * (PlusShapeStamp, MassRowStamp, MassColumnStamp, BoxFlipper, BoxFixer).
+     */
+    private int generateRandomTool() {
+        return random.nextInt(TOOL_KINDS) + 1;
+    }
+}
@@ -13,16 +13,16 @@ public class BoxPuzzle {
     private final BoxGrid boxGrid;
     private final char targetLetter;
 
-    private static final int MAX_TURNS = 5;
-    private static final char[] LETTERS = {'A', 'B', 'C', 'D', 'E', 'F', 'G', 'H'};
+    public static final int MAX_TURNS = 5;
 
     private final Random random;
 
     public BoxPuzzle() {
         this.random = new Random();
+        BoardGenerator generator = new BoardGenerator(random);
         this.boxGrid = new BoxGrid();
-        this.targetLetter = LETTERS[random.nextInt(LETTERS.length)];
-        generateGrid();
+        this.targetLetter = generator.randomTargetLetter();
+        generator.fillGrid(boxGrid);
     }
 
     /**
@@ -55,6 +55,7 @@ public class BoxPuzzle {
                 // Stage 1: Rolling
                 System.out.println("---> TURN " + turn + " FIRST STAGE:");
                 menu.handleRollingStage();
+                boxGrid.publishChanges();
 
                 System.out.println("The new state of the box grid:");
                 System.out.println(boxGrid.toPrettyString());
@@ -80,7 +81,8 @@ public class BoxPuzzle {
                 System.out.println("An unexpected error occurred: " + e.getMessage());
                 System.out.println("Turn is wasted!");
             } finally {
-                // Reset moved status for next turn no matter what
+                // Deliver this stage's changes and reset moved status for next turn no matter what
+                boxGrid.publishChanges();
                 boxGrid.resetMovedThisTurn();
             }
         }
@@ -93,31 +95,14 @@ public class BoxPuzzle {
      * If all edge boxes are FixedBox, rolling cannot be performed => FAILURE possible.
      */
     private boolean hasAnyMovableEdge() {
-        for (int i = 1; i <= BoxGrid.SIZE; i++) {
-            // top row
-            if (!(boxGrid.getBox(new Position(1, i)) instanceof FixedBox)) return true;
-            // bottom row
-            if (!(boxGrid.getBox(new Position(BoxGrid.SIZE, i)) instanceof FixedBox)) return true;
-            // left column
-            if (!(boxGrid.getBox(new Position(i, 1)) instanceof FixedBox)) return true;
-            // right column
-            if (!(boxGrid.getBox(new Position(i, BoxGrid.SIZE)) instanceof FixedBox)) return true;
-        }
-        return false;
+        return boxGrid.hasAnyMovableEdge();
     }
 
     /**
      * Calculates score and prints result.
      */
     private void endGame() {
-        int count = 0;
-        for (int r = 1; r <= BoxGrid.SIZE; r++) {
-            for (int c = 1; c <= BoxGrid.SIZE; c++) {
-                if (boxGrid.getBox(new Position(r, c)).getTopLetter() == targetLetter) {
-                    count++;
-                }
-            }
-        }
+        int count = boxGrid.countTopLetter(targetLetter);
 
         System.out.println("******** GAME OVER ********");
         System.out.println();
@@ -128,71 +113,6 @@ public class BoxPuzzle {
         System.out.println("The game has been SUCCESSFULLY completed!");
     }
 
-    // =============================================================
-    // GRID GENERATION LOGIC
-    // =============================================================
-
-    private void generateGrid() {
-        for (int r = 1; r <= BoxGrid.SIZE; r++) {
-            for (int c = 1; c <= BoxGrid.SIZE; c++) {
-                Position pos = new Position(r, c);
-                Box box = createRandomBox();
-                boxGrid.setBox(pos, box);
-            }
-        }
-    }
-
-    private Box createRandomBox() {
-        char[] surfaces = generateValidSurfaces();
-        double roll = random.nextDouble();
-
-        // Probabilities: 85% Regular, 5% Fixed, 10% Unchanging
-        if (roll < 0.85) {
-            // RegularBox: 75% chance of containing a tool
-            SpecialTool tool = (random.nextDouble() < 0.75) ? generateRandomTool() : null;
-            return new RegularBox(surfaces, tool);
-        } else if (roll < 0.90) {
-            // FixedBox (5%)
-            return new FixedBox(surfaces);
-        } else {
-            // UnchangingBox (10%) - guaranteed to contain a tool
-            return new UnchangingBox(surfaces, generateRandomTool());
-        }
-    }
-
-    private char[] generateValidSurfaces() {
-        while (true) {
-            char[] s = new char[6];
-            Map<Character, Integer> counts = new HashMap<>();
-            boolean valid = true;
-
-            for (int i = 0; i < 6; i++) {
-                char ch = LETTERS[random.nextInt(LETTERS.length)];
-                s[i] = ch;
-                counts.put(ch, counts.getOrDefault(ch, 0) + 1);
-
-                // Max 2 of same letter (only at the start of the game)
-                if (counts.get(ch) > 2) {
-                    valid = false;
-                    break;
-                }
-            }
-            if (valid) return s;
-        }
-    }
-
-    private SpecialTool generateRandomTool() {
-        int pick = random.nextInt(5);
-        return switch (pick) {
-            case 0 -> new PlusShapeStamp();
-            case 1 -> new MassRowStamp();
-            case 2 -> new MassColumnStamp();
-            case 3 -> new BoxFlipper();
-            case 4 -> new BoxFixer();
-            default -> null;
-        };
-    }
-
     // =============================================================
     // GENERICS HELPER METHOD
     // =============================================================
@@ -254,8 +174,7 @@ public class BoxPuzzle {
                     continue;
                 }
 
-                Box box = boxGrid.getBox(openPos);
-                SpecialTool tool = box.openAndTakeContent();
+                SpecialTool tool = boxGrid.openBox(openPos);
 
                 if (tool == null) {
                     throw new EmptyBoxException("Continuing to the next turn...");
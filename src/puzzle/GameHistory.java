@@ -0,0 +1,98 @@
+package puzzle;
+
+import java.util.Objects;
+
+/**
+ * Undo/redo history of a game made of PersistentGame states.
+ *
+ * States share all unchanged grid rows, and both stacks are immutable linked lists, so
+ * a history costs memory proportional to what the turns changed, and fork() is O(1):
+ * the fork starts with the same current state and the same undo/redo stacks, and
+ * the two histories evolve independently afterwards.
+ */
+public final class GameHistory {
+
+    private PersistentGame current;
+    private Node undo;  // previous states, most recent first
+    private Node redo;  // undone states, most recent first
+
+    public GameHistory(PersistentGame start) {
+        this.current = Objects.requireNonNull(start, "start is null");
+    }
+
+    private GameHistory(PersistentGame current, Node undo, Node redo) {
+        this.current = current;
+        this.undo = undo;
+        this.redo = redo;
+    }
+
+    public PersistentGame current() {
+        return current;
+    }
+
+    /**
+     * Plays a turn on the current state. Clears the redo stack, like any editor.
+     * Returns true if the turn was completed, false if it was wasted.
+     */
+    public boolean play(TurnAction action) {
+        PersistentGame next = current.play(action);
+        undo = new Node(current, undo);
+        redo = null;
+        current = next;
+        return !next.getLastOutcome().isWasted();
+    }
+
+    public boolean canUndo() {
+        return undo != null;
+    }
+
+    public boolean canRedo() {
+        return redo != null;
+    }
+
+    /**
+     * Goes back one turn. Throws IllegalStateException if there is nothing to undo.
+     */
+    public PersistentGame undo() {
+        if (undo == null) throw new IllegalStateException("Nothing to undo.");
+        redo = new Node(current, redo);
+        current = undo.state;
+        undo = undo.next;
+        return current;
+    }
+
+    /**
+     * Replays one undone turn. Throws IllegalStateException if there is nothing to redo.
+     */
+    public PersistentGame redo() {
+        if (redo == null) throw new IllegalStateException("Nothing to redo.");
+        undo = new Node(current, undo);
+        current = redo.state;
+        redo = redo.next;
+        return current;
+    }
+
+    /**
+     * Independent history starting from the same state (for search and what-if analysis).
+     */
+    public GameHistory fork() {
+        return new GameHistory(current, undo, redo);
+    }
+
+    /** Number of states that can be undone. */
+    public int undoDepth() {
+        int n = 0;
+        for (Node x = undo; x != null; x = x.next) n++;
+        return n;
+    }
+
+    private static final class Node {
+        final PersistentGame state;
+        final Node next;
+
+        Node(PersistentGame state, Node next) {
+            this.state = state;
+            this.next = next;
+        }
+    }
+}
@@ -0,0 +1,243 @@
+package puzzle;
+
+import grid.BoxGrid;
+import grid.Position;
+import tools.SpecialTool;
+import tools.ToolKind;
+
+import java.util.Objects;
+
+/**
+ * Console-free version of the BoxPuzzle turn structure, used by bots, search and simulations.
+ * A turn is given as a TurnAction instead of being read from the user.
+ *
+ * Rules follow BoxPuzzle.play():
+ * - The game FAILS as soon as no edge box can be rolled (final score is then 0).
+ * - A FixedBox on the chosen edge, an empty box and fixing a FixedBox waste the turn
+ *   (reported as a TurnOutcome; the console game throws the matching exceptions).
+ * - Choices the console would re-prompt for (opening a box that was not rolled,
+ *   a missing tool target) are rejected with IllegalArgumentException before anything changes.
+ *
+ * A turn can also be played as its two stages, playRollStage(...) then playToolStage(),
+ * so schedulers can run one stage for many games before the next.
+ */
+public class HeadlessGame {
+
+    private final BoxGrid grid;
+    private final char targetLetter;
+    private int turn;               // next turn to be played (1..MAX_TURNS)
+    private boolean failed;
+    private TurnOutcome lastOutcome; // how the last turn ended (OK before the first turn)
+    private int lastRunLength;      // boxes rolled in the last turn
+    private ToolKind lastToolKind;  // tool found in the last turn (null if none)
+    private TurnAction rolledAction; // turn whose tool stage is still to be played (null between turns)
+    private TurnOutcome rollOutcome; // how its roll stage ended
+
+    /**
+     * Starts a game on the given grid. The grid is used as-is (not copied).
+     */
+    public HeadlessGame(BoxGrid grid, char targetLetter) {
+        this.grid = Objects.requireNonNull(grid, "grid is null");
+        this.targetLetter = Character.toUpperCase(targetLetter);
+        this.turn = 1;
+        this.lastOutcome = TurnOutcome.OK;
+        updateFailure();
+    }
+
+    /**
+     * Copy constructor: deep copies the grid, so the copy can be played independently.
+     */
+    public HeadlessGame(HeadlessGame other) {
+        Objects.requireNonNull(other, "other game is null");
+        this.grid = new BoxGrid(other.grid);
+        this.targetLetter = other.targetLetter;
+        this.turn = other.turn;
+        this.failed = other.failed;
+        this.lastOutcome = other.lastOutcome;
+        this.lastRunLength = other.lastRunLength;
+        this.lastToolKind = other.lastToolKind;
+        this.rolledAction = other.rolledAction;
+        this.rollOutcome = other.rollOutcome;
+    }
+
+    /**
+     * Recreates a game in the middle of play (used when restoring saved sessions).
+     */
+    public static HeadlessGame restore(BoxGrid grid, char targetLetter, int turn, boolean failed) {
+        if (turn < 1 || turn > BoxPuzzle.MAX_TURNS + 1) {
+            throw new IllegalArgumentException("Invalid turn number: " + turn);
+        }
+        HeadlessGame game = new HeadlessGame(grid, targetLetter);
+        game.turn = turn;
+        game.failed = failed;
+        game.updateFailure();
+        return game;
+    }
+
+    /**
+     * Generates a board exactly like BoxPuzzle does (target letter first, then the grid).
+     */
+    public static HeadlessGame fromSeed(long seed) {
+        BoardGenerator generator = new BoardGenerator(seed);
+        char target = generator.randomTargetLetter();
+        return new HeadlessGame(generator.generateGrid(), target);
+    }
+
+    // -------------------------
+    // Accessors
+    // -------------------------
+
+    /**
+     * Live grid of this game (not a copy). Callers must not modify it outside playTurn.
+     */
+    public BoxGrid getGrid() { return grid; }
+    public char getTargetLetter() { return targetLetter; }
+    public int getTurn() { return turn; }
+    public boolean isFailed() { return failed; }
+    public TurnOutcome getLastOutcome() { return lastOutcome; }
+
+    /**
+     * Why the last turn was wasted, as the exception the console game would have shown (null if it was not).
+     * Created on demand; headless play itself never throws for wasted turns.
+     */
+    public Exception getLastFailure() { return lastOutcome.toException(); }
+    public int getLastRunLength() { return lastRunLength; }
+    public ToolKind getLastToolKind() { return lastToolKind; }
+
+    /**
+     * True between playRollStage(...) and playToolStage().
+     */
+    public boolean isMidTurn() { return rolledAction != null; }
+
+    public int getRemainingTurns() {
+        return failed ? 0 : BoxPuzzle.MAX_TURNS - turn + 1;
+    }
+
+    public boolean isOver() {
+        return getRemainingTurns() == 0;
+    }
+
+    /**
+     * Current number of target letters on top sides.
+     */
+    public int score() {
+        return grid.countTopLetter(targetLetter);
+    }
+
+    /**
+     * Score as reported by the game: a failed game has no score.
+     */
+    public int finalScore() {
+        return failed ? 0 : score();
+    }
+
+    // -------------------------
+    // Playing
+    // -------------------------
+
+    /**
+     * Plays one full turn.
+     * Returns true if the turn was completed, false if it was wasted (see getLastOutcome()).
+     */
+    public boolean playTurn(TurnAction action) {
+        playRollStage(action);
+        return playToolStage();
+    }
+
+    /**
+     * First stage of a turn: validates the whole action, then rolls from its edge.
+     * Returns false if nothing rolled (FixedBox on the edge); the turn is then wasted and
+     * playToolStage() only ends it. Either way playToolStage() must be called before the next turn.
+     */
+    public boolean playRollStage(TurnAction action) {
+        Objects.requireNonNull(action, "action is null");
+        if (isOver()) {
+            throw new IllegalStateException("The game is already over.");
+        }
+        if (isMidTurn()) {
+            throw new IllegalStateException("The tool stage of the current turn has not been played.");
+        }
+        validate(action);
+
+        lastRunLength = grid.runLength(action.getEdge(), action.getDirection());
+        lastToolKind = null;
+
+        rollOutcome = grid.tryRollFromEdge(action.getEdge(), action.getDirection());
+        rolledAction = action;
+        if (rollOutcome == TurnOutcome.OK) {
+            grid.publishChanges(); // end of the first stage
+        }
+        return rollOutcome == TurnOutcome.OK;
+    }
+
+    /**
+     * Second stage of a turn: opens the chosen box and applies its tool, then ends the turn.
+     * Returns true if the turn was completed, false if it was wasted (see getLastOutcome()).
+     */
+    public boolean playToolStage() {
+        if (!isMidTurn()) {
+            throw new IllegalStateException("No roll stage to finish.");
+        }
+        TurnAction action = rolledAction;
+        TurnOutcome outcome = rollOutcome;
+        rolledAction = null;
+        rollOutcome = null;
+
+        if (outcome == TurnOutcome.OK) {
+            SpecialTool tool = grid.openBox(action.getOpen());
+            if (tool == null) {
+                outcome = TurnOutcome.EMPTY_BOX;
+            } else {
+                lastToolKind = ToolKind.of(tool);
+                outcome = tool.tryApply(grid, action.getToolTarget(), targetLetter);
+            }
+        }
+
+        lastOutcome = outcome;
+        grid.publishChanges(); // end of the second stage (or of a wasted turn)
+        grid.resetMovedThisTurn();
+        turn++;
+        updateFailure();
+        return outcome == TurnOutcome.OK;
+    }
+
+    /**
+     * Rejects actions the console would re-prompt for, before the grid is touched.
+     */
+    private void validate(TurnAction action) {
+        Position edge = action.getEdge();
+        if (!grid.allowedInwardDirections(edge).contains(action.getDirection())) {
+            throw new IllegalArgumentException("Direction " + action.getDirection() + " is not inward for " + edge);
+        }
+
+        int run = grid.runLength(edge, action.getDirection());
+        if (run == 0) {
+            return; // FixedBox on the edge: the turn is wasted before stage 2
+        }
+
+        if (!isInRun(edge, action, run)) {
+            throw new IllegalArgumentException("The box at " + action.getOpen() + " is not rolled by " + action);
+        }
+
+        if (!grid.getBox(action.getOpen()).isEmpty() && action.getToolTarget() == null) {
+            throw new IllegalArgumentException("The box at " + action.getOpen() + " holds a tool but no target was given.");
+        }
+    }
+
+    static boolean isInRun(Position edge, TurnAction action, int run) {
+        Position open = action.getOpen();
+        int distance = switch (action.getDirection()) {
+            case DOWN -> open.getCol() == edge.getCol() ? open.getRow() - edge.getRow() : -1;
+            case UP -> open.getCol() == edge.getCol() ? edge.getRow() - open.getRow() : -1;
+            case RIGHT -> open.getRow() == edge.getRow() ? open.getCol() - edge.getCol() : -1;
+            case LEFT -> open.getRow() == edge.getRow() ? edge.getCol() - open.getCol() : -1;
+        };
+        return distance >= 0 && distance < run;
+    }
+
+    private void updateFailure() {
+        if (!failed && turn <= BoxPuzzle.MAX_TURNS && !grid.hasAnyMovableEdge()) {
+            failed = true;
+        }
+    }
+}
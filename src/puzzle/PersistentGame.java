@@ -0,0 +1,200 @@
+package puzzle;
+
+import exceptions.UnmovableFixedBoxException;
+import grid.BoxGrid;
+import grid.CellCodec;
+import grid.PersistentGrid;
+import grid.Position;
+import tools.ToolKind;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Immutable game state on a PersistentGrid: playing a turn returns a new state and leaves this one intact,
+ * so states can be kept, shared and branched for free (see GameHistory).
+ *
+ * Rules and validation are the same as HeadlessGame.playTurn(); tools are applied on packed cells.
+ */
+public final class PersistentGame {
+
+    private static final int N = BoxGrid.SIZE;
+
+    private final PersistentGrid grid;
+    private final char targetLetter;
+    private final int turn;
+    private final boolean failed;
+    private final TurnOutcome lastOutcome;
+
+    private PersistentGame(PersistentGrid grid, char targetLetter, int turn, boolean failed, TurnOutcome lastOutcome) {
+        this.grid = grid;
+        this.targetLetter = targetLetter;
+        this.turn = turn;
+        this.failed = failed || (turn <= BoxPuzzle.MAX_TURNS && !grid.hasAnyMovableEdge());
+        this.lastOutcome = lastOutcome;
+    }
+
+    public static PersistentGame start(PersistentGrid grid, char targetLetter) {
+        Objects.requireNonNull(grid, "grid is null");
+        return new PersistentGame(grid, Character.toUpperCase(targetLetter), 1, false, TurnOutcome.OK);
+    }
+
+    /**
+     * Snapshot of a headless game in its current state.
+     */
+    public static PersistentGame of(HeadlessGame game) {
+        Objects.requireNonNull(game, "game is null");
+        return new PersistentGame(PersistentGrid.of(game.getGrid()), game.getTargetLetter(),
+                game.getTurn(), game.isFailed(), game.getLastOutcome());
+    }
+
+    public static PersistentGame fromSeed(long seed) {
+        return of(HeadlessGame.fromSeed(seed));
+    }
+
+    // -------------------------
+    // Accessors
+    // -------------------------
+
+    public PersistentGrid getGrid() { return grid; }
+    public char getTargetLetter() { return targetLetter; }
+    public int getTurn() { return turn; }
+    public boolean isFailed() { return failed; }
+    public TurnOutcome getLastOutcome() { return lastOutcome; }
+
+    public int getRemainingTurns() {
+        return failed ? 0 : BoxPuzzle.MAX_TURNS - turn + 1;
+    }
+
+    public boolean isOver() {
+        return getRemainingTurns() == 0;
+    }
+
+    public int score() {
+        return grid.countTopLetter(targetLetter);
+    }
+
+    public int finalScore() {
+        return failed ? 0 : score();
+    }
+
+    /**
+     * Mutable copy for code that works on BoxGrid.
+     */
+    public HeadlessGame toHeadlessGame() {
+        return HeadlessGame.restore(grid.toBoxGrid(), targetLetter, turn, failed);
+    }
+
+    // -------------------------
+    // Playing
+    // -------------------------
+
+    /**
+     * Returns the state after one full turn (a wasted turn reports its reason in getLastOutcome()).
+     */
+    public PersistentGame play(TurnAction action) {
+        Objects.requireNonNull(action, "action is null");
+        if (isOver()) {
+            throw new IllegalStateException("The game is already over.");
+        }
+        validate(action);
+
+        PersistentGrid g = grid;
+        TurnOutcome outcome = TurnOutcome.UNMOVABLE_FIXED_BOX;
+        if (g.runLength(action.getEdge(), action.getDirection()) > 0) {
+            try {
+                g = g.rollFromEdge(action.getEdge(), action.getDirection());
+            } catch (UnmovableFixedBoxException e) {
+                throw new IllegalStateException(e); // unreachable: the edge box is not fixed
+            }
+
+            Position open = action.getOpen();
+            ToolKind kind = CellCodec.tool(g.cell(open));
+            g = g.openBox(open);
+            if (kind == null) {
+                outcome = TurnOutcome.EMPTY_BOX;
+            } else {
+                Position target = action.getToolTarget();
+                outcome = toolOutcome(g, kind, target);
+                if (outcome == TurnOutcome.OK) g = useTool(g, kind, target);
+            }
+        }
+        return new PersistentGame(g.resetMovedThisTurn(), targetLetter, turn + 1, failed, outcome);
+    }
+
+    /**
+     * Flipping or fixing a FixedBox fails; stamps always succeed.
+     */
+    private static TurnOutcome toolOutcome(PersistentGrid g, ToolKind kind, Position p) {
+        boolean fixed = CellCodec.type(g.cell(p)) == CellCodec.TYPE_FIXED;
+        if (fixed && kind == ToolKind.BOX_FLIPPER) return TurnOutcome.UNMOVABLE_FIXED_BOX;
+        if (fixed && kind == ToolKind.BOX_FIXER) return TurnOutcome.BOX_ALREADY_FIXED;
+        return TurnOutcome.OK;
+    }
+
+    private PersistentGrid useTool(PersistentGrid g, ToolKind kind, Position p) {
+        int r = p.getRow() - 1;
+        int c = p.getCol() - 1;
+        switch (kind) {
+            case MASS_ROW_STAMP -> {
+                int[] cells = new int[N];
+                for (int i = 0; i < N; i++) cells[i] = r * N + i;
+                return g.stampTops(cells, targetLetter);
+            }
+            case MASS_COLUMN_STAMP -> {
+                int[] cells = new int[N];
+                for (int i = 0; i < N; i++) cells[i] = i * N + c;
+                return g.stampTops(cells, targetLetter);
+            }
+            case PLUS_SHAPE_STAMP -> {
+                int[] cells = new int[5];
+                int n = 0;
+                cells[n++] = r * N + c;
+                if (r > 0) cells[n++] = (r - 1) * N + c;
+                if (r < N - 1) cells[n++] = (r + 1) * N + c;
+                if (c > 0) cells[n++] = r * N + c - 1;
+                if (c < N - 1) cells[n++] = r * N + c + 1;
+                return g.stampTops(Arrays.copyOf(cells, n), targetLetter);
+            }
+            case BOX_FLIPPER -> {
+                return g.flipUpsideDown(p);
+            }
+            case BOX_FIXER -> {
+                return g.fix(p);
+            }
+            default -> throw new IllegalStateException("Unknown tool kind: " + kind);
+        }
+    }
+
+    /**
+     * Same checks as HeadlessGame: rejects actions the console would re-prompt for.
+     */
+    private void validate(TurnAction action) {
+        Position edge = action.getEdge();
+        if (!edge.isEdge() || !isInward(edge, action)) {
+            throw new IllegalArgumentException("Direction " + action.getDirection() + " is not inward for " + edge);
+        }
+
+        int run = grid.runLength(edge, action.getDirection());
+        if (run == 0) {
+            return; // FixedBox on the edge: the turn is wasted before stage 2
+        }
+
+        if (!HeadlessGame.isInRun(edge, action, run)) {
+            throw new IllegalArgumentException("The box at " + action.getOpen() + " is not rolled by " + action);
+        }
+
+        if (CellCodec.tool(grid.cell(action.getOpen())) != null && action.getToolTarget() == null) {
+            throw new IllegalArgumentException("The box at " + action.getOpen() + " holds a tool but no target was given.");
+        }
+    }
+
+    private static boolean isInward(Position edge, TurnAction action) {
+        return switch (action.getDirection()) {
+            case DOWN -> edge.getRow() == 1;
+            case UP -> edge.getRow() == N;
+            case RIGHT -> edge.getCol() == 1;
+            case LEFT -> edge.getCol() == N;
+        };
+    }
+}
@@ -0,0 +1,60 @@
+package puzzle;
+
+import grid.Direction;
+import grid.Position;
+import grid.Symmetry;
+
+import java.util.Objects;
+
+/**
+ * Immutable description of one full turn, i.e. the answers a player gives to the console prompts:
+ * - edge box to roll and its inward direction (first stage)
+ * - box to open among the rolled ones (second stage)
+ * - where to use the acquired SpecialTool (null if no tool is expected)
+ */
+public final class TurnAction {
+
+    private final Position edge;
+    private final Direction direction;
+    private final Position open;
+    private final Position toolTarget;
+
+    public TurnAction(Position edge, Direction direction, Position open, Position toolTarget) {
+        this.edge = Objects.requireNonNull(edge, "edge is null");
+        this.direction = Objects.requireNonNull(direction, "direction is null");
+        this.open = Objects.requireNonNull(open, "open is null");
+        this.toolTarget = toolTarget;
+    }
+
+    public Position getEdge() { return edge; }
+    public Direction getDirection() { return direction; }
+    public Position getOpen() { return open; }
+    public Position getToolTarget() { return toolTarget; }
+
+    /**
+     * The same action on the board transformed by the given symmetry.
+     */
+    public TurnAction transform(Symmetry s) {
+        Objects.requireNonNull(s, "symmetry is null");
+        return new TurnAction(s.apply(edge), s.apply(direction), s.apply(open),
+                toolTarget == null ? null : s.apply(toolTarget));
+    }
+
+    @Override
+    public String toString() {
+        return "roll " + edge + " " + direction + ", open " + open
+                + (toolTarget == null ? "" : ", tool at " + toolTarget);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (!(o instanceof TurnAction a)) return false;
+        return edge.equals(a.edge) && direction == a.direction && open.equals(a.open)
+                && Objects.equals(toolTarget, a.toolTarget);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(edge, direction, open, toolTarget);
+    }
+}
@@ -0,0 +1,54 @@
+package puzzle;
+
+import exceptions.BoxAlreadyFixedException;
+import exceptions.EmptyBoxException;
+import exceptions.UnmovableFixedBoxException;
+
+/**
+ * Result of a turn step (rolling, opening, using a tool) for code that must not pay for exceptions.
+ * Each failure matches one of the exceptions the console game throws; toException() and of(...)
+ * convert between the two, so the exception classes stay plain adapters for the console flow.
+ */
+public enum TurnOutcome {
+    OK,
+    UNMOVABLE_FIXED_BOX,
+    EMPTY_BOX,
+    BOX_ALREADY_FIXED;
+
+    /**
+     * True if the step failed and the turn is wasted.
+     */
+    public boolean isWasted() {
+        return this != OK;
+    }
+
+    /**
+     * The matching exception with its default message (null for OK).
+     */
+    public Exception toException() {
+        return toException(null);
+    }
+
+    /**
+     * The matching exception with the given message (null or blank = default message; null for OK).
+     */
+    public Exception toException(String message) {
+        return switch (this) {
+            case OK -> null;
+            case UNMOVABLE_FIXED_BOX -> new UnmovableFixedBoxException(message);
+            case EMPTY_BOX -> new EmptyBoxException(message);
+            case BOX_ALREADY_FIXED -> new BoxAlreadyFixedException(message);
+        };
+    }
+
+    /**
+     * Outcome matching a failure exception (OK for null).
+     */
+    public static TurnOutcome of(Exception e) {
+        if (e == null) return OK;
+        if (e instanceof UnmovableFixedBoxException) return UNMOVABLE_FIXED_BOX;
+        if (e instanceof EmptyBoxException) return EMPTY_BOX;
+        if (e instanceof BoxAlreadyFixedException) return BOX_ALREADY_FIXED;
+        throw new IllegalArgumentException("Not a turn failure: " + e.getClass().getName());
+    }
+}
@@ -0,0 +1,126 @@
+package search;
+
+import puzzle.HeadlessGame;
+import puzzle.TurnAction;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Depth-limited exhaustive search over whole turns that maximizes the final target-letter count.
+ * With pruning enabled, a child is skipped when the UpperBoundEvaluator proves it cannot beat
+ * the best value already found at its parent. The result is the same either way;
+ * only the number of visited nodes changes.
+ * Nodes one turn from the horizon are valued by the LastTurnOptimizer instead of being expanded
+ * (same value, no grid copies). The node count then only includes the plies above them, and each
+ * such valuation is counted as a leaf evaluation; the shortcut can be turned off to expand every ply.
+ */
+public class BranchAndBoundSearch {
+
+    private final UpperBoundEvaluator bound;
+    private final boolean pruning;
+    private final LastTurnOptimizer leaf;
+
+    private long nodes;
+    private long leaves;
+    private long pruned;
+
+    public BranchAndBoundSearch(UpperBoundEvaluator bound, boolean pruning) {
+        this(bound, pruning, true);
+    }
+
+    /**
+     * @param lastTurnShortcut value nodes one turn from the horizon with the LastTurnOptimizer
+     *                         (false expands them like any other node)
+     */
+    public BranchAndBoundSearch(UpperBoundEvaluator bound, boolean pruning, boolean lastTurnShortcut) {
+        this.bound = Objects.requireNonNull(bound, "bound is null");
+        this.pruning = pruning;
+        this.leaf = lastTurnShortcut ? new LastTurnOptimizer() : null;
+    }
+
+    public long getNodes() { return nodes; }
+    public long getLeaves() { return leaves; }
+    public long getPruned() { return pruned; }
+
+    /**
+     * Searches `depth` turns ahead (capped by the remaining turns).
+     * Returns null if the game is already over.
+     */
+    public SearchResult search(HeadlessGame root, int depth) {
+        Objects.requireNonNull(root, "root is null");
+        nodes = 0;
+        leaves = 0;
+        pruned = 0;
+
+        int d = Math.min(depth, root.getRemainingTurns());
+        if (d <= 0) {
+            return null;
+        }
+
+        TurnAction bestAction = null;
+        int bestValue = -1;
+        for (Child child : orderedChildren(root)) {
+            if (pruning && bestAction != null && bound.upperBound(child.game, d - 1) <= bestValue) {
+                pruned++;
+                continue;
+            }
+            int v = value(child.game, d - 1);
+            if (v > bestValue) {
+                bestValue = v;
+                bestAction = child.action;
+            }
+        }
+        return new SearchResult(bestAction, bestValue, nodes, leaves, pruned);
+    }
+
+    private int value(HeadlessGame game, int depth) {
+        if (depth == 0 || game.isOver()) {
+            return game.finalScore();
+        }
+        if (depth == 1 && leaf != null) {
+            leaves++;
+            return leaf.bestScore(game);
+        }
+
+        int best = -1;
+        for (Child child : orderedChildren(game)) {
+            if (pruning && best >= 0 && bound.upperBound(child.game, depth - 1) <= best) {
+                pruned++;
+                continue;
+            }
+            best = Math.max(best, value(child.game, depth - 1));
+        }
+        return best;
+    }
+
+    /**
+     * Expands every action and sorts the children by their immediate score (best first),
+     * so good lines are found early and prune more.
+     */
+    private List<Child> orderedChildren(HeadlessGame game) {
+        List<TurnAction> actions = MoveGenerator.generate(game);
+        List<Child> children = new ArrayList<>(actions.size());
+        for (TurnAction a : actions) {
+            HeadlessGame copy = new HeadlessGame(game);
+            copy.playTurn(a);
+            nodes++;
+            children.add(new Child(a, copy, copy.finalScore()));
+        }
+        children.sort((x, y) -> Integer.compare(y.score, x.score));
+        return children;
+    }
+
+    private static final class Child {
+        final TurnAction action;
+        final HeadlessGame game;
+        final int score;
+
+        Child(TurnAction action, HeadlessGame game, int score) {
+            this.action = action;
+            this.game = game;
+            this.score = score;
+        }
+    }
+}
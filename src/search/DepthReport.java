@@ -0,0 +1,48 @@
+package search;
+
+import puzzle.TurnAction;
+
+/**
+ * Statistics of one iteration of an iterative-deepening search.
+ * An incomplete iteration (stopped by the deadline) reports the work done, but its answer is not used.
+ * Work is nodes expanded, leaf evaluations (nodes one turn from the horizon valued by the
+ * LastTurnOptimizer) and pruned subtrees.
+ */
+public final class DepthReport {
+
+    private final int depth;
+    private final boolean complete;
+    private final TurnAction bestAction;
+    private final int value;
+    private final long nodes;
+    private final long leaves;
+    private final long pruned;
+    private final long nanos;
+
+    public DepthReport(int depth, boolean complete, TurnAction bestAction, int value, long nodes, long leaves,
+                       long pruned, long nanos) {
+        this.depth = depth;
+        this.complete = complete;
+        this.bestAction = bestAction;
+        this.value = value;
+        this.nodes = nodes;
+        this.leaves = leaves;
+        this.pruned = pruned;
+        this.nanos = nanos;
+    }
+
+    public int getDepth() { return depth; }
+    public boolean isComplete() { return complete; }
+    public TurnAction getBestAction() { return bestAction; }
+    public int getValue() { return value; }
+    public long getNodes() { return nodes; }
+    public long getLeaves() { return leaves; }
+    public long getPruned() { return pruned; }
+    public long getNanos() { return nanos; }
+
+    @Override
+    public String toString() {
+        return String.format("depth %d%s: value=%d, nodes=%d, leaves=%d, pruned=%d, %.1f ms, best=%s",
+                depth, complete ? "" : " (stopped)", value, nodes, leaves, pruned, nanos / 1e6, bestAction);
+    }
+}
@@ -0,0 +1,223 @@
+package search;
+
+import boxes.Face;
+import grid.BoxGrid;
+import grid.CellCodec;
+import puzzle.HeadlessGame;
+import puzzle.PersistentGame;
+import tools.ToolKind;
+
+import java.util.Objects;
+
+/**
+ * Heuristic value of a game state: a weighted sum of board features, meant to rank the states
+ * a bot or a search reaches after a turn (the score alone ignores what the next turns can still do).
+ *
+ * Features, counted on packed cells (CellCodec layout) without allocating:
+ * - SCORE: target letters on top (its weight is the unit and stays 1)
+ * - ONE_ROLL_AWAY: net target letters the best single roll would bring up next turn
+ * - FLIP_EXPOSABLE: boxes some roll can reach that show another letter with the target letter
+ *   on the bottom, i.e. what a BoxFlipper would expose
+ * - LINE_STAMPS: reachable unopened boxes holding a MassRowStamp or MassColumnStamp
+ * - SMALL_TOOLS: reachable unopened boxes holding a PlusShapeStamp or BoxFlipper
+ * - FIXERS: reachable unopened boxes holding a BoxFixer
+ * - BLOCKED_LINES: rows and columns holding at least one FixedBox (they cut runs short)
+ * "Reachable" means rolled by at least one edge option, so the box can still be opened.
+ *
+ * A finished game is worth its final score. Weights come from SelfPlayTuner; DEFAULT_WEIGHTS are
+ * the result of tuning from the bare score over seeds 0..999 ("java app.TuneApp 1000 2000 1 0.125 1 0 zero").
+ * Negative tool weights mean "use tools now rather than keep them": an unopened tool only counts
+ * once it is used.
+ *
+ * Immutable and safe to share between threads.
+ */
+public final class FeatureEvaluator {
+
+    public static final int SCORE = 0;
+    public static final int ONE_ROLL_AWAY = 1;
+    public static final int FLIP_EXPOSABLE = 2;
+    public static final int LINE_STAMPS = 3;
+    public static final int SMALL_TOOLS = 4;
+    public static final int FIXERS = 5;
+    public static final int BLOCKED_LINES = 6;
+    public static final int FEATURES = 7;
+
+    private static final String[] NAMES = {
+            "score", "oneRollAway", "flipExposable", "lineStamps", "smallTools", "fixers", "blockedLines"
+    };
+
+    private static final double[] DEFAULT_WEIGHTS = {1.0, 0.75, 0.0, -1.25, -1.25, 0.0, 0.75};
+
+    private static final int N = BoxGrid.SIZE;
+    private static final int CELLS = N * N;
+    private static final long FIRST_COLUMN = 0x0101010101010101L;
+
+    private static final int LEFT_FACE = Face.LEFT.ordinal();
+    private static final int RIGHT_FACE = Face.RIGHT.ordinal();
+    private static final int FRONT_FACE = Face.FRONT.ordinal();
+    private static final int BACK_FACE = Face.BACK.ordinal();
+
+    /** 1 in the lowest bit of each of the six 3-bit letter fields. */
+    private static final int REPEAT_LETTER = 0b001_001_001_001_001_001;
+    /** TYPE_FIXED is 2: its type field has the upper bit set, and no other type does. */
+    private static final int FIXED_TYPE_BIT = CellCodec.TYPE_SHIFT + 1;
+
+    // Sets of content codes (ToolKind ordinal + 1), one bit per code
+    private static final int LINE_STAMP_CODES = codes(ToolKind.MASS_ROW_STAMP, ToolKind.MASS_COLUMN_STAMP);
+    private static final int SMALL_TOOL_CODES = codes(ToolKind.PLUS_SHAPE_STAMP, ToolKind.BOX_FLIPPER);
+    private static final int FIXER_CODES = codes(ToolKind.BOX_FIXER);
+
+    private final double[] weights;
+
+    /**
+     * @param weights one weight per feature, in feature order (copied)
+     */
+    public FeatureEvaluator(double[] weights) {
+        Objects.requireNonNull(weights, "weights is null");
+        if (weights.length != FEATURES) {
+            throw new IllegalArgumentException("Expected " + FEATURES + " weights, got " + weights.length);
+        }
+        for (double w : weights) {
+            if (!Double.isFinite(w)) throw new IllegalArgumentException("weights must be finite");
+        }
+        this.weights = weights.clone();
+    }
+
+    public static FeatureEvaluator defaults() {
+        return new FeatureEvaluator(DEFAULT_WEIGHTS);
+    }
+
+    public static double[] defaultWeights() {
+        return DEFAULT_WEIGHTS.clone();
+    }
+
+    public static String featureName(int feature) {
+        return NAMES[feature];
+    }
+
+    public double[] getWeights() {
+        return weights.clone();
+    }
+
+    // -------------------------
+    // Evaluation
+    // -------------------------
+
+    public double evaluate(HeadlessGame game) {
+        if (game.isOver()) return game.finalScore();
+        return evaluate(CellCodec.encode(game.getGrid()), game.getTargetLetter());
+    }
+
+    public double evaluate(PersistentGame game) {
+        if (game.isOver()) return game.finalScore();
+        return evaluate(game.getGrid().toCells(), game.getTargetLetter());
+    }
+
+    /**
+     * Value of a board with turns left to play.
+     */
+    public double evaluate(int[] cells, char targetLetter) {
+        int[] f = new int[FEATURES];
+        features(cells, targetLetter, f);
+        double value = 0;
+        for (int i = 0; i < FEATURES; i++) {
+            value += weights[i] * f[i];
+        }
+        return value;
+    }
+
+    /**
+     * Writes the feature counts of a packed board to out[0..FEATURES).
+     */
+    public static void features(int[] cells, char targetLetter, int[] out) {
+        Objects.requireNonNull(cells, "cells is null");
+        if (cells.length != CELLS) throw new IllegalArgumentException("cells must be an int[" + CELLS + "]");
+
+        // One pass turns the board into bitmasks; everything else is bit counts (no data-dependent branches)
+        int t = Character.toUpperCase(targetLetter) - 'A';
+        int targets = t * REPEAT_LETTER; // the target letter in all six faces
+        long top = 0L, bottom = 0L, left = 0L, right = 0L, front = 0L, back = 0L;
+        long fixed = 0L, lineStamps = 0L, smallTools = 0L, fixers = 0L;
+        for (int i = 0; i < CELLS; i++) {
+            int cell = cells[i];
+            // bit 3k of `match` is set if face k shows the target letter (its 3 bits XOR to zero)
+            int x = (cell & CellCodec.LETTERS_MASK) ^ targets;
+            int match = ~(x | (x >>> 1) | (x >>> 2)) & REPEAT_LETTER;
+            top |= (long) (match & 1) << i;
+            bottom |= (long) ((match >>> CellCodec.LETTER_BITS) & 1) << i;
+            left |= (long) ((match >>> (LEFT_FACE * CellCodec.LETTER_BITS)) & 1) << i;
+            right |= (long) ((match >>> (RIGHT_FACE * CellCodec.LETTER_BITS)) & 1) << i;
+            front |= (long) ((match >>> (FRONT_FACE * CellCodec.LETTER_BITS)) & 1) << i;
+            back |= (long) ((match >>> (BACK_FACE * CellCodec.LETTER_BITS)) & 1) << i;
+            fixed |= (long) ((cell >>> FIXED_TYPE_BIT) & 1) << i;
+            int tool = (cell & CellCodec.TOOL_MASK) >>> CellCodec.TOOL_SHIFT;
+            lineStamps |= (long) ((LINE_STAMP_CODES >>> tool) & 1) << i;
+            smallTools |= (long) ((SMALL_TOOL_CODES >>> tool) & 1) << i;
+            fixers |= (long) ((FIXER_CODES >>> tool) & 1) << i;
+        }
+
+        // Runs of all 32 edge options, as in EdgeRollDeltas: up to the first FixedBox of the line
+        long reachable = 0L;
+        int bestRoll = 0;
+        int blocked = 0;
+        for (int line = 0; line < N; line++) {
+            int rowFixed = (int) (fixed >>> (line * N)) & 0xFF;
+            long colFixed = (fixed >>> line) & FIRST_COLUMN;
+            if (rowFixed != 0) blocked++;
+            if (colFixed != 0) blocked++;
+
+            int run = Integer.numberOfTrailingZeros(rowFixed | (1 << N));
+            long mask = ((1L << run) - 1) << (line * N);
+            bestRoll = Math.max(bestRoll, gain(mask, left, top)); // RIGHT brings LEFT on top
+            reachable |= mask;
+
+            run = Integer.numberOfLeadingZeros(rowFixed) - (32 - N);
+            mask = (((1L << run) - 1) << (N - run)) << (line * N);
+            bestRoll = Math.max(bestRoll, gain(mask, right, top)); // LEFT brings RIGHT
+            reachable |= mask;
+
+            long column = FIRST_COLUMN << line;
+            run = colFixed == 0 ? N : Long.numberOfTrailingZeros(colFixed) / N;
+            mask = column & firstRows(run);
+            bestRoll = Math.max(bestRoll, gain(mask, back, top)); // DOWN brings BACK
+            reachable |= mask;
+
+            run = colFixed == 0 ? N : Long.numberOfLeadingZeros(colFixed) / N;
+            mask = column & ~firstRows(N - run);
+            bestRoll = Math.max(bestRoll, gain(mask, front, top)); // UP brings FRONT
+            reachable |= mask;
+        }
+
+        out[SCORE] = Long.bitCount(top);
+        out[ONE_ROLL_AWAY] = bestRoll;
+        out[FLIP_EXPOSABLE] = Long.bitCount(reachable & bottom & ~top);
+        out[LINE_STAMPS] = Long.bitCount(reachable & lineStamps);
+        out[SMALL_TOOLS] = Long.bitCount(reachable & smallTools);
+        out[FIXERS] = Long.bitCount(reachable & fixers);
+        out[BLOCKED_LINES] = blocked;
+    }
+
+    // -------------------------
+    // Internal utilities
+    // -------------------------
+
+    /**
+     * Score change of rolling the boxes in `run` when the roll brings the `incoming` letters on top.
+     */
+    private static int gain(long run, long incoming, long top) {
+        return Long.bitCount(run & incoming) - Long.bitCount(run & top);
+    }
+
+    /**
+     * Cells of the first `rows` rows.
+     */
+    private static long firstRows(int rows) {
+        return rows == N ? -1L : (1L << (rows * N)) - 1;
+    }
+
+    private static int codes(ToolKind... kinds) {
+        int set = 0;
+        for (ToolKind kind : kinds) set |= 1 << (kind.ordinal() + 1);
+        return set;
+    }
+}
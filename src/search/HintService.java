@@ -0,0 +1,70 @@
+package search;
+
+import puzzle.HeadlessGame;
+import puzzle.TurnAction;
+import storage.OpeningBook;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Suggests the next turn for a game: from the opening book on the first turn when the board
+ * has already been searched deeply enough, otherwise by a branch-and-bound search
+ * (whose first-turn result is then added to the book).
+ *
+ * Safe to share between threads; each call uses its own search instance.
+ */
+public class HintService {
+
+    private final OpeningBook book;     // null = always search
+    private final int openingDepth;
+    private final int depth;
+
+    private final AtomicLong bookHits = new AtomicLong();
+    private final AtomicLong searches = new AtomicLong();
+
+    /**
+     * @param book         opening book to consult and fill (may be null)
+     * @param openingDepth search depth of the first turn (the one the book stores)
+     * @param depth        search depth of the later turns
+     */
+    public HintService(OpeningBook book, int openingDepth, int depth) {
+        if (openingDepth <= 0 || depth <= 0) {
+            throw new IllegalArgumentException("search depths must be positive");
+        }
+        this.book = book;
+        this.openingDepth = openingDepth;
+        this.depth = depth;
+    }
+
+    /**
+     * Returns the suggested turn, or null if the game is over.
+     */
+    public TurnAction hint(HeadlessGame game) {
+        Objects.requireNonNull(game, "game is null");
+        if (game.isOver()) {
+            return null;
+        }
+
+        boolean opening = game.getTurn() == 1;
+        if (opening && book != null) {
+            OpeningBook.Entry entry = book.lookup(game.getGrid(), game.getTargetLetter());
+            if (entry != null && entry.getDepth() >= openingDepth) {
+                bookHits.incrementAndGet();
+                return entry.getAction();
+            }
+        }
+
+        searches.incrementAndGet();
+        int d = opening ? openingDepth : depth;
+        SearchResult result = new BranchAndBoundSearch(new UpperBoundEvaluator(), true).search(game, d);
+        if (opening && book != null && result.getBestAction() != null) {
+            book.put(game.getGrid(), game.getTargetLetter(), result.getBestAction(), result.getValue(),
+                    Math.min(d, game.getRemainingTurns()));
+        }
+        return result.getBestAction();
+    }
+
+    public long getBookHits() { return bookHits.get(); }
+    public long getSearches() { return searches.get(); }
+}
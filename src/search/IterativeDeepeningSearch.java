@@ -0,0 +1,257 @@
+package search;
+
+import grid.BoxGrid;
+import grid.Position;
+import puzzle.HeadlessGame;
+import puzzle.TurnAction;
+import tools.ToolKind;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Anytime version of BranchAndBoundSearch: searches 1, 2, ... turns ahead until the remaining turns
+ * are covered or the deadline passes, and answers with the deepest fully searched iteration.
+ *
+ * Move ordering uses what earlier iterations learned:
+ * - root actions are tried in the order of their values in the previous iteration
+ * - killer: the action that was best at the same ply most recently (in this or an earlier
+ *   iteration) is tried first
+ * - history: actions that were best somewhere get credit (depth squared), keyed by
+ *   edge, direction and the kind of tool they opened; used to break score ties
+ * Otherwise children are ordered by their immediate score, as in BranchAndBoundSearch.
+ * Nodes one turn from the horizon are valued by the LastTurnOptimizer instead of being expanded;
+ * they are counted as leaf evaluations, apart from the expanded nodes.
+ *
+ * The first iteration always completes (there is always an answer); later ones stop at the
+ * deadline and are reported as incomplete. Not thread-safe: use one instance per thread.
+ */
+public class IterativeDeepeningSearch {
+
+    private static final int N = BoxGrid.SIZE;
+    private static final int DIRECTIONS = 4;
+    private static final int TOOL_SLOTS = ToolKind.values().length + 1; // + "no tool"
+
+    private final UpperBoundEvaluator bound;
+    private final LastTurnOptimizer leaf = new LastTurnOptimizer();
+    private final List<DepthReport> iterations = new ArrayList<>();
+
+    private int[] history;
+    private TurnAction[] killers;            // per ply, kept across iterations
+    private Map<TurnAction, Integer> rootValues;
+
+    private long deadline;
+    private boolean deadlineActive;
+    private long nodes;
+    private long leaves;
+    private long pruned;
+
+    public IterativeDeepeningSearch(UpperBoundEvaluator bound) {
+        this.bound = Objects.requireNonNull(bound, "bound is null");
+    }
+
+    /**
+     * Per-depth node counts, timings and answers of the last search (in depth order).
+     */
+    public List<DepthReport> getIterations() {
+        return List.copyOf(iterations);
+    }
+
+    /**
+     * Searches without a deadline (same answer as BranchAndBoundSearch at maxDepth).
+     */
+    public SearchResult search(HeadlessGame root, int maxDepth) {
+        return search(root, maxDepth, Long.MAX_VALUE);
+    }
+
+    /**
+     * Searches up to maxDepth turns ahead (capped by the remaining turns) within about budgetMillis.
+     * The returned result holds the answer of the deepest complete iteration and the work of all of them.
+     * Returns null if the game is already over.
+     */
+    public SearchResult search(HeadlessGame root, int maxDepth, long budgetMillis) {
+        Objects.requireNonNull(root, "root is null");
+        if (budgetMillis < 0) throw new IllegalArgumentException("budgetMillis is negative");
+
+        iterations.clear();
+        history = new int[N * N * DIRECTIONS * TOOL_SLOTS];
+        rootValues = null;
+
+        int limit = Math.min(maxDepth, root.getRemainingTurns());
+        if (limit <= 0) {
+            return null;
+        }
+        killers = new TurnAction[limit + 1];
+
+        long start = System.nanoTime();
+        deadline = budgetMillis >= Long.MAX_VALUE / 1_000_000 ? Long.MAX_VALUE : start + budgetMillis * 1_000_000;
+
+        TurnAction bestAction = null;
+        int bestValue = -1;
+        long totalNodes = 0;
+        long totalLeaves = 0;
+        long totalPruned = 0;
+
+        for (int depth = 1; depth <= limit; depth++) {
+            nodes = 0;
+            leaves = 0;
+            pruned = 0;
+            deadlineActive = depth > 1;
+            long t0 = System.nanoTime();
+            try {
+                Child best = searchRoot(root, depth);
+                bestAction = best.action;
+                bestValue = best.value;
+                iterations.add(new DepthReport(depth, true, bestAction, bestValue, nodes, leaves, pruned,
+                        System.nanoTime() - t0));
+            } catch (SearchTimeout e) {
+                iterations.add(new DepthReport(depth, false, null, -1, nodes, leaves, pruned, System.nanoTime() - t0));
+                break;
+            } finally {
+                totalNodes += nodes;
+                totalLeaves += leaves;
+                totalPruned += pruned;
+            }
+            if (deadlineActive && System.nanoTime() > deadline) {
+                break;
+            }
+        }
+        return new SearchResult(bestAction, bestValue, totalNodes, totalLeaves, totalPruned);
+    }
+
+    // -------------------------
+    // Search
+    // -------------------------
+
+    private Child searchRoot(HeadlessGame root, int depth) {
+        List<Child> children = expand(root);
+        if (rootValues == null) {
+            order(children, 0);
+        } else {
+            Map<TurnAction, Integer> previous = rootValues;
+            children.sort((x, y) -> {
+                int c = Integer.compare(previous.getOrDefault(y.action, -1), previous.getOrDefault(x.action, -1));
+                return c != 0 ? c : Integer.compare(y.score, x.score);
+            });
+        }
+
+        Map<TurnAction, Integer> values = new HashMap<>();
+        Child best = null;
+        for (Child child : children) {
+            if (best != null) {
+                int ub = bound.upperBound(child.game, depth - 1);
+                if (ub <= best.value) {
+                    pruned++;
+                    values.put(child.action, ub);
+                    continue;
+                }
+            }
+            child.value = value(child.game, depth - 1, 1);
+            values.put(child.action, child.value);
+            if (best == null || child.value > best.value) {
+                best = child;
+            }
+        }
+        reward(best, 0, depth);
+        rootValues = values;
+        return best;
+    }
+
+    private int value(HeadlessGame game, int depth, int ply) {
+        if (depth == 0 || game.isOver()) {
+            return game.finalScore();
+        }
+        if (depth == 1) {
+            leaves++;
+            return leaf.bestScore(game); // same value as expanding every child, without copying grids
+        }
+
+        List<Child> children = expand(game);
+        order(children, ply);
+
+        Child best = null;
+        for (Child child : children) {
+            if (best != null && bound.upperBound(child.game, depth - 1) <= best.value) {
+                pruned++;
+                continue;
+            }
+            child.value = value(child.game, depth - 1, ply + 1);
+            if (best == null || child.value > best.value) {
+                best = child;
+            }
+        }
+        reward(best, ply, depth);
+        return best == null ? -1 : best.value;
+    }
+
+    private List<Child> expand(HeadlessGame game) {
+        List<TurnAction> actions = MoveGenerator.generate(game);
+        List<Child> children = new ArrayList<>(actions.size());
+        for (TurnAction a : actions) {
+            if (deadlineActive && (nodes & 63) == 0 && System.nanoTime() > deadline) {
+                throw SearchTimeout.INSTANCE;
+            }
+            HeadlessGame copy = new HeadlessGame(game);
+            copy.playTurn(a);
+            nodes++;
+            children.add(new Child(a, copy, copy.finalScore(), historyKey(a, copy.getLastToolKind())));
+        }
+        return children;
+    }
+
+    /**
+     * Killer first, then immediate score, then history.
+     */
+    private void order(List<Child> children, int ply) {
+        TurnAction killer = killers[ply];
+        children.sort((x, y) -> {
+            boolean kx = x.action.equals(killer);
+            boolean ky = y.action.equals(killer);
+            if (kx != ky) return kx ? -1 : 1;
+            int c = Integer.compare(y.score, x.score);
+            return c != 0 ? c : Integer.compare(history[y.historyKey], history[x.historyKey]);
+        });
+    }
+
+    private void reward(Child best, int ply, int depth) {
+        if (best == null) return;
+        killers[ply] = best.action;
+        history[best.historyKey] += depth * depth;
+    }
+
+    private static int historyKey(TurnAction a, ToolKind kind) {
+        Position e = a.getEdge();
+        int edge = (e.getRow() - 1) * N + (e.getCol() - 1);
+        int tool = kind == null ? 0 : kind.ordinal() + 1;
+        return (edge * DIRECTIONS + a.getDirection().ordinal()) * TOOL_SLOTS + tool;
+    }
+
+    private static final class Child {
+        final TurnAction action;
+        final HeadlessGame game;
+        final int score;
+        final int historyKey;
+        int value;
+
+        Child(TurnAction action, HeadlessGame game, int score, int historyKey) {
+            this.action = action;
+            this.game = game;
+            this.score = score;
+            this.historyKey = historyKey;
+        }
+    }
+
+    /**
+     * Unwinds the search when the deadline passes (preallocated, no stack trace).
+     */
+    private static final class SearchTimeout extends RuntimeException {
+        static final SearchTimeout INSTANCE = new SearchTimeout();
+
+        private SearchTimeout() {
+            super("search deadline passed", null, false, false);
+        }
+    }
+}
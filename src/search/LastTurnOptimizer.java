@@ -0,0 +1,310 @@
+package search;
+
+import boxes.Face;
+import grid.BoxGrid;
+import grid.CellCodec;
+import grid.Direction;
+import grid.EdgeRollDeltas;
+import grid.Position;
+import puzzle.HeadlessGame;
+import puzzle.TurnAction;
+import tools.ToolKind;
+
+import java.util.Objects;
+
+/**
+ * Best single turn, computed directly instead of by expanding every action: the value of a search
+ * node with one turn left, and the exact best move of the last turn.
+ *
+ * The board is turned into bitmasks once (target letter on each face, FixedBoxes, UnchangingBoxes,
+ * tools by kind). Then, for each of the 32 edge options:
+ * - the run is the line up to the first FixedBox; rolling it replaces the top (and bottom) masks on the
+ *   run, so the rolled score is one bit count
+ * - contents do not move, so the openable tools are the tool masks restricted to the run; an empty
+ *   (or already opened) box in the run is worth 0
+ * - each tool kind present is scored on the rolled masks: a row / column stamp is the best of 8 line
+ *   counts of stampable cells, a plus stamp the best of 64 plus-shaped counts, a flipper +1, 0 or -1 from
+ *   three masks, a fixer always 0
+ * That is O(options x (cells + tools)) bit operations with no grid copies.
+ *
+ * Wasted turns keep the roll: a tool whose best valid use would lose letters is pointed at a FixedBox
+ * instead (the turn is wasted, worth 0). A fixer is pointed at a FixedBox when there is one, so the turn can
+ * never fail the game by fixing its last movable edge; the scores are therefore also exact for turns
+ * before the last one (value of a node one turn from a search horizon).
+ *
+ * Stateless and safe to share between threads.
+ */
+public final class LastTurnOptimizer {
+
+    private static final int N = BoxGrid.SIZE;
+    private static final int CELLS = N * N;
+    private static final long FIRST_COLUMN = 0x0101010101010101L;
+    private static final long ROW = 0xFFL;
+
+    private static final ToolKind[] KINDS = ToolKind.values();
+    private static final int KIND_COUNT = KINDS.length;
+    private static final long[] PLUS_SHAPES = new long[CELLS];   // per center, clipped at the border
+    private static final Position[] CELL_POSITIONS = new Position[CELLS];
+
+    /** 1 in the lowest bit of each of the six 3-bit letter fields. */
+    private static final int REPEAT_LETTER = 0b001_001_001_001_001_001;
+    private static final int FIXED_TYPE_BIT = CellCodec.TYPE_SHIFT + 1;   // TYPE_FIXED = 2
+    private static final int UNCHANGING_TYPE_BIT = CellCodec.TYPE_SHIFT; // TYPE_UNCHANGING = 1
+
+    static {
+        for (int i = 0; i < CELLS; i++) {
+            int r = i / N;
+            int c = i % N;
+            long plus = 1L << i;
+            if (r > 0) plus |= 1L << (i - N);
+            if (r < N - 1) plus |= 1L << (i + N);
+            if (c > 0) plus |= 1L << (i - 1);
+            if (c < N - 1) plus |= 1L << (i + 1);
+            PLUS_SHAPES[i] = plus;
+            CELL_POSITIONS[i] = new Position(r + 1, c + 1);
+        }
+    }
+
+    /**
+     * Best final target-letter count after one more turn (the final score if the game is over).
+     */
+    public int bestScore(HeadlessGame game) {
+        Objects.requireNonNull(game, "game is null");
+        if (game.isOver()) return game.finalScore();
+        return solve(CellCodec.encode(game.getGrid()), game.getTargetLetter(), null);
+    }
+
+    /**
+     * Same as bestScore(game) for a packed board (CellCodec, row-major int[64]) with turns left.
+     */
+    public int bestScore(int[] cells, char targetLetter) {
+        return solve(cells, targetLetter, null);
+    }
+
+    /**
+     * Best action of the next turn and the target-letter count it reaches (nodes and pruned are 0:
+     * nothing is expanded). Returns null if the game is already over.
+     */
+    public SearchResult solve(HeadlessGame game) {
+        Objects.requireNonNull(game, "game is null");
+        if (game.isOver()) return null;
+
+        Choice choice = new Choice();
+        int score = solve(CellCodec.encode(game.getGrid()), game.getTargetLetter(), choice);
+        return new SearchResult(choice.toAction(), score, 0, 0);
+    }
+
+    // -------------------------
+    // Computation
+    // -------------------------
+
+    /**
+     * Best score after one turn; records the best action in `choice` if it is not null.
+     */
+    private static int solve(int[] cells, char targetLetter, Choice choice) {
+        Objects.requireNonNull(cells, "cells is null");
+        if (cells.length != CELLS) throw new IllegalArgumentException("cells must be an int[" + CELLS + "]");
+
+        Board b = new Board(cells, Character.toUpperCase(targetLetter) - 'A');
+        int best = Integer.MIN_VALUE;
+
+        for (int option = 0; option < EdgeRollDeltas.OPTIONS; option++) {
+            long run = b.runMask(option);
+            if (run == 0) {
+                // FixedBox on the edge: the turn is wasted and the board stays as it is
+                if (b.baseScore > best) {
+                    best = b.baseScore;
+                    if (choice != null) choice.set(option, -1, null, -1);
+                }
+                continue;
+            }
+
+            long incoming;   // faces the roll brings on top, and on the bottom
+            long sinking;
+            switch (option & 3) {
+                case 0 -> { incoming = b.left; sinking = b.right; }   // RIGHT
+                case 1 -> { incoming = b.right; sinking = b.left; }   // LEFT
+                case 2 -> { incoming = b.back; sinking = b.front; }   // DOWN
+                default -> { incoming = b.front; sinking = b.back; }  // UP
+            }
+            long top = (b.top & ~run) | (incoming & run);
+            long bottom = (b.bottom & ~run) | (sinking & run);
+            int rolled = Long.bitCount(top);
+            if (rolled + b.maxGain <= best) continue; // no tool can make this roll win
+
+            // Opening an empty box keeps the roll
+            long empty = run & ~b.anyTool;
+            int gain = empty != 0 ? 0 : Integer.MIN_VALUE;
+            ToolKind gainKind = null;
+            int gainTarget = -1;
+            int open = empty != 0 ? Long.numberOfTrailingZeros(empty) : -1;
+
+            for (int k = 0; k < KIND_COUNT; k++) {
+                long holders = b.tools[k] & run;
+                if (holders == 0) continue;
+                long scored = toolGain(KINDS[k], top, bottom, b);
+                int g = (int) (scored >> 32);
+                if (g > gain) {
+                    gain = g;
+                    gainKind = KINDS[k];
+                    gainTarget = (int) scored;
+                    open = Long.numberOfTrailingZeros(holders);
+                }
+            }
+
+            if (rolled + gain > best) {
+                best = rolled + gain;
+                if (choice != null) choice.set(option, open, gainKind, gainTarget);
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Best gain of one tool kind on the rolled masks, packed as (gain << 32) | target cell
+     * (row-major index; for line stamps the first cell of the line).
+     */
+    private static long toolGain(ToolKind kind, long top, long bottom, Board b) {
+        long stampable = ~top & ~b.unchanging;
+        int best = -1;
+        int target = 0;
+        switch (kind) {
+            case MASS_ROW_STAMP -> {
+                for (int r = 0; r < N; r++) {
+                    int g = Long.bitCount(stampable & (ROW << (r * N)));
+                    if (g > best) { best = g; target = r * N; }
+                }
+            }
+            case MASS_COLUMN_STAMP -> {
+                for (int c = 0; c < N; c++) {
+                    int g = Long.bitCount(stampable & (FIRST_COLUMN << c));
+                    if (g > best) { best = g; target = c; }
+                }
+            }
+            case PLUS_SHAPE_STAMP -> {
+                for (int i = 0; i < CELLS; i++) {
+                    int g = Long.bitCount(stampable & PLUS_SHAPES[i]);
+                    if (g > best) { best = g; target = i; }
+                }
+            }
+            case BOX_FLIPPER -> {
+                long gains = bottom & ~top & ~b.fixed;
+                long neutral = ~b.fixed & ~(top & ~bottom);
+                if (gains != 0) { best = 1; target = Long.numberOfTrailingZeros(gains); }
+                else if (neutral != 0) { best = 0; target = Long.numberOfTrailingZeros(neutral); }
+                else if (b.fixed != 0) { best = 0; target = Long.numberOfTrailingZeros(b.fixed); } // wasted
+                else { best = -1; target = 0; }
+            }
+            case BOX_FIXER -> {
+                best = 0; // fixing never changes a letter; a FixedBox target wastes the turn harmlessly
+                target = b.fixed != 0 ? Long.numberOfTrailingZeros(b.fixed) : 0;
+            }
+        }
+        return ((long) best << 32) | target;
+    }
+
+    // -------------------------
+    // Board masks
+    // -------------------------
+
+    /**
+     * Bitmasks of one board (bit i = row-major cell i).
+     */
+    private static final class Board {
+        long top, bottom, left, right, front, back;
+        long fixed, unchanging, anyTool;
+        final long[] tools = new long[KIND_COUNT];
+        final int baseScore;
+        final int maxGain;   // upper bound on any tool gain (for skipping rolls)
+
+        Board(int[] cells, int t) {
+            int targets = t * REPEAT_LETTER;
+            for (int i = 0; i < CELLS; i++) {
+                int cell = cells[i];
+                // bit 3k of `match` is set if face k shows the target letter
+                int x = (cell & CellCodec.LETTERS_MASK) ^ targets;
+                int match = ~(x | (x >>> 1) | (x >>> 2)) & REPEAT_LETTER;
+                top |= (long) (match & 1) << i;
+                bottom |= (long) ((match >>> face(Face.BOTTOM)) & 1) << i;
+                left |= (long) ((match >>> face(Face.LEFT)) & 1) << i;
+                right |= (long) ((match >>> face(Face.RIGHT)) & 1) << i;
+                front |= (long) ((match >>> face(Face.FRONT)) & 1) << i;
+                back |= (long) ((match >>> face(Face.BACK)) & 1) << i;
+                fixed |= (long) ((cell >>> FIXED_TYPE_BIT) & 1) << i;
+                unchanging |= (long) ((cell >>> UNCHANGING_TYPE_BIT) & 1) << i;
+                int tool = (cell & CellCodec.TOOL_MASK) >>> CellCodec.TOOL_SHIFT;
+                if (tool != 0) tools[tool - 1] |= 1L << i;
+            }
+            for (long m : tools) anyTool |= m;
+            baseScore = Long.bitCount(top);
+
+            int gain = 0;
+            if ((tools[ToolKind.BOX_FLIPPER.ordinal()]) != 0) gain = 1;
+            if ((tools[ToolKind.PLUS_SHAPE_STAMP.ordinal()]) != 0) gain = 5;
+            if ((tools[ToolKind.MASS_ROW_STAMP.ordinal()] | tools[ToolKind.MASS_COLUMN_STAMP.ordinal()]) != 0) gain = N;
+            maxGain = gain;
+        }
+
+        /**
+         * Cells rolled by an option: from its edge up to the first FixedBox of the line.
+         */
+        long runMask(int option) {
+            int line = option >>> 2;
+            switch (option & 3) {
+                case 0 -> {   // RIGHT from column 1
+                    int rowFixed = (int) (fixed >>> (line * N)) & 0xFF;
+                    int run = Integer.numberOfTrailingZeros(rowFixed | (1 << N));
+                    return ((1L << run) - 1) << (line * N);
+                }
+                case 1 -> {   // LEFT from column N
+                    int rowFixed = (int) (fixed >>> (line * N)) & 0xFF;
+                    int run = Integer.numberOfLeadingZeros(rowFixed) - (32 - N);
+                    return (((1L << run) - 1) << (N - run)) << (line * N);
+                }
+                case 2 -> {   // DOWN from row 1
+                    long colFixed = (fixed >>> line) & FIRST_COLUMN;
+                    int run = colFixed == 0 ? N : Long.numberOfTrailingZeros(colFixed) / N;
+                    return (FIRST_COLUMN << line) & firstRows(run);
+                }
+                default -> {  // UP from row N
+                    long colFixed = (fixed >>> line) & FIRST_COLUMN;
+                    int run = colFixed == 0 ? N : Long.numberOfLeadingZeros(colFixed) / N;
+                    return (FIRST_COLUMN << line) & ~firstRows(N - run);
+                }
+            }
+        }
+
+        private static int face(Face f) {
+            return f.ordinal() * CellCodec.LETTER_BITS;
+        }
+
+        private static long firstRows(int rows) {
+            return rows == N ? -1L : (1L << (rows * N)) - 1;
+        }
+    }
+
+    /**
+     * The best action found so far, as indices (built into a TurnAction once at the end).
+     */
+    private static final class Choice {
+        int option;
+        int open;          // cell index, -1 = the edge box (wasted roll)
+        ToolKind kind;     // null = no tool used
+        int target;
+
+        void set(int option, int open, ToolKind kind, int target) {
+            this.option = option;
+            this.open = open;
+            this.kind = kind;
+            this.target = target;
+        }
+
+        TurnAction toAction() {
+            Position edge = EdgeRollDeltas.edgeOf(option);
+            Direction d = EdgeRollDeltas.directionOf(option);
+            Position openAt = open < 0 ? edge : CELL_POSITIONS[open];
+            Position toolTarget = kind == null ? null : CELL_POSITIONS[target];
+            return new TurnAction(edge, d, openAt, toolTarget);
+        }
+    }
+}
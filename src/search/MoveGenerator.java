@@ -0,0 +1,121 @@
+package search;
+
+import boxes.Box;
+import grid.BoxGrid;
+import grid.Direction;
+import grid.Position;
+import puzzle.HeadlessGame;
+import puzzle.TurnAction;
+import tools.ToolKind;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Enumerates the distinct TurnActions of a HeadlessGame.
+ * Actions with the same effect are generated once:
+ * - all rolls starting at a FixedBox waste the turn the same way => one representative
+ * - opening any empty box of the same run wastes the turn the same way => one representative
+ * - MassRowStamp / MassColumnStamp only care about the row / column of the target
+ */
+public final class MoveGenerator {
+
+    private static final List<Position> ALL_POSITIONS;
+    private static final List<Position> EDGE_POSITIONS;
+    private static final List<Position> ROW_TARGETS;
+    private static final List<Position> COLUMN_TARGETS;
+
+    static {
+        List<Position> all = new ArrayList<>();
+        List<Position> edges = new ArrayList<>();
+        List<Position> rows = new ArrayList<>();
+        List<Position> cols = new ArrayList<>();
+        for (int r = 1; r <= BoxGrid.SIZE; r++) {
+            for (int c = 1; c <= BoxGrid.SIZE; c++) {
+                Position p = new Position(r, c);
+                all.add(p);
+                if (p.isEdge()) edges.add(p);
+            }
+            rows.add(new Position(r, 1));
+            cols.add(new Position(1, r));
+        }
+        ALL_POSITIONS = Collections.unmodifiableList(all);
+        EDGE_POSITIONS = Collections.unmodifiableList(edges);
+        ROW_TARGETS = Collections.unmodifiableList(rows);
+        COLUMN_TARGETS = Collections.unmodifiableList(cols);
+    }
+
+    private MoveGenerator() {
+        // utility class; prevent instantiation
+    }
+
+    public static List<Position> allPositions() {
+        return ALL_POSITIONS;
+    }
+
+    public static List<Position> edgePositions() {
+        return EDGE_POSITIONS;
+    }
+
+    /**
+     * Positions worth trying for a tool of the given kind.
+     */
+    public static List<Position> toolTargets(ToolKind kind) {
+        return switch (kind) {
+            case MASS_ROW_STAMP -> ROW_TARGETS;
+            case MASS_COLUMN_STAMP -> COLUMN_TARGETS;
+            default -> ALL_POSITIONS;
+        };
+    }
+
+    /**
+     * Returns all distinct actions for the next turn (empty if the game is over).
+     */
+    public static List<TurnAction> generate(HeadlessGame game) {
+        List<TurnAction> actions = new ArrayList<>();
+        if (game.isOver()) {
+            return actions;
+        }
+
+        BoxGrid grid = game.getGrid();
+        boolean wastedRollAdded = false;
+
+        for (Position edge : EDGE_POSITIONS) {
+            for (Direction d : grid.allowedInwardDirections(edge)) {
+                int run = grid.runLength(edge, d);
+                if (run == 0) {
+                    if (!wastedRollAdded) {
+                        actions.add(new TurnAction(edge, d, edge, null));
+                        wastedRollAdded = true;
+                    }
+                    continue;
+                }
+                addOpenings(grid, edge, d, run, actions);
+            }
+        }
+        return actions;
+    }
+
+    private static void addOpenings(BoxGrid grid, Position edge, Direction d, int run, List<TurnAction> out) {
+        boolean emptyAdded = false;
+        Position cur = edge;
+        for (int i = 0; i < run; i++) {
+            Box box = grid.getBox(cur);
+            ToolKind kind = box.getContentKind();
+            if (kind == null) {
+                if (!emptyAdded) {
+                    out.add(new TurnAction(edge, d, cur, null));
+                    emptyAdded = true;
+                }
+            } else {
+                for (Position target : toolTargets(kind)) {
+                    out.add(new TurnAction(edge, d, cur, target));
+                }
+            }
+            if (i + 1 < run) {
+                cur = cur.move(d);
+            }
+        }
+    }
+}
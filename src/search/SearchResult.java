@@ -0,0 +1,40 @@
+package search;
+
+import puzzle.TurnAction;
+
+/**
+ * Outcome of a search: best first action, its value (final target-letter count)
+ * and how much work it took: nodes expanded (grid copies played), leaf evaluations
+ * (nodes one turn from the horizon valued by the LastTurnOptimizer) and pruned subtrees.
+ */
+public final class SearchResult {
+
+    private final TurnAction bestAction;
+    private final int value;
+    private final long nodes;
+    private final long leaves;
+    private final long pruned;
+
+    public SearchResult(TurnAction bestAction, int value, long nodes, long pruned) {
+        this(bestAction, value, nodes, 0, pruned);
+    }
+
+    public SearchResult(TurnAction bestAction, int value, long nodes, long leaves, long pruned) {
+        this.bestAction = bestAction;
+        this.value = value;
+        this.nodes = nodes;
+        this.leaves = leaves;
+        this.pruned = pruned;
+    }
+
+    public TurnAction getBestAction() { return bestAction; }
+    public int getValue() { return value; }
+    public long getNodes() { return nodes; }
+    public long getLeaves() { return leaves; }
+    public long getPruned() { return pruned; }
+
+    @Override
+    public String toString() {
+        return "value=" + value + ", nodes=" + nodes + ", leaves=" + leaves + ", pruned=" + pruned + ", best=" + bestAction;
+    }
+}
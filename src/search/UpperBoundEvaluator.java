@@ -0,0 +1,152 @@
+package search;
+
+import boxes.Box;
+import boxes.UnchangingBox;
+import grid.BoxGrid;
+import grid.EdgeRollDeltas;
+import grid.Position;
+import puzzle.HeadlessGame;
+import tools.ToolKind;
+
+/**
+ * Admissible (never too low) bound on the best final target-letter count
+ * reachable within k more turns. Used to prune search nodes that cannot beat the best line found so far.
+ *
+ * Why the bound holds:
+ * - A turn changes the count only through its roll and its tool, so each turn adds at most
+ *   (roll gain) + (tool gain).
+ * - First turn roll gain is computed exactly for every edge option on the current letters.
+ *   Later rolls change at most one run of boxes, and runs only get shorter over the game
+ *   (FixedBoxes are never removed), so the current longest run bounds them.
+ * - Tools only come from unopened boxes reachable by some roll (again, reachability only shrinks),
+ *   one per turn. Best cases: PlusShapeStamp = stampable cells of the best plus (max 5),
+ *   MassRowStamp / MassColumnStamp = stampable cells of the best line (max 8), BoxFlipper = 1, BoxFixer = 0.
+ * - UnchangingBoxes are not stampable, unless a reachable BoxFixer exists
+ *   (a fixed UnchangingBox becomes a FixedBox, which can be stamped).
+ *
+ * One call is an EdgeRollDeltas computation (exact roll gains, runs and rolled cells of all options)
+ * plus one pass over the 64 cells for stampability and tools.
+ */
+public final class UpperBoundEvaluator {
+
+    private static final int N = BoxGrid.SIZE;
+    private static final int CELLS = N * N;
+    private static final ToolKind[] KINDS = ToolKind.values();
+
+    private static final Position[] CELL_POSITIONS = new Position[CELLS];
+
+    static {
+        for (int i = 0; i < CELLS; i++) {
+            CELL_POSITIONS[i] = new Position(i / N + 1, i % N + 1);
+        }
+    }
+
+    /**
+     * Bound for the rest of the game.
+     */
+    public int upperBound(HeadlessGame game) {
+        return upperBound(game, game.getRemainingTurns());
+    }
+
+    /**
+     * Bound on the score reachable after at most `turns` more turns.
+     */
+    public int upperBound(HeadlessGame game, int turns) {
+        if (game.isFailed()) {
+            return 0;
+        }
+
+        BoxGrid grid = game.getGrid();
+        char target = game.getTargetLetter();
+        int k = Math.min(turns, game.getRemainingTurns());
+
+        if (k <= 0) {
+            return grid.countTopLetter(target);
+        }
+
+        // Exact first-roll gains, run lengths and rolled cells of all 32 options
+        EdgeRollDeltas rolls = EdgeRollDeltas.compute(grid, target);
+        int current = rolls.getBaseScore();
+
+        int bestRoll = 0;   // 0 also covers a wasted roll on a FixedBox edge
+        int maxRun = 0;
+        long reachable = 0L;
+        for (int option = 0; option < EdgeRollDeltas.OPTIONS; option++) {
+            bestRoll = Math.max(bestRoll, rolls.getDelta(option));
+            maxRun = Math.max(maxRun, rolls.getRunLength(option));
+            reachable |= rolls.getMovedMask(option);
+        }
+
+        // Stampability and tools that can still be opened
+        boolean[] unchanging = new boolean[CELLS];
+        int[] toolCount = new int[KINDS.length];
+        for (int i = 0; i < CELLS; i++) {
+            Box b = grid.getBox(CELL_POSITIONS[i]);
+            unchanging[i] = b instanceof UnchangingBox;
+            ToolKind kind = b.getContentKind();
+            if (kind != null && (reachable & (1L << i)) != 0) {
+                toolCount[kind.ordinal()]++;
+            }
+        }
+        boolean fixerAvailable = toolCount[ToolKind.BOX_FIXER.ordinal()] > 0;
+        int[] toolGain = bestToolGains(unchanging, fixerAvailable);
+
+        int toolSum = 0;
+        int turnsLeft = k;
+        while (turnsLeft > 0) {
+            int best = -1;
+            for (int t = 0; t < KINDS.length; t++) {
+                if (toolCount[t] > 0 && (best < 0 || toolGain[t] > toolGain[best])) best = t;
+            }
+            if (best < 0) break;
+            int used = Math.min(turnsLeft, toolCount[best]);
+            toolSum += used * toolGain[best];
+            toolCount[best] = 0;
+            turnsLeft -= used;
+        }
+
+        long bound = (long) current + bestRoll + (long) (k - 1) * maxRun + toolSum;
+        return (int) Math.min(CELLS, bound);
+    }
+
+    private static int[] bestToolGains(boolean[] unchanging, boolean fixerAvailable) {
+        int[] gain = new int[KINDS.length];
+        int bestRow = 0;
+        int bestCol = 0;
+        int bestPlus = 0;
+
+        for (int line = 0; line < N; line++) {
+            int rowCount = 0;
+            int colCount = 0;
+            for (int j = 0; j < N; j++) {
+                if (fixerAvailable || !unchanging[line * N + j]) rowCount++;
+                if (fixerAvailable || !unchanging[j * N + line]) colCount++;
+            }
+            bestRow = Math.max(bestRow, rowCount);
+            bestCol = Math.max(bestCol, colCount);
+        }
+
+        for (int r = 0; r < N; r++) {
+            for (int c = 0; c < N; c++) {
+                int count = stampable(unchanging, fixerAvailable, r, c)
+                        + stampable(unchanging, fixerAvailable, r - 1, c)
+                        + stampable(unchanging, fixerAvailable, r + 1, c)
+                        + stampable(unchanging, fixerAvailable, r, c - 1)
+                        + stampable(unchanging, fixerAvailable, r, c + 1);
+                bestPlus = Math.max(bestPlus, count);
+            }
+        }
+
+        gain[ToolKind.PLUS_SHAPE_STAMP.ordinal()] = bestPlus;
+        gain[ToolKind.MASS_ROW_STAMP.ordinal()] = bestRow;
+        gain[ToolKind.MASS_COLUMN_STAMP.ordinal()] = bestCol;
+        gain[ToolKind.BOX_FLIPPER.ordinal()] = 1;
+        gain[ToolKind.BOX_FIXER.ordinal()] = 0;
+        return gain;
+    }
+
+    private static int stampable(boolean[] unchanging, boolean fixerAvailable, int r, int c) {
+        if (r < 0 || r >= N || c < 0 || c >= N) return 0;
+        return (fixerAvailable || !unchanging[r * N + c]) ? 1 : 0;
+    }
+}
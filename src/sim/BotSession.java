@@ -0,0 +1,162 @@
+package sim;
+
+import puzzle.BoxPuzzle;
+import puzzle.HeadlessGame;
+import puzzle.TurnAction;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.Random;
+
+/**
+ * One bot playing consecutive headless games, stepped turn by turn by a TurnBatchScheduler
+ * (or by a thread of its own).
+ *
+ * Game g is played on the board of seed firstSeed + g, with a Random seeded like GameRunner does,
+ * so a session's scores do not depend on how it is scheduled.
+ * After every turn the bot "thinks" for thinkNanos; the session is then ready for its next turn.
+ * The latency of a turn is the time from becoming ready to the end of the turn's tool stage,
+ * so it includes all time spent waiting for a thread.
+ *
+ * Not thread-safe: a session must be stepped by one thread at a time.
+ */
+public final class BotSession {
+
+    private final int id;
+    private final Strategy strategy;
+    private final long firstSeed;
+    private final int games;
+    private final long thinkNanos;
+
+    private HeadlessGame game;
+    private Random random;
+    private TurnAction action; // chosen for the next turn
+    private int gamesPlayed;
+    private long totalScore;
+    private long readyAt;
+
+    private final long[] latencies;
+    private int turns;
+
+    public BotSession(int id, Strategy strategy, long firstSeed, int games, long thinkNanos) {
+        this.strategy = Objects.requireNonNull(strategy, "strategy is null");
+        if (games <= 0) throw new IllegalArgumentException("games must be positive");
+        if (thinkNanos < 0) throw new IllegalArgumentException("thinkNanos must not be negative");
+
+        this.id = id;
+        this.firstSeed = firstSeed;
+        this.games = games;
+        this.thinkNanos = thinkNanos;
+        this.latencies = new long[games * BoxPuzzle.MAX_TURNS];
+        nextGame();
+    }
+
+    // -------------------------
+    // Stepping
+    // -------------------------
+
+    /**
+     * Makes the session ready now (call once, before the first turn).
+     */
+    public void start(long nowNanos) {
+        readyAt = nowNanos;
+    }
+
+    /**
+     * Plays the whole next turn at once.
+     */
+    public void playTurn() {
+        decide();
+        playRollStage();
+        playToolStage();
+        endTurn(System.nanoTime());
+    }
+
+    /**
+     * Lets the bot choose its next turn.
+     */
+    public void decide() {
+        requireNotDone();
+        action = strategy.chooseTurn(new HeadlessGame(game), random);
+    }
+
+    public void playRollStage() {
+        game.playRollStage(action);
+    }
+
+    public void playToolStage() {
+        game.playToolStage();
+        action = null;
+    }
+
+    /**
+     * Records the turn's latency and moves on to the next game if this one is over.
+     * The session is ready again thinkNanos later.
+     */
+    public void endTurn(long nowNanos) {
+        if (game.isMidTurn()) throw new IllegalStateException("The tool stage has not been played.");
+
+        latencies[turns++] = nowNanos - readyAt;
+        if (game.isOver()) {
+            totalScore += game.finalScore();
+            gamesPlayed++;
+            nextGame();
+        }
+        readyAt = nowNanos + thinkNanos;
+    }
+
+    // -------------------------
+    // Accessors
+    // -------------------------
+
+    public int getId() { return id; }
+    public long getReadyAt() { return readyAt; }
+    public long getThinkNanos() { return thinkNanos; }
+    public int getGamesPlayed() { return gamesPlayed; }
+    public long getTotalScore() { return totalScore; }
+    public int getTurns() { return turns; }
+
+    public boolean isDone() {
+        return gamesPlayed == games;
+    }
+
+    /**
+     * Latency of every turn played so far, in nanoseconds (a copy).
+     */
+    public long[] getLatencies() {
+        return Arrays.copyOf(latencies, turns);
+    }
+
+    public double getMeanLatencyNanos() {
+        long sum = 0;
+        for (int i = 0; i < turns; i++) sum += latencies[i];
+        return turns == 0 ? 0 : (double) sum / turns;
+    }
+
+    public long getMaxLatencyNanos() {
+        long max = 0;
+        for (int i = 0; i < turns; i++) max = Math.max(max, latencies[i]);
+        return max;
+    }
+
+    // -------------------------
+    // Internal utilities
+    // -------------------------
+
+    /**
+     * Sets up game gamesPlayed; boards that fail before the first turn count as played with score 0.
+     */
+    private void nextGame() {
+        while (gamesPlayed < games) {
+            long seed = firstSeed + gamesPlayed;
+            game = HeadlessGame.fromSeed(seed);
+            random = new Random(seed);
+            if (!game.isOver()) return;
+            gamesPlayed++;
+        }
+    }
+
+    private void requireNotDone() {
+        if (isDone()) throw new IllegalStateException("Session " + id + " has played all its games.");
+    }
+}
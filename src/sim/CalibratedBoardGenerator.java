@@ -0,0 +1,287 @@
+package sim;
+
+import puzzle.HeadlessGame;
+import search.BranchAndBoundSearch;
+import search.IterativeDeepeningSearch;
+import search.LastTurnOptimizer;
+import search.SearchResult;
+import search.UpperBoundEvaluator;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Finds seeded boards whose 5-turn score falls in a requested band, for fair ranked play.
+ *
+ * Candidates are the seeds firstSeed, firstSeed + 1, ... (so an accepted board is replayed with
+ * HeadlessGame.fromSeed(seed)). Each candidate goes through cheap filters first:
+ * - dead: no edge box can move on turn 1 (the game fails immediately)
+ * - bound: the UpperBoundEvaluator bound is below the band, so no line of play can reach it
+ * and is then scored, as the better of two playouts (both reachable scores, so their maximum is a lower bound
+ * of the best 5-turn score):
+ * - the evaluator strategy (greedy by default) on the turns before the last, and the best last turn
+ *   from the LastTurnOptimizer (a few microseconds)
+ * - lookahead: every turn chosen by a BranchAndBoundSearch lookaheadDepth turns deep (2 by default, last turn
+ *   exact), which is deterministic and far closer to the best score than a one-turn strategy, but takes
+ *   most of a second per board; it is skipped when the first playout is already above the band
+ * The board is accepted if that score is in [minScore, maxScore].
+ *
+ * How far below the best score the evaluator stays can be measured on a sample of the accepted boards:
+ * each is also played with an IterativeDeepeningSearch per turn (deepest complete depth within a time budget,
+ * the last turn exact), and the report gives the mean and largest gap.
+ *
+ * Seeds are claimed in chunks by a fixed thread pool, each thread with its own strategy instance.
+ * Once enough boards are accepted no new chunk is claimed, the running chunks are finished,
+ * and the lowest accepted seeds are kept: with an attempt budget only, the result does not depend
+ * on the number of threads. A time budget stops the workers at the next candidate.
+ */
+public final class CalibratedBoardGenerator {
+
+    private static final int CHUNK_SIZE = 32;
+
+    private final String strategyName;
+    private final int minScore;
+    private final int maxScore;
+    private final int threads;
+    private final int lookaheadDepth;
+
+    public CalibratedBoardGenerator(String strategyName, int minScore, int maxScore, int threads) {
+        this(strategyName, minScore, maxScore, threads, 2);
+    }
+
+    /**
+     * @param lookaheadDepth turns searched per move by the lookahead playout (0 = strategy playout only)
+     */
+    public CalibratedBoardGenerator(String strategyName, int minScore, int maxScore, int threads, int lookaheadDepth) {
+        Objects.requireNonNull(strategyName, "strategyName is null");
+        Strategies.byName(strategyName); // fail fast on unknown names
+        if (minScore < 0 || maxScore < minScore) {
+            throw new IllegalArgumentException("Invalid score band [" + minScore + ", " + maxScore + "]");
+        }
+        if (threads <= 0) throw new IllegalArgumentException("threads must be positive");
+        if (lookaheadDepth < 0) throw new IllegalArgumentException("lookaheadDepth must not be negative");
+
+        this.strategyName = strategyName;
+        this.minScore = minScore;
+        this.maxScore = maxScore;
+        this.threads = threads;
+        this.lookaheadDepth = lookaheadDepth;
+    }
+
+    /**
+     * Searches up to maxAttempts seeds from firstSeed, for at most budgetMillis (0 = no time limit),
+     * and stops early once `wanted` boards are accepted.
+     */
+    public CalibrationReport generate(long firstSeed, int wanted, long maxAttempts, long budgetMillis)
+            throws InterruptedException {
+        return generate(firstSeed, wanted, maxAttempts, budgetMillis, 0, 0);
+    }
+
+    /**
+     * Same as generate(firstSeed, wanted, maxAttempts, budgetMillis), then measures the evaluator's gap
+     * to search on the first gapSample accepted boards, searching for gapTurnMillis per turn
+     * (not included in the reported throughput).
+     */
+    public CalibrationReport generate(long firstSeed, int wanted, long maxAttempts, long budgetMillis,
+                                      int gapSample, long gapTurnMillis) throws InterruptedException {
+        if (wanted <= 0) throw new IllegalArgumentException("wanted must be positive");
+        if (maxAttempts <= 0) throw new IllegalArgumentException("maxAttempts must be positive");
+        if (budgetMillis < 0) throw new IllegalArgumentException("budgetMillis must not be negative");
+        if (gapSample < 0) throw new IllegalArgumentException("gapSample must not be negative");
+        if (gapTurnMillis < 0) throw new IllegalArgumentException("gapTurnMillis must not be negative");
+
+        long start = System.nanoTime();
+        long deadline = budgetMillis == 0 ? Long.MAX_VALUE : start + budgetMillis * 1_000_000L;
+        long chunks = (maxAttempts + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        AtomicLong nextChunk = new AtomicLong();
+        AtomicInteger accepted = new AtomicInteger();
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<Worker>> futures = new ArrayList<>(threads);
+            for (int t = 0; t < threads; t++) {
+                Worker w = new Worker(firstSeed, maxAttempts, wanted, deadline, chunks, nextChunk, accepted);
+                futures.add(pool.submit(w));
+            }
+
+            Worker total = new Worker(firstSeed, maxAttempts, wanted, deadline, chunks, nextChunk, accepted);
+            for (Future<Worker> f : futures) total.merge(f.get());
+            long elapsed = System.nanoTime() - start;
+
+            // Lowest accepted seeds first; scores travel with their seeds
+            int n = total.found;
+            Integer[] order = new Integer[n];
+            for (int i = 0; i < n; i++) order[i] = i;
+            Arrays.sort(order, (a, b) -> Long.compare(total.seeds[a], total.seeds[b]));
+            int kept = Math.min(n, wanted);
+            long[] seeds = new long[kept];
+            int[] scores = new int[kept];
+            for (int i = 0; i < kept; i++) {
+                seeds[i] = total.seeds[order[i]];
+                scores[i] = total.scores[order[i]];
+            }
+
+            int[] gaps = gaps(seeds, scores, Math.min(gapSample, kept), gapTurnMillis);
+            String evaluator = strategyName + (lookaheadDepth > 0 ? " or depth-" + lookaheadDepth + " lookahead" : "")
+                    + ", best last turn";
+            return new CalibrationReport(evaluator, minScore, maxScore, seeds, scores, total.found, total.attempts,
+                    total.dead, total.bounded, total.histogram, elapsed, threads, gaps, gapTurnMillis);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Board calibration failed: " + e.getCause(), e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * Evaluator score of a seeded board: turns before the last with the strategy (its Random seeded
+     * from the board seed, like GameRunner), the last turn exactly. The game is played in place.
+     */
+    static int score(Strategy strategy, LastTurnOptimizer last, HeadlessGame game, long seed) {
+        Random random = new Random(seed);
+        while (game.getRemainingTurns() > 1) {
+            game.playTurn(strategy.chooseTurn(new HeadlessGame(game), random));
+        }
+        return last.bestScore(game);
+    }
+
+    /**
+     * Final score when every turn is chosen by the search, `depth` turns deep; the last turn exactly.
+     * The game is played in place.
+     */
+    static int lookahead(BranchAndBoundSearch search, LastTurnOptimizer last, HeadlessGame game, int depth) {
+        while (game.getRemainingTurns() > 1) {
+            game.playTurn(search.search(game, depth).getBestAction());
+        }
+        return last.bestScore(game);
+    }
+
+    /**
+     * Search score minus evaluator score of each of the first `sample` boards.
+     */
+    private static int[] gaps(long[] seeds, int[] scores, int sample, long turnMillis) {
+        IterativeDeepeningSearch search = new IterativeDeepeningSearch(new UpperBoundEvaluator());
+        int[] gaps = new int[sample];
+        for (int i = 0; i < sample; i++) {
+            HeadlessGame game = HeadlessGame.fromSeed(seeds[i]);
+            while (!game.isOver()) {
+                SearchResult r = search.search(game, game.getRemainingTurns(), turnMillis);
+                game.playTurn(r.getBestAction());
+            }
+            gaps[i] = game.finalScore() - scores[i];
+        }
+        return gaps;
+    }
+
+    // -------------------------
+    // Worker
+    // -------------------------
+
+    /**
+     * Evaluates claimed chunks and keeps its own counters (merged at the end), so threads never contend.
+     */
+    private final class Worker implements Callable<Worker> {
+
+        private final long firstSeed;
+        private final long maxAttempts;
+        private final int wanted;
+        private final long deadline;
+        private final long chunks;
+        private final AtomicLong nextChunk;
+        private final AtomicInteger accepted;
+
+        private long[] seeds = new long[16];
+        private int[] scores = new int[16];
+        private int found;
+        private long attempts;
+        private long dead;
+        private long bounded;
+        private final long[] histogram = new long[CalibrationReport.MAX_SCORE + 1];
+
+        Worker(long firstSeed, long maxAttempts, int wanted, long deadline, long chunks,
+               AtomicLong nextChunk, AtomicInteger accepted) {
+            this.firstSeed = firstSeed;
+            this.maxAttempts = maxAttempts;
+            this.wanted = wanted;
+            this.deadline = deadline;
+            this.chunks = chunks;
+            this.nextChunk = nextChunk;
+            this.accepted = accepted;
+        }
+
+        @Override
+        public Worker call() {
+            Strategy strategy = Strategies.byName(strategyName);
+            UpperBoundEvaluator bound = new UpperBoundEvaluator();
+            LastTurnOptimizer last = new LastTurnOptimizer();
+            BranchAndBoundSearch search = lookaheadDepth > 0 ? new BranchAndBoundSearch(bound, true) : null;
+
+            while (accepted.get() < wanted) {
+                long chunk = nextChunk.getAndIncrement();
+                if (chunk >= chunks) break;
+                long from = chunk * CHUNK_SIZE;
+                long to = Math.min(maxAttempts, from + CHUNK_SIZE);
+                for (long i = from; i < to; i++) {
+                    if (System.nanoTime() > deadline) return this;
+                    evaluate(strategy, bound, last, search, firstSeed + i);
+                }
+            }
+            return this;
+        }
+
+        private void evaluate(Strategy strategy, UpperBoundEvaluator bound, LastTurnOptimizer last,
+                              BranchAndBoundSearch search, long seed) {
+            attempts++;
+            HeadlessGame game = HeadlessGame.fromSeed(seed);
+            if (game.isFailed()) {
+                dead++;
+                return;
+            }
+            if (bound.upperBound(game) < minScore) {
+                bounded++;
+                return;
+            }
+
+            HeadlessGame start = new HeadlessGame(game);
+            int score = score(strategy, last, game, seed);
+            if (search != null && score <= maxScore) {
+                score = Math.max(score, lookahead(search, last, start, lookaheadDepth));
+            }
+            histogram[score]++;
+            if (score >= minScore && score <= maxScore) {
+                if (found == seeds.length) {
+                    seeds = Arrays.copyOf(seeds, found * 2);
+                    scores = Arrays.copyOf(scores, found * 2);
+                }
+                seeds[found] = seed;
+                scores[found] = score;
+                found++;
+                accepted.incrementAndGet();
+            }
+        }
+
+        void merge(Worker other) {
+            if (found + other.found > seeds.length) {
+                seeds = Arrays.copyOf(seeds, found + other.found);
+                scores = Arrays.copyOf(scores, found + other.found);
+            }
+            System.arraycopy(other.seeds, 0, seeds, found, other.found);
+            System.arraycopy(other.scores, 0, scores, found, other.found);
+            found += other.found;
+            attempts += other.attempts;
+            dead += other.dead;
+            bounded += other.bounded;
+            for (int s = 0; s < histogram.length; s++) histogram[s] += other.histogram[s];
+        }
+    }
+}
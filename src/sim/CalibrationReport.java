@@ -0,0 +1,154 @@
+package sim;
+
+/**
+ * Outcome of a CalibratedBoardGenerator run: accepted seeds with their scores, why candidates
+ * were rejected, and throughput.
+ */
+public final class CalibrationReport {
+
+    /** Highest possible score (every top face shows the target letter). */
+    public static final int MAX_SCORE = 64;
+
+    private final String strategy;
+    private final int minScore;
+    private final int maxScore;
+    private final long[] seeds;
+    private final int[] scores;
+    private final long inBand;
+    private final long attempts;
+    private final long dead;
+    private final long bounded;
+    private final long[] histogram;
+    private final long elapsedNanos;
+    private final int threads;
+    private final int[] gaps;
+    private final long gapTurnMillis;
+
+    CalibrationReport(String strategy, int minScore, int maxScore, long[] seeds, int[] scores, long inBand, long attempts,
+                      long dead, long bounded, long[] histogram, long elapsedNanos, int threads,
+                      int[] gaps, long gapTurnMillis) {
+        this.strategy = strategy;
+        this.minScore = minScore;
+        this.maxScore = maxScore;
+        this.seeds = seeds;
+        this.scores = scores;
+        this.inBand = inBand;
+        this.attempts = attempts;
+        this.dead = dead;
+        this.bounded = bounded;
+        this.histogram = histogram;
+        this.elapsedNanos = elapsedNanos;
+        this.threads = threads;
+        this.gaps = gaps;
+        this.gapTurnMillis = gapTurnMillis;
+    }
+
+    /** Accepted seeds in increasing order. */
+    public long[] getSeeds() { return seeds.clone(); }
+
+    /**
+     * Evaluator score of each accepted seed (same order as getSeeds()): the better of the strategy's playout
+     * and the lookahead playout, both ending with the best last turn.
+     */
+    public int[] getScores() { return scores.clone(); }
+
+    /** Boards returned (at most the number wanted). */
+    public int getAccepted() { return seeds.length; }
+
+    /**
+     * Candidates that scored inside the band. Can exceed getAccepted(): running chunks are finished
+     * after enough boards were found, and only the lowest seeds are kept.
+     */
+    public long getInBand() { return inBand; }
+
+    /** In-band boards dropped because enough were found (getInBand() - getAccepted()). */
+    public long getSurplus() { return inBand - seeds.length; }
+
+    public long getAttempts() { return attempts; }
+
+    /** Candidates that could not move on turn 1. */
+    public long getDead() { return dead; }
+
+    /** Candidates whose upper bound was below the band (never played). */
+    public long getBounded() { return bounded; }
+
+    /**
+     * Number of played candidates that scored the given value (0..MAX_SCORE).
+     */
+    public long getPlayedWithScore(int score) {
+        return histogram[score];
+    }
+
+    /**
+     * Share of the evaluated candidates that scored inside the band (independent of chunking and threads).
+     */
+    public double getAcceptanceRate() {
+        return attempts == 0 ? 0.0 : (double) inBand / attempts;
+    }
+
+    /** In-band boards found per second of wall time. */
+    public double getBoardsPerSecond() {
+        return elapsedNanos == 0 ? 0.0 : inBand * 1e9 / elapsedNanos;
+    }
+
+    public double getCandidatesPerSecond() {
+        return elapsedNanos == 0 ? 0.0 : attempts * 1e9 / elapsedNanos;
+    }
+
+    // -------------------------
+    // Evaluator gap
+    // -------------------------
+
+    /** Accepted boards also played with search (the first ones; 0 if the gap was not measured). */
+    public int getGapSample() { return gaps.length; }
+
+    /**
+     * Search score minus evaluator score of each sampled board (same order as getSeeds()).
+     * Negative when the search, cut by its time budget, did worse than the evaluator.
+     */
+    public int[] getGaps() { return gaps.clone(); }
+
+    public double getMeanGap() {
+        if (gaps.length == 0) return 0.0;
+        long sum = 0;
+        for (int g : gaps) sum += g;
+        return (double) sum / gaps.length;
+    }
+
+    public int getMaxGap() {
+        int max = 0;
+        for (int g : gaps) max = Math.max(max, g);
+        return max;
+    }
+
+    /** Sampled boards on which the search scored more than the evaluator. */
+    public int getBoardsBelowSearch() {
+        int n = 0;
+        for (int g : gaps) {
+            if (g > 0) n++;
+        }
+        return n;
+    }
+
+    @Override
+    public String toString() {
+        long played = attempts - dead - bounded;
+        long below = 0;
+        long above = 0;
+        for (int s = 0; s < histogram.length; s++) {
+            if (s < minScore) below += histogram[s];
+            else if (s > maxScore) above += histogram[s];
+        }
+        String text = String.format("band [%d, %d] by %s: %d in band of %d candidates (%.1f%%), "
+                        + "%d kept (%d surplus)%n"
+                        + "rejected: %d dead, %d below by bound, %d below, %d above (%d played)%n"
+                        + "%d threads in %.2f s => %.0f boards/s, %.0f candidates/s",
+                minScore, maxScore, strategy, inBand, attempts, 100 * getAcceptanceRate(), seeds.length,
+                getSurplus(), dead, bounded, below, above, played,
+                threads, elapsedNanos / 1e9, getBoardsPerSecond(), getCandidatesPerSecond());
+        if (gaps.length == 0) return text;
+        return text + String.format("%ngap to search (%d ms/turn) on %d kept boards: mean %.2f, max %d, "
+                        + "%d boards below search",
+                gapTurnMillis, gaps.length, getMeanGap(), getMaxGap(), getBoardsBelowSearch());
+    }
+}
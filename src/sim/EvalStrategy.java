@@ -0,0 +1,124 @@
+package sim;
+
+import grid.BoxGrid;
+import grid.CellCodec;
+import grid.Direction;
+import grid.EdgeRollDeltas;
+import grid.Position;
+import puzzle.HeadlessGame;
+import puzzle.PersistentGame;
+import puzzle.TurnAction;
+import search.FeatureEvaluator;
+import search.MoveGenerator;
+import tools.ToolImpactMap;
+import tools.ToolKind;
+
+import java.util.Objects;
+import java.util.Random;
+
+/**
+ * One-turn bot that maximizes a FeatureEvaluator value of the state after its turn, instead of the
+ * bare score like GreedyStrategy.
+ *
+ * Candidates are the same as GreedyStrategy's: every roll option with a non-empty run, every box of
+ * the run to open, and for a tool its best target by ToolImpactMap (targets that would fail the turn are
+ * skipped). Boxes without a tool only differ in which box gets marked opened, so one empty box per run
+ * is tried. Each candidate is played on a PersistentGame (sharing the untouched rows) and evaluated.
+ * Ties are broken randomly.
+ */
+public class EvalStrategy implements Strategy {
+
+    private static final int N = BoxGrid.SIZE;
+    private static final int KINDS = ToolKind.values().length;
+
+    private final FeatureEvaluator evaluator;
+
+    public EvalStrategy() {
+        this(FeatureEvaluator.defaults());
+    }
+
+    public EvalStrategy(FeatureEvaluator evaluator) {
+        this.evaluator = Objects.requireNonNull(evaluator, "evaluator is null");
+    }
+
+    @Override
+    public String getName() {
+        return "eval";
+    }
+
+    @Override
+    public TurnAction chooseTurn(HeadlessGame game, Random random) {
+        char target = game.getTargetLetter();
+        PersistentGame root = PersistentGame.of(game);
+        int[] cells = root.getGrid().toCells();
+        EdgeRollDeltas rolls = EdgeRollDeltas.compute(cells, target);
+
+        TurnAction best = null;
+        double bestValue = Double.NEGATIVE_INFINITY;
+        int ties = 0;
+
+        for (int option = 0; option < EdgeRollDeltas.OPTIONS; option++) {
+            int run = rolls.getRunLength(option);
+            if (run == 0) continue;
+
+            Position edge = rolls.getEdge(option);
+            Direction d = rolls.getDirection(option);
+            int[] rolled = rolls.getToolMask(option) != 0 ? roll(cells, edge, d, run) : null;
+            ToolImpactMap[] impacts = new ToolImpactMap[KINDS]; // per kind, on demand
+            boolean emptyTried = false;
+
+            Position open = edge;
+            for (int i = 0; i < run; i++) {
+                if (i > 0) open = open.move(d);
+
+                ToolKind kind = CellCodec.tool(cells[index(open)]); // rolling does not move contents
+                Position toolTarget = null;
+                if (kind == null) {
+                    if (emptyTried) continue;
+                    emptyTried = true;
+                } else {
+                    ToolImpactMap impact = impacts[kind.ordinal()];
+                    if (impact == null) {
+                        impact = ToolImpactMap.compute(rolled, kind, target);
+                        impacts[kind.ordinal()] = impact;
+                    }
+                    int t = impact.bestIndex();
+                    if (t < 0) continue; // every target would fail the turn
+                    toolTarget = impact.target(t);
+                }
+
+                TurnAction action = new TurnAction(edge, d, open, toolTarget);
+                double value = evaluator.evaluate(root.play(action));
+                if (value > bestValue) {
+                    bestValue = value;
+                    best = action;
+                    ties = 1;
+                } else if (value == bestValue && random.nextInt(++ties) == 0) {
+                    best = action;
+                }
+            }
+        }
+
+        // Every edge is blocked by a FixedBox (but some edge is movable, else the game would be over)
+        return best != null ? best : MoveGenerator.generate(game).get(0);
+    }
+
+    // -------------------------
+    // Internal utilities
+    // -------------------------
+
+    private static int[] roll(int[] cells, Position edge, Direction d, int run) {
+        int[] rolled = cells.clone();
+        Position p = edge;
+        for (int i = 0; i < run; i++) {
+            if (i > 0) p = p.move(d);
+            int idx = index(p);
+            rolled[idx] = CellCodec.roll(rolled[idx], d);
+        }
+        return rolled;
+    }
+
+    private static int index(Position p) {
+        return (p.getRow() - 1) * N + p.getCol() - 1;
+    }
+}
@@ -0,0 +1,36 @@
+package sim;
+
+/**
+ * Summary of one finished headless game.
+ */
+public final class GameResult {
+
+    private final long seed;
+    private final String strategy;
+    private final int score;
+    private final int turnsPlayed;
+    private final int wastedTurns;
+    private final boolean failed;
+
+    public GameResult(long seed, String strategy, int score, int turnsPlayed, int wastedTurns, boolean failed) {
+        this.seed = seed;
+        this.strategy = strategy;
+        this.score = score;
+        this.turnsPlayed = turnsPlayed;
+        this.wastedTurns = wastedTurns;
+        this.failed = failed;
+    }
+
+    public long getSeed() { return seed; }
+    public String getStrategy() { return strategy; }
+    public int getScore() { return score; }
+    public int getTurnsPlayed() { return turnsPlayed; }
+    public int getWastedTurns() { return wastedTurns; }
+    public boolean isFailed() { return failed; }
+
+    @Override
+    public String toString() {
+        return strategy + " seed=" + seed + " score=" + score + " wasted=" + wastedTurns + "/" + turnsPlayed
+                + (failed ? " FAILURE" : "");
+    }
+}
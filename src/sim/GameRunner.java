@@ -0,0 +1,56 @@
+package sim;
+
+import puzzle.HeadlessGame;
+import puzzle.TurnAction;
+
+import java.util.Objects;
+import java.util.Random;
+
+/**
+ * Plays full headless games with a Strategy.
+ */
+public final class GameRunner {
+
+    private GameRunner() {
+        // utility class; prevent instantiation
+    }
+
+    /**
+     * Plays the seeded board to the end.
+     * The strategy's Random is seeded from the board seed, so a game is fully reproducible.
+     */
+    public static GameResult play(Strategy strategy, long seed) {
+        return play(strategy, HeadlessGame.fromSeed(seed), seed);
+    }
+
+    /**
+     * Plays the given game (modified in place) to the end.
+     */
+    public static GameResult play(Strategy strategy, HeadlessGame game, long seed) {
+        return play(strategy, game, seed, null);
+    }
+
+    /**
+     * Plays the given game (modified in place) to the end, reporting every turn to the listener (may be null).
+     */
+    public static GameResult play(Strategy strategy, HeadlessGame game, long seed, TurnListener listener) {
+        Objects.requireNonNull(strategy, "strategy is null");
+        Objects.requireNonNull(game, "game is null");
+
+        Random random = new Random(seed);
+        int turns = 0;
+        int wasted = 0;
+        while (!game.isOver()) {
+            TurnAction action = strategy.chooseTurn(new HeadlessGame(game), random);
+            int scoreBefore = listener == null ? 0 : game.score();
+            if (!game.playTurn(action)) {
+                wasted++;
+            }
+            turns++;
+            if (listener != null) {
+                listener.onTurn(seed, action, scoreBefore, game);
+            }
+        }
+        return new GameResult(seed, strategy.getName(), game.finalScore(), turns, wasted, game.isFailed());
+    }
+}
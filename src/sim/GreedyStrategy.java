@@ -0,0 +1,89 @@
+package sim;
+
+import grid.BoxGrid;
+import grid.Direction;
+import grid.EdgeRollDeltas;
+import grid.Position;
+import puzzle.HeadlessGame;
+import puzzle.TurnAction;
+import search.MoveGenerator;
+import tools.ToolImpactMap;
+import tools.ToolKind;
+
+import java.util.Random;
+
+/**
+ * One-turn greedy bot: maximizes the target-letter count right after this turn.
+ * All rolls are scored at once with EdgeRollDeltas; only rolls whose run holds a tool are played
+ * on a copy of the grid, whose tool targets are then scored with one ToolImpactMap per tool kind.
+ * Targets that would fail the turn are never chosen. Ties between rolls are broken randomly.
+ */
+public class GreedyStrategy implements Strategy {
+
+    private static final int KINDS = ToolKind.values().length;
+
+    @Override
+    public String getName() {
+        return "greedy";
+    }
+
+    @Override
+    public TurnAction chooseTurn(HeadlessGame game, Random random) {
+        char target = game.getTargetLetter();
+        TurnAction best = null;
+        int bestScore = Integer.MIN_VALUE;
+        int ties = 0;
+
+        BoxGrid grid = game.getGrid();
+        EdgeRollDeltas rolls = EdgeRollDeltas.compute(grid, target);
+
+        for (int option = 0; option < EdgeRollDeltas.OPTIONS; option++) {
+            int run = rolls.getRunLength(option);
+            if (run == 0) continue;
+
+            Position edge = rolls.getEdge(option);
+            Direction d = rolls.getDirection(option);
+            int rolledScore = rolls.getBaseScore() + rolls.getDelta(option);
+
+            // Only runs holding a tool need the rolled grid (for the impact maps)
+            BoxGrid rolled = null;
+            if (rolls.getToolMask(option) != 0) {
+                rolled = new BoxGrid(grid);
+                rolled.tryRollFromEdge(edge, d);
+            }
+            ToolImpactMap[] impacts = new ToolImpactMap[KINDS]; // per kind, on demand
+
+            Position open = edge;
+            for (int i = 0; i < run; i++) {
+                if (i > 0) open = open.move(d);
+
+                ToolKind kind = grid.getBox(open).getContentKind(); // rolling does not move contents
+                Position toolTarget = null;
+                int gain = 0;
+                if (kind != null) {
+                    ToolImpactMap impact = impacts[kind.ordinal()];
+                    if (impact == null) {
+                        impact = ToolImpactMap.compute(rolled, kind, target);
+                        impacts[kind.ordinal()] = impact;
+                    }
+                    int t = impact.bestIndex();
+                    if (t < 0) continue; // every target would fail the turn
+                    gain = impact.delta(t);
+                    toolTarget = impact.target(t);
+                }
+
+                int score = rolledScore + gain;
+                if (score > bestScore) {
+                    bestScore = score;
+                    best = new TurnAction(edge, d, open, toolTarget);
+                    ties = 1;
+                } else if (score == bestScore && random.nextInt(++ties) == 0) {
+                    best = new TurnAction(edge, d, open, toolTarget);
+                }
+            }
+        }
+
+        // Every edge is blocked by a FixedBox (but some edge is movable, else the game would be over)
+        return best != null ? best : MoveGenerator.generate(game).get(0);
+    }
+}
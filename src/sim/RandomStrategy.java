@@ -0,0 +1,25 @@
+package sim;
+
+import puzzle.HeadlessGame;
+import puzzle.TurnAction;
+import search.MoveGenerator;
+
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Baseline bot: picks uniformly among the distinct actions of the turn.
+ */
+public class RandomStrategy implements Strategy {
+
+    @Override
+    public String getName() {
+        return "random";
+    }
+
+    @Override
+    public TurnAction chooseTurn(HeadlessGame game, Random random) {
+        List<TurnAction> actions = MoveGenerator.generate(game);
+        return actions.get(random.nextInt(actions.size()));
+    }
+}
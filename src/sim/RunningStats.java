@@ -0,0 +1,70 @@
+package sim;
+
+/**
+ * Streaming statistics of game results (Welford's algorithm), so any number of games
+ * can be summarized in constant memory. Not thread-safe: keep one per thread and merge().
+ */
+public final class RunningStats {
+
+    private long games;
+    private double mean;
+    private double m2;          // sum of squared differences from the mean
+    private long turns;
+    private long wastedTurns;
+    private long failures;
+
+    public void add(GameResult result) {
+        games++;
+        double delta = result.getScore() - mean;
+        mean += delta / games;
+        m2 += delta * (result.getScore() - mean);
+
+        turns += result.getTurnsPlayed();
+        wastedTurns += result.getWastedTurns();
+        if (result.isFailed()) failures++;
+    }
+
+    /**
+     * Adds everything counted by `other` (parallel variant of Welford's update).
+     */
+    public void merge(RunningStats other) {
+        if (other.games == 0) return;
+        long n = games + other.games;
+        double delta = other.mean - mean;
+        mean += delta * other.games / n;
+        m2 += other.m2 + delta * delta * games * other.games / n;
+        games = n;
+
+        turns += other.turns;
+        wastedTurns += other.wastedTurns;
+        failures += other.failures;
+    }
+
+    public long getGames() { return games; }
+    public double getMean() { return mean; }
+    public long getFailures() { return failures; }
+
+    /**
+     * Sample variance of the final score.
+     */
+    public double getVariance() {
+        return games > 1 ? m2 / (games - 1) : 0.0;
+    }
+
+    /**
+     * Half-width of the 95% confidence interval of the mean (normal approximation).
+     */
+    public double getConfidence95() {
+        return games > 1 ? 1.96 * Math.sqrt(getVariance() / games) : Double.NaN;
+    }
+
+    public double getWastedTurnRate() {
+        return turns == 0 ? 0.0 : (double) wastedTurns / turns;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("games=%d mean=%.3f var=%.3f ci95=+/-%.3f wasted=%.2f%% failures=%d",
+                games, mean, getVariance(), getConfidence95(), 100.0 * getWastedTurnRate(), failures);
+    }
+}
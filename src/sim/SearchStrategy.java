@@ -0,0 +1,31 @@
+package sim;
+
+import puzzle.HeadlessGame;
+import puzzle.TurnAction;
+import search.HintService;
+
+import java.util.Objects;
+import java.util.Random;
+
+/**
+ * Bot that plays the HintService suggestion: the opening book (if any) first, a search otherwise.
+ * Deterministic, so the Random is not used.
+ */
+public class SearchStrategy implements Strategy {
+
+    private final HintService hints;
+
+    public SearchStrategy(HintService hints) {
+        this.hints = Objects.requireNonNull(hints, "hints is null");
+    }
+
+    @Override
+    public String getName() {
+        return "search";
+    }
+
+    @Override
+    public TurnAction chooseTurn(HeadlessGame game, Random random) {
+        return hints.hint(game);
+    }
+}
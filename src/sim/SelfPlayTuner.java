@@ -0,0 +1,181 @@
+package sim;
+
+import search.FeatureEvaluator;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Fits FeatureEvaluator weights offline by self-play: the fitness of a weight vector is the mean final
+ * score of EvalStrategy with those weights over a fixed range of seeds, and coordinate descent moves
+ * one weight at a time by +-step while that raises the fitness, halving the step after a sweep
+ * without improvement.
+ *
+ * - The SCORE weight is the unit of the evaluation and is never changed.
+ * - Games of one fitness evaluation are handed out in chunks to a fixed thread pool (like Tournament);
+ *   scores are summed as integers, so the fitness and the whole tuning run are deterministic for any
+ *   number of threads.
+ * - Tuning seeds should not be the ones used to judge the result; evaluate the tuned weights on a
+ *   second SelfPlayTuner over other seeds.
+ */
+public final class SelfPlayTuner {
+
+    private static final int CHUNK_SIZE = 16;
+
+    private final long firstSeed;
+    private final int seeds;
+    private final int threads;
+
+    public SelfPlayTuner(long firstSeed, int seeds, int threads) {
+        if (seeds <= 0) throw new IllegalArgumentException("seeds must be positive");
+        if (threads <= 0) throw new IllegalArgumentException("threads must be positive");
+        this.firstSeed = firstSeed;
+        this.seeds = seeds;
+        this.threads = threads;
+    }
+
+    /**
+     * Mean final score of EvalStrategy with the given weights over the tuner's seeds.
+     */
+    public double fitness(double[] weights) throws InterruptedException {
+        return meanScore(new EvalStrategy(new FeatureEvaluator(weights)));
+    }
+
+    /**
+     * Mean final score of any strategy over the tuner's seeds (for comparisons).
+     */
+    public double meanScore(Strategy strategy) throws InterruptedException {
+        Objects.requireNonNull(strategy, "strategy is null");
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            return meanScore(pool, strategy);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * Coordinate descent from the given weights.
+     *
+     * @param start    starting weights (FeatureEvaluator.FEATURES of them)
+     * @param step     initial change of one weight
+     * @param minStep  tuning stops once the step falls below this
+     * @param progress receives one line per accepted change (may be null)
+     */
+    public Result tune(double[] start, double step, double minStep, Consumer<String> progress)
+            throws InterruptedException {
+        new FeatureEvaluator(start); // validates the weights
+        if (!(step > 0) || !(minStep > 0)) throw new IllegalArgumentException("steps must be positive");
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        long begin = System.nanoTime();
+        try {
+            double[] best = start.clone();
+            double startFitness = meanScore(pool, new EvalStrategy(new FeatureEvaluator(best)));
+            double bestFitness = startFitness;
+            int evaluations = 1;
+
+            while (step >= minStep) {
+                boolean improved = false;
+                for (int i = 0; i < FeatureEvaluator.FEATURES; i++) {
+                    if (i == FeatureEvaluator.SCORE) continue;
+                    for (int sign = 1; sign >= -1; sign -= 2) {
+                        double[] candidate = best.clone();
+                        candidate[i] += sign * step;
+                        double f = meanScore(pool, new EvalStrategy(new FeatureEvaluator(candidate)));
+                        evaluations++;
+                        if (f > bestFitness) {
+                            best = candidate;
+                            bestFitness = f;
+                            improved = true;
+                            if (progress != null) {
+                                progress.accept(String.format("%-13s %+.3f -> %.4f  %s", FeatureEvaluator.featureName(i),
+                                        sign * step, f, Arrays.toString(best)));
+                            }
+                            break;
+                        }
+                    }
+                }
+                if (!improved) step /= 2;
+            }
+            return new Result(best, startFitness, bestFitness, evaluations, System.nanoTime() - begin);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    // -------------------------
+    // Internal utilities
+    // -------------------------
+
+    private double meanScore(ExecutorService pool, Strategy strategy) throws InterruptedException {
+        AtomicLong nextChunk = new AtomicLong();
+        long chunks = (seeds + CHUNK_SIZE - 1) / CHUNK_SIZE;
+
+        List<Future<Long>> futures = new ArrayList<>(threads);
+        for (int t = 0; t < threads; t++) {
+            futures.add(pool.submit(worker(strategy, nextChunk, chunks)));
+        }
+        long sum = 0;
+        try {
+            for (Future<Long> f : futures) sum += f.get();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("A self-play game failed: " + e.getCause(), e.getCause());
+        }
+        return (double) sum / seeds;
+    }
+
+    private Callable<Long> worker(Strategy strategy, AtomicLong nextChunk, long chunks) {
+        return () -> {
+            long sum = 0;
+            long chunk;
+            while ((chunk = nextChunk.getAndIncrement()) < chunks) {
+                long from = firstSeed + chunk * CHUNK_SIZE;
+                long to = Math.min(firstSeed + seeds, from + CHUNK_SIZE);
+                for (long seed = from; seed < to; seed++) {
+                    sum += GameRunner.play(strategy, seed).getScore();
+                }
+            }
+            return sum;
+        };
+    }
+
+    // -------------------------
+    // Result
+    // -------------------------
+
+    /**
+     * Outcome of one tuning run.
+     */
+    public static final class Result {
+
+        private final double[] weights;
+        private final double startFitness;
+        private final double fitness;
+        private final int evaluations;
+        private final long elapsedNanos;
+
+        private Result(double[] weights, double startFitness, double fitness, int evaluations, long elapsedNanos) {
+            this.weights = weights;
+            this.startFitness = startFitness;
+            this.fitness = fitness;
+            this.evaluations = evaluations;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        public double[] getWeights() { return weights.clone(); }
+        public double getStartFitness() { return startFitness; }
+        public double getFitness() { return fitness; }
+        public int getEvaluations() { return evaluations; }
+        public long getElapsedNanos() { return elapsedNanos; }
+    }
+}
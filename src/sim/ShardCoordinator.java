@@ -0,0 +1,186 @@
+package sim;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Splits a seed range across worker JVMs (ShardWorker) on this machine and merges their results,
+ * so a large simulation is not limited by the heap and GC of one JVM.
+ *
+ * - Shard k plays the seeds [firstSeed + k * games / shards, firstSeed + (k + 1) * games / shards)
+ *   and writes its aggregate to shard-k.bpsa in the work directory (its output goes to shard-k.log).
+ * - A worker that exits with an error is started again and resumes from its last checkpoint,
+ *   at most MAX_RESTARTS times per shard.
+ * - Shard files are merged in shard order; aggregates only hold counts, so the merged result is
+ *   identical for any number of shards.
+ * - Shard files left by an earlier run for the same strategy and seed range are reused: complete ones
+ *   as they are, partial ones as checkpoints. Files of any other shard layout are deleted.
+ */
+public final class ShardCoordinator {
+
+    public static final int MAX_RESTARTS = 3;
+    public static final int DEFAULT_CHECKPOINT_EVERY = 1000;
+
+    private static final long POLL_MILLIS = 20;
+
+    private final String strategyName;
+    private final long firstSeed;
+    private final long games;
+    private final int shards;
+    private final Path workDir;
+    private final List<String> jvmOptions;
+
+    public ShardCoordinator(String strategyName, long firstSeed, long games, int shards, Path workDir,
+                            List<String> jvmOptions) {
+        Objects.requireNonNull(strategyName, "strategyName is null");
+        Objects.requireNonNull(workDir, "workDir is null");
+        Objects.requireNonNull(jvmOptions, "jvmOptions is null");
+        Strategies.byName(strategyName); // fail fast on unknown names
+        if (games <= 0) throw new IllegalArgumentException("games must be positive");
+        if (shards <= 0 || shards > games) throw new IllegalArgumentException("shards must be in 1.." + games);
+
+        this.strategyName = strategyName;
+        this.firstSeed = firstSeed;
+        this.games = games;
+        this.shards = shards;
+        this.workDir = workDir;
+        this.jvmOptions = List.copyOf(jvmOptions);
+    }
+
+    public ShardRunReport run() throws IOException, InterruptedException {
+        return run(DEFAULT_CHECKPOINT_EVERY, 0);
+    }
+
+    /**
+     * Runs all shards to completion.
+     *
+     * @param checkpointEvery games between two checkpoints of a worker
+     * @param crashAfter      fault injection: if positive, the first run of every worker halts after that many games
+     */
+    public ShardRunReport run(int checkpointEvery, long crashAfter) throws IOException, InterruptedException {
+        if (checkpointEvery <= 0) throw new IllegalArgumentException("checkpointEvery must be positive");
+        Files.createDirectories(workDir);
+
+        long start = System.nanoTime();
+        Process[] running = new Process[shards];
+        int[] restarts = new int[shards];
+        int totalRestarts = 0;
+        try {
+            for (int k = 0; k < shards; k++) {
+                if (!prepare(k)) running[k] = launch(k, checkpointEvery, crashAfter);
+            }
+
+            int active = countRunning(running);
+            while (active > 0) {
+                Thread.sleep(POLL_MILLIS);
+                for (int k = 0; k < shards; k++) {
+                    Process p = running[k];
+                    if (p == null || p.isAlive()) continue;
+                    running[k] = null;
+                    if (p.exitValue() == 0 && isComplete(k)) continue;
+
+                    if (restarts[k] == MAX_RESTARTS) {
+                        throw new IllegalStateException("Shard " + k + " failed " + (MAX_RESTARTS + 1)
+                                + " times (exit code " + p.exitValue() + "), see " + logFile(k));
+                    }
+                    restarts[k]++;
+                    totalRestarts++;
+                    running[k] = launch(k, checkpointEvery, 0);
+                }
+                active = countRunning(running);
+            }
+        } finally {
+            for (Process p : running) {
+                if (p != null) p.destroyForcibly();
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+
+        SimulationAggregate total = new SimulationAggregate();
+        for (int k = 0; k < shards; k++) {
+            total.merge(SimulationAggregate.read(shardFile(k)).getAggregate());
+        }
+        return new ShardRunReport(strategyName, total, shards, totalRestarts, elapsed);
+    }
+
+    public Path shardFile(int shard) {
+        return workDir.resolve("shard-" + shard + ".bpsa");
+    }
+
+    // -------------------------
+    // Internal utilities
+    // -------------------------
+
+    private long shardFirstSeed(int shard) {
+        return firstSeed + games * shard / shards;
+    }
+
+    private Process launch(int shard, int checkpointEvery, long crashAfter) throws IOException {
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(jvmOptions);
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.add(ShardWorker.class.getName());
+        command.add(strategyName);
+        command.add(Long.toString(shardFirstSeed(shard)));
+        command.add(Long.toString(shardFirstSeed(shard + 1)));
+        command.add(shardFile(shard).toString());
+        command.add(Integer.toString(checkpointEvery));
+        if (crashAfter > 0) command.add(Long.toString(crashAfter));
+
+        return new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.appendTo(logFile(shard).toFile()))
+                .start();
+    }
+
+    private Path logFile(int shard) {
+        return workDir.resolve("shard-" + shard + ".log");
+    }
+
+    /**
+     * True if the shard file is a finished result of exactly this shard.
+     */
+    private boolean isComplete(int shard) {
+        SimulationAggregate.Checkpoint cp = readOwn(shard);
+        return cp != null && cp.isComplete();
+    }
+
+    /**
+     * Deletes a shard file that does not belong to this shard; returns true if the shard is already complete.
+     */
+    private boolean prepare(int shard) throws IOException {
+        SimulationAggregate.Checkpoint cp = readOwn(shard);
+        if (cp == null) Files.deleteIfExists(shardFile(shard));
+        return cp != null && cp.isComplete();
+    }
+
+    /**
+     * The shard file if it exists and was written for this strategy and seed range, else null.
+     */
+    private SimulationAggregate.Checkpoint readOwn(int shard) {
+        Path file = shardFile(shard);
+        if (!Files.exists(file)) return null;
+        try {
+            SimulationAggregate.Checkpoint cp = SimulationAggregate.read(file);
+            boolean own = cp.getStrategy().equals(strategyName)
+                    && cp.getFirstSeed() == shardFirstSeed(shard) && cp.getEndSeed() == shardFirstSeed(shard + 1);
+            return own ? cp : null;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private static int countRunning(Process[] running) {
+        int n = 0;
+        for (Process p : running) {
+            if (p != null) n++;
+        }
+        return n;
+    }
+}
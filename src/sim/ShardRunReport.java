@@ -0,0 +1,40 @@
+package sim;
+
+/**
+ * Merged result of a sharded simulation plus throughput.
+ */
+public final class ShardRunReport {
+
+    private final String strategy;
+    private final SimulationAggregate aggregate;
+    private final int shards;
+    private final int restarts;
+    private final long elapsedNanos;
+
+    ShardRunReport(String strategy, SimulationAggregate aggregate, int shards, int restarts, long elapsedNanos) {
+        this.strategy = strategy;
+        this.aggregate = aggregate;
+        this.shards = shards;
+        this.restarts = restarts;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public SimulationAggregate getAggregate() { return aggregate; }
+    public int getShards() { return shards; }
+
+    /** Worker processes started again after a crash. */
+    public int getRestarts() { return restarts; }
+
+    /**
+     * Games of the whole range per second of wall time (including process start-up).
+     */
+    public double getGamesPerSecond() {
+        return elapsedNanos == 0 ? 0.0 : aggregate.getGames() * 1e9 / elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s%n%s: %d shards, %d restarts, %.2f s => %.0f games/s",
+                aggregate, strategy, shards, restarts, elapsedNanos / 1e9, getGamesPerSecond());
+    }
+}
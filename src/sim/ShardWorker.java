@@ -0,0 +1,67 @@
+package sim;
+
+import puzzle.HeadlessGame;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Worker process of a ShardCoordinator: plays the seeds [firstSeed, endSeed) with one strategy
+ * and keeps the SimulationAggregate of its shard in one file.
+ *
+ * The file doubles as the checkpoint: it is rewritten every `checkpointEvery` games with the next
+ * seed to play, and a restarted worker resumes from there (games played after the last checkpoint
+ * are simply played again, so nothing is counted twice). The file is complete when the next seed
+ * equals the end seed.
+ *
+ * Usage: java sim.ShardWorker strategy firstSeed endSeed file checkpointEvery [crashAfter]
+ * crashAfter (fault injection) halts the JVM without any cleanup after that many games of this run.
+ */
+public final class ShardWorker {
+
+    private ShardWorker() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 5) {
+            System.err.println("Usage: java sim.ShardWorker strategy firstSeed endSeed file checkpointEvery [crashAfter]");
+            System.exit(2);
+        }
+        String strategyName = args[0];
+        long firstSeed = Long.parseLong(args[1]);
+        long endSeed = Long.parseLong(args[2]);
+        Path file = Path.of(args[3]);
+        int checkpointEvery = Integer.parseInt(args[4]);
+        long crashAfter = args.length > 5 ? Long.parseLong(args[5]) : 0;
+        if (checkpointEvery <= 0) throw new IllegalArgumentException("checkpointEvery must be positive");
+
+        SimulationAggregate aggregate = new SimulationAggregate();
+        long next = firstSeed;
+        if (Files.exists(file)) {
+            SimulationAggregate.Checkpoint cp = SimulationAggregate.read(file);
+            if (!cp.getStrategy().equals(strategyName) || cp.getFirstSeed() != firstSeed || cp.getEndSeed() != endSeed) {
+                throw new IllegalArgumentException("Checkpoint " + file + " belongs to another shard");
+            }
+            aggregate = cp.getAggregate();
+            next = cp.getNextSeed();
+        }
+
+        Strategy strategy = Strategies.byName(strategyName);
+        long played = 0;
+        while (next < endSeed) {
+            long seed = next;
+            aggregate.addGame(GameRunner.play(strategy, HeadlessGame.fromSeed(seed), seed, aggregate));
+            next++;
+            played++;
+
+            if (crashAfter > 0 && played == crashAfter) {
+                Runtime.getRuntime().halt(3);
+            }
+            if (played % checkpointEvery == 0 && next < endSeed) {
+                aggregate.write(file, strategyName, firstSeed, endSeed, next);
+            }
+        }
+        aggregate.write(file, strategyName, firstSeed, endSeed, endSeed);
+    }
+}
@@ -0,0 +1,238 @@
+package sim;
+
+import puzzle.HeadlessGame;
+import puzzle.TurnAction;
+import puzzle.TurnOutcome;
+import tools.ToolKind;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Integer-only summary of simulated games: score histogram, failures, turns, wasted turns per
+ * outcome, and tools found / wasted per kind. Also a TurnListener, so it can be passed to GameRunner.
+ *
+ * Every field is a count, so merge() is exact and order-independent: the merged result of a seed
+ * range is the same however it was split into shards. Not thread-safe: keep one per thread or process.
+ *
+ * File layout (little-endian), used for shard results and checkpoints:
+ *   header: magic "BPSA", format version, strategy name (int length + UTF-16 chars),
+ *           long first seed, long end seed (exclusive), long next seed (== end seed once complete)
+ *   body: every counter as a long, in declaration order (games, failures, turns, histogram, wasted, tools)
+ */
+public final class SimulationAggregate implements TurnListener {
+
+    public static final int FORMAT_VERSION = 1;
+
+    private static final int MAGIC = 0x41535042; // "BPSA" in little-endian
+    private static final TurnOutcome[] OUTCOMES = TurnOutcome.values();
+    private static final int KINDS = ToolKind.values().length;
+
+    private long games;
+    private long failures;
+    private long turns;
+    private final long[] scoreHistogram = new long[CalibrationReport.MAX_SCORE + 1];
+    private final long[] wasted = new long[OUTCOMES.length];     // by TurnOutcome (OK stays 0)
+    private final long[] toolsFound = new long[KINDS];
+    private final long[] toolsWasted = new long[KINDS];
+
+    // -------------------------
+    // Recording
+    // -------------------------
+
+    @Override
+    public void onTurn(long seed, TurnAction action, int scoreBefore, HeadlessGame game) {
+        turns++;
+        TurnOutcome outcome = game.getLastOutcome();
+        if (outcome.isWasted()) wasted[outcome.ordinal()]++;
+        ToolKind kind = game.getLastToolKind();
+        if (kind != null) {
+            toolsFound[kind.ordinal()]++;
+            if (outcome.isWasted()) toolsWasted[kind.ordinal()]++;
+        }
+    }
+
+    /**
+     * Counts a finished game (its turns are counted by onTurn()).
+     */
+    public void addGame(GameResult result) {
+        games++;
+        if (result.isFailed()) failures++;
+        scoreHistogram[result.getScore()]++;
+    }
+
+    public void merge(SimulationAggregate other) {
+        games += other.games;
+        failures += other.failures;
+        turns += other.turns;
+        add(scoreHistogram, other.scoreHistogram);
+        add(wasted, other.wasted);
+        add(toolsFound, other.toolsFound);
+        add(toolsWasted, other.toolsWasted);
+    }
+
+    // -------------------------
+    // Queries
+    // -------------------------
+
+    public long getGames() { return games; }
+    public long getFailures() { return failures; }
+    public long getTurns() { return turns; }
+    public long getGamesWithScore(int score) { return scoreHistogram[score]; }
+    public long getWasted(TurnOutcome outcome) { return wasted[outcome.ordinal()]; }
+    public long getToolsFound(ToolKind kind) { return toolsFound[kind.ordinal()]; }
+    public long getToolsWasted(ToolKind kind) { return toolsWasted[kind.ordinal()]; }
+
+    public long getWastedTurns() {
+        long n = 0;
+        for (long w : wasted) n += w;
+        return n;
+    }
+
+    /**
+     * Mean final score, computed from the histogram (so it is exact for any shard split).
+     */
+    public double getMean() {
+        if (games == 0) return 0.0;
+        long sum = 0;
+        for (int s = 0; s < scoreHistogram.length; s++) sum += s * scoreHistogram[s];
+        return (double) sum / games;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof SimulationAggregate a && a.games == games && a.failures == failures && a.turns == turns
+                && Arrays.equals(a.scoreHistogram, scoreHistogram) && Arrays.equals(a.wasted, wasted)
+                && Arrays.equals(a.toolsFound, toolsFound) && Arrays.equals(a.toolsWasted, toolsWasted);
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(games) * 31 + Arrays.hashCode(scoreHistogram);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("games=%d, mean=%.3f, failures=%d, turns=%d, wasted=%d%n",
+                games, getMean(), failures, turns, getWastedTurns()));
+        sb.append("wasted by reason:");
+        for (TurnOutcome o : OUTCOMES) {
+            if (o.isWasted()) sb.append(' ').append(o).append('=').append(wasted[o.ordinal()]);
+        }
+        sb.append(String.format("%ntools (found/wasted):"));
+        for (ToolKind k : ToolKind.values()) {
+            sb.append(' ').append(k).append('=').append(toolsFound[k.ordinal()]).append('/').append(toolsWasted[k.ordinal()]);
+        }
+        return sb.toString();
+    }
+
+    // -------------------------
+    // Files
+    // -------------------------
+
+    /**
+     * Progress of a shard: the seeds [firstSeed, nextSeed) are counted in the aggregate.
+     */
+    public static final class Checkpoint {
+
+        private final String strategy;
+        private final long firstSeed;
+        private final long endSeed;
+        private final long nextSeed;
+        private final SimulationAggregate aggregate;
+
+        private Checkpoint(String strategy, long firstSeed, long endSeed, long nextSeed, SimulationAggregate aggregate) {
+            this.strategy = strategy;
+            this.firstSeed = firstSeed;
+            this.endSeed = endSeed;
+            this.nextSeed = nextSeed;
+            this.aggregate = aggregate;
+        }
+
+        public String getStrategy() { return strategy; }
+        public long getFirstSeed() { return firstSeed; }
+        public long getEndSeed() { return endSeed; }
+        public long getNextSeed() { return nextSeed; }
+        public SimulationAggregate getAggregate() { return aggregate; }
+
+        public boolean isComplete() {
+            return nextSeed == endSeed;
+        }
+    }
+
+    /**
+     * Writes the aggregate and its position to a temporary file, then moves it over the old one,
+     * so a crash never leaves a half-written file behind.
+     */
+    public void write(Path file, String strategy, long firstSeed, long endSeed, long nextSeed) throws IOException {
+        int counters = 3 + scoreHistogram.length + wasted.length + 2 * KINDS;
+        ByteBuffer out = ByteBuffer.allocate(12 + 2 * strategy.length() + 24 + 8 * counters)
+                .order(ByteOrder.LITTLE_ENDIAN);
+        out.putInt(MAGIC).putInt(FORMAT_VERSION).putInt(strategy.length());
+        for (int i = 0; i < strategy.length(); i++) out.putChar(strategy.charAt(i));
+        out.putLong(firstSeed).putLong(endSeed).putLong(nextSeed);
+        out.putLong(games).putLong(failures).putLong(turns);
+        for (long v : scoreHistogram) out.putLong(v);
+        for (long v : wasted) out.putLong(v);
+        for (long v : toolsFound) out.putLong(v);
+        for (long v : toolsWasted) out.putLong(v);
+        out.flip();
+
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel ch = FileChannel.open(tmp,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (out.hasRemaining()) ch.write(out);
+            ch.force(true);
+        }
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Reads a file written by write().
+     */
+    public static Checkpoint read(Path file) throws IOException {
+        ByteBuffer in = ByteBuffer.wrap(Files.readAllBytes(file)).order(ByteOrder.LITTLE_ENDIAN);
+        try {
+            if (in.getInt() != MAGIC || in.getInt() != FORMAT_VERSION) {
+                throw new IOException("Not a simulation aggregate of format version " + FORMAT_VERSION + ": " + file);
+            }
+            char[] name = new char[in.getInt()];
+            for (int i = 0; i < name.length; i++) name[i] = in.getChar();
+            long first = in.getLong();
+            long end = in.getLong();
+            long next = in.getLong();
+
+            SimulationAggregate a = new SimulationAggregate();
+            a.games = in.getLong();
+            a.failures = in.getLong();
+            a.turns = in.getLong();
+            read(in, a.scoreHistogram);
+            read(in, a.wasted);
+            read(in, a.toolsFound);
+            read(in, a.toolsWasted);
+            return new Checkpoint(new String(name), first, end, next, a);
+        } catch (RuntimeException e) {
+            throw new IOException("Truncated simulation aggregate: " + file, e);
+        }
+    }
+
+    // -------------------------
+    // Internal utilities
+    // -------------------------
+
+    private static void add(long[] into, long[] from) {
+        for (int i = 0; i < into.length; i++) into[i] += from[i];
+    }
+
+    private static void read(ByteBuffer in, long[] into) {
+        for (int i = 0; i < into.length; i++) into[i] = in.getLong();
+    }
+}
@@ -0,0 +1,39 @@
+package sim;
+
+import search.HintService;
+import storage.OpeningBook;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Name-based lookup of the available strategies (for command-line tools).
+ */
+public final class Strategies {
+
+    private Strategies() {
+        // utility class; prevent instantiation
+    }
+
+    public static Strategy byName(String name) {
+        return byName(name, null);
+    }
+
+    /**
+     * Same as byName(name); searching strategies also consult and fill the given opening book (may be null).
+     * "search" searches 2 turns deep on the first turn (the part the book stores) and 1 turn deep later.
+     */
+    public static Strategy byName(String name, OpeningBook book) {
+        return switch (name.trim().toLowerCase(Locale.ROOT)) {
+            case "random" -> new RandomStrategy();
+            case "greedy" -> new GreedyStrategy();
+            case "eval" -> new EvalStrategy();
+            case "search" -> new SearchStrategy(new HintService(book, 2, 1));
+            default -> throw new IllegalArgumentException("Unknown strategy: " + name);
+        };
+    }
+
+    public static List<String> names() {
+        return List.of("random", "greedy", "eval", "search");
+    }
+}
@@ -0,0 +1,21 @@
+package sim;
+
+import puzzle.HeadlessGame;
+import puzzle.TurnAction;
+
+import java.util.Random;
+
+/**
+ * A bot that decides whole turns for headless games.
+ * Implementations are called from many threads at once, so they must not keep per-game state;
+ * any randomness must come from the given Random (one per game, seeded from the board seed).
+ */
+public interface Strategy {
+
+    String getName();
+
+    /**
+     * Chooses the next turn. The game is a private copy and may be inspected or played freely.
+     */
+    TurnAction chooseTurn(HeadlessGame game, Random random);
+}
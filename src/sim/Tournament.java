@@ -0,0 +1,107 @@
+package sim;
+
+import puzzle.HeadlessGame;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Plays every strategy on the same seeded boards and compares their final scores.
+ *
+ * - Each seed is generated once and every strategy plays its own copy of that board.
+ * - Seeds are handed out in chunks to a fixed thread pool; each thread keeps its own
+ *   RunningStats, merged at the end, so threads never contend and memory stays constant.
+ * - Individual GameResults are not stored; pass a listener to stream them somewhere.
+ */
+public class Tournament {
+
+    private static final int CHUNK_SIZE = 64;
+
+    private final List<Strategy> strategies;
+    private final long firstSeed;
+    private final long seedCount;
+    private final int threads;
+
+    public Tournament(List<Strategy> strategies, long firstSeed, long seedCount, int threads) {
+        Objects.requireNonNull(strategies, "strategies is null");
+        if (strategies.isEmpty()) throw new IllegalArgumentException("At least one strategy is required.");
+        if (seedCount <= 0) throw new IllegalArgumentException("seedCount must be positive");
+        if (threads <= 0) throw new IllegalArgumentException("threads must be positive");
+
+        this.strategies = List.copyOf(strategies);
+        this.firstSeed = firstSeed;
+        this.seedCount = seedCount;
+        this.threads = threads;
+    }
+
+    public TournamentReport run() throws InterruptedException {
+        return run(null);
+    }
+
+    /**
+     * Runs all games. The listener (may be null) is called from worker threads for every game
+     * and must be thread-safe.
+     */
+    public TournamentReport run(Consumer<GameResult> listener) throws InterruptedException {
+        AtomicLong nextChunk = new AtomicLong();
+        long chunks = (seedCount + CHUNK_SIZE - 1) / CHUNK_SIZE;
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        long start = System.nanoTime();
+        try {
+            List<Future<RunningStats[]>> futures = new ArrayList<>(threads);
+            for (int t = 0; t < threads; t++) {
+                futures.add(pool.submit(worker(nextChunk, chunks, listener)));
+            }
+
+            RunningStats[] total = newStats();
+            for (Future<RunningStats[]> f : futures) {
+                RunningStats[] part = f.get();
+                for (int i = 0; i < total.length; i++) total[i].merge(part[i]);
+            }
+
+            long elapsed = System.nanoTime() - start;
+            List<String> names = new ArrayList<>(strategies.size());
+            for (Strategy s : strategies) names.add(s.getName());
+            return new TournamentReport(names, total, elapsed, threads);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("A tournament game failed: " + e.getCause(), e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private Callable<RunningStats[]> worker(AtomicLong nextChunk, long chunks, Consumer<GameResult> listener) {
+        return () -> {
+            RunningStats[] local = newStats();
+            long chunk;
+            while ((chunk = nextChunk.getAndIncrement()) < chunks) {
+                long from = firstSeed + chunk * CHUNK_SIZE;
+                long to = Math.min(firstSeed + seedCount, from + CHUNK_SIZE);
+                for (long seed = from; seed < to; seed++) {
+                    HeadlessGame board = HeadlessGame.fromSeed(seed);
+                    for (int i = 0; i < strategies.size(); i++) {
+                        GameResult result = GameRunner.play(strategies.get(i), new HeadlessGame(board), seed);
+                        local[i].add(result);
+                        if (listener != null) listener.accept(result);
+                    }
+                }
+            }
+            return local;
+        };
+    }
+
+    private RunningStats[] newStats() {
+        RunningStats[] stats = new RunningStats[strategies.size()];
+        for (int i = 0; i < stats.length; i++) stats[i] = new RunningStats();
+        return stats;
+    }
+}
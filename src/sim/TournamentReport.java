@@ -0,0 +1,48 @@
+package sim;
+
+import java.util.List;
+
+/**
+ * Per-strategy statistics of a tournament plus throughput.
+ */
+public final class TournamentReport {
+
+    private final List<String> names;
+    private final RunningStats[] stats;
+    private final long elapsedNanos;
+    private final int threads;
+
+    TournamentReport(List<String> names, RunningStats[] stats, long elapsedNanos, int threads) {
+        this.names = List.copyOf(names);
+        this.stats = stats;
+        this.elapsedNanos = elapsedNanos;
+        this.threads = threads;
+    }
+
+    public RunningStats getStats(String strategyName) {
+        int i = names.indexOf(strategyName);
+        if (i < 0) throw new IllegalArgumentException("Unknown strategy: " + strategyName);
+        return stats[i];
+    }
+
+    public long getTotalGames() {
+        long games = 0;
+        for (RunningStats s : stats) games += s.getGames();
+        return games;
+    }
+
+    public double getGamesPerSecond() {
+        return elapsedNanos == 0 ? 0.0 : getTotalGames() * 1e9 / elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < names.size(); i++) {
+            sb.append(String.format("%-12s %s%n", names.get(i), stats[i]));
+        }
+        sb.append(String.format("%d games on %d threads in %.2f s => %.0f games/s",
+                getTotalGames(), threads, elapsedNanos / 1e9, getGamesPerSecond()));
+        return sb.toString();
+    }
+}
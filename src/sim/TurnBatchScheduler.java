@@ -0,0 +1,214 @@
+package sim;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Steps many BotSessions on a few threads, in batches, instead of one thread per session.
+ *
+ * Sessions are spread round-robin over the shards (one thread each, normally one per core) and stay
+ * on their shard. A shard repeatedly takes up to batchSize sessions that are ready and plays one turn
+ * of each, stage by stage: every bot decides, then every roll stage is played, then every tool stage
+ * (HeadlessGame.playRollStage / playToolStage), so the same code and data stay hot across the batch.
+ *
+ * Fairness: a shard takes ready sessions in the order they became ready (ties by id), and a batch plays
+ * at most one turn per session. A session that became ready is therefore never overtaken by one that
+ * became ready after it, and waits for at most ceil(sessions ready before it / batchSize) batches.
+ *
+ * Latency is accounted per session and per turn by BotSession (from ready to end of the tool stage).
+ * Java cannot pin threads to cores; shard threads are simply as many as the given shard count.
+ */
+public final class TurnBatchScheduler implements AutoCloseable {
+
+    private static final Comparator<BotSession> READY_ORDER =
+            Comparator.comparingLong(BotSession::getReadyAt).thenComparingInt(BotSession::getId);
+
+    private final int batchSize;
+    private final Shard[] shards;
+    private int submitted;
+    private int active;
+    private RuntimeException failure;
+
+    public TurnBatchScheduler(int shardCount, int batchSize) {
+        if (shardCount <= 0) throw new IllegalArgumentException("shardCount must be positive");
+        if (batchSize <= 0) throw new IllegalArgumentException("batchSize must be positive");
+
+        this.batchSize = batchSize;
+        this.shards = new Shard[shardCount];
+        for (int i = 0; i < shardCount; i++) {
+            shards[i] = new Shard("turn-shard-" + i);
+        }
+    }
+
+    /**
+     * Adds a session; it is ready at once and runs until it has played all its games.
+     */
+    public void submit(BotSession session) {
+        submit(session, System.nanoTime());
+    }
+
+    /**
+     * Adds a session that becomes ready at the given System.nanoTime().
+     */
+    public void submit(BotSession session, long readyAtNanos) {
+        Objects.requireNonNull(session, "session is null");
+        if (session.isDone()) return;
+
+        Shard shard;
+        synchronized (this) {
+            if (failure != null) throw new IllegalStateException("The scheduler has failed.", failure);
+            shard = shards[submitted++ % shards.length];
+            active++;
+        }
+        session.start(readyAtNanos);
+        shard.add(session);
+    }
+
+    /**
+     * Waits until every submitted session is done.
+     *
+     * @throws IllegalStateException if a session threw (the scheduler then stops)
+     */
+    public synchronized void awaitAll() throws InterruptedException {
+        while (active > 0 && failure == null) {
+            wait();
+        }
+        if (failure != null) throw new IllegalStateException("A session failed: " + failure, failure);
+    }
+
+    /**
+     * Stops the shard threads; sessions still waiting are dropped.
+     */
+    @Override
+    public void close() {
+        for (Shard s : shards) s.close();
+    }
+
+    // -------------------------
+    // Statistics
+    // -------------------------
+
+    public int getShardCount() {
+        return shards.length;
+    }
+
+    public long getBatches() {
+        long n = 0;
+        for (Shard s : shards) n += s.getBatches();
+        return n;
+    }
+
+    public long getTurns() {
+        long n = 0;
+        for (Shard s : shards) n += s.getTurns();
+        return n;
+    }
+
+    // -------------------------
+    // Internal utilities
+    // -------------------------
+
+    private synchronized void done() {
+        if (--active == 0) notifyAll();
+    }
+
+    private synchronized void fail(RuntimeException e) {
+        if (failure == null) failure = e;
+        notifyAll();
+        close();
+    }
+
+    /**
+     * One thread and its queue of sessions, ordered by the time they become ready.
+     */
+    private final class Shard implements Runnable {
+
+        private final PriorityQueue<BotSession> waiting = new PriorityQueue<>(READY_ORDER);
+        private final Thread thread;
+        private boolean closed;
+        private long batches;
+        private long turns;
+
+        Shard(String name) {
+            thread = new Thread(this, name);
+            thread.setDaemon(true);
+            thread.start();
+        }
+
+        void add(BotSession session) {
+            synchronized (this) {
+                waiting.add(session);
+            }
+            LockSupport.unpark(thread);
+        }
+
+        void close() {
+            synchronized (this) {
+                closed = true;
+            }
+            LockSupport.unpark(thread);
+        }
+
+        synchronized long getBatches() { return batches; }
+        synchronized long getTurns() { return turns; }
+
+        @Override
+        public void run() {
+            List<BotSession> batch = new ArrayList<>(batchSize);
+            try {
+                while (takeBatch(batch)) {
+                    for (BotSession s : batch) s.decide();
+                    for (BotSession s : batch) s.playRollStage();
+                    for (BotSession s : batch) s.playToolStage();
+                    long end = System.nanoTime();
+
+                    synchronized (this) {
+                        for (BotSession s : batch) {
+                            s.endTurn(end);
+                            if (!s.isDone()) waiting.add(s);
+                        }
+                        batches++;
+                        turns += batch.size();
+                    }
+                    for (BotSession s : batch) {
+                        if (s.isDone()) done();
+                    }
+                    batch.clear();
+                }
+            } catch (RuntimeException e) {
+                fail(e);
+            }
+        }
+
+        /**
+         * Waits until a session is ready, then moves up to batchSize ready sessions into the batch.
+         * Returns false once the shard is closed (or its thread interrupted).
+         *
+         * Parks outside the lock rather than using wait(): a timed wait() rounds up to whole milliseconds,
+         * which would add up to a millisecond to every turn; add() and close() unpark the thread.
+         */
+        private boolean takeBatch(List<BotSession> batch) {
+            while (!Thread.currentThread().isInterrupted()) {
+                long waitNanos;
+                synchronized (this) {
+                    if (closed) return false;
+                    long now = System.nanoTime();
+                    BotSession first = waiting.peek();
+                    if (first != null && first.getReadyAt() <= now) {
+                        while (batch.size() < batchSize && !waiting.isEmpty() && waiting.peek().getReadyAt() <= now) {
+                            batch.add(waiting.poll());
+                        }
+                        return true;
+                    }
+                    waitNanos = first == null ? Long.MAX_VALUE : first.getReadyAt() - now;
+                }
+                LockSupport.parkNanos(this, waitNanos);
+            }
+            return false;
+        }
+    }
+}
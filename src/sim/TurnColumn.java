@@ -0,0 +1,33 @@
+package sim;
+
+/**
+ * Columns of the per-turn export (see TurnRecordWriter), in file order.
+ * Cells are stored as row-major indexes 0..63 (-1 = none); tool kinds as ToolKind ordinal (-1 = none).
+ * FAILURE codes (TurnOutcome): 0 = none, 1 = UnmovableFixedBox, 2 = EmptyBox, 3 = BoxAlreadyFixed.
+ */
+public enum TurnColumn {
+    SEED(8),
+    TURN(1),
+    EDGE(1),
+    DIRECTION(1),
+    RUN_LENGTH(1),
+    OPENED(1),
+    TOOL_KIND(1),
+    TOOL_TARGET(1),
+    SCORE_BEFORE(1),
+    SCORE_AFTER(1),
+    FAILURE(1);
+
+    private final int width;
+
+    TurnColumn(int width) {
+        this.width = width;
+    }
+
+    /**
+     * Bytes per value.
+     */
+    public int getWidth() {
+        return width;
+    }
+}
@@ -0,0 +1,19 @@
+package sim;
+
+import puzzle.HeadlessGame;
+import puzzle.TurnAction;
+
+/**
+ * Called by GameRunner after every turn of a headless game.
+ */
+@FunctionalInterface
+public interface TurnListener {
+
+    /**
+     * @param seed        board seed of the game
+     * @param action      the action just played
+     * @param scoreBefore target-letter count before the turn
+     * @param game        the game after the turn (getLastRunLength/getLastToolKind/getLastFailure describe it)
+     */
+    void onTurn(long seed, TurnAction action, int scoreBefore, HeadlessGame game);
+}
@@ -0,0 +1,146 @@
+package sim;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+import java.util.function.LongConsumer;
+
+/**
+ * Reads files written by TurnRecordWriter.
+ * scan() reads only the requested column(s) of every block and skips the others by offset,
+ * so scanning one column costs roughly that column's size on disk.
+ */
+public final class TurnRecordReader implements AutoCloseable {
+
+    private static final TurnColumn[] COLUMNS = TurnRecordWriter.COLUMNS;
+    private static final int BLOCK_HEADER_SIZE = 4 + 4 * COLUMNS.length;
+
+    private final FileChannel channel;
+
+    public TurnRecordReader(Path file) throws IOException {
+        this.channel = FileChannel.open(file, StandardOpenOption.READ);
+        ByteBuffer header = readAt(0, 12);
+        if (header.getInt() != TurnRecordWriter.MAGIC
+                || header.getInt() != TurnRecordWriter.FORMAT_VERSION
+                || header.getInt() != COLUMNS.length) {
+            channel.close();
+            throw new IOException("Not a turn record file of format version " + TurnRecordWriter.FORMAT_VERSION + ": " + file);
+        }
+    }
+
+    /**
+     * Total number of records (reads only the block headers).
+     */
+    public long countRecords() throws IOException {
+        long total = 0;
+        long pos = 12;
+        while (pos < channel.size()) {
+            ByteBuffer h = readAt(pos, BLOCK_HEADER_SIZE);
+            total += h.getInt();
+            pos += blockSize(h);
+        }
+        return total;
+    }
+
+    /**
+     * Passes every value of one column, in record order, to the consumer.
+     */
+    public void scan(TurnColumn column, LongConsumer consumer) throws IOException {
+        Objects.requireNonNull(column, "column is null");
+        Objects.requireNonNull(consumer, "consumer is null");
+
+        ByteBuffer data = ByteBuffer.allocate(0);
+        long pos = 12;
+        while (pos < channel.size()) {
+            ByteBuffer h = readAt(pos, BLOCK_HEADER_SIZE);
+            int count = h.getInt();
+            data = readColumn(pos, h, column, data);
+            for (int i = 0; i < count; i++) {
+                consumer.accept(value(data, column, i));
+            }
+            pos += blockSize(h);
+        }
+    }
+
+    /**
+     * Passes the values of two columns, record by record, to the consumer.
+     * Only those two columns are read, one block at a time, so memory stays bounded.
+     */
+    public void scan(TurnColumn first, TurnColumn second, PairConsumer consumer) throws IOException {
+        Objects.requireNonNull(first, "first column is null");
+        Objects.requireNonNull(second, "second column is null");
+        Objects.requireNonNull(consumer, "consumer is null");
+
+        ByteBuffer a = ByteBuffer.allocate(0);
+        ByteBuffer b = ByteBuffer.allocate(0);
+        long pos = 12;
+        while (pos < channel.size()) {
+            ByteBuffer h = readAt(pos, BLOCK_HEADER_SIZE);
+            int count = h.getInt();
+            a = readColumn(pos, h, first, a);
+            b = readColumn(pos, h, second, b);
+            for (int i = 0; i < count; i++) {
+                consumer.accept(value(a, first, i), value(b, second, i));
+            }
+            pos += blockSize(h);
+        }
+    }
+
+    /**
+     * Receives the values of one record from two columns.
+     */
+    @FunctionalInterface
+    public interface PairConsumer {
+        void accept(long first, long second);
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * Reads one column of the block at pos into data (reallocated if too small) and returns it.
+     */
+    private ByteBuffer readColumn(long pos, ByteBuffer header, TurnColumn column, ByteBuffer data) throws IOException {
+        long offset = pos + BLOCK_HEADER_SIZE;
+        for (int c = 0; c < column.ordinal(); c++) offset += header.getInt(4 + 4 * c);
+        int length = header.getInt(4 + 4 * column.ordinal());
+
+        if (data.capacity() < length) {
+            data = ByteBuffer.allocate(length).order(ByteOrder.LITTLE_ENDIAN);
+        }
+        data.clear().limit(length);
+        readFully(data, offset);
+        return data;
+    }
+
+    private static long value(ByteBuffer data, TurnColumn column, int i) {
+        return column.getWidth() == 8 ? data.getLong(i * 8) : data.get(i);
+    }
+
+    private static long blockSize(ByteBuffer header) {
+        long size = BLOCK_HEADER_SIZE;
+        for (int c = 0; c < COLUMNS.length; c++) size += header.getInt(4 + 4 * c);
+        return size;
+    }
+
+    private ByteBuffer readAt(long pos, int length) throws IOException {
+        ByteBuffer buf = ByteBuffer.allocate(length).order(ByteOrder.LITTLE_ENDIAN);
+        readFully(buf, pos);
+        return buf.flip();
+    }
+
+    private void readFully(ByteBuffer buf, long pos) throws IOException {
+        while (buf.hasRemaining()) {
+            int n = channel.read(buf, pos);
+            if (n < 0) throw new EOFException("Truncated turn record file");
+            pos += n;
+        }
+    }
+}
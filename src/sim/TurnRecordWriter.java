@@ -0,0 +1,218 @@
+package sim;
+
+import grid.BoxGrid;
+import grid.Position;
+import puzzle.HeadlessGame;
+import puzzle.TurnAction;
+import puzzle.TurnOutcome;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Streams per-turn records of simulated games to a file as column blocks.
+ *
+ * File layout (little-endian):
+ *   header: magic "BPTR", format version, column count
+ *   blocks: int record count, int byte length of every column, then the columns one after another
+ *
+ * Records are collected in a block; a full block is handed to a background thread that writes it
+ * (one write per block) while the simulation keeps filling a second block. Only two blocks exist,
+ * so memory is bounded and a slow disk slows the producer down instead of growing a queue.
+ *
+ * One writer per simulation thread: the writer itself is not thread-safe.
+ */
+public final class TurnRecordWriter implements TurnListener, AutoCloseable {
+
+    static final int MAGIC = 0x52545042; // "BPTR" in little-endian
+    static final int FORMAT_VERSION = 1;
+    static final TurnColumn[] COLUMNS = TurnColumn.values();
+
+    public static final int DEFAULT_BLOCK_SIZE = 1 << 16;
+
+    private static final Block END = new Block(0);
+
+    private final FileChannel channel;
+    private final BlockingQueue<Block> full = new ArrayBlockingQueue<>(1);
+    private final BlockingQueue<Block> free = new ArrayBlockingQueue<>(2);
+    private final Thread writerThread;
+    private volatile IOException writeError;
+
+    private Block current;
+    private boolean closed;
+
+    public TurnRecordWriter(Path file) throws IOException {
+        this(file, DEFAULT_BLOCK_SIZE);
+    }
+
+    public TurnRecordWriter(Path file, int blockSize) throws IOException {
+        if (blockSize <= 0) throw new IllegalArgumentException("blockSize must be positive");
+
+        this.channel = FileChannel.open(file,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        ByteBuffer header = ByteBuffer.allocate(12).order(ByteOrder.LITTLE_ENDIAN);
+        header.putInt(MAGIC).putInt(FORMAT_VERSION).putInt(COLUMNS.length).flip();
+        writeFully(header);
+
+        this.current = new Block(blockSize);
+        this.free.add(new Block(blockSize));
+        this.writerThread = new Thread(this::writeLoop, "turn-record-writer");
+        this.writerThread.start();
+    }
+
+    // -------------------------
+    // Recording
+    // -------------------------
+
+    @Override
+    public void onTurn(long seed, TurnAction action, int scoreBefore, HeadlessGame game) {
+        Position target = action.getToolTarget();
+        write(seed, game.getTurn() - 1, cellIndex(action.getEdge()), action.getDirection().ordinal(),
+                game.getLastRunLength(), cellIndex(action.getOpen()),
+                game.getLastToolKind() == null ? -1 : game.getLastToolKind().ordinal(),
+                game.getLastToolKind() == null ? -1 : cellIndex(target),
+                scoreBefore, game.score(), failureCode(game.getLastOutcome()));
+    }
+
+    /**
+     * Appends one record (values as described in TurnColumn).
+     */
+    public void write(long seed, int turn, int edge, int direction, int runLength, int opened,
+                      int toolKind, int toolTarget, int scoreBefore, int scoreAfter, int failure) {
+        if (closed) throw new IllegalStateException("Writer is closed.");
+
+        Block b = current;
+        int i = b.count++;
+        b.columns[0].putLong(i * 8, seed);
+        b.columns[1].put(i, (byte) turn);
+        b.columns[2].put(i, (byte) edge);
+        b.columns[3].put(i, (byte) direction);
+        b.columns[4].put(i, (byte) runLength);
+        b.columns[5].put(i, (byte) opened);
+        b.columns[6].put(i, (byte) toolKind);
+        b.columns[7].put(i, (byte) toolTarget);
+        b.columns[8].put(i, (byte) scoreBefore);
+        b.columns[9].put(i, (byte) scoreAfter);
+        b.columns[10].put(i, (byte) failure);
+
+        if (b.count == b.capacity) {
+            submit();
+        }
+    }
+
+    /**
+     * FAILURE column code of a turn outcome (see TurnColumn).
+     */
+    public static int failureCode(TurnOutcome outcome) {
+        return switch (outcome) {
+            case OK -> 0;
+            case UNMOVABLE_FIXED_BOX -> 1;
+            case EMPTY_BOX -> 2;
+            case BOX_ALREADY_FIXED -> 3;
+        };
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) return;
+        if (current.count > 0) submit();
+        closed = true;
+        try {
+            full.put(END);
+            writerThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while closing the writer", e);
+        } finally {
+            channel.close();
+        }
+        rethrowWriteError();
+    }
+
+    // -------------------------
+    // Background writing
+    // -------------------------
+
+    private void submit() {
+        try {
+            rethrowWriteError();
+            full.put(current);
+            current = free.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while handing a block to the writer", e);
+        } catch (IOException e) {
+            throw new IllegalStateException("Writing turn records failed: " + e.getMessage(), e);
+        }
+    }
+
+    private void writeLoop() {
+        try {
+            while (true) {
+                Block b = full.take();
+                if (b == END) return;
+                if (writeError == null) {
+                    try {
+                        writeBlock(b);
+                    } catch (IOException e) {
+                        writeError = e;
+                    }
+                }
+                b.count = 0;
+                free.put(b);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void writeBlock(Block b) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(4 + 4 * COLUMNS.length).order(ByteOrder.LITTLE_ENDIAN);
+        header.putInt(b.count);
+        for (TurnColumn c : COLUMNS) header.putInt(b.count * c.getWidth());
+        header.flip();
+
+        ByteBuffer[] parts = new ByteBuffer[COLUMNS.length + 1];
+        parts[0] = header;
+        for (int c = 0; c < COLUMNS.length; c++) {
+            parts[c + 1] = b.columns[c].duplicate().position(0).limit(b.count * COLUMNS[c].getWidth());
+        }
+        long remaining = 0;
+        for (ByteBuffer p : parts) remaining += p.remaining();
+        while (remaining > 0) {
+            remaining -= channel.write(parts);
+        }
+    }
+
+    private void writeFully(ByteBuffer buf) throws IOException {
+        while (buf.hasRemaining()) channel.write(buf);
+    }
+
+    private void rethrowWriteError() throws IOException {
+        if (writeError != null) throw writeError;
+    }
+
+    private static int cellIndex(Position p) {
+        return p == null ? -1 : (p.getRow() - 1) * BoxGrid.SIZE + (p.getCol() - 1);
+    }
+
+    private static final class Block {
+        final int capacity;
+        final ByteBuffer[] columns;
+        int count;
+
+        Block(int capacity) {
+            this.capacity = capacity;
+            this.columns = new ByteBuffer[COLUMNS.length];
+            for (int c = 0; c < COLUMNS.length; c++) {
+                columns[c] = ByteBuffer.allocate(capacity * COLUMNS[c].getWidth()).order(ByteOrder.LITTLE_ENDIAN);
+            }
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package spectator;
+
+import java.util.ArrayDeque;
+
+/**
+ * One watcher of a SpectatorHub: a bounded queue of shared frames, drained by whatever sends them
+ * to the watcher (a socket writer in SpectatorServer, or a plain thread).
+ *
+ * When the queue is full, the queued frames are dropped and the connection stops taking deltas;
+ * the next take() then returns a keyframe of the board as it is at that moment, and deltas are
+ * queued again from there on. Frames are never copied.
+ */
+public final class SpectatorConnection implements AutoCloseable {
+
+    private final SpectatorHub hub;
+    private final int capacity;
+    private final ArrayDeque<byte[]> queue;
+
+    private boolean resync;    // next frame must be a keyframe; deltas are dropped until then
+    private boolean closed;
+
+    private long sent;
+    private long keyframes;
+    private long dropped;
+
+    SpectatorConnection(SpectatorHub hub, int capacity) {
+        this.hub = hub;
+        this.capacity = capacity;
+        this.queue = new ArrayDeque<>(capacity);
+    }
+
+    /**
+     * Next frame to send, waiting for one if necessary; null once the connection or the hub is closed
+     * and no frame is left.
+     */
+    public byte[] take() throws InterruptedException {
+        while (true) {
+            synchronized (this) {
+                while (queue.isEmpty() && !resync && !closed) {
+                    wait();
+                }
+                if (!resync) {
+                    byte[] frame = queue.poll();
+                    if (frame != null) sent++;
+                    return frame;
+                }
+            }
+            // Keyframes come from the hub state: take the hub lock first (the order publishing uses)
+            synchronized (hub) {
+                synchronized (this) {
+                    if (resync) {
+                        resync = false;
+                        queue.clear();
+                        sent++;
+                        keyframes++;
+                        return hub.currentKeyframe();
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Next frame if one is ready, else null (never waits).
+     */
+    public byte[] poll() {
+        synchronized (hub) {
+            synchronized (this) {
+                if (resync) {
+                    resync = false;
+                    queue.clear();
+                    sent++;
+                    keyframes++;
+                    return hub.currentKeyframe();
+                }
+                byte[] frame = queue.poll();
+                if (frame != null) sent++;
+                return frame;
+            }
+        }
+    }
+
+    /**
+     * Leaves the hub; take() returns null from now on.
+     */
+    @Override
+    public void close() {
+        hub.leave(this);
+        synchronized (this) {
+            queue.clear();
+            closeQueue();
+        }
+    }
+
+    public synchronized long getSent() { return sent; }
+    public synchronized long getKeyframes() { return keyframes; }
+
+    /** Frames dropped because the watcher was too slow. */
+    public synchronized long getDropped() { return dropped; }
+
+    public synchronized int getQueued() { return queue.size(); }
+
+    // -------------------------
+    // Used by SpectatorHub (under the hub lock)
+    // -------------------------
+
+    synchronized void offer(byte[] frame) {
+        if (closed) return;
+        if (resync) {
+            dropped++;
+            return;
+        }
+        if (queue.size() == capacity) {
+            dropped += queue.size() + 1;
+            queue.clear();
+            resync = true;
+        } else {
+            queue.add(frame);
+        }
+        notifyAll();
+    }
+
+    synchronized void resync() {
+        if (closed) return;
+        dropped += queue.size();
+        queue.clear();
+        resync = true;
+        notifyAll();
+    }
+
+    /**
+     * No more frames will be offered; the queued ones can still be taken.
+     */
+    synchronized void closeQueue() {
+        closed = true;
+        resync = false;
+        notifyAll();
+    }
+}
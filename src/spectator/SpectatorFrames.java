@@ -0,0 +1,136 @@
+package spectator;
+
+import boxes.Box;
+import grid.BoxGrid;
+import grid.CellCodec;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+
+/**
+ * Binary frames sent to spectators. A frame describes what a watcher can see of the board:
+ * per cell the top letter, the box type and whether it is opened (one state byte).
+ *
+ * Layout (big-endian):
+ * - KEYFRAME: kind (1 byte), sequence (4), target letter (1), 64 state bytes, row-major  = 70 bytes
+ * - DELTA:    kind (1 byte), sequence (4), count n (1), n x (cell index, state byte)      = 6 + 2n bytes
+ *
+ * State byte: bits 0..2 top letter - 'A', bits 3..4 type (CellCodec TYPE_*), bit 5 opened.
+ * Deltas carry absolute cell states, so a delta applies to the keyframe or delta of the previous
+ * sequence number; a watcher that missed frames needs a new keyframe.
+ */
+public final class SpectatorFrames {
+
+    public static final byte KEYFRAME = 1;
+    public static final byte DELTA = 2;
+
+    public static final int CELLS = BoxGrid.SIZE * BoxGrid.SIZE;
+    public static final int HEADER_BYTES = 6;
+    public static final int KEYFRAME_BYTES = HEADER_BYTES + CELLS;
+    public static final int MAX_FRAME_BYTES = HEADER_BYTES + 2 * CELLS;
+
+    private static final int TYPE_SHIFT = 3;
+    private static final int OPENED_BIT = 1 << 5;
+
+    private SpectatorFrames() {
+        // utility class; prevent instantiation
+    }
+
+    // -------------------------
+    // State bytes
+    // -------------------------
+
+    public static byte state(Box box) {
+        return state(CellCodec.encode(box));
+    }
+
+    /**
+     * State byte of a packed cell (CellCodec layout).
+     */
+    public static byte state(int cell) {
+        int s = (cell & 7) | (CellCodec.type(cell) << TYPE_SHIFT);
+        if (CellCodec.isOpened(cell)) s |= OPENED_BIT;
+        return (byte) s;
+    }
+
+    public static char topLetter(byte state) {
+        return (char) ('A' + (state & 7));
+    }
+
+    public static int type(byte state) {
+        return (state >>> TYPE_SHIFT) & 3;
+    }
+
+    public static boolean isOpened(byte state) {
+        return (state & OPENED_BIT) != 0;
+    }
+
+    // -------------------------
+    // Frames
+    // -------------------------
+
+    public static byte[] keyframe(int sequence, char targetLetter, byte[] states) {
+        if (states.length != CELLS) throw new IllegalArgumentException("states must be a byte[" + CELLS + "]");
+        byte[] frame = new byte[KEYFRAME_BYTES];
+        header(frame, KEYFRAME, sequence, (byte) targetLetter);
+        System.arraycopy(states, 0, frame, HEADER_BYTES, CELLS);
+        return frame;
+    }
+
+    /**
+     * Delta of the first `count` entries of the given cell indices and their new states.
+     */
+    public static byte[] delta(int sequence, byte[] cells, byte[] states, int count) {
+        if (count < 0 || count > CELLS) throw new IllegalArgumentException("count must be in 0.." + CELLS);
+        byte[] frame = new byte[HEADER_BYTES + 2 * count];
+        header(frame, DELTA, sequence, (byte) count);
+        for (int i = 0; i < count; i++) {
+            frame[HEADER_BYTES + 2 * i] = cells[i];
+            frame[HEADER_BYTES + 2 * i + 1] = states[i];
+        }
+        return frame;
+    }
+
+    /**
+     * Writes one frame with a 2-byte length prefix (the stream format of SpectatorServer).
+     */
+    public static void write(DataOutputStream out, byte[] frame) throws IOException {
+        out.writeShort(frame.length);
+        out.write(frame);
+    }
+
+    /**
+     * Reads one length-prefixed frame; null at the end of the stream.
+     */
+    public static byte[] read(DataInputStream in) throws IOException {
+        int length;
+        try {
+            length = in.readUnsignedShort();
+        } catch (EOFException e) {
+            return null;
+        }
+        if (length < HEADER_BYTES || length > MAX_FRAME_BYTES) throw new IOException("Bad frame length " + length);
+        byte[] frame = new byte[length];
+        in.readFully(frame);
+        return frame;
+    }
+
+    public static byte kind(byte[] frame) {
+        return frame[0];
+    }
+
+    public static int sequence(byte[] frame) {
+        return ((frame[1] & 0xFF) << 24) | ((frame[2] & 0xFF) << 16) | ((frame[3] & 0xFF) << 8) | (frame[4] & 0xFF);
+    }
+
+    private static void header(byte[] frame, byte kind, int sequence, byte last) {
+        frame[0] = kind;
+        frame[1] = (byte) (sequence >>> 24);
+        frame[2] = (byte) (sequence >>> 16);
+        frame[3] = (byte) (sequence >>> 8);
+        frame[4] = (byte) sequence;
+        frame[5] = last;
+    }
+}
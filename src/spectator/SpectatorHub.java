@@ -0,0 +1,181 @@
+package spectator;
+
+import grid.BoxGrid;
+import grid.GridChangeBatch;
+import grid.GridListener;
+import grid.Position;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Broadcasts the board of a live game to any number of watchers.
+ *
+ * - The hub listens to the game's BoxGrid and turns every published stage into one DELTA frame
+ *   (the distinct changed cells with their new state bytes). The frame is encoded once and the same
+ *   byte[] is handed to every watcher, so a stage costs O(changed cells + watchers), not O(watchers x board).
+ * - Each watcher has a SpectatorConnection with a bounded queue. A watcher whose queue is full
+ *   drops the queued deltas and everything after them until it asks for its next frame, which is then
+ *   a KEYFRAME of the current board: slow watchers skip intermediate frames but never see a wrong board,
+ *   and never slow down the game.
+ * - A watcher that joins starts with a keyframe. Keyframes are built from the hub's own copy of the
+ *   visible state (never from the grid, which belongs to the game thread) and cached until the next
+ *   stage, so any number of lagging or joining watchers share one.
+ *
+ * follow() switches to another game (e.g. the next game at the same table). All methods are thread-safe;
+ * frames are published on the game thread, inside BoxGrid.publishChanges().
+ */
+public final class SpectatorHub implements GridListener {
+
+    private final int queueCapacity;
+    private final List<SpectatorConnection> connections = new ArrayList<>();
+    private final byte[] states = new byte[SpectatorFrames.CELLS];
+
+    // Scratch buffers of one delta (only used on the game thread, under the hub lock)
+    private final byte[] changedCells = new byte[SpectatorFrames.CELLS];
+    private final byte[] changedStates = new byte[SpectatorFrames.CELLS];
+
+    private BoxGrid grid;           // null = not following a game
+    private char targetLetter;
+    private int sequence;
+    private byte[] keyframe;        // cached keyframe of `sequence`, null = not built yet
+    private boolean closed;
+
+    private long frames;
+    private long frameBytes;
+
+    /**
+     * @param queueCapacity frames a watcher may have queued before it starts dropping them
+     */
+    public SpectatorHub(int queueCapacity) {
+        if (queueCapacity <= 0) throw new IllegalArgumentException("queueCapacity must be positive");
+        this.queueCapacity = queueCapacity;
+    }
+
+    /**
+     * Starts broadcasting the given grid (and stops broadcasting the previous one).
+     * Every watcher gets a keyframe of the new board as its next frame.
+     * Call it on the thread that plays the game.
+     */
+    public synchronized void follow(BoxGrid grid, char targetLetter) {
+        Objects.requireNonNull(grid, "grid is null");
+        if (closed) throw new IllegalStateException("The hub is closed.");
+        detach();
+
+        this.grid = grid;
+        this.targetLetter = targetLetter;
+        for (int i = 0; i < states.length; i++) {
+            states[i] = SpectatorFrames.state(grid.getBox(position(i)));
+        }
+        sequence++;
+        keyframe = null;
+        grid.addListener(this);
+        for (SpectatorConnection c : connections) {
+            c.resync();
+        }
+    }
+
+    /**
+     * Adds a watcher; its first frame is a keyframe (as soon as the hub follows a game).
+     */
+    public synchronized SpectatorConnection join() {
+        if (closed) throw new IllegalStateException("The hub is closed.");
+        SpectatorConnection c = new SpectatorConnection(this, queueCapacity);
+        connections.add(c);
+        if (grid != null) c.resync();
+        return c;
+    }
+
+    /**
+     * Stops following the game and closes every connection (watchers get their queued frames, then null).
+     */
+    public synchronized void close() {
+        if (closed) return;
+        closed = true;
+        detach();
+        for (SpectatorConnection c : connections) {
+            c.closeQueue();
+        }
+        connections.clear();
+    }
+
+    public synchronized int getWatcherCount() { return connections.size(); }
+    public synchronized int getSequence() { return sequence; }
+
+    /** Frames encoded so far (each one shared by all watchers). */
+    public synchronized long getFrames() { return frames; }
+    public synchronized long getFrameBytes() { return frameBytes; }
+
+    // -------------------------
+    // Publishing (game thread)
+    // -------------------------
+
+    @Override
+    public synchronized void onChanges(BoxGrid changed, GridChangeBatch batch) {
+        if (changed != grid) return;
+
+        long seen = 0L;
+        int count = 0;
+        for (int i = 0; i < batch.size(); i++) {
+            int cell = batch.getCellIndex(i);
+            if ((seen & (1L << cell)) != 0) continue;
+            seen |= 1L << cell;
+
+            byte state = SpectatorFrames.state(changed.getBox(position(cell)));
+            if (state == states[cell]) continue; // e.g. a roll that brought the same letter on top
+            states[cell] = state;
+            changedCells[count] = (byte) cell;
+            changedStates[count] = state;
+            count++;
+        }
+        if (count == 0) return;
+
+        sequence++;
+        keyframe = null;
+        byte[] frame = SpectatorFrames.delta(sequence, changedCells, changedStates, count);
+        count(frame);
+        for (SpectatorConnection c : connections) {
+            c.offer(frame);
+        }
+    }
+
+    // -------------------------
+    // Used by SpectatorConnection
+    // -------------------------
+
+    /**
+     * Keyframe of the current board; the caller holds the hub lock.
+     */
+    byte[] currentKeyframe() {
+        if (keyframe == null) {
+            keyframe = SpectatorFrames.keyframe(sequence, targetLetter, states);
+            count(keyframe);
+        }
+        return keyframe;
+    }
+
+    synchronized void leave(SpectatorConnection c) {
+        connections.remove(c);
+    }
+
+    // -------------------------
+    // Internal utilities
+    // -------------------------
+
+    private void detach() {
+        if (grid != null) {
+            grid.removeListener(this);
+            grid = null;
+        }
+    }
+
+    private void count(byte[] frame) {
+        frames++;
+        frameBytes += frame.length;
+    }
+
+    private static Position position(int cell) {
+        return new Position(cell / BoxGrid.SIZE + 1, cell % BoxGrid.SIZE + 1);
+    }
+}
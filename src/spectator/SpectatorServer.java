@@ -0,0 +1,104 @@
+package spectator;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Local TCP endpoint of a SpectatorHub: every accepted socket joins the hub and gets its frames
+ * as a stream of length-prefixed frames (SpectatorFrames.write / read). Watchers only listen.
+ *
+ * One writer thread per watcher drains its SpectatorConnection, so a slow socket only blocks its own
+ * writer; the hub then drops that watcher's intermediate frames (see SpectatorConnection).
+ * Frames are flushed once the watcher's queue is empty, so bursts go out in one write.
+ */
+public final class SpectatorServer implements AutoCloseable {
+
+    private final SpectatorHub hub;
+    private final ServerSocket serverSocket;
+    private final List<Socket> sockets = new ArrayList<>();
+    private final Thread acceptor;
+
+    /**
+     * Listens on the loopback interface.
+     *
+     * @param port TCP port, 0 for any free port (see getPort())
+     */
+    public SpectatorServer(SpectatorHub hub, int port) throws IOException {
+        this.hub = Objects.requireNonNull(hub, "hub is null");
+        this.serverSocket = new ServerSocket(port, 50, InetAddress.getLoopbackAddress());
+        this.acceptor = new Thread(this::acceptLoop, "spectator-acceptor");
+        acceptor.setDaemon(true);
+        acceptor.start();
+    }
+
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    /**
+     * Stops accepting watchers and disconnects the current ones (the hub itself stays open).
+     */
+    @Override
+    public void close() throws IOException {
+        serverSocket.close();
+        synchronized (sockets) {
+            for (Socket s : sockets) {
+                s.close();
+            }
+            sockets.clear();
+        }
+    }
+
+    // -------------------------
+    // Internal utilities
+    // -------------------------
+
+    private void acceptLoop() {
+        while (!serverSocket.isClosed()) {
+            Socket socket;
+            try {
+                socket = serverSocket.accept();
+            } catch (IOException e) {
+                return; // closed
+            }
+            synchronized (sockets) {
+                sockets.add(socket);
+            }
+            SpectatorConnection connection = hub.join();
+            Thread writer = new Thread(() -> writeLoop(socket, connection), "spectator-" + socket.getPort());
+            writer.setDaemon(true);
+            writer.start();
+        }
+    }
+
+    private void writeLoop(Socket socket, SpectatorConnection connection) {
+        try (socket; connection) {
+            socket.setTcpNoDelay(true);
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+            byte[] frame;
+            while ((frame = connection.take()) != null) {
+                SpectatorFrames.write(out, frame);
+                if (connection.getQueued() == 0) out.flush();
+            }
+            out.flush();
+        } catch (SocketException e) {
+            // watcher went away or the server was closed
+        } catch (IOException e) {
+            System.err.println("Spectator " + socket.getRemoteSocketAddress() + " dropped: " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            synchronized (sockets) {
+                sockets.remove(socket);
+            }
+        }
+    }
+}
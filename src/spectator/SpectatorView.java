@@ -0,0 +1,114 @@
+package spectator;
+
+import boxes.Box;
+import grid.BoxGrid;
+import grid.CellCodec;
+import grid.Position;
+
+import java.util.Objects;
+
+/**
+ * Watcher side of the frames: the board as a spectator sees it, rebuilt from a keyframe and the deltas after it.
+ * Not thread-safe; one view per watcher.
+ */
+public final class SpectatorView {
+
+    private final byte[] states = new byte[SpectatorFrames.CELLS];
+    private char targetLetter;
+    private int sequence = -1;   // -1 = no keyframe yet
+    private long keyframes;
+    private long deltas;
+
+    /**
+     * Applies one frame.
+     *
+     * @throws IllegalStateException if a delta does not follow the last applied frame
+     */
+    public void apply(byte[] frame) {
+        Objects.requireNonNull(frame, "frame is null");
+        if (frame.length < SpectatorFrames.HEADER_BYTES) throw new IllegalArgumentException("Frame too short");
+        int seq = SpectatorFrames.sequence(frame);
+
+        switch (SpectatorFrames.kind(frame)) {
+            case SpectatorFrames.KEYFRAME -> {
+                if (frame.length != SpectatorFrames.KEYFRAME_BYTES) throw new IllegalArgumentException("Bad keyframe size");
+                targetLetter = (char) frame[5];
+                System.arraycopy(frame, SpectatorFrames.HEADER_BYTES, states, 0, states.length);
+                keyframes++;
+            }
+            case SpectatorFrames.DELTA -> {
+                if (sequence < 0 || seq != sequence + 1) {
+                    throw new IllegalStateException("Delta " + seq + " does not follow frame " + sequence);
+                }
+                int count = frame[5] & 0xFF;
+                if (frame.length != SpectatorFrames.HEADER_BYTES + 2 * count) throw new IllegalArgumentException("Bad delta size");
+                for (int i = 0; i < count; i++) {
+                    int cell = frame[SpectatorFrames.HEADER_BYTES + 2 * i];
+                    if (cell < 0 || cell >= states.length) throw new IllegalArgumentException("Bad cell index " + cell);
+                    states[cell] = frame[SpectatorFrames.HEADER_BYTES + 2 * i + 1];
+                }
+                deltas++;
+            }
+            default -> throw new IllegalArgumentException("Unknown frame kind " + SpectatorFrames.kind(frame));
+        }
+        sequence = seq;
+    }
+
+    public boolean hasKeyframe() { return sequence >= 0; }
+    public int getSequence() { return sequence; }
+    public char getTargetLetter() { return targetLetter; }
+    public long getKeyframes() { return keyframes; }
+    public long getDeltas() { return deltas; }
+
+    public char getTopLetter(Position p) {
+        return SpectatorFrames.topLetter(states[index(p)]);
+    }
+
+    public boolean isOpened(Position p) {
+        return SpectatorFrames.isOpened(states[index(p)]);
+    }
+
+    /**
+     * CellCodec TYPE_* of the box.
+     */
+    public int getType(Position p) {
+        return SpectatorFrames.type(states[index(p)]);
+    }
+
+    /**
+     * True if every visible cell state equals the grid's.
+     */
+    public boolean matches(BoxGrid grid) {
+        for (int i = 0; i < states.length; i++) {
+            Box b = grid.getBox(new Position(i / BoxGrid.SIZE + 1, i % BoxGrid.SIZE + 1));
+            if (states[i] != SpectatorFrames.state(b)) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Text rendering: the top letter, lowercase when opened; FixedBoxes in brackets, UnchangingBoxes in braces.
+     */
+    public String toPrettyString() {
+        StringBuilder sb = new StringBuilder();
+        for (int r = 0; r < BoxGrid.SIZE; r++) {
+            for (int c = 0; c < BoxGrid.SIZE; c++) {
+                byte s = states[r * BoxGrid.SIZE + c];
+                char letter = SpectatorFrames.topLetter(s);
+                if (SpectatorFrames.isOpened(s)) letter = Character.toLowerCase(letter);
+                switch (SpectatorFrames.type(s)) {
+                    case CellCodec.TYPE_FIXED -> sb.append('[').append(letter).append(']');
+                    case CellCodec.TYPE_UNCHANGING -> sb.append('{').append(letter).append('}');
+                    default -> sb.append(' ').append(letter).append(' ');
+                }
+            }
+            sb.append('\n');
+        }
+        return sb.toString();
+    }
+
+    private static int index(Position p) {
+        Objects.requireNonNull(p, "position is null");
+        return (p.getRow() - 1) * BoxGrid.SIZE + p.getCol() - 1;
+    }
+}
@@ -0,0 +1,151 @@
+package storage;
+
+import grid.BoxGrid;
+import grid.CellCodec;
+import puzzle.HeadlessGame;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+
+/**
+ * Fixed-layout collection of generated boards in one (usually direct or memory-mapped) ByteBuffer.
+ * Any board can be read by index without deserialising the others; engines can read packed cells directly.
+ *
+ * Layout (little-endian):
+ *   header (16 bytes): magic "BPBC", format version, board count, board size in bytes
+ *   board i at HEADER_SIZE + i * BOARD_SIZE:
+ *     long seed, int target letter, int[64] cells (CellCodec layout)
+ *
+ * Board i is the board HeadlessGame.fromSeed(seed(i)) would generate.
+ * One buffer holds at most Integer.MAX_VALUE bytes (about 8 million boards).
+ */
+public final class BoardCorpus {
+
+    public static final int FORMAT_VERSION = 1;
+
+    static final int MAGIC = 0x43425042; // "BPBC" in little-endian
+    static final int HEADER_SIZE = 16;
+    static final int CELLS = BoxGrid.SIZE * BoxGrid.SIZE;
+    public static final int BOARD_SIZE = 8 + 4 + CELLS * 4;
+
+    private final ByteBuffer buffer;
+    private final int boards;
+
+    private BoardCorpus(ByteBuffer buffer) {
+        this.buffer = buffer.order(ByteOrder.LITTLE_ENDIAN);
+        if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != FORMAT_VERSION || buffer.getInt(12) != BOARD_SIZE) {
+            throw new IllegalArgumentException("Not a board corpus of format version " + FORMAT_VERSION);
+        }
+        this.boards = buffer.getInt(8);
+    }
+
+    /**
+     * Allocates an empty direct (off-heap) corpus for the given number of boards.
+     */
+    static BoardCorpus allocate(int boards) {
+        long size = HEADER_SIZE + (long) boards * BOARD_SIZE;
+        if (boards < 0 || size > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Board count out of range: " + boards);
+        }
+        ByteBuffer buf = ByteBuffer.allocateDirect((int) size).order(ByteOrder.LITTLE_ENDIAN);
+        buf.putInt(0, MAGIC).putInt(4, FORMAT_VERSION).putInt(8, boards).putInt(12, BOARD_SIZE);
+        return new BoardCorpus(buf);
+    }
+
+    /**
+     * Creates (or replaces) a corpus file for the given number of boards and maps it read-write,
+     * so a generator can fill it in place without an off-heap copy.
+     */
+    static BoardCorpus create(Path file, int boards) throws IOException {
+        long size = HEADER_SIZE + (long) boards * BOARD_SIZE;
+        if (boards < 0 || size > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Board count out of range: " + boards);
+        }
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buf = ch.map(FileChannel.MapMode.READ_WRITE, 0, size).order(ByteOrder.LITTLE_ENDIAN);
+            buf.putInt(0, MAGIC).putInt(4, FORMAT_VERSION).putInt(8, boards).putInt(12, BOARD_SIZE);
+            return new BoardCorpus(buf);
+        }
+    }
+
+    /**
+     * Maps a corpus file read-only; boards are paged in on first access.
+     */
+    public static BoardCorpus map(Path file) throws IOException {
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+            return new BoardCorpus(ch.map(FileChannel.MapMode.READ_ONLY, 0, ch.size()));
+        }
+    }
+
+    public void writeTo(Path file) throws IOException {
+        try (FileChannel ch = FileChannel.open(file,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer all = buffer.duplicate().clear();
+            while (all.hasRemaining()) ch.write(all);
+        }
+    }
+
+    // -------------------------
+    // Access
+    // -------------------------
+
+    public int size() {
+        return boards;
+    }
+
+    public long seed(int board) {
+        return buffer.getLong(offset(board));
+    }
+
+    public char targetLetter(int board) {
+        return (char) buffer.getInt(offset(board) + 8);
+    }
+
+    /**
+     * Packed cell (CellCodec) at row-major index 0..63.
+     */
+    public int cell(int board, int index) {
+        Objects.checkIndex(index, CELLS);
+        return buffer.getInt(offset(board) + 12 + index * 4);
+    }
+
+    public void readCells(int board, int[] out) {
+        int base = offset(board) + 12;
+        for (int i = 0; i < CELLS; i++) {
+            out[i] = buffer.getInt(base + i * 4);
+        }
+    }
+
+    /**
+     * Materializes one board as a playable game.
+     */
+    public HeadlessGame toGame(int board) {
+        int[] cells = new int[CELLS];
+        readCells(board, cells);
+        return new HeadlessGame(CellCodec.decode(cells), targetLetter(board));
+    }
+
+    // -------------------------
+    // Writing (used by the generator; disjoint boards may be written from different threads)
+    // -------------------------
+
+    void put(int board, long seed, char target, int[] cells) {
+        int base = offset(board);
+        buffer.putLong(base, seed);
+        buffer.putInt(base + 8, target);
+        for (int i = 0; i < CELLS; i++) {
+            buffer.putInt(base + 12 + i * 4, cells[i]);
+        }
+    }
+
+    private int offset(int board) {
+        Objects.checkIndex(board, boards);
+        return HEADER_SIZE + board * BOARD_SIZE;
+    }
+}
@@ -0,0 +1,76 @@
+package storage;
+
+import grid.BoxGrid;
+import grid.CellCodec;
+
+import java.util.Arrays;
+
+/**
+ * Per-board features stored as columns of an IndexedCorpus (in file order).
+ * Every feature counts cells of the starting board, so its value is in 0..MAX_VALUE.
+ *
+ * - TARGET_TOPS:      boxes showing the target letter on top (the starting score)
+ * - TARGET_HIDDEN:    boxes with the target letter on a side face but not on top
+ * - FIXED_BOXES / EDGE_FIXED_BOXES (on row or column 1 or 8) / UNCHANGING_BOXES
+ * - TOOLS and one count per ToolKind (tools inside boxes; on a starting board none is opened yet)
+ */
+public enum BoardFeature {
+    TARGET_TOPS,
+    TARGET_HIDDEN,
+    FIXED_BOXES,
+    EDGE_FIXED_BOXES,
+    UNCHANGING_BOXES,
+    TOOLS,
+    PLUS_SHAPE_STAMPS,
+    MASS_ROW_STAMPS,
+    MASS_COLUMN_STAMPS,
+    BOX_FLIPPERS,
+    BOX_FIXERS;
+
+    public static final int MAX_VALUE = BoxGrid.SIZE * BoxGrid.SIZE;
+
+    private static final BoardFeature[] FEATURES = values();
+    private static final int FIRST_TOOL = PLUS_SHAPE_STAMPS.ordinal(); // same order as ToolKind
+    private static final int REPEAT_LETTER = 0b001_001_001_001_001_001;
+
+    /**
+     * Computes every feature of a board of packed cells (CellCodec layout, row-major).
+     *
+     * @param out receives the value of feature f at out[f.ordinal()]
+     */
+    public static void extract(int[] cells, char targetLetter, int[] out) {
+        if (cells.length != MAX_VALUE) throw new IllegalArgumentException("cells must be an int[" + MAX_VALUE + "]");
+        if (out.length < FEATURES.length) throw new IllegalArgumentException("out is too short");
+
+        Arrays.fill(out, 0, FEATURES.length, 0);
+        int targets = (targetLetter - 'A') * REPEAT_LETTER; // the target letter in all six faces
+        for (int i = 0; i < MAX_VALUE; i++) {
+            int cell = cells[i];
+            int x = (cell & CellCodec.LETTERS_MASK) ^ targets;
+            int match = ~(x | (x >>> 1) | (x >>> 2)) & REPEAT_LETTER; // bit 3f set when face f shows the target
+            if ((match & 1) != 0) {
+                out[TARGET_TOPS.ordinal()]++;
+            } else if (match != 0) {
+                out[TARGET_HIDDEN.ordinal()]++;
+            }
+
+            int type = CellCodec.type(cell);
+            if (type == CellCodec.TYPE_FIXED) {
+                out[FIXED_BOXES.ordinal()]++;
+                int row = i / BoxGrid.SIZE;
+                int col = i % BoxGrid.SIZE;
+                if (row == 0 || col == 0 || row == BoxGrid.SIZE - 1 || col == BoxGrid.SIZE - 1) {
+                    out[EDGE_FIXED_BOXES.ordinal()]++;
+                }
+            } else if (type == CellCodec.TYPE_UNCHANGING) {
+                out[UNCHANGING_BOXES.ordinal()]++;
+            }
+
+            int tool = (cell & CellCodec.TOOL_MASK) >>> CellCodec.TOOL_SHIFT; // ToolKind ordinal + 1, 0 = none
+            if (tool != 0) {
+                out[TOOLS.ordinal()]++;
+                out[FIRST_TOOL + tool - 1]++;
+            }
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package storage;
+
+import puzzle.BoardGenerator;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Generates many boards straight into an off-heap BoardCorpus, in parallel.
+ *
+ * Board i uses its own random stream seeded with firstSeed + i and the packed path of BoardGenerator
+ * (same 85/5/10 types, 75% tool odds and surface rule), so no Box or tool objects are created
+ * and the result does not depend on the number of threads. Each thread fills a contiguous range
+ * of boards through absolute writes, reusing one int[64] scratch array.
+ */
+public final class BulkBoardGenerator {
+
+    private BulkBoardGenerator() {
+        // utility class; prevent instantiation
+    }
+
+    public static BoardCorpus generate(long firstSeed, int boards, int threads) throws InterruptedException {
+        if (threads <= 0) throw new IllegalArgumentException("threads must be positive");
+
+        BoardCorpus corpus = BoardCorpus.allocate(boards);
+        fill(corpus, firstSeed, threads);
+        return corpus;
+    }
+
+    /**
+     * Fills every board of an existing corpus; board i gets seed firstSeed + i.
+     */
+    static void fill(BoardCorpus corpus, long firstSeed, int threads) throws InterruptedException {
+        if (threads <= 0) throw new IllegalArgumentException("threads must be positive");
+
+        int boards = corpus.size();
+        int perThread = (boards + threads - 1) / threads;
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> parts = new ArrayList<>(threads);
+            for (int t = 0; t < threads; t++) {
+                int from = t * perThread;
+                int to = Math.min(boards, from + perThread);
+                if (from >= to) break;
+                parts.add(pool.submit(() -> fill(corpus, firstSeed, from, to)));
+            }
+            for (Future<?> f : parts) f.get();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Board generation failed: " + e.getCause(), e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private static void fill(BoardCorpus corpus, long firstSeed, int from, int to) {
+        int[] cells = new int[BoardCorpus.CELLS];
+        for (int i = from; i < to; i++) {
+            long seed = firstSeed + i;
+            BoardGenerator generator = new BoardGenerator(seed);
+            char target = generator.randomTargetLetter();
+            generator.fillPacked(cells);
+            corpus.put(i, seed, target, cells);
+        }
+    }
+}
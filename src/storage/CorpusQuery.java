@@ -0,0 +1,182 @@
+package storage;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Objects;
+
+/**
+ * An immutable conjunction of range predicates on BoardFeature values, e.g.
+ * {@code CorpusQuery.all().atLeast(EDGE_FIXED_BOXES, 4).lessThan(TARGET_TOPS, 5)}.
+ *
+ * Every predicate narrows one inclusive range per feature, so several predicates on the same
+ * feature merge into one range and an impossible combination makes the query empty.
+ * Evaluated by IndexedCorpus.select(...).
+ */
+public final class CorpusQuery {
+
+    private static final BoardFeature[] FEATURES = BoardFeature.values();
+
+    private final int[] min;
+    private final int[] max;
+
+    private CorpusQuery(int[] min, int[] max) {
+        this.min = min;
+        this.max = max;
+    }
+
+    /**
+     * The query every board matches.
+     */
+    public static CorpusQuery all() {
+        int[] max = new int[FEATURES.length];
+        Arrays.fill(max, BoardFeature.MAX_VALUE);
+        return new CorpusQuery(new int[FEATURES.length], max);
+    }
+
+    /**
+     * Parses predicates like "EDGE_FIXED_BOXES>=4 TARGET_TOPS<5", separated by whitespace or "and".
+     * Operators: >=, <=, >, <, = (feature names are case-insensitive).
+     */
+    public static CorpusQuery parse(String text) {
+        Objects.requireNonNull(text, "text is null");
+
+        CorpusQuery query = all();
+        for (String term : text.trim().split("(?i)\\s+and\\s+|\\s+")) {
+            if (term.isEmpty()) continue;
+            int op = indexOfOperator(term);
+            if (op <= 0) throw new IllegalArgumentException("Not a predicate: " + term);
+
+            int opEnd = op + 1 < term.length() && term.charAt(op + 1) == '=' ? op + 2 : op + 1;
+            String operator = term.substring(op, opEnd);
+            BoardFeature feature;
+            int value;
+            try {
+                feature = BoardFeature.valueOf(term.substring(0, op).toUpperCase(Locale.ROOT));
+                value = Integer.parseInt(term.substring(opEnd));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Not a predicate: " + term);
+            }
+            query = switch (operator) {
+                case ">=" -> query.atLeast(feature, value);
+                case "<=" -> query.atMost(feature, value);
+                case ">" -> query.greaterThan(feature, value);
+                case "<" -> query.lessThan(feature, value);
+                case "=", "==" -> query.equalTo(feature, value);
+                default -> throw new IllegalArgumentException("Unknown operator in " + term);
+            };
+        }
+        return query;
+    }
+
+    // -------------------------
+    // Predicates
+    // -------------------------
+
+    public CorpusQuery atLeast(BoardFeature feature, int value) {
+        return range(feature, value, BoardFeature.MAX_VALUE);
+    }
+
+    public CorpusQuery atMost(BoardFeature feature, int value) {
+        return range(feature, 0, value);
+    }
+
+    public CorpusQuery greaterThan(BoardFeature feature, int value) {
+        return atLeast(feature, value + 1);
+    }
+
+    public CorpusQuery lessThan(BoardFeature feature, int value) {
+        return atMost(feature, value - 1);
+    }
+
+    public CorpusQuery equalTo(BoardFeature feature, int value) {
+        return range(feature, value, value);
+    }
+
+    /**
+     * Adds from <= feature <= to.
+     */
+    public CorpusQuery range(BoardFeature feature, int from, int to) {
+        Objects.requireNonNull(feature, "feature is null");
+
+        int f = feature.ordinal();
+        int[] newMin = min.clone();
+        int[] newMax = max.clone();
+        newMin[f] = Math.max(min[f], from);
+        newMax[f] = Math.min(max[f], to);
+        return new CorpusQuery(newMin, newMax);
+    }
+
+    // -------------------------
+    // Access
+    // -------------------------
+
+    /**
+     * Smallest matching value of the feature (may exceed MAX_VALUE when the query is empty).
+     */
+    public int min(BoardFeature feature) {
+        return min[feature.ordinal()];
+    }
+
+    /**
+     * Largest matching value of the feature (may be negative when the query is empty).
+     */
+    public int max(BoardFeature feature) {
+        return max[feature.ordinal()];
+    }
+
+    /**
+     * True if the feature is not restricted.
+     */
+    public boolean isUnbounded(BoardFeature feature) {
+        return min[feature.ordinal()] <= 0 && max[feature.ordinal()] >= BoardFeature.MAX_VALUE;
+    }
+
+    /**
+     * True if no board can match.
+     */
+    public boolean isEmpty() {
+        for (int f = 0; f < FEATURES.length; f++) {
+            if (min[f] > max[f] || min[f] > BoardFeature.MAX_VALUE || max[f] < 0) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Checks the query against one board's feature values (indexed by ordinal), without an index.
+     */
+    public boolean matches(int[] values) {
+        for (int f = 0; f < FEATURES.length; f++) {
+            if (values[f] < min[f] || values[f] > max[f]) return false;
+        }
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        for (BoardFeature feature : FEATURES) {
+            if (isUnbounded(feature)) continue;
+            int lo = min(feature);
+            int hi = max(feature);
+            if (sb.length() > 0) sb.append(" and ");
+            if (lo == hi) {
+                sb.append(feature).append('=').append(lo);
+            } else if (lo <= 0) {
+                sb.append(feature).append("<=").append(hi);
+            } else if (hi >= BoardFeature.MAX_VALUE) {
+                sb.append(feature).append(">=").append(lo);
+            } else {
+                sb.append(feature).append(">=").append(lo).append(" and ").append(feature).append("<=").append(hi);
+            }
+        }
+        return sb.length() == 0 ? "all" : sb.toString();
+    }
+
+    private static int indexOfOperator(String term) {
+        for (int i = 0; i < term.length(); i++) {
+            char c = term.charAt(i);
+            if (c == '<' || c == '>' || c == '=') return i;
+        }
+        return -1;
+    }
+}
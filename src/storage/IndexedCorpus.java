@@ -0,0 +1,387 @@
+package storage;
+
+import puzzle.HeadlessGame;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * A directory of generated boards with precomputed BoardFeature columns and bitmap indexes,
+ * answering conjunctive CorpusQuery predicates without touching the boards themselves.
+ *
+ * Directory layout:
+ *   boards-00000.bpbc, boards-00001.bpbc, ...  BoardCorpus files of SHARD_BOARDS boards each (the last may be
+ *                                              shorter), since one BoardCorpus holds about 8 million boards at most
+ *   features.bpfi                              the feature index, written last (no index = unfinished build)
+ *
+ * Feature index layout (little-endian):
+ *   header (32 bytes): magic "BPFI", format version, board count, feature count, shard size, slices, long first seed
+ *   one column per BoardFeature (file order = ordinal): one unsigned byte per board
+ *   from the next multiple of 8, per feature: ceil(boards / 64) groups of SLICES longs.
+ *     Bit j of long b in group w is bit b of the feature value of board 64w + j (a bit-sliced index).
+ *
+ * A range predicate on one feature then costs SLICES word operations per 64 boards, whatever its range:
+ * comparing the slices from the highest bit down yields "value >= from" and "value <= to" for 64 boards at once.
+ * Predicates on different features are ANDed word by word, and words already empty are skipped.
+ *
+ * Board ids are global (0..size()-1); board id is HeadlessGame.fromSeed(firstSeed + id).
+ * Boards are loaded lazily: a shard is memory-mapped on first access and only the pages of boards
+ * that are read come from disk. Queries and reads are thread-safe.
+ */
+public final class IndexedCorpus {
+
+    public static final int FORMAT_VERSION = 1;
+    public static final int SHARD_BOARDS = 1 << 22;
+
+    static final int MAGIC = 0x49465042; // "BPFI" in little-endian
+    static final int HEADER_SIZE = 32;
+    static final int SLICES = 7; // values 0..127 >= BoardFeature.MAX_VALUE
+    static final String INDEX_FILE = "features.bpfi";
+
+    private static final BoardFeature[] FEATURES = BoardFeature.values();
+    private static final int SLICE_MAX = (1 << SLICES) - 1;
+
+    private final Path dir;
+    private final int boards;
+    private final int shardBoards;
+    private final long firstSeed;
+    private final ByteBuffer[] columns;
+    private final LongBuffer[] slices;
+    private final BoardCorpus[] shards;
+
+    private IndexedCorpus(Path dir, int boards, int shardBoards, long firstSeed,
+                          ByteBuffer[] columns, LongBuffer[] slices) {
+        this.dir = dir;
+        this.boards = boards;
+        this.shardBoards = shardBoards;
+        this.firstSeed = firstSeed;
+        this.columns = columns;
+        this.slices = slices;
+        this.shards = new BoardCorpus[(int) (((long) boards + shardBoards - 1) / shardBoards)];
+    }
+
+    /**
+     * Generates boards firstSeed .. firstSeed + boards - 1 into the directory and indexes them.
+     * Existing corpus files in the directory are replaced.
+     */
+    public static IndexedCorpus build(Path dir, long firstSeed, int boards, int threads)
+            throws IOException, InterruptedException {
+        Objects.requireNonNull(dir, "dir is null");
+        if (boards < 0) throw new IllegalArgumentException("boards must not be negative");
+        if (threads <= 0) throw new IllegalArgumentException("threads must be positive");
+
+        Files.createDirectories(dir);
+        Path indexFile = dir.resolve(INDEX_FILE);
+        Files.deleteIfExists(indexFile);
+
+        int words = words(boards);
+        long slicesBase = slicesBase(boards);
+        try (FileChannel ch = FileChannel.open(indexFile, StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer[] columns = new ByteBuffer[FEATURES.length];
+            for (int f = 0; f < FEATURES.length; f++) {
+                columns[f] = ch.map(FileChannel.MapMode.READ_WRITE, HEADER_SIZE + (long) f * boards, boards);
+            }
+
+            for (int first = 0, s = 0; first < boards; first += SHARD_BOARDS, s++) {
+                BoardCorpus shard = BoardCorpus.create(shardFile(dir, s), Math.min(SHARD_BOARDS, boards - first));
+                BulkBoardGenerator.fill(shard, firstSeed + first, threads);
+                extract(shard, first, columns, threads);
+            }
+
+            long sliceBytes = (long) words * SLICES * 8;
+            for (int f = 0; f < FEATURES.length; f++) {
+                LongBuffer out = ch.map(FileChannel.MapMode.READ_WRITE, slicesBase + f * sliceBytes, sliceBytes)
+                        .order(ByteOrder.LITTLE_ENDIAN).asLongBuffer();
+                slice(columns[f], boards, out);
+            }
+
+            ByteBuffer header = ch.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            header.putInt(0, MAGIC).putInt(4, FORMAT_VERSION).putInt(8, boards).putInt(12, FEATURES.length)
+                    .putInt(16, SHARD_BOARDS).putInt(20, SLICES).putLong(24, firstSeed);
+        }
+        return open(dir);
+    }
+
+    /**
+     * Opens a directory written by build(...). The index is memory-mapped; boards are mapped on first access.
+     */
+    public static IndexedCorpus open(Path dir) throws IOException {
+        Objects.requireNonNull(dir, "dir is null");
+
+        Path indexFile = dir.resolve(INDEX_FILE);
+        try (FileChannel ch = FileChannel.open(indexFile, StandardOpenOption.READ)) {
+            ByteBuffer header = ch.map(FileChannel.MapMode.READ_ONLY, 0, Math.min(HEADER_SIZE, ch.size()))
+                    .order(ByteOrder.LITTLE_ENDIAN);
+            if (header.limit() < HEADER_SIZE || header.getInt(0) != MAGIC || header.getInt(4) != FORMAT_VERSION
+                    || header.getInt(12) != FEATURES.length || header.getInt(20) != SLICES) {
+                throw new IOException("Not a feature index of format version " + FORMAT_VERSION + ": " + indexFile);
+            }
+            int boards = header.getInt(8);
+            int shardBoards = header.getInt(16);
+            long firstSeed = header.getLong(24);
+
+            long slicesBase = slicesBase(boards);
+            long sliceBytes = (long) words(boards) * SLICES * 8;
+            if (boards < 0 || shardBoards <= 0 || ch.size() != slicesBase + FEATURES.length * sliceBytes) {
+                throw new IOException("Truncated feature index: " + indexFile);
+            }
+
+            ByteBuffer[] columns = new ByteBuffer[FEATURES.length];
+            LongBuffer[] slices = new LongBuffer[FEATURES.length];
+            for (int f = 0; f < FEATURES.length; f++) {
+                columns[f] = ch.map(FileChannel.MapMode.READ_ONLY, HEADER_SIZE + (long) f * boards, boards);
+                slices[f] = ch.map(FileChannel.MapMode.READ_ONLY, slicesBase + f * sliceBytes, sliceBytes)
+                        .order(ByteOrder.LITTLE_ENDIAN).asLongBuffer();
+            }
+            return new IndexedCorpus(dir, boards, shardBoards, firstSeed, columns, slices);
+        }
+    }
+
+    // -------------------------
+    // Queries
+    // -------------------------
+
+    /**
+     * Bitmap of the matching boards: board id is a match if bit id % 64 of word id / 64 is set.
+     */
+    public long[] select(CorpusQuery query) {
+        Objects.requireNonNull(query, "query is null");
+
+        long[] result = new long[words(boards)];
+        if (query.isEmpty() || boards == 0) return result;
+
+        Arrays.fill(result, -1L);
+        if (boards % 64 != 0) result[result.length - 1] = (1L << boards) - 1; // shift is mod 64
+        for (BoardFeature feature : FEATURES) {
+            if (query.isUnbounded(feature)) continue;
+            and(result, slices[feature.ordinal()], query.min(feature), query.max(feature));
+        }
+        return result;
+    }
+
+    public int count(CorpusQuery query) {
+        int count = 0;
+        for (long w : select(query)) count += Long.bitCount(w);
+        return count;
+    }
+
+    /**
+     * Ids of the matching boards, ascending.
+     */
+    public int[] find(CorpusQuery query) {
+        return find(query, Integer.MAX_VALUE);
+    }
+
+    /**
+     * The first (lowest) ids of at most limit matching boards, ascending.
+     */
+    public int[] find(CorpusQuery query, int limit) {
+        if (limit < 0) throw new IllegalArgumentException("limit must not be negative");
+
+        long[] bitmap = select(query);
+        int count = 0;
+        for (long w : bitmap) count += Long.bitCount(w);
+
+        int[] ids = new int[Math.min(count, limit)];
+        int n = 0;
+        for (int w = 0; w < bitmap.length && n < ids.length; w++) {
+            long bits = bitmap[w];
+            while (bits != 0 && n < ids.length) {
+                ids[n++] = (w << 6) + Long.numberOfTrailingZeros(bits);
+                bits &= bits - 1;
+            }
+        }
+        return ids;
+    }
+
+    // -------------------------
+    // Access
+    // -------------------------
+
+    public int size() {
+        return boards;
+    }
+
+    public long getFirstSeed() {
+        return firstSeed;
+    }
+
+    /**
+     * Seed of a board (known without loading it).
+     */
+    public long seed(int board) {
+        Objects.checkIndex(board, boards);
+        return firstSeed + board;
+    }
+
+    /**
+     * Feature value of a board, read from its column (the board itself is not loaded).
+     */
+    public int feature(int board, BoardFeature feature) {
+        Objects.checkIndex(board, boards);
+        return columns[feature.ordinal()].get(board) & 0xFF;
+    }
+
+    public char targetLetter(int board) throws IOException {
+        Objects.checkIndex(board, boards);
+        return shard(board / shardBoards).targetLetter(board % shardBoards);
+    }
+
+    public void readCells(int board, int[] out) throws IOException {
+        Objects.checkIndex(board, boards);
+        shard(board / shardBoards).readCells(board % shardBoards, out);
+    }
+
+    /**
+     * Loads one board as a playable game.
+     */
+    public HeadlessGame toGame(int board) throws IOException {
+        Objects.checkIndex(board, boards);
+        return shard(board / shardBoards).toGame(board % shardBoards);
+    }
+
+    /**
+     * A read-only list view of the given boards; each one is loaded when get(i) is called.
+     */
+    public List<HeadlessGame> games(int[] ids) {
+        int[] copy = ids.clone();
+        for (int id : copy) Objects.checkIndex(id, boards);
+        return new AbstractList<>() {
+            @Override
+            public HeadlessGame get(int index) {
+                try {
+                    return toGame(copy[index]);
+                } catch (IOException e) {
+                    throw new IllegalStateException("Cannot load board " + copy[index] + ": " + e.getMessage(), e);
+                }
+            }
+
+            @Override
+            public int size() {
+                return copy.length;
+            }
+        };
+    }
+
+    // -------------------------
+    // Internal utilities
+    // -------------------------
+
+    private synchronized BoardCorpus shard(int s) throws IOException {
+        if (shards[s] == null) {
+            BoardCorpus shard = BoardCorpus.map(shardFile(dir, s));
+            int expected = Math.min(shardBoards, boards - s * shardBoards);
+            if (shard.size() != expected || shard.size() > 0 && shard.seed(0) != firstSeed + (long) s * shardBoards) {
+                throw new IOException("Shard " + s + " does not belong to this index: " + shardFile(dir, s));
+            }
+            shards[s] = shard;
+        }
+        return shards[s];
+    }
+
+    private static void and(long[] result, LongBuffer slices, int from, int to) {
+        from = Math.max(from, 0);
+        to = Math.min(to, SLICE_MAX);
+        long[] fromBits = new long[SLICES]; // bit b of the bounds, as all-zeros or all-ones words
+        long[] toBits = new long[SLICES];
+        for (int b = 0; b < SLICES; b++) {
+            fromBits[b] = -(long) (from >>> b & 1);
+            toBits[b] = -(long) (to >>> b & 1);
+        }
+
+        for (int w = 0; w < result.length; w++) {
+            long acc = result[w];
+            if (acc == 0) continue;
+
+            int base = w * SLICES;
+            long aboveFrom = 0;   // boards whose value is already known to be > from
+            long equalFrom = -1L; // boards whose higher bits equal those of from
+            long belowTo = 0;
+            long equalTo = -1L;
+            for (int b = SLICES - 1; b >= 0; b--) {
+                long s = slices.get(base + b);
+                aboveFrom |= equalFrom & s & ~fromBits[b];
+                equalFrom &= ~(s ^ fromBits[b]);
+                belowTo |= equalTo & ~s & toBits[b];
+                equalTo &= ~(s ^ toBits[b]);
+            }
+            result[w] = acc & (aboveFrom | equalFrom) & (belowTo | equalTo);
+        }
+    }
+
+    private static void extract(BoardCorpus shard, int firstId, ByteBuffer[] columns, int threads)
+            throws InterruptedException {
+        int boards = shard.size();
+        int perThread = (boards + threads - 1) / threads;
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> parts = new ArrayList<>(threads);
+            for (int t = 0; t < threads; t++) {
+                int from = t * perThread;
+                int to = Math.min(boards, from + perThread);
+                if (from >= to) break;
+                parts.add(pool.submit(() -> {
+                    int[] cells = new int[BoardCorpus.CELLS];
+                    int[] values = new int[FEATURES.length];
+                    for (int i = from; i < to; i++) {
+                        shard.readCells(i, cells);
+                        BoardFeature.extract(cells, shard.targetLetter(i), values);
+                        for (int f = 0; f < FEATURES.length; f++) {
+                            columns[f].put(firstId + i, (byte) values[f]);
+                        }
+                    }
+                }));
+            }
+            for (Future<?> f : parts) f.get();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Feature extraction failed: " + e.getCause(), e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private static void slice(ByteBuffer column, int boards, LongBuffer out) {
+        long[] group = new long[SLICES];
+        for (int w = 0; w < words(boards); w++) {
+            Arrays.fill(group, 0);
+            int end = Math.min(boards, (w + 1) << 6);
+            for (int id = w << 6; id < end; id++) {
+                int value = column.get(id) & 0xFF;
+                long bit = 1L << id;
+                for (int b = 0; b < SLICES; b++) {
+                    if ((value >>> b & 1) != 0) group[b] |= bit;
+                }
+            }
+            out.put(w * SLICES, group);
+        }
+    }
+
+    private static int words(int boards) {
+        return (int) (((long) boards + 63) >>> 6);
+    }
+
+    private static long slicesBase(int boards) {
+        return (HEADER_SIZE + (long) FEATURES.length * boards + 7) & ~7L;
+    }
+
+    private static Path shardFile(Path dir, int shard) {
+        return dir.resolve(String.format("boards-%05d.bpbc", shard));
+    }
+}
@@ -0,0 +1,259 @@
+package storage;
+
+import boxes.Face;
+import exceptions.UnmovableFixedBoxException;
+import grid.BoxGrid;
+import grid.CellCodec;
+import grid.Direction;
+import puzzle.BoardGenerator;
+import tools.ToolKind;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+
+/**
+ * Board storage outside the Java heap, for boards far larger than 8x8.
+ * Every cell is one packed int (CellCodec layout: 4 bytes instead of a Box object, its char[6]
+ * and a tool reference), so the GC never sees the cells.
+ *
+ * Cells live in direct ByteBuffers, or in a memory-mapped file for boards bigger than RAM.
+ * Storage is split into segments of SEGMENT_CELLS cells, because one buffer is limited to 2 GB.
+ *
+ * Rows and columns are 0-based here (Position only covers the 8x8 game board).
+ * Accessors answer like BoxGrid.getBox(...).getTopLetter()/getLetter(...) without creating Box objects.
+ */
+public final class OffHeapBoard implements AutoCloseable {
+
+    private static final int SEGMENT_SHIFT = 26;
+    private static final long SEGMENT_CELLS = 1L << SEGMENT_SHIFT; // 256 MB per segment
+    private static final int CELL_BYTES = 4;
+
+    private final int rows;
+    private final int cols;
+    private final ByteBuffer[] segments;
+    private final FileChannel channel; // null unless file-backed
+
+    private OffHeapBoard(int rows, int cols, ByteBuffer[] segments, FileChannel channel) {
+        this.rows = rows;
+        this.cols = cols;
+        this.segments = segments;
+        this.channel = channel;
+    }
+
+    /**
+     * Allocates an off-heap board. All cells start as 0 (a closed RegularBox with 'A' on every face).
+     */
+    public static OffHeapBoard allocate(int rows, int cols) {
+        long cells = cellCount(rows, cols);
+        ByteBuffer[] segments = new ByteBuffer[segmentCount(cells)];
+        for (int s = 0; s < segments.length; s++) {
+            long size = Math.min(SEGMENT_CELLS, cells - s * SEGMENT_CELLS) * CELL_BYTES;
+            segments[s] = ByteBuffer.allocateDirect((int) size).order(ByteOrder.nativeOrder());
+        }
+        return new OffHeapBoard(rows, cols, segments, null);
+    }
+
+    /**
+     * Opens (or creates) a file-backed board; the OS pages cells in and out as needed.
+     * The file holds the raw cells, row-major, little-endian.
+     */
+    public static OffHeapBoard mapFile(Path file, int rows, int cols) throws IOException {
+        Objects.requireNonNull(file, "file is null");
+        long cells = cellCount(rows, cols);
+        FileChannel channel = FileChannel.open(file,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            ByteBuffer[] segments = new ByteBuffer[segmentCount(cells)];
+            for (int s = 0; s < segments.length; s++) {
+                long size = Math.min(SEGMENT_CELLS, cells - s * SEGMENT_CELLS) * CELL_BYTES;
+                segments[s] = channel.map(FileChannel.MapMode.READ_WRITE, s * SEGMENT_CELLS * CELL_BYTES, size)
+                        .order(ByteOrder.LITTLE_ENDIAN);
+            }
+            return new OffHeapBoard(rows, cols, segments, channel);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Copies an 8x8 game grid.
+     */
+    public static OffHeapBoard of(BoxGrid grid) {
+        OffHeapBoard board = allocate(BoxGrid.SIZE, BoxGrid.SIZE);
+        int[] cells = CellCodec.encode(grid);
+        for (int i = 0; i < cells.length; i++) {
+            board.setCell(i / BoxGrid.SIZE, i % BoxGrid.SIZE, cells[i]);
+        }
+        return board;
+    }
+
+    /**
+     * Fills every cell with the same random boxes the game generator would draw.
+     */
+    public void fillRandom(BoardGenerator generator) {
+        Objects.requireNonNull(generator, "generator is null");
+        long cells = getCellCount();
+        for (long i = 0; i < cells; i++) {
+            put(i, generator.nextPackedCell());
+        }
+    }
+
+    // -------------------------
+    // Accessors
+    // -------------------------
+
+    public int getRows() { return rows; }
+    public int getCols() { return cols; }
+
+    public long getCellCount() {
+        return (long) rows * cols;
+    }
+
+    /**
+     * Bytes used by the cells (outside the heap).
+     */
+    public long getFootprintBytes() {
+        return getCellCount() * CELL_BYTES;
+    }
+
+    public int getCell(int row, int col) {
+        return get(index(row, col));
+    }
+
+    public void setCell(int row, int col, int cell) {
+        put(index(row, col), cell);
+    }
+
+    public char getTopLetter(int row, int col) {
+        return CellCodec.topLetter(getCell(row, col));
+    }
+
+    public char getLetter(int row, int col, Face face) {
+        Objects.requireNonNull(face, "face is null");
+        return CellCodec.letter(getCell(row, col), face);
+    }
+
+    public boolean isFixed(int row, int col) {
+        return CellCodec.type(getCell(row, col)) == CellCodec.TYPE_FIXED;
+    }
+
+    public boolean isOpened(int row, int col) {
+        return CellCodec.isOpened(getCell(row, col));
+    }
+
+    public ToolKind getContentKind(int row, int col) {
+        return CellCodec.tool(getCell(row, col));
+    }
+
+    // -------------------------
+    // Game operations
+    // -------------------------
+
+    /**
+     * Number of cells whose top letter is the given one (sequential scan, segment by segment).
+     */
+    public long countTopLetter(char letter) {
+        int wanted = Character.toUpperCase(letter) - 'A';
+        long count = 0;
+        for (ByteBuffer seg : segments) {
+            int limit = seg.capacity();
+            for (int off = 0; off < limit; off += CELL_BYTES) {
+                if ((seg.getInt(off) & 7) == wanted) count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Same rules as BoxGrid.rollFromEdge(): rolls the run of boxes from an edge cell inward until a FixedBox.
+     * Returns the number of rolled boxes.
+     */
+    public int rollFromEdge(int row, int col, Direction inwardDir) throws UnmovableFixedBoxException {
+        Objects.requireNonNull(inwardDir, "inwardDir is null");
+        index(row, col);
+        if (row != 0 && row != rows - 1 && col != 0 && col != cols - 1) {
+            throw new IllegalArgumentException("Selected position is not on the edge: " + row + "," + col);
+        }
+        if (isFixed(row, col)) {
+            throw new UnmovableFixedBoxException("Selected edge box is FixedBox and cannot be moved: " + row + "," + col);
+        }
+
+        int dr = inwardDir == Direction.DOWN ? 1 : inwardDir == Direction.UP ? -1 : 0;
+        int dc = inwardDir == Direction.RIGHT ? 1 : inwardDir == Direction.LEFT ? -1 : 0;
+        int rolled = 0;
+        for (int r = row, c = col; r >= 0 && r < rows && c >= 0 && c < cols; r += dr, c += dc) {
+            long i = (long) r * cols + c;
+            int cell = get(i);
+            if (CellCodec.type(cell) == CellCodec.TYPE_FIXED) break;
+            put(i, CellCodec.roll(cell, inwardDir));
+            rolled++;
+        }
+        return rolled;
+    }
+
+    /**
+     * Copies the cells at (0, 0)..(7, 7) into a game grid (for checks against the object engine).
+     */
+    public BoxGrid toBoxGrid() {
+        if (rows < BoxGrid.SIZE || cols < BoxGrid.SIZE) {
+            throw new IllegalStateException("Board is smaller than " + BoxGrid.SIZE + "x" + BoxGrid.SIZE);
+        }
+        int[] cells = new int[BoxGrid.SIZE * BoxGrid.SIZE];
+        for (int i = 0; i < cells.length; i++) {
+            cells[i] = getCell(i / BoxGrid.SIZE, i % BoxGrid.SIZE) & ~CellCodec.MOVED_BIT;
+        }
+        return CellCodec.decode(cells);
+    }
+
+    public void flush() {
+        if (channel == null) return;
+        for (ByteBuffer seg : segments) {
+            ((MappedByteBuffer) seg).force();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (channel != null) {
+            flush();
+            channel.close();
+        }
+    }
+
+    // -------------------------
+    // Internal utilities
+    // -------------------------
+
+    private int get(long i) {
+        return segments[(int) (i >>> SEGMENT_SHIFT)].getInt((int) (i & (SEGMENT_CELLS - 1)) * CELL_BYTES);
+    }
+
+    private void put(long i, int cell) {
+        segments[(int) (i >>> SEGMENT_SHIFT)].putInt((int) (i & (SEGMENT_CELLS - 1)) * CELL_BYTES, cell);
+    }
+
+    private long index(int row, int col) {
+        if (row < 0 || row >= rows || col < 0 || col >= cols) {
+            throw new IllegalArgumentException("Out of bounds: row=" + row + ", col=" + col);
+        }
+        return (long) row * cols + col;
+    }
+
+    private static long cellCount(int rows, int cols) {
+        if (rows <= 0 || cols <= 0) {
+            throw new IllegalArgumentException("Board size must be positive: " + rows + "x" + cols);
+        }
+        return (long) rows * cols;
+    }
+
+    private static int segmentCount(long cells) {
+        return (int) ((cells + SEGMENT_CELLS - 1) / SEGMENT_CELLS);
+    }
+}
@@ -0,0 +1,331 @@
+package storage;
+
+import grid.BoxGrid;
+import grid.Direction;
+import grid.GridCanonicalizer;
+import grid.Position;
+import puzzle.TurnAction;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Best first-turn actions of already searched boards, so replays of the same seeded boards skip the search.
+ *
+ * Entries are keyed by the canonical hash of the board (GridCanonicalizer) plus the target letter,
+ * so all 8 symmetric versions of a board share one entry; actions are stored on the canonical board
+ * and mapped back to the caller's orientation on lookup.
+ *
+ * File layout (little-endian), entries sorted by (hash, target):
+ *   header (16 bytes): magic "BPOB", format version, entry count, entry size
+ *   entry (16 bytes): long canonical hash, byte target, byte edge cell, byte direction,
+ *                     byte opened cell, byte tool target cell (-1 = none), byte search depth, short value
+ *   (cells are row-major indices 0..63)
+ *
+ * The file is mapped read-only and searched on demand (binary search), so opening a large book is free.
+ * Hot entries are kept in a bounded LRU map; new entries stay in memory until flush() rewrites the file.
+ * All methods are synchronized, so one book can be shared by the threads of a tournament.
+ */
+public final class OpeningBook implements AutoCloseable {
+
+    public static final int FORMAT_VERSION = 1;
+
+    private static final int MAGIC = 0x424F5042; // "BPOB" in little-endian
+    private static final int HEADER_SIZE = 16;
+    private static final int ENTRY_SIZE = 16;
+    private static final int N = BoxGrid.SIZE;
+    private static final Direction[] DIRECTIONS = Direction.values();
+
+    private final Path file;
+    private final Map<Key, Record> cache;
+    private final Map<Key, Record> pending = new HashMap<>();
+
+    private ByteBuffer index;   // mapped file, null if it does not exist yet
+    private int indexed;
+
+    private long hits;
+    private long misses;
+
+    private OpeningBook(Path file, int cacheCapacity) {
+        this.file = file;
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Record> eldest) {
+                return size() > cacheCapacity;
+            }
+        };
+    }
+
+    /**
+     * Opens (lazily) the book stored in the given file; a missing file is an empty book
+     * that will be created by the first flush().
+     */
+    public static OpeningBook open(Path file, int cacheCapacity) throws IOException {
+        Objects.requireNonNull(file, "file is null");
+        if (cacheCapacity <= 0) throw new IllegalArgumentException("cacheCapacity must be positive");
+
+        OpeningBook book = new OpeningBook(file, cacheCapacity);
+        if (Files.exists(file)) {
+            book.mapIndex();
+        }
+        return book;
+    }
+
+    // -------------------------
+    // Lookup / store
+    // -------------------------
+
+    /**
+     * Returns the stored best first turn for this board and target (in the board's own orientation),
+     * or null if the board has not been searched yet.
+     */
+    public synchronized Entry lookup(BoxGrid grid, char targetLetter) {
+        GridCanonicalizer.CanonicalForm form = GridCanonicalizer.canonicalize(grid);
+        Key key = new Key(form.hash64(), targetLetter);
+
+        Record record = cache.get(key);
+        if (record == null) {
+            record = pending.get(key);
+            if (record == null) record = readIndex(key);
+            if (record == null) {
+                misses++;
+                return null;
+            }
+            cache.put(key, record);
+        }
+        hits++;
+        return new Entry(record.action.transform(form.getTransform().inverse()), record.value, record.depth);
+    }
+
+    /**
+     * Stores the best first turn found by a search of the given depth.
+     * An entry searched at a greater depth is never replaced by a shallower one.
+     */
+    public synchronized void put(BoxGrid grid, char targetLetter, TurnAction best, int value, int depth) {
+        Objects.requireNonNull(best, "best action is null");
+        if (value < 0 || value > Short.MAX_VALUE) throw new IllegalArgumentException("value out of range: " + value);
+        if (depth <= 0 || depth > Byte.MAX_VALUE) throw new IllegalArgumentException("depth out of range: " + depth);
+
+        GridCanonicalizer.CanonicalForm form = GridCanonicalizer.canonicalize(grid);
+        Key key = new Key(form.hash64(), targetLetter);
+
+        Record existing = pending.get(key);
+        if (existing == null) existing = readIndex(key);
+        if (existing != null && existing.depth > depth) {
+            return;
+        }
+
+        Record record = new Record(best.transform(form.getTransform()), (short) value, (byte) depth);
+        pending.put(key, record);
+        cache.put(key, record);
+    }
+
+    public synchronized int size() {
+        int n = indexed;
+        for (Key key : pending.keySet()) {
+            if (readIndex(key) == null) n++;
+        }
+        return n;
+    }
+
+    public synchronized long getHits() { return hits; }
+    public synchronized long getMisses() { return misses; }
+
+    /**
+     * Drops the in-memory LRU cache (the next lookups read the file again).
+     */
+    public synchronized void clearCache() {
+        cache.clear();
+    }
+
+    /**
+     * Merges the new entries into the file (written to a temporary file, then moved over the old one).
+     */
+    public synchronized void flush() throws IOException {
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        List<Key> keys = new ArrayList<>(indexed + pending.size());
+        Map<Key, Record> merged = new HashMap<>();
+        for (int i = 0; i < indexed; i++) {
+            int p = HEADER_SIZE + i * ENTRY_SIZE;
+            Key key = new Key(index.getLong(p), (char) index.get(p + 8));
+            keys.add(key);
+            merged.put(key, decode(index, p));
+        }
+        for (Map.Entry<Key, Record> e : pending.entrySet()) {
+            if (merged.put(e.getKey(), e.getValue()) == null) keys.add(e.getKey());
+        }
+        keys.sort(OpeningBook::compare);
+
+        ByteBuffer out = ByteBuffer.allocate(HEADER_SIZE + keys.size() * ENTRY_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        out.putInt(MAGIC).putInt(FORMAT_VERSION).putInt(keys.size()).putInt(ENTRY_SIZE);
+        for (Key key : keys) {
+            encode(out, key, merged.get(key));
+        }
+        out.flip();
+
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel ch = FileChannel.open(tmp,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (out.hasRemaining()) ch.write(out);
+            ch.force(true);
+        }
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+        pending.clear();
+        mapIndex();
+    }
+
+    @Override
+    public void close() throws IOException {
+        flush();
+    }
+
+    // -------------------------
+    // Result type
+    // -------------------------
+
+    /**
+     * A stored first turn: the action, the value the search gave it and the search depth.
+     */
+    public static final class Entry {
+
+        private final TurnAction action;
+        private final int value;
+        private final int depth;
+
+        private Entry(TurnAction action, int value, int depth) {
+            this.action = action;
+            this.value = value;
+            this.depth = depth;
+        }
+
+        public TurnAction getAction() { return action; }
+        public int getValue() { return value; }
+        public int getDepth() { return depth; }
+
+        @Override
+        public String toString() {
+            return "value=" + value + ", depth=" + depth + ", best=" + action;
+        }
+    }
+
+    // -------------------------
+    // Internal utilities
+    // -------------------------
+
+    private void mapIndex() throws IOException {
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer buf = ch.map(FileChannel.MapMode.READ_ONLY, 0, ch.size()).order(ByteOrder.LITTLE_ENDIAN);
+            if (buf.capacity() < HEADER_SIZE || buf.getInt(0) != MAGIC
+                    || buf.getInt(4) != FORMAT_VERSION || buf.getInt(12) != ENTRY_SIZE) {
+                throw new IllegalArgumentException("Not an opening book of format version " + FORMAT_VERSION + ": " + file);
+            }
+            int count = buf.getInt(8);
+            if (count < 0 || HEADER_SIZE + (long) count * ENTRY_SIZE > buf.capacity()) {
+                throw new IllegalArgumentException("Truncated opening book: " + file);
+            }
+            this.index = buf;
+            this.indexed = count;
+        }
+    }
+
+    /**
+     * Binary search of the mapped file; only the probed entries are paged in.
+     */
+    private Record readIndex(Key key) {
+        int lo = 0;
+        int hi = indexed - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            int p = HEADER_SIZE + mid * ENTRY_SIZE;
+            int cmp = compare(new Key(index.getLong(p), (char) index.get(p + 8)), key);
+            if (cmp < 0) lo = mid + 1;
+            else if (cmp > 0) hi = mid - 1;
+            else return decode(index, p);
+        }
+        return null;
+    }
+
+    private static int compare(Key a, Key b) {
+        int c = Long.compare(a.hash, b.hash);
+        return c != 0 ? c : Character.compare(a.target, b.target);
+    }
+
+    private static Record decode(ByteBuffer buf, int p) {
+        int toolTarget = buf.get(p + 12);
+        TurnAction action = new TurnAction(
+                position(buf.get(p + 9)),
+                DIRECTIONS[buf.get(p + 10)],
+                position(buf.get(p + 11)),
+                toolTarget < 0 ? null : position(toolTarget));
+        return new Record(action, buf.getShort(p + 14), buf.get(p + 13));
+    }
+
+    private static void encode(ByteBuffer out, Key key, Record r) {
+        TurnAction a = r.action;
+        out.putLong(key.hash);
+        out.put((byte) key.target);
+        out.put((byte) cellIndex(a.getEdge()));
+        out.put((byte) a.getDirection().ordinal());
+        out.put((byte) cellIndex(a.getOpen()));
+        out.put((byte) (a.getToolTarget() == null ? -1 : cellIndex(a.getToolTarget())));
+        out.put(r.depth);
+        out.putShort(r.value);
+    }
+
+    private static int cellIndex(Position p) {
+        return (p.getRow() - 1) * N + (p.getCol() - 1);
+    }
+
+    private static Position position(int cellIndex) {
+        return new Position(cellIndex / N + 1, cellIndex % N + 1);
+    }
+
+    private static final class Key {
+        final long hash;
+        final char target;
+
+        Key(long hash, char target) {
+            this.hash = hash;
+            this.target = target;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Key k && k.hash == hash && k.target == target;
+        }
+
+        @Override
+        public int hashCode() {
+            return Long.hashCode(hash) * 31 + target;
+        }
+    }
+
+    /** An action on the canonical board. */
+    private static final class Record {
+        final TurnAction action;
+        final short value;
+        final byte depth;
+
+        Record(TurnAction action, short value, byte depth) {
+            this.action = action;
+            this.value = value;
+            this.depth = depth;
+        }
+    }
+}
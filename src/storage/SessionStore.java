@@ -0,0 +1,225 @@
+package storage;
+
+import exceptions.CorruptSnapshotException;
+import grid.BoxGrid;
+import grid.CellCodec;
+import puzzle.HeadlessGame;
+import tools.ToolKind;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+import java.util.function.ObjIntConsumer;
+import java.util.zip.CRC32;
+
+/**
+ * Memory-mapped file with one fixed-size slot per game session, so in-flight headless games
+ * survive a restart. Saving writes one slot in place; restoring reads straight from the mapping.
+ *
+ * File layout (little-endian):
+ *   header (16 bytes): magic "BPSS", format version, slot count, slot size
+ *   slot i at HEADER_SIZE + i * SLOT_SIZE:
+ *     int   state     0 = empty, otherwise the format version that wrote it
+ *     int   checksum  CRC32 of the payload
+ *     --- payload ---
+ *     byte  turn, byte target letter, byte failed, byte reserved
+ *     int[64] cells  (CellCodec layout, including the moved-this-turn bit)
+ *
+ * A slot is marked empty before it is rewritten, so a crash in the middle of a save leaves
+ * an empty or checksum-failing slot, never a silently wrong game.
+ * Different slots may be saved and restored from different threads at the same time.
+ */
+public final class SessionStore implements AutoCloseable {
+
+    public static final int FORMAT_VERSION = 1;
+
+    private static final int MAGIC = 0x53535042; // "BPSS" in little-endian
+    private static final int HEADER_SIZE = 16;
+    private static final int CELLS = BoxGrid.SIZE * BoxGrid.SIZE;
+    private static final int PAYLOAD_SIZE = 4 + CELLS * 4;
+    private static final int SLOT_SIZE = 8 + PAYLOAD_SIZE;
+
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final int slots;
+
+    private SessionStore(FileChannel channel, MappedByteBuffer buffer, int slots) {
+        this.channel = channel;
+        this.buffer = buffer;
+        this.slots = slots;
+    }
+
+    /**
+     * Opens the store, creating (or growing) the file for the given number of slots.
+     * An existing file must carry the same magic, version and slot size.
+     */
+    public static SessionStore open(Path file, int slots) throws IOException, CorruptSnapshotException {
+        Objects.requireNonNull(file, "file is null");
+        if (slots <= 0) throw new IllegalArgumentException("slots must be positive");
+
+        FileChannel channel = FileChannel.open(file,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            boolean fresh = channel.size() == 0;
+            long size = HEADER_SIZE + (long) slots * SLOT_SIZE;
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, Math.max(size, channel.size()));
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+
+            if (fresh) {
+                buffer.putInt(0, MAGIC);
+                buffer.putInt(4, FORMAT_VERSION);
+                buffer.putInt(8, slots);
+                buffer.putInt(12, SLOT_SIZE);
+            } else {
+                if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != FORMAT_VERSION || buffer.getInt(12) != SLOT_SIZE) {
+                    throw new CorruptSnapshotException("Not a session store of format version " + FORMAT_VERSION + ": " + file);
+                }
+                buffer.putInt(8, Math.max(slots, buffer.getInt(8)));
+            }
+            return new SessionStore(channel, buffer, buffer.getInt(8));
+        } catch (IOException | CorruptSnapshotException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    public int getSlotCount() {
+        return slots;
+    }
+
+    // -------------------------
+    // Save / restore
+    // -------------------------
+
+    public void save(int slot, HeadlessGame game) {
+        Objects.requireNonNull(game, "game is null");
+        int base = slotOffset(slot);
+
+        buffer.putInt(base, 0); // invalidate while writing
+
+        int p = base + 8;
+        buffer.put(p, (byte) game.getTurn());
+        buffer.put(p + 1, (byte) game.getTargetLetter());
+        buffer.put(p + 2, (byte) (game.isFailed() ? 1 : 0));
+        buffer.put(p + 3, (byte) 0);
+
+        int[] cells = CellCodec.encode(game.getGrid());
+        for (int i = 0; i < CELLS; i++) {
+            buffer.putInt(p + 4 + i * 4, cells[i]);
+        }
+
+        buffer.putInt(base + 4, checksum(base));
+        buffer.putInt(base, FORMAT_VERSION);
+    }
+
+    /**
+     * Returns the saved game, or null if the slot is empty.
+     */
+    public HeadlessGame restore(int slot) throws CorruptSnapshotException {
+        int base = slotOffset(slot);
+        int state = buffer.getInt(base);
+        if (state == 0) {
+            return null;
+        }
+        if (state != FORMAT_VERSION) {
+            throw new CorruptSnapshotException("Slot " + slot + " has unknown format version " + state);
+        }
+        if (buffer.getInt(base + 4) != checksum(base)) {
+            throw new CorruptSnapshotException("Slot " + slot + " failed its checksum");
+        }
+
+        int p = base + 8;
+        int turn = buffer.get(p);
+        char target = (char) buffer.get(p + 1);
+        boolean failed = buffer.get(p + 2) != 0;
+
+        if (target < 'A' || target > 'H') {
+            throw new CorruptSnapshotException("Slot " + slot + " has an invalid target letter " + (int) target);
+        }
+
+        int[] cells = new int[CELLS];
+        for (int i = 0; i < CELLS; i++) {
+            cells[i] = buffer.getInt(p + 4 + i * 4);
+            if (!isValidCell(cells[i])) {
+                throw new CorruptSnapshotException("Slot " + slot + " has an invalid cell "
+                        + Integer.toHexString(cells[i]) + " at index " + i);
+            }
+        }
+
+        try {
+            return HeadlessGame.restore(CellCodec.decode(cells), target, turn, failed);
+        } catch (IllegalArgumentException e) {
+            // Checksum matched but the content is impossible (e.g. written by a buggy version)
+            throw new CorruptSnapshotException("Slot " + slot + " holds an invalid game: " + e.getMessage());
+        }
+    }
+
+    public void clear(int slot) {
+        buffer.putInt(slotOffset(slot), 0);
+    }
+
+    /**
+     * Restores every non-empty slot. Corrupt slots are reported to onCorrupt (may be null) and skipped.
+     * Returns the number of restored games.
+     */
+    public int restoreAll(ObjIntConsumer<HeadlessGame> onRestored, ObjIntConsumer<CorruptSnapshotException> onCorrupt) {
+        Objects.requireNonNull(onRestored, "onRestored is null");
+        int restored = 0;
+        for (int slot = 0; slot < slots; slot++) {
+            try {
+                HeadlessGame game = restore(slot);
+                if (game != null) {
+                    onRestored.accept(game, slot);
+                    restored++;
+                }
+            } catch (CorruptSnapshotException e) {
+                if (onCorrupt != null) onCorrupt.accept(e, slot);
+            }
+        }
+        return restored;
+    }
+
+    /**
+     * Forces saved slots to disk.
+     */
+    public void flush() {
+        buffer.force();
+    }
+
+    @Override
+    public void close() throws IOException {
+        flush();
+        channel.close();
+    }
+
+    // -------------------------
+    // Internal utilities
+    // -------------------------
+
+    /**
+     * Rejects codes CellCodec cannot decode: unused high bits, type 3, tool codes past the last ToolKind.
+     */
+    private static boolean isValidCell(int cell) {
+        if ((cell & ~(CellCodec.MOVED_BIT | (CellCodec.MOVED_BIT - 1))) != 0) return false;
+        if (CellCodec.type(cell) > CellCodec.TYPE_FIXED) return false;
+        int tool = (cell & CellCodec.TOOL_MASK) >>> CellCodec.TOOL_SHIFT;
+        return tool <= ToolKind.values().length;
+    }
+
+    private int slotOffset(int slot) {
+        if (slot < 0 || slot >= slots) {
+            throw new IllegalArgumentException("Slot out of range: " + slot);
+        }
+        return HEADER_SIZE + slot * SLOT_SIZE;
+    }
+
+    private int checksum(int base) {
+        CRC32 crc = new CRC32();
+        crc.update(buffer.slice(base + 8, PAYLOAD_SIZE));
+        return (int) crc.getValue();
+    }
+}
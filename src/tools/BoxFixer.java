@@ -5,6 +5,7 @@ import boxes.FixedBox;
 import exceptions.BoxAlreadyFixedException;
 import grid.BoxGrid;
 import grid.Position;
+import puzzle.TurnOutcome;
 
 public class BoxFixer extends SpecialTool {
 
@@ -14,17 +15,35 @@ public class BoxFixer extends SpecialTool {
 
     @Override
     public void use(BoxGrid grid, Position pos, char targetLetter) throws BoxAlreadyFixedException {
+        if (grid.getBox(pos) == null) {
+            System.out.println("No box exists at " + pos + ". Nothing to fix.");
+            return;
+        }
+
+        apply(grid, pos, targetLetter);
+
+        System.out.println("Box at " + pos + " has been transformed into a FixedBox.");
+    }
+
+    @Override
+    public void apply(BoxGrid grid, Position pos, char targetLetter) throws BoxAlreadyFixedException {
+        if (tryApply(grid, pos, targetLetter) == TurnOutcome.BOX_ALREADY_FIXED) {
+            throw new BoxAlreadyFixedException("The box at " + pos + " is already fixed!");
+        }
+    }
+
+    @Override
+    public TurnOutcome tryApply(BoxGrid grid, Position pos, char targetLetter) {
         // targetLetter is intentionally ignored for BoxFixer (non-stamping tool).
 
         Box currentBox = grid.getBox(pos);
         if (currentBox == null) {
-            System.out.println("No box exists at " + pos + ". Nothing to fix.");
-            return;
+            return TurnOutcome.OK;
         }
 
         // If it is already a FixedBox, we cannot fix it again.
         if (currentBox instanceof FixedBox) {
-            throw new BoxAlreadyFixedException("The box at " + pos + " is already fixed!");
+            return TurnOutcome.BOX_ALREADY_FIXED;
         }
 
         // Create a new FixedBox using the surfaces of the current box (defensive copy).
@@ -32,7 +51,6 @@ public class BoxFixer extends SpecialTool {
 
         // Replace the box in the grid
         grid.setBox(pos, newFixedBox);
-
-        System.out.println("Box at " + pos + " has been transformed into a FixedBox.");
+        return TurnOutcome.OK;
     }
 }
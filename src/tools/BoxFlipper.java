@@ -5,6 +5,7 @@ import boxes.FixedBox;
 import exceptions.UnmovableFixedBoxException;
 import grid.BoxGrid;
 import grid.Position;
+import puzzle.TurnOutcome;
 
 public class BoxFlipper extends SpecialTool {
 
@@ -14,20 +15,37 @@ public class BoxFlipper extends SpecialTool {
 
     @Override
     public void use(BoxGrid grid, Position pos, char targetLetter) throws UnmovableFixedBoxException {
+        if (grid.getBox(pos) == null) {
+            System.out.println("No box exists at " + pos + ". Nothing to flip.");
+            return;
+        }
+
+        apply(grid, pos, targetLetter);
+        System.out.println("Box at " + pos + " has been flipped upside down.");
+    }
+
+    @Override
+    public void apply(BoxGrid grid, Position pos, char targetLetter) throws UnmovableFixedBoxException {
+        if (tryApply(grid, pos, targetLetter) == TurnOutcome.UNMOVABLE_FIXED_BOX) {
+            throw new UnmovableFixedBoxException("Cannot flip a FixedBox at " + pos);
+        }
+    }
+
+    @Override
+    public TurnOutcome tryApply(BoxGrid grid, Position pos, char targetLetter) {
         // targetLetter is intentionally ignored for BoxFlipper (non-stamping tool).
 
         Box target = grid.getBox(pos);
         if (target == null) {
-            System.out.println("No box exists at " + pos + ". Nothing to flip.");
-            return;
+            return TurnOutcome.OK;
         }
 
         // Cannot flip a FixedBox.
         if (target instanceof FixedBox) {
-            throw new UnmovableFixedBoxException("Cannot flip a FixedBox at " + pos);
+            return TurnOutcome.UNMOVABLE_FIXED_BOX;
         }
 
-        target.flipUpsideDown();
-        System.out.println("Box at " + pos + " has been flipped upside down.");
+        grid.flipUpsideDown(pos);
+        return TurnOutcome.OK;
     }
 }
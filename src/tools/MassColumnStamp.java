@@ -1,8 +1,8 @@
 package tools;
 
-import boxes.Box;
 import grid.BoxGrid;
 import grid.Position;
+import puzzle.TurnOutcome;
 
 public class MassColumnStamp extends SpecialTool {
 
@@ -12,19 +12,25 @@ public class MassColumnStamp extends SpecialTool {
 
     @Override
     public void use(BoxGrid grid, Position pos, char targetLetter) {
+        apply(grid, pos, targetLetter);
+
+        System.out.println("Mass Column Stamp applied to Column " + pos.getCol() + " with '" + targetLetter + "'");
+    }
+
+    @Override
+    public void apply(BoxGrid grid, Position pos, char targetLetter) {
         int col = pos.getCol();
 
         // Iterate through all rows in this column
         for (int r = 1; r <= BoxGrid.SIZE; r++) {
-            Position targetPos = new Position(r, col);
-            Box target = grid.getBox(targetPos);
-
-            if (target != null) {
-                // Stamp with the target letter
-                target.stampTop(targetLetter);
-            }
+            // Stamp with the target letter
+            grid.stampTop(new Position(r, col), targetLetter);
         }
+    }
 
-        System.out.println("Mass Column Stamp applied to Column " + col + " with '" + targetLetter + "'");
+    @Override
+    public TurnOutcome tryApply(BoxGrid grid, Position pos, char targetLetter) {
+        apply(grid, pos, targetLetter); // stamping cannot fail
+        return TurnOutcome.OK;
     }
 }
@@ -1,8 +1,8 @@
 package tools;
 
-import boxes.Box;
 import grid.BoxGrid;
 import grid.Position;
+import puzzle.TurnOutcome;
 
 public class MassRowStamp extends SpecialTool {
 
@@ -12,19 +12,25 @@ public class MassRowStamp extends SpecialTool {
 
     @Override
     public void use(BoxGrid grid, Position pos, char targetLetter) {
+        apply(grid, pos, targetLetter);
+        
+        System.out.println("Mass Row Stamp applied to Row " + pos.getRow() + " with '" + targetLetter + "'");
+    }
+
+    @Override
+    public void apply(BoxGrid grid, Position pos, char targetLetter) {
         int row = pos.getRow();
 
         // Iterate through all columns in this row
         for (int c = 1; c <= BoxGrid.SIZE; c++) {
-            Position targetPos = new Position(row, c);
-            Box target = grid.getBox(targetPos);
-            
-            if (target != null) {
-                // Stamp with the target letter
-                target.stampTop(targetLetter);
-            }
+            // Stamp with the target letter
+            grid.stampTop(new Position(row, c), targetLetter);
         }
-        
-        System.out.println("Mass Row Stamp applied to Row " + row + " with '" + targetLetter + "'");
+    }
+
+    @Override
+    public TurnOutcome tryApply(BoxGrid grid, Position pos, char targetLetter) {
+        apply(grid, pos, targetLetter); // stamping cannot fail
+        return TurnOutcome.OK;
     }
 }
@@ -1,9 +1,9 @@
 package tools;
 
-import boxes.Box;
 import grid.BoxGrid;
 import grid.Direction;
 import grid.Position;
+import puzzle.TurnOutcome;
 
 public class PlusShapeStamp extends SpecialTool {
 
@@ -13,14 +13,18 @@ public class PlusShapeStamp extends SpecialTool {
 
     @Override
     public void use(BoxGrid grid, Position pos, char targetLetter) {
+        apply(grid, pos, targetLetter);
+
+        System.out.println("Used PlusShapeStamp at " + pos + " with letter '" + targetLetter + "'");
+    }
+
+    @Override
+    public void apply(BoxGrid grid, Position pos, char targetLetter) {
         // PlusShapeStamp re-stamps 5 boxes:
         // center (pos) + its 4 orthogonal neighbors (up/down/left/right).
 
         // 1) Stamp center box
-        Box center = grid.getBox(pos);
-        if (center != null) {
-            center.stampTop(targetLetter);
-        }
+        grid.stampTop(pos, targetLetter);
 
         // 2) Stamp 4 neighbors
         Direction[] dirs = {Direction.UP, Direction.DOWN, Direction.LEFT, Direction.RIGHT};
@@ -28,15 +32,16 @@ public class PlusShapeStamp extends SpecialTool {
         for (Direction d : dirs) {
             try {
                 Position neighborPos = pos.move(d); // throws if out of bounds
-                Box neighbor = grid.getBox(neighborPos);
-                if (neighbor != null) {
-                    neighbor.stampTop(targetLetter);
-                }
+                grid.stampTop(neighborPos, targetLetter);
             } catch (IllegalArgumentException e) {
                 // Out of bounds => ignore this direction
             }
         }
+    }
 
-        System.out.println("Used PlusShapeStamp at " + pos + " with letter '" + targetLetter + "'");
+    @Override
+    public TurnOutcome tryApply(BoxGrid grid, Position pos, char targetLetter) {
+        apply(grid, pos, targetLetter); // stamping cannot fail
+        return TurnOutcome.OK;
     }
 }
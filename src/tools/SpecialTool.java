@@ -2,6 +2,7 @@ package tools;
 
 import grid.BoxGrid;
 import grid.Position;
+import puzzle.TurnOutcome;
 
 /**
  * Abstract base class for special tools found inside boxes.
@@ -28,4 +29,15 @@ public abstract class SpecialTool implements ITool {
     
     @Override
     public abstract void use(BoxGrid grid, Position pos, char targetLetter) throws Exception;
+
+    /**
+     * Same effect (and same exceptions) as use(), but without any console output.
+     * Used by headless play (bots, search, simulations).
+     */
+    public abstract void apply(BoxGrid grid, Position pos, char targetLetter) throws Exception;
+
+    /**
+     * Same effect as apply(), reporting a failure as an outcome instead of throwing.
+     */
+    public abstract TurnOutcome tryApply(BoxGrid grid, Position pos, char targetLetter);
 }
@@ -0,0 +1,222 @@
+package tools;
+
+import boxes.Box;
+import boxes.Face;
+import boxes.FixedBox;
+import boxes.UnchangingBox;
+import grid.BoxGrid;
+import grid.CellCodec;
+import grid.Position;
+
+import java.util.Objects;
+
+/**
+ * Score change (target-letter count on top faces) of using one tool kind at every possible target,
+ * computed from a single pass over the board, without copying the grid or calling use().
+ *
+ * Targets, in index order:
+ * - MassRowStamp: the 8 rows, as positions (row, 1)
+ * - MassColumnStamp: the 8 columns, as positions (1, column)
+ * - PlusShapeStamp, BoxFlipper, BoxFixer: the 64 cells, row-major
+ *
+ * The pass builds two bitmasks: cells a stamp would turn into the target letter (not an UnchangingBox
+ * and not already showing it) and FixedBoxes. Row and column deltas are then bit counts of one line;
+ * a plus is at most five bit tests. Flipping or fixing a FixedBox fails the turn; such targets are INVALID.
+ */
+public final class ToolImpactMap {
+
+    /** Delta of a target that would fail the turn. */
+    public static final int INVALID = Integer.MIN_VALUE;
+
+    private static final int N = BoxGrid.SIZE;
+    private static final int CELLS = N * N;
+    private static final long FIRST_COLUMN = 0x0101010101010101L;
+
+    private final ToolKind kind;
+    private final int[] deltas;
+
+    private ToolImpactMap(ToolKind kind, int[] deltas) {
+        this.kind = kind;
+        this.deltas = deltas;
+    }
+
+    /**
+     * Impact of every target of the given tool kind on the grid.
+     */
+    public static ToolImpactMap compute(BoxGrid grid, ToolKind kind, char targetLetter) {
+        Objects.requireNonNull(grid, "grid is null");
+        Objects.requireNonNull(kind, "kind is null");
+
+        long stampable = 0L;
+        long fixed = 0L;
+        long flipGain = 0L;   // bottom shows the target, top does not
+        long flipLoss = 0L;   // top shows the target, bottom does not
+        for (int r = 0; r < N; r++) {
+            for (int c = 0; c < N; c++) {
+                Box b = grid.getBox(new Position(r + 1, c + 1));
+                long bit = 1L << (r * N + c);
+                boolean top = b.getTopLetter() == targetLetter;
+                if (b instanceof FixedBox) fixed |= bit;
+                if (!top && !(b instanceof UnchangingBox)) stampable |= bit;
+                if (kind == ToolKind.BOX_FLIPPER) {
+                    boolean bottom = b.getLetter(Face.BOTTOM) == targetLetter;
+                    if (bottom && !top) flipGain |= bit;
+                    if (top && !bottom) flipLoss |= bit;
+                }
+            }
+        }
+        return new ToolImpactMap(kind, deltas(kind, stampable, fixed, flipGain, flipLoss));
+    }
+
+    /**
+     * Same as compute(BoxGrid, ...) for a packed board (CellCodec, row-major int[64]).
+     */
+    public static ToolImpactMap compute(int[] cells, ToolKind kind, char targetLetter) {
+        Objects.requireNonNull(cells, "cells is null");
+        Objects.requireNonNull(kind, "kind is null");
+        if (cells.length != CELLS) throw new IllegalArgumentException("cells must be an int[" + CELLS + "]");
+
+        long stampable = 0L;
+        long fixed = 0L;
+        long flipGain = 0L;
+        long flipLoss = 0L;
+        for (int i = 0; i < CELLS; i++) {
+            int cell = cells[i];
+            long bit = 1L << i;
+            int type = CellCodec.type(cell);
+            boolean top = CellCodec.topLetter(cell) == targetLetter;
+            if (type == CellCodec.TYPE_FIXED) fixed |= bit;
+            if (!top && type != CellCodec.TYPE_UNCHANGING) stampable |= bit;
+            if (kind == ToolKind.BOX_FLIPPER) {
+                boolean bottom = CellCodec.letter(cell, Face.BOTTOM) == targetLetter;
+                if (bottom && !top) flipGain |= bit;
+                if (top && !bottom) flipLoss |= bit;
+            }
+        }
+        return new ToolImpactMap(kind, deltas(kind, stampable, fixed, flipGain, flipLoss));
+    }
+
+    // -------------------------
+    // Queries
+    // -------------------------
+
+    public ToolKind getKind() {
+        return kind;
+    }
+
+    /**
+     * 8 for row and column stamps, 64 otherwise.
+     */
+    public int size() {
+        return deltas.length;
+    }
+
+    /**
+     * Score delta of target i, or INVALID.
+     */
+    public int delta(int i) {
+        return deltas[i];
+    }
+
+    public boolean isValid(int i) {
+        return deltas[i] != INVALID;
+    }
+
+    /**
+     * The position to pass to the tool for target i.
+     */
+    public Position target(int i) {
+        Objects.checkIndex(i, deltas.length);
+        return switch (kind) {
+            case MASS_ROW_STAMP -> new Position(i + 1, 1);
+            case MASS_COLUMN_STAMP -> new Position(1, i + 1);
+            default -> new Position(i / N + 1, i % N + 1);
+        };
+    }
+
+    /**
+     * Score delta of using the tool at the given position (any cell of a row or column selects it).
+     */
+    public int delta(Position p) {
+        Objects.requireNonNull(p, "position is null");
+        return deltas[indexOf(p)];
+    }
+
+    /**
+     * Index of the first target with the highest delta, or -1 if every target is INVALID.
+     */
+    public int bestIndex() {
+        int best = -1;
+        for (int i = 0; i < deltas.length; i++) {
+            if (deltas[i] != INVALID && (best < 0 || deltas[i] > deltas[best])) best = i;
+        }
+        return best;
+    }
+
+    /**
+     * Highest delta among the valid targets, or INVALID if there is none.
+     */
+    public int bestDelta() {
+        int best = bestIndex();
+        return best < 0 ? INVALID : deltas[best];
+    }
+
+    // -------------------------
+    // Internal utilities
+    // -------------------------
+
+    private int indexOf(Position p) {
+        return switch (kind) {
+            case MASS_ROW_STAMP -> p.getRow() - 1;
+            case MASS_COLUMN_STAMP -> p.getCol() - 1;
+            default -> (p.getRow() - 1) * N + (p.getCol() - 1);
+        };
+    }
+
+    private static int[] deltas(ToolKind kind, long stampable, long fixed, long flipGain, long flipLoss) {
+        switch (kind) {
+            case MASS_ROW_STAMP -> {
+                int[] d = new int[N];
+                for (int r = 0; r < N; r++) d[r] = Long.bitCount(stampable & (0xFFL << (r * N)));
+                return d;
+            }
+            case MASS_COLUMN_STAMP -> {
+                int[] d = new int[N];
+                for (int c = 0; c < N; c++) d[c] = Long.bitCount(stampable & (FIRST_COLUMN << c));
+                return d;
+            }
+            case PLUS_SHAPE_STAMP -> {
+                int[] d = new int[CELLS];
+                for (int i = 0; i < CELLS; i++) {
+                    int r = i / N;
+                    int c = i % N;
+                    d[i] = bit(stampable, i)
+                            + (r > 0 ? bit(stampable, i - N) : 0)
+                            + (r < N - 1 ? bit(stampable, i + N) : 0)
+                            + (c > 0 ? bit(stampable, i - 1) : 0)
+                            + (c < N - 1 ? bit(stampable, i + 1) : 0);
+                }
+                return d;
+            }
+            case BOX_FLIPPER -> {
+                int[] d = new int[CELLS];
+                for (int i = 0; i < CELLS; i++) {
+                    d[i] = bit(fixed, i) != 0 ? INVALID : bit(flipGain, i) - bit(flipLoss, i);
+                }
+                return d;
+            }
+            case BOX_FIXER -> {
+                int[] d = new int[CELLS];
+                for (int i = 0; i < CELLS; i++) {
+                    d[i] = bit(fixed, i) != 0 ? INVALID : 0;
+                }
+                return d;
+            }
+            default -> throw new IllegalStateException("Unknown tool kind: " + kind);
+        }
+    }
+
+    private static int bit(long mask, int i) {
+        return (int) (mask >>> i) & 1;
+    }
+}
@@ -0,0 +1,52 @@
+package tools;
+
+import java.util.Objects;
+
+/**
+ * The five kinds of SpecialTool.
+ * Used where a tool has to be described without holding a tool object
+ * (move generation, bounds, packed board encodings).
+ */
+public enum ToolKind {
+    PLUS_SHAPE_STAMP,
+    MASS_ROW_STAMP,
+    MASS_COLUMN_STAMP,
+    BOX_FLIPPER,
+    BOX_FIXER;
+
+    /**
+     * Returns the kind of the given tool.
+     */
+    public static ToolKind of(SpecialTool tool) {
+        Objects.requireNonNull(tool, "tool is null");
+
+        if (tool instanceof PlusShapeStamp) return PLUS_SHAPE_STAMP;
+        if (tool instanceof MassRowStamp) return MASS_ROW_STAMP;
+        if (tool instanceof MassColumnStamp) return MASS_COLUMN_STAMP;
+        if (tool instanceof BoxFlipper) return BOX_FLIPPER;
+        if (tool instanceof BoxFixer) return BOX_FIXER;
+
+        // If a new tool is added in the future, fail loudly
+        throw new IllegalStateException("Unknown tool type: " + tool.getClass().getName());
+    }
+
+    /**
+     * Creates a new tool of this kind.
+     */
+    public SpecialTool create() {
+        return switch (this) {
+            case PLUS_SHAPE_STAMP -> new PlusShapeStamp();
+            case MASS_ROW_STAMP -> new MassRowStamp();
+            case MASS_COLUMN_STAMP -> new MassColumnStamp();
+            case BOX_FLIPPER -> new BoxFlipper();
+            case BOX_FIXER -> new BoxFixer();
+        };
+    }
+
+    /**
+     * True for the tools that stamp the target letter.
+     */
+    public boolean isStamp() {
+        return this == PLUS_SHAPE_STAMP || this == MASS_ROW_STAMP || this == MASS_COLUMN_STAMP;
+    }
+}
@@ -0,0 +1,31 @@
+package util;
+
+import java.util.Random;
+
+/**
+ * java.util.Random with the exact same sequence for the same seed, but without the atomic
+ * update of the seed. Only for objects confined to one thread (e.g. one per generated board).
+ */
+public final class UnsharedRandom extends Random {
+
+    private static final long MULTIPLIER = 0x5DEECE66DL;
+    private static final long ADDEND = 0xBL;
+    private static final long MASK = (1L << 48) - 1;
+
+    private long state; // set by setSeed(), which Random's constructor calls
+
+    public UnsharedRandom(long seed) {
+        super(seed);
+    }
+
+    @Override
+    public void setSeed(long seed) {
+        state = (seed ^ MULTIPLIER) & MASK;
+    }
+
+    @Override
+    protected int next(int bits) {
+        state = (state * MULTIPLIER + ADDEND) & MASK;
+        return (int) (state >>> (48 - bits));
+    }
+}